@@ -0,0 +1,229 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.benchmarks;
+
+import static io.functionmesh.compute.models.SecretRef.KEY_KEY;
+import static io.functionmesh.compute.models.SecretRef.PATH_KEY;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import com.google.gson.Gson;
+import io.functionmesh.compute.MeshWorkerService;
+import io.functionmesh.compute.models.CustomRuntimeOptions;
+import io.functionmesh.compute.models.MeshWorkerServiceCustomConfig;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.pulsar.client.admin.Packages;
+import org.apache.pulsar.client.admin.PulsarAdmin;
+import org.apache.pulsar.client.api.SubscriptionInitialPosition;
+import org.apache.pulsar.common.functions.FunctionConfig;
+import org.apache.pulsar.common.functions.Resources;
+import org.apache.pulsar.common.io.SinkConfig;
+import org.apache.pulsar.common.io.SourceConfig;
+import org.apache.pulsar.functions.proto.InstanceCommunication;
+import org.apache.pulsar.functions.runtime.kubernetes.KubernetesRuntimeFactoryConfig;
+import org.apache.pulsar.functions.worker.WorkerConfig;
+
+/**
+ * Shared inputs for the conversion benchmarks, modelled on the configs used by the unit tests.
+ */
+public final class BenchmarkFixtures {
+    public static final String CLUSTER_NAME = "test-pulsar";
+    public static final String TENANT = "public";
+    public static final String NAMESPACE = "default";
+    public static final String GROUP = "compute.functionmesh.io";
+    public static final String VERSION = "v1alpha1";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * A worker whose configuration is held in memory, so the conversions never touch the
+     * kubernetes or pulsar clients. Package downloads resolve to a no-op admin.
+     */
+    public static MeshWorkerService createWorkerService() {
+        WorkerConfig workerConfig = new WorkerConfig();
+        workerConfig.setPulsarFunctionsCluster(CLUSTER_NAME);
+        // package downloads are stubbed out, but the download directory is still created
+        workerConfig.setDownloadDirectory(System.getProperty("java.io.tmpdir"));
+
+        KubernetesRuntimeFactoryConfig factoryConfig = new KubernetesRuntimeFactoryConfig();
+        factoryConfig.setJobNamespace(NAMESPACE);
+        factoryConfig.setExtraFunctionDependenciesDir("");
+
+        MeshWorkerServiceCustomConfig customConfig = new MeshWorkerServiceCustomConfig();
+        customConfig.setUploadEnabled(true);
+        customConfig.setEnv(map("unique", "unique", "shared", "shared", "shared2", "shared2"));
+        customConfig.setFunctionEnv(map("shared", "shared-function", "shared2", "shared2-function",
+                "function", "function"));
+        customConfig.setLabels(map("team", "data", "env", "production"));
+        customConfig.setFunctionLabels(map("component", "function"));
+        customConfig.setSinkLabels(map("component", "sink"));
+        customConfig.setSourceLabels(map("component", "source"));
+
+        PulsarAdmin brokerAdmin = mock(PulsarAdmin.class);
+        Packages packages = mock(Packages.class);
+        when(brokerAdmin.packages()).thenReturn(packages);
+
+        return new MeshWorkerService() {
+            @Override
+            public WorkerConfig getWorkerConfig() {
+                return workerConfig;
+            }
+
+            @Override
+            public KubernetesRuntimeFactoryConfig getFactoryConfig() {
+                return factoryConfig;
+            }
+
+            @Override
+            public MeshWorkerServiceCustomConfig getMeshWorkerServiceCustomConfig() {
+                return customConfig;
+            }
+
+            @Override
+            public PulsarAdmin getBrokerAdmin() {
+                return brokerAdmin;
+            }
+        };
+    }
+
+    public static FunctionConfig createFunctionConfig(String functionName) {
+        FunctionConfig functionConfig = new FunctionConfig();
+        functionConfig.setName(functionName);
+        functionConfig.setTenant(TENANT);
+        functionConfig.setNamespace(NAMESPACE);
+        functionConfig.setClassName("org.example.functions.WordCountFunction");
+        functionConfig.setInputs(Arrays.asList("persistent://public/default/sentences",
+                "persistent://public/default/paragraphs"));
+        functionConfig.setParallelism(3);
+        functionConfig.setCleanupSubscription(true);
+        functionConfig.setOutput("persistent://public/default/count");
+        functionConfig.setSubName("word-count-sub");
+        functionConfig.setSubscriptionPosition(SubscriptionInitialPosition.Latest);
+        functionConfig.setResources(createResources());
+        CustomRuntimeOptions customRuntimeOptions = new CustomRuntimeOptions();
+        customRuntimeOptions.setClusterName(CLUSTER_NAME);
+        customRuntimeOptions.setInputTypeClassName("java.lang.String");
+        customRuntimeOptions.setOutputTypeClassName("java.lang.String");
+        customRuntimeOptions.setEnv(map("runtime", "runtime-env", "shared2", "shared2-runtime"));
+        functionConfig.setCustomRuntimeOptions(new Gson().toJson(customRuntimeOptions, CustomRuntimeOptions.class));
+        functionConfig.setJar(String.format("function://public/default/%s@1.0", functionName));
+        functionConfig.setAutoAck(true);
+        functionConfig.setForwardSourceMessageProperty(true);
+        Map<String, Object> userConfig = new HashMap<>();
+        userConfig.put("foo", "bar");
+        userConfig.put("window", 10);
+        functionConfig.setUserConfig(userConfig);
+        functionConfig.setSecrets(createSecretsData());
+        return functionConfig;
+    }
+
+    public static SinkConfig createSinkConfig(String sinkName) {
+        SinkConfig sinkConfig = new SinkConfig();
+        sinkConfig.setName(sinkName);
+        sinkConfig.setTenant(TENANT);
+        sinkConfig.setNamespace(NAMESPACE);
+        sinkConfig.setClassName("org.apache.pulsar.io.elasticsearch.ElasticSearchSink");
+        sinkConfig.setInputs(Arrays.asList("persistent://public/default/input",
+                "persistent://public/default/input-retry"));
+        sinkConfig.setParallelism(2);
+        sinkConfig.setCleanupSubscription(true);
+        sinkConfig.setSourceSubscriptionName("es-sub");
+        sinkConfig.setSourceSubscriptionPosition(SubscriptionInitialPosition.Earliest);
+        sinkConfig.setResources(createResources());
+        CustomRuntimeOptions customRuntimeOptions = new CustomRuntimeOptions();
+        customRuntimeOptions.setClusterName(CLUSTER_NAME);
+        customRuntimeOptions.setInputTypeClassName("[B");
+        customRuntimeOptions.setEnv(map("runtime", "runtime-env", "shared2", "shared2-runtime"));
+        sinkConfig.setCustomRuntimeOptions(new Gson().toJson(customRuntimeOptions, CustomRuntimeOptions.class));
+        sinkConfig.setArchive("/pulsar/pulsar-io-elastic-search-2.7.0-rc-pm-3.nar");
+        sinkConfig.setAutoAck(true);
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("elasticSearchUrl", "https://testing-es.app");
+        configs.put("indexName", "events");
+        sinkConfig.setConfigs(configs);
+        sinkConfig.setSecrets(createSecretsData());
+        return sinkConfig;
+    }
+
+    public static SourceConfig createSourceConfig(String sourceName) {
+        SourceConfig sourceConfig = new SourceConfig();
+        sourceConfig.setName(sourceName);
+        sourceConfig.setTenant(TENANT);
+        sourceConfig.setNamespace(NAMESPACE);
+        sourceConfig.setClassName("org.apache.pulsar.io.debezium.mongodb.DebeziumMongoDbSource");
+        sourceConfig.setTopicName("persistent://public/default/destination");
+        sourceConfig.setParallelism(2);
+        sourceConfig.setResources(createResources());
+        CustomRuntimeOptions customRuntimeOptions = new CustomRuntimeOptions();
+        customRuntimeOptions.setClusterName(CLUSTER_NAME);
+        customRuntimeOptions.setOutputTypeClassName("org.apache.pulsar.common.schema.KeyValue");
+        customRuntimeOptions.setEnv(map("runtime", "runtime-env", "shared2", "shared2-runtime"));
+        sourceConfig.setCustomRuntimeOptions(new Gson().toJson(customRuntimeOptions, CustomRuntimeOptions.class));
+        sourceConfig.setArchive("/pulsar/pulsar-io-debezium-mongodb-2.7.0.nar");
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("name", "test-sourceConfig");
+        configs.put("mongodb.hosts", "rs0/mongodb:27017");
+        sourceConfig.setConfigs(configs);
+        sourceConfig.setSecrets(createSecretsData());
+        return sourceConfig;
+    }
+
+    public static InstanceCommunication.MetricsData createMetricsData() {
+        InstanceCommunication.MetricsData.Builder builder = InstanceCommunication.MetricsData.newBuilder()
+                .setReceivedTotal(120000)
+                .setProcessedSuccessfullyTotal(119500)
+                .setSystemExceptionsTotal(20)
+                .setUserExceptionsTotal(480)
+                .setAvgProcessLatency(3.2)
+                .setLastInvocation(System.currentTimeMillis())
+                .setReceivedTotal1Min(2000)
+                .setProcessedSuccessfullyTotal1Min(1990)
+                .setSystemExceptionsTotal1Min(1)
+                .setUserExceptionsTotal1Min(9)
+                .setAvgProcessLatency1Min(2.9);
+        for (int i = 0; i < 16; i++) {
+            builder.putUserMetrics("user_metric_" + i, i % 4 == 0 ? Double.NaN : i * 1.5);
+        }
+        return builder.build();
+    }
+
+    private static Resources createResources() {
+        Resources resources = new Resources();
+        resources.setCpu(1.0);
+        resources.setRam(102400L);
+        return resources;
+    }
+
+    private static Map<String, Object> createSecretsData() {
+        Map<String, Object> secrets = new HashMap<>();
+        secrets.put("secret1", map(PATH_KEY, "secretPath1", KEY_KEY, "secretKey1"));
+        secrets.put("secret2", map(PATH_KEY, "secretPath2", KEY_KEY, "secretKey2"));
+        return secrets;
+    }
+
+    private static Map<String, String> map(String... keyValues) {
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put(keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.benchmarks;
+
+import io.functionmesh.compute.MeshWorkerService;
+import io.functionmesh.compute.util.CommonUtil;
+import io.functionmesh.compute.util.ObjectNameCache;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.pulsar.common.policies.data.FunctionInstanceStatsImpl;
+import org.apache.pulsar.functions.proto.InstanceCommunication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Naming, labelling and metrics helpers that run once per component or instance on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommonUtilBenchmark {
+
+    @Param({"word-count", "Enrichment_Pipeline.Orders-To-Warehouse-With-A-Name-Longer-Than-The-Pod-Limit"})
+    public String componentName;
+
+    @Param({"Function", "Sink", "Source"})
+    public String kind;
+
+    private MeshWorkerService worker;
+    private InstanceCommunication.MetricsData metricsData;
+
+    @Setup
+    public void setup() {
+        worker = BenchmarkFixtures.createWorkerService();
+        metricsData = BenchmarkFixtures.createMetricsData();
+    }
+
+    @Benchmark
+    public Map<String, String> getCustomLabelClaims() {
+        return CommonUtil.getCustomLabelClaims(BenchmarkFixtures.CLUSTER_NAME, BenchmarkFixtures.TENANT,
+                BenchmarkFixtures.NAMESPACE, componentName, worker, kind);
+    }
+
+    @Benchmark
+    public String createObjectName() {
+        return CommonUtil.createObjectName(BenchmarkFixtures.CLUSTER_NAME, BenchmarkFixtures.TENANT,
+                BenchmarkFixtures.NAMESPACE, componentName);
+    }
+
+    /**
+     * The name computation that {@link #createObjectName()} memoizes, kept as the baseline it is compared to.
+     */
+    @Benchmark
+    public String computeObjectName() {
+        return ObjectNameCache.computeObjectName(BenchmarkFixtures.CLUSTER_NAME, BenchmarkFixtures.TENANT,
+                BenchmarkFixtures.NAMESPACE, componentName);
+    }
+
+    @Benchmark
+    public String getCustomLabelClaimsSelector() {
+        return CommonUtil.getCustomLabelClaimsSelector(BenchmarkFixtures.CLUSTER_NAME, BenchmarkFixtures.TENANT,
+                BenchmarkFixtures.NAMESPACE);
+    }
+
+    /**
+     * The names a status request derives before it reaches the kubernetes API.
+     */
+    @Benchmark
+    public void statusPathNames(Blackhole blackhole) {
+        String objectName = CommonUtil.generateObjectName(worker, BenchmarkFixtures.TENANT,
+                BenchmarkFixtures.NAMESPACE, componentName);
+        blackhole.consume(CommonUtil.makeJobName(objectName, CommonUtil.COMPONENT_SINK));
+        blackhole.consume(CommonUtil.getCustomLabelClaimsSelector(BenchmarkFixtures.CLUSTER_NAME,
+                BenchmarkFixtures.TENANT, BenchmarkFixtures.NAMESPACE));
+    }
+
+    @Benchmark
+    public FunctionInstanceStatsImpl convertFunctionMetricsToFunctionInstanceStats() {
+        FunctionInstanceStatsImpl functionInstanceStats = new FunctionInstanceStatsImpl();
+        CommonUtil.convertFunctionMetricsToFunctionInstanceStats(metricsData, functionInstanceStats);
+        return functionInstanceStats;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.benchmarks;
+
+import io.functionmesh.compute.MeshWorkerService;
+import io.functionmesh.compute.functions.models.V1alpha1Function;
+import io.functionmesh.compute.util.FunctionsUtil;
+import java.util.concurrent.TimeUnit;
+import org.apache.pulsar.common.functions.FunctionConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converts between {@link FunctionConfig} and the Function custom resource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FunctionConversionBenchmark {
+    private static final String KIND = "Function";
+    private static final String FUNCTION_NAME = "word-count";
+
+    private MeshWorkerService worker;
+    private FunctionConfig functionConfig;
+    private V1alpha1Function v1alpha1Function;
+
+    @Setup
+    public void setup() {
+        worker = BenchmarkFixtures.createWorkerService();
+        functionConfig = BenchmarkFixtures.createFunctionConfig(FUNCTION_NAME);
+        v1alpha1Function = createV1alpha1Function();
+    }
+
+    @Benchmark
+    public V1alpha1Function createV1alpha1Function() {
+        return FunctionsUtil.createV1alpha1FunctionFromFunctionConfig(KIND, BenchmarkFixtures.GROUP,
+                BenchmarkFixtures.VERSION, FUNCTION_NAME, functionConfig.getJar(), functionConfig, null, worker);
+    }
+
+    @Benchmark
+    public FunctionConfig createFunctionConfig() {
+        return FunctionsUtil.createFunctionConfigFromV1alpha1Function(BenchmarkFixtures.TENANT,
+                BenchmarkFixtures.NAMESPACE, FUNCTION_NAME, v1alpha1Function, worker);
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.benchmarks;
+
+import io.functionmesh.compute.MeshWorkerService;
+import io.functionmesh.compute.sinks.models.V1alpha1Sink;
+import io.functionmesh.compute.util.SinksUtil;
+import java.util.concurrent.TimeUnit;
+import org.apache.pulsar.common.io.SinkConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converts between {@link SinkConfig} and the Sink custom resource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SinkConversionBenchmark {
+    private static final String KIND = "Sink";
+    private static final String SINK_NAME = "es-sink";
+
+    private MeshWorkerService worker;
+    private SinkConfig sinkConfig;
+    private V1alpha1Sink v1alpha1Sink;
+
+    @Setup
+    public void setup() {
+        worker = BenchmarkFixtures.createWorkerService();
+        sinkConfig = BenchmarkFixtures.createSinkConfig(SINK_NAME);
+        v1alpha1Sink = createV1alpha1Sink();
+    }
+
+    @Benchmark
+    public V1alpha1Sink createV1alpha1Sink() {
+        return SinksUtil.createV1alpha1SkinFromSinkConfig(KIND, BenchmarkFixtures.GROUP, BenchmarkFixtures.VERSION,
+                SINK_NAME, null, null, sinkConfig, null, null, worker);
+    }
+
+    @Benchmark
+    public SinkConfig createSinkConfig() {
+        return SinksUtil.createSinkConfigFromV1alpha1Sink(BenchmarkFixtures.TENANT, BenchmarkFixtures.NAMESPACE,
+                SINK_NAME, v1alpha1Sink, worker);
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.benchmarks;
+
+import io.functionmesh.compute.MeshWorkerService;
+import io.functionmesh.compute.sources.models.V1alpha1Source;
+import io.functionmesh.compute.util.SourcesUtil;
+import java.util.concurrent.TimeUnit;
+import org.apache.pulsar.common.io.SourceConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converts between {@link SourceConfig} and the Source custom resource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SourceConversionBenchmark {
+    private static final String KIND = "Source";
+    private static final String SOURCE_NAME = "mongodb-source";
+
+    private MeshWorkerService worker;
+    private SourceConfig sourceConfig;
+    private V1alpha1Source v1alpha1Source;
+
+    @Setup
+    public void setup() {
+        worker = BenchmarkFixtures.createWorkerService();
+        sourceConfig = BenchmarkFixtures.createSourceConfig(SOURCE_NAME);
+        v1alpha1Source = createV1alpha1Source();
+    }
+
+    @Benchmark
+    public V1alpha1Source createV1alpha1Source() {
+        return SourcesUtil.createV1alpha1SourceFromSourceConfig(KIND, BenchmarkFixtures.GROUP,
+                BenchmarkFixtures.VERSION, SOURCE_NAME, null, null, sourceConfig, null, null, worker);
+    }
+
+    @Benchmark
+    public SourceConfig createSourceConfig() {
+        return SourcesUtil.createSourceConfigFromV1alpha1Source(BenchmarkFixtures.TENANT,
+                BenchmarkFixtures.NAMESPACE, SOURCE_NAME, v1alpha1Source, worker);
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.loadtest;
+
+import com.google.protobuf.Empty;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.Metadata;
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+import io.grpc.NameResolverRegistry;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pulsar.functions.proto.InstanceCommunication;
+import org.apache.pulsar.functions.proto.InstanceControlGrpc;
+
+/**
+ * Simulates the InstanceControl gRPC endpoint of every function instance with one local server.
+ *
+ * <p>The worker dials {@code <pod>.<service>.<namespace>.svc.cluster.local:9093}, so a name resolver
+ * is registered that sends those addresses to this server. The dialled authority tells the server
+ * which pod is being asked. Each call waits for the configured latency plus a random jitter and
+ * fails with UNAVAILABLE at the configured rate.
+ */
+@Slf4j
+public class FakeInstanceServer implements AutoCloseable {
+    private static final String CLUSTER_DOMAIN = ".svc.cluster.local";
+    private static final Context.Key<String> AUTHORITY = Context.key("authority");
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double failureRate;
+    private final AtomicLong callCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+    private Server server;
+    private ClusterNameResolverProvider nameResolverProvider;
+
+    public FakeInstanceServer(long latencyMs, long jitterMs, double failureRate) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.failureRate = failureRate;
+    }
+
+    public void start() throws IOException {
+        scheduler = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
+        server = ServerBuilder.forPort(0)
+                .addService(ServerInterceptors.intercept(new InstanceControl(), new AuthorityInterceptor()))
+                .build()
+                .start();
+        nameResolverProvider = new ClusterNameResolverProvider(server.getPort());
+        NameResolverRegistry.getDefaultRegistry().register(nameResolverProvider);
+        log.info("Fake instance gRPC server listening on port {}", server.getPort());
+    }
+
+    public long getCallCount() {
+        return callCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    @Override
+    public void close() {
+        if (nameResolverProvider != null) {
+            NameResolverRegistry.getDefaultRegistry().deregister(nameResolverProvider);
+        }
+        if (server != null) {
+            server.shutdownNow();
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private <T> void respond(StreamObserver<T> observer, Consumer<StreamObserver<T>> onSuccess) {
+        callCount.incrementAndGet();
+        long delayMs = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        boolean fail = failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+        scheduler.schedule(() -> {
+            if (fail) {
+                failureCount.incrementAndGet();
+                observer.onError(Status.UNAVAILABLE.withDescription("simulated instance failure").asException());
+            } else {
+                onSuccess.accept(observer);
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static String podName() {
+        String authority = AUTHORITY.get();
+        if (authority == null) {
+            return "";
+        }
+        int end = authority.indexOf('.');
+        return end < 0 ? authority : authority.substring(0, end);
+    }
+
+    private static int shardId(String podName) {
+        int index = podName.lastIndexOf('-');
+        try {
+            return index < 0 ? 0 : Integer.parseInt(podName.substring(index + 1));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private final class InstanceControl extends InstanceControlGrpc.InstanceControlImplBase {
+
+        @Override
+        public void getFunctionStatus(Empty request,
+                                      StreamObserver<InstanceCommunication.FunctionStatus> responseObserver) {
+            String podName = podName();
+            respond(responseObserver, observer -> {
+                observer.onNext(InstanceCommunication.FunctionStatus.newBuilder()
+                        .setRunning(true)
+                        .setInstanceId(String.valueOf(shardId(podName)))
+                        .setNumReceived(1000)
+                        .setNumSuccessfullyProcessed(990)
+                        .setNumUserExceptions(10)
+                        .setAverageLatency(2.5)
+                        .setLastInvocationTime(System.currentTimeMillis())
+                        .build());
+                observer.onCompleted();
+            });
+        }
+
+        @Override
+        public void getMetrics(Empty request, StreamObserver<InstanceCommunication.MetricsData> responseObserver) {
+            respond(responseObserver, observer -> {
+                observer.onNext(InstanceCommunication.MetricsData.newBuilder()
+                        .setReceivedTotal(1000)
+                        .setProcessedSuccessfullyTotal(990)
+                        .setUserExceptionsTotal(10)
+                        .setAvgProcessLatency(2.5)
+                        .setLastInvocation(System.currentTimeMillis())
+                        .build());
+                observer.onCompleted();
+            });
+        }
+    }
+
+    private static final class AuthorityInterceptor implements ServerInterceptor {
+
+        @Override
+        public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                     Metadata headers,
+                                                                     ServerCallHandler<ReqT, RespT> next) {
+            Context context = Context.current().withValue(AUTHORITY, call.getAuthority());
+            return Contexts.interceptCall(context, call, headers, next);
+        }
+    }
+
+    /**
+     * Resolves every in-cluster service address to the local server. It takes priority over DNS,
+     * which cannot resolve those names outside of a cluster.
+     */
+    private static final class ClusterNameResolverProvider extends NameResolverProvider {
+        private static final String SCHEME = "fake-instance";
+
+        private final int port;
+
+        ClusterNameResolverProvider(int port) {
+            this.port = port;
+        }
+
+        @Override
+        protected boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        protected int priority() {
+            return 10;
+        }
+
+        @Override
+        public String getDefaultScheme() {
+            return SCHEME;
+        }
+
+        @Override
+        public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+            if (!SCHEME.equals(targetUri.getScheme()) || targetUri.getPath() == null) {
+                return null;
+            }
+            String authority = targetUri.getPath().substring(1);
+            int portIndex = authority.lastIndexOf(':');
+            String host = portIndex < 0 ? authority : authority.substring(0, portIndex);
+            if (!host.endsWith(CLUSTER_DOMAIN)) {
+                return null;
+            }
+            return new NameResolver() {
+                @Override
+                public String getServiceAuthority() {
+                    return authority;
+                }
+
+                @Override
+                public void start(Listener2 listener) {
+                    listener.onResult(ResolutionResult.newBuilder()
+                            .setAddresses(Collections.singletonList(new EquivalentAddressGroup(
+                                    new InetSocketAddress(InetAddress.getLoopbackAddress(), port))))
+                            .build());
+                }
+
+                @Override
+                public void shutdown() {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,452 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.loadtest;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.functionmesh.compute.util.CommonUtil;
+import io.functionmesh.compute.worker.MeshPodCache;
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.models.V1ContainerState;
+import io.kubernetes.client.openapi.models.V1ContainerStateRunning;
+import io.kubernetes.client.openapi.models.V1ContainerStatus;
+import io.kubernetes.client.openapi.models.V1LabelSelector;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1OwnerReference;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodList;
+import io.kubernetes.client.openapi.models.V1PodStatus;
+import io.kubernetes.client.openapi.models.V1StatefulSet;
+import io.kubernetes.client.openapi.models.V1StatefulSetSpec;
+import io.kubernetes.client.openapi.models.V1StatefulSetStatus;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An in-process stand-in for the kubernetes API server and the pulsar admin tenants endpoint.
+ *
+ * <p>It stores the Function/Sink/Source custom resources it receives and, like the function mesh
+ * operator, reconciles each of them into a ready StatefulSet with one running pod per replica.
+ * Watches are not supported, so the informer-backed caches must stay disabled.
+ */
+@Slf4j
+public class FakeKubernetesApiServer implements AutoCloseable {
+    private static final String CUSTOM_RESOURCE_PREFIX = "/apis/compute.functionmesh.io/v1alpha1/namespaces/";
+    private static final String STATEFUL_SET_PREFIX = "/apis/apps/v1/namespaces/";
+    private static final String POD_PREFIX = "/api/v1/namespaces/";
+    private static final String TENANT_PREFIX = "/admin/v2/tenants/";
+    private static final String CONTAINER_NAME = "pulsar-function";
+    private static final String DEFAULT_CONTAINER_ANNOTATION = "kubectl.kubernetes.io/default-container";
+    private static final String NAME_LABEL = "compute.functionmesh.io/name";
+    private static final String COMPONENT_LABEL = "compute.functionmesh.io/component";
+
+    private final long latencyMs;
+    private final JSON json = new JSON();
+    private final AtomicLong resourceVersion = new AtomicLong();
+    // plural/namespace/name
+    private final Map<String, JsonObject> resources = new ConcurrentHashMap<>();
+    // namespace/name
+    private final Map<String, V1StatefulSet> statefulSets = new ConcurrentHashMap<>();
+    // namespace/statefulSetName
+    private final Map<String, List<V1Pod>> pods = new ConcurrentHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public FakeKubernetesApiServer(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        log.info("Fake kubernetes API server listening on {}", getUrl());
+    }
+
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public int getResourceCount() {
+        return resources.size();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            if (latencyMs > 0) {
+                TimeUnit.MILLISECONDS.sleep(latencyMs);
+            }
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith(CUSTOM_RESOURCE_PREFIX)) {
+                handleCustomResource(exchange, split(path.substring(CUSTOM_RESOURCE_PREFIX.length())));
+            } else if (path.startsWith(STATEFUL_SET_PREFIX)) {
+                handleStatefulSet(exchange, split(path.substring(STATEFUL_SET_PREFIX.length())));
+            } else if (path.startsWith(POD_PREFIX)) {
+                handlePods(exchange, split(path.substring(POD_PREFIX.length())));
+            } else if (path.startsWith(TENANT_PREFIX) && "GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, 200, "{\"adminRoles\":[],\"allowedClusters\":[]}");
+            } else {
+                respondStatus(exchange, 404, "NotFound", path + " is not served by the fake API server");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respondStatus(exchange, 503, "ServiceUnavailable", "server is stopping");
+        } catch (RuntimeException e) {
+            log.warn("Fake API server failed to handle {} {}", exchange.getRequestMethod(),
+                    exchange.getRequestURI(), e);
+            respondStatus(exchange, 500, "InternalError", String.valueOf(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // {namespace}/{plural}[/{name}]
+    private void handleCustomResource(HttpExchange exchange, String[] parts) throws IOException {
+        if (parts.length < 2) {
+            respondStatus(exchange, 404, "NotFound", "unknown resource");
+            return;
+        }
+        String namespace = parts[0];
+        String plural = parts[1];
+        String method = exchange.getRequestMethod();
+        if (parts.length == 2) {
+            if ("GET".equals(method)) {
+                listCustomResources(exchange, namespace, plural);
+            } else if ("POST".equals(method)) {
+                createCustomResource(exchange, namespace, plural, readBody(exchange));
+            } else {
+                respondStatus(exchange, 405, "MethodNotAllowed", method + " is not supported");
+            }
+            return;
+        }
+        String key = resourceKey(plural, namespace, parts[2]);
+        JsonObject existing = resources.get(key);
+        if ("GET".equals(method)) {
+            if (existing == null) {
+                respondStatus(exchange, 404, "NotFound", parts[2] + " not found");
+            } else {
+                respond(exchange, 200, json.serialize(existing));
+            }
+        } else if ("PUT".equals(method)) {
+            replaceCustomResource(exchange, key, plural, readBody(exchange));
+        } else if ("DELETE".equals(method)) {
+            if (deleteCustomResource(key, plural, namespace, parts[2])) {
+                respondStatus(exchange, 200, "Success", null);
+            } else {
+                respondStatus(exchange, 404, "NotFound", parts[2] + " not found");
+            }
+        } else {
+            respondStatus(exchange, 405, "MethodNotAllowed", method + " is not supported");
+        }
+    }
+
+    private void listCustomResources(HttpExchange exchange, String namespace, String plural) throws IOException {
+        Map<String, String> selector = MeshPodCache.parseSelector(queryParameters(exchange).get("labelSelector"));
+        String prefix = resourceKey(plural, namespace, "");
+        List<JsonObject> items = resources.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .map(Map.Entry::getValue)
+                .filter(resource -> selector == null || labels(resource).entrySet().containsAll(selector.entrySet()))
+                .collect(Collectors.toList());
+        Map<String, Object> list = new LinkedHashMap<>();
+        list.put("apiVersion", "compute.functionmesh.io/v1alpha1");
+        list.put("kind", "List");
+        list.put("metadata", Collections.singletonMap("resourceVersion", String.valueOf(resourceVersion.get())));
+        list.put("items", items);
+        respond(exchange, 200, json.serialize(list));
+    }
+
+    private synchronized void createCustomResource(HttpExchange exchange, String namespace, String plural,
+                                                   JsonObject resource) throws IOException {
+        JsonObject metadata = resource.getAsJsonObject("metadata");
+        String name = metadata.get("name").getAsString();
+        String key = resourceKey(plural, namespace, name);
+        if (resources.containsKey(key)) {
+            respondStatus(exchange, 409, "AlreadyExists", name + " already exists");
+            return;
+        }
+        metadata.addProperty("namespace", namespace);
+        metadata.addProperty("uid", UUID.randomUUID().toString());
+        metadata.addProperty("generation", 1);
+        metadata.addProperty("resourceVersion", String.valueOf(resourceVersion.incrementAndGet()));
+        reconcile(plural, namespace, resource);
+        resources.put(key, resource);
+        respond(exchange, 201, json.serialize(resource));
+    }
+
+    private synchronized void replaceCustomResource(HttpExchange exchange, String key, String plural,
+                                                    JsonObject resource) throws IOException {
+        JsonObject existing = resources.get(key);
+        if (existing == null) {
+            respondStatus(exchange, 404, "NotFound", key + " not found");
+            return;
+        }
+        JsonObject existingMetadata = existing.getAsJsonObject("metadata");
+        JsonObject metadata = resource.getAsJsonObject("metadata");
+        JsonElement expectedVersion = metadata.get("resourceVersion");
+        if (expectedVersion != null && !expectedVersion.getAsString()
+                .equals(existingMetadata.get("resourceVersion").getAsString())) {
+            respondStatus(exchange, 409, "Conflict", "the object has been modified");
+            return;
+        }
+        String namespace = existingMetadata.get("namespace").getAsString();
+        metadata.addProperty("namespace", namespace);
+        metadata.add("uid", existingMetadata.get("uid"));
+        metadata.addProperty("generation", existingMetadata.get("generation").getAsLong() + 1);
+        metadata.addProperty("resourceVersion", String.valueOf(resourceVersion.incrementAndGet()));
+        reconcile(plural, namespace, resource);
+        resources.put(key, resource);
+        respond(exchange, 200, json.serialize(resource));
+    }
+
+    private synchronized boolean deleteCustomResource(String key, String plural, String namespace, String name) {
+        if (resources.remove(key) == null) {
+            return false;
+        }
+        String jobName = jobName(plural, name);
+        statefulSets.remove(namespace + "/" + jobName);
+        pods.remove(namespace + "/" + jobName);
+        return true;
+    }
+
+    /**
+     * Plays the part of the operator: the component gets a ready StatefulSet and running pods at once.
+     */
+    private void reconcile(String plural, String namespace, JsonObject resource) {
+        JsonObject metadata = resource.getAsJsonObject("metadata");
+        String name = metadata.get("name").getAsString();
+        String uid = metadata.get("uid").getAsString();
+        JsonObject spec = resource.getAsJsonObject("spec");
+        int replicas = spec != null && spec.has("replicas") ? spec.get("replicas").getAsInt() : 1;
+        String jobName = jobName(plural, name);
+
+        Map<String, String> selector = new LinkedHashMap<>();
+        selector.put(COMPONENT_LABEL, plural);
+        selector.put(NAME_LABEL, name);
+        Map<String, String> podLabels = new HashMap<>(labels(resource));
+        podLabels.putAll(selector);
+
+        JsonObject status = new JsonObject();
+        status.addProperty("replicas", replicas);
+        status.addProperty("selector", selector.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(",")));
+        status.addProperty("observedGeneration", metadata.get("generation").getAsLong());
+        resource.add("status", status);
+
+        String statefulSetUid = UUID.randomUUID().toString();
+        V1StatefulSet statefulSet = new V1StatefulSet()
+                .apiVersion("apps/v1")
+                .kind("StatefulSet")
+                .metadata(new V1ObjectMeta()
+                        .name(jobName)
+                        .namespace(namespace)
+                        .uid(statefulSetUid)
+                        .labels(podLabels)
+                        .ownerReferences(Collections.singletonList(new V1OwnerReference()
+                                .apiVersion("compute.functionmesh.io/v1alpha1")
+                                .kind(resource.get("kind").getAsString())
+                                .name(name)
+                                .uid(uid)
+                                .controller(true))))
+                .spec(new V1StatefulSetSpec()
+                        .replicas(replicas)
+                        .serviceName(jobName)
+                        .selector(new V1LabelSelector().matchLabels(selector)))
+                .status(new V1StatefulSetStatus()
+                        .replicas(replicas)
+                        .readyReplicas(replicas)
+                        .currentReplicas(replicas)
+                        .updatedReplicas(replicas));
+        statefulSets.put(namespace + "/" + jobName, statefulSet);
+
+        List<V1Pod> componentPods = new ArrayList<>(replicas);
+        for (int i = 0; i < replicas; i++) {
+            componentPods.add(new V1Pod()
+                    .apiVersion("v1")
+                    .kind("Pod")
+                    .metadata(new V1ObjectMeta()
+                            .name(jobName + "-" + i)
+                            .namespace(namespace)
+                            .uid(UUID.randomUUID().toString())
+                            .labels(podLabels)
+                            .annotations(Collections.singletonMap(DEFAULT_CONTAINER_ANNOTATION, CONTAINER_NAME))
+                            .ownerReferences(Collections.singletonList(new V1OwnerReference()
+                                    .apiVersion("apps/v1")
+                                    .kind("StatefulSet")
+                                    .name(jobName)
+                                    .uid(statefulSetUid)
+                                    .controller(true))))
+                    .status(new V1PodStatus()
+                            .phase("Running")
+                            .podIP("127.0.0.1")
+                            .containerStatuses(Collections.singletonList(new V1ContainerStatus()
+                                    .name(CONTAINER_NAME)
+                                    .image("streamnative/pulsar-functions-java-runner")
+                                    .imageID("")
+                                    .ready(true)
+                                    .restartCount(0)
+                                    .state(new V1ContainerState().running(new V1ContainerStateRunning()))))));
+        }
+        pods.put(namespace + "/" + jobName, componentPods);
+    }
+
+    // {namespace}/statefulsets[/{name}]
+    private void handleStatefulSet(HttpExchange exchange, String[] parts) throws IOException {
+        if (parts.length != 3 || !"statefulsets".equals(parts[1]) || !"GET".equals(exchange.getRequestMethod())) {
+            respondStatus(exchange, 404, "NotFound", "unknown resource");
+            return;
+        }
+        V1StatefulSet statefulSet = statefulSets.get(parts[0] + "/" + parts[2]);
+        if (statefulSet == null) {
+            respondStatus(exchange, 404, "NotFound", parts[2] + " not found");
+        } else {
+            respond(exchange, 200, json.serialize(statefulSet));
+        }
+    }
+
+    // {namespace}/pods
+    private void handlePods(HttpExchange exchange, String[] parts) throws IOException {
+        if (parts.length != 2 || !"pods".equals(parts[1]) || !"GET".equals(exchange.getRequestMethod())) {
+            respondStatus(exchange, 404, "NotFound", "unknown resource");
+            return;
+        }
+        String prefix = parts[0] + "/";
+        Map<String, String> selector = MeshPodCache.parseSelector(queryParameters(exchange).get("labelSelector"));
+        List<V1Pod> items = pods.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .flatMap(entry -> entry.getValue().stream())
+                .filter(pod -> selector == null || MeshPodCache.matches(pod, selector))
+                .collect(Collectors.toList());
+        V1PodList podList = new V1PodList()
+                .apiVersion("v1")
+                .kind("PodList")
+                .metadata(new V1ListMeta().resourceVersion(String.valueOf(resourceVersion.get())))
+                .items(items);
+        respond(exchange, 200, json.serialize(podList));
+    }
+
+    private JsonObject readBody(HttpExchange exchange) throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            return json.getGson().fromJson(reader, JsonObject.class);
+        }
+    }
+
+    private void respondStatus(HttpExchange exchange, int code, String reason, String message) throws IOException {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("apiVersion", "v1");
+        status.put("kind", "Status");
+        status.put("status", code < 300 ? "Success" : "Failure");
+        status.put("reason", reason);
+        status.put("code", code);
+        if (message != null) {
+            status.put("message", message);
+        }
+        respond(exchange, code, json.serialize(status));
+    }
+
+    private static void respond(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> labels(JsonObject resource) {
+        JsonObject metadata = resource.getAsJsonObject("metadata");
+        if (metadata == null || !metadata.has("labels")) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> labels = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : metadata.getAsJsonObject("labels").entrySet()) {
+            labels.put(entry.getKey(), entry.getValue().getAsString());
+        }
+        return labels;
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) throws UnsupportedEncodingException {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> parameters = new HashMap<>();
+        for (String parameter : query.split("&")) {
+            String[] pair = parameter.split("=", 2);
+            parameters.put(URLDecoder.decode(pair[0], "UTF-8"),
+                    pair.length > 1 ? URLDecoder.decode(pair[1], "UTF-8") : "");
+        }
+        return parameters;
+    }
+
+    private static String[] split(String path) {
+        return path.isEmpty() ? new String[0] : path.split("/");
+    }
+
+    private static String resourceKey(String plural, String namespace, String name) {
+        return plural + "/" + namespace + "/" + name;
+    }
+
+    private static String jobName(String plural, String name) {
+        String suffix = plural.endsWith("s") ? plural.substring(0, plural.length() - 1) : plural;
+        return CommonUtil.makeJobName(name, suffix);
+    }
+}
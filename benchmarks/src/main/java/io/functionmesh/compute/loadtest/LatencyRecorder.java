@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the latencies of one operation and summarises them as throughput and percentiles.
+ */
+public class LatencyRecorder {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final String operation;
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    public LatencyRecorder(String operation) {
+        this.operation = operation;
+    }
+
+    public synchronized void record(long latencyNanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized long getErrors() {
+        return errors;
+    }
+
+    public static String header() {
+        return String.format(Locale.ROOT, "%-10s %10s %8s %10s %10s %10s %10s %10s %10s",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    public synchronized String summary(long elapsedNanos) {
+        if (count == 0) {
+            return String.format(Locale.ROOT, "%-10s %10d %8d", operation, 0, errors);
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-10s %10d %8d %10.1f",
+                operation, count, errors, count / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1))));
+        for (double percentile : PERCENTILES) {
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            line.append(String.format(Locale.ROOT, " %10.2f", millis(sorted[Math.max(index, 0)])));
+        }
+        line.append(String.format(Locale.ROOT, " %10.2f", millis(sorted[count - 1])));
+        return line.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,312 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.loadtest;
+
+import io.functionmesh.compute.MeshWorkerService;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.util.ClientBuilder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pulsar.common.functions.Resources;
+import org.apache.pulsar.common.io.SinkConfig;
+import org.apache.pulsar.common.policies.data.SinkStatus;
+import org.apache.pulsar.functions.worker.WorkerConfig;
+
+/**
+ * Drives a mesh worker service that runs against {@link FakeKubernetesApiServer} and
+ * {@link FakeInstanceServer}, and reports the latency and throughput of each operation.
+ *
+ * <p>Sinks are used as the workload, since registering a sink with a local archive needs no
+ * package service. Every operation is issued at a fixed rate from a scheduler and its latency is
+ * measured from the time it was due, so queueing in the worker shows up in the percentiles.
+ * Arguments are {@code --name=value} pairs, see {@link Options}; {@code --worker.<field>=<value>}
+ * overrides a field of the worker's custom config.
+ */
+@Slf4j
+public class LoadTestRunner {
+    private static final String TENANT = "public";
+    private static final String NAMESPACE = "default";
+    private static final String CLUSTER = "loadtest";
+
+    private final Options options;
+    private final AtomicInteger registeredCount = new AtomicInteger();
+    private final AtomicLong updateCount = new AtomicLong();
+
+    public LoadTestRunner(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTestRunner(Options.parse(args)).run();
+        System.exit(0);
+    }
+
+    public void run() throws Exception {
+        try (FakeKubernetesApiServer apiServer = new FakeKubernetesApiServer(options.apiLatencyMs);
+             FakeInstanceServer instanceServer = new FakeInstanceServer(options.grpcLatencyMs,
+                     options.grpcJitterMs, options.grpcFailureRate)) {
+            apiServer.start();
+            instanceServer.start();
+            MeshWorkerService worker = startWorker(apiServer.getUrl());
+            try {
+                preload(worker);
+                Map<String, LatencyRecorder> recorders = drive(worker);
+                report(recorders, apiServer, instanceServer);
+            } finally {
+                worker.stop();
+            }
+        }
+    }
+
+    private MeshWorkerService startWorker(String apiServerUrl) throws Exception {
+        WorkerConfig workerConfig = new WorkerConfig();
+        workerConfig.setPulsarFunctionsCluster(CLUSTER);
+        workerConfig.setPulsarServiceUrl("pulsar://127.0.0.1:6650");
+        workerConfig.setPulsarWebServiceUrl(apiServerUrl);
+        workerConfig.setFunctionsWorkerServiceCustomConfigs(new HashMap<>(options.workerConfigs));
+        workerConfig.setFunctionRuntimeFactoryConfigs(
+                new HashMap<>(Collections.singletonMap("jobNamespace", NAMESPACE)));
+        MeshWorkerService worker = new MeshWorkerService() {
+            @Override
+            protected ApiClient createApiClient() {
+                return new ClientBuilder().setBasePath(apiServerUrl).build();
+            }
+        };
+        worker.initAsStandalone(workerConfig);
+        worker.start(null, null, null);
+        return worker;
+    }
+
+    private void preload(MeshWorkerService worker) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < options.components; i++) {
+            executor.execute(() -> {
+                if (!register(worker)) {
+                    failures.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+        log.info("Registered {} sinks with {} replicas each, {} failed", options.components, options.replicas,
+                failures.get());
+    }
+
+    private Map<String, LatencyRecorder> drive(MeshWorkerService worker) throws InterruptedException {
+        Map<String, BooleanSupplier> operations = new LinkedHashMap<>();
+        Map<String, Double> rates = new LinkedHashMap<>();
+        operations.put("register", () -> register(worker));
+        rates.put("register", options.registerRate);
+        operations.put("update", () -> update(worker));
+        rates.put("update", options.updateRate);
+        operations.put("status", () -> status(worker));
+        rates.put("status", options.statusRate);
+        operations.put("list", () -> list(worker));
+        rates.put("list", options.listRate);
+
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(operations.size());
+        for (Map.Entry<String, BooleanSupplier> operation : operations.entrySet()) {
+            double rate = rates.get(operation.getKey());
+            if (rate <= 0) {
+                continue;
+            }
+            LatencyRecorder recorder = new LatencyRecorder(operation.getKey());
+            recorders.put(operation.getKey(), recorder);
+            long periodNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+            scheduler.scheduleAtFixedRate(() -> {
+                long due = System.nanoTime();
+                executor.execute(() -> {
+                    boolean success = false;
+                    try {
+                        success = operation.getValue().getAsBoolean();
+                    } catch (RuntimeException e) {
+                        log.debug("{} failed", operation.getKey(), e);
+                    }
+                    recorder.record(System.nanoTime() - due, success);
+                });
+            }, 0, periodNanos, TimeUnit.NANOSECONDS);
+        }
+        log.info("Driving {} for {} seconds", rates, options.durationSeconds);
+        TimeUnit.SECONDS.sleep(options.durationSeconds);
+        scheduler.shutdownNow();
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            log.warn("Operations still running after the test, they are not reported");
+            executor.shutdownNow();
+        }
+        return recorders;
+    }
+
+    private void report(Map<String, LatencyRecorder> recorders, FakeKubernetesApiServer apiServer,
+                        FakeInstanceServer instanceServer) {
+        long elapsedNanos = TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        List<String> lines = new ArrayList<>();
+        lines.add(LatencyRecorder.header());
+        recorders.values().forEach(recorder -> lines.add(recorder.summary(elapsedNanos)));
+        lines.add(String.format("kubernetes API requests: %d, resources: %d", apiServer.getRequestCount(),
+                apiServer.getResourceCount()));
+        lines.add(String.format("instance gRPC calls: %d, simulated failures: %d", instanceServer.getCallCount(),
+                instanceServer.getFailureCount()));
+        lines.forEach(System.out::println);
+    }
+
+    private boolean register(MeshWorkerService worker) {
+        String name = componentName(registeredCount.getAndIncrement());
+        worker.getSinks().registerSink(TENANT, NAMESPACE, name, null, null, null, sinkConfig(name, 0),
+                null, null);
+        return true;
+    }
+
+    private boolean update(MeshWorkerService worker) {
+        String name = componentName(ThreadLocalRandom.current().nextInt(options.components));
+        worker.getSinks().updateSink(TENANT, NAMESPACE, name, null, null, null,
+                sinkConfig(name, updateCount.incrementAndGet()), null, null, null);
+        return true;
+    }
+
+    private boolean status(MeshWorkerService worker) {
+        String name = componentName(ThreadLocalRandom.current().nextInt(options.components));
+        SinkStatus status = worker.getSinks().getSinkStatus(TENANT, NAMESPACE, name, null, null, null);
+        if (status.getNumInstances() != options.replicas || status.getNumRunning() != options.replicas) {
+            return false;
+        }
+        return status.getInstances().stream().allMatch(instance -> instance.getStatus().isRunning()
+                && instance.getStatus().getError() == null);
+    }
+
+    private boolean list(MeshWorkerService worker) {
+        return !worker.getSinks().listFunctions(TENANT, NAMESPACE, null, null).isEmpty();
+    }
+
+    private SinkConfig sinkConfig(String name, long revision) {
+        SinkConfig sinkConfig = new SinkConfig();
+        sinkConfig.setTenant(TENANT);
+        sinkConfig.setNamespace(NAMESPACE);
+        sinkConfig.setName(name);
+        sinkConfig.setClassName("org.apache.pulsar.io.elasticsearch.ElasticSearchSink");
+        sinkConfig.setArchive("/pulsar/connectors/pulsar-io-elastic-search.nar");
+        sinkConfig.setInputs(Collections.singletonList("persistent://public/default/" + name + "-input"));
+        sinkConfig.setParallelism(options.replicas);
+        sinkConfig.setResources(new Resources(0.5, 1024L * 1024 * 1024, 0L));
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("elasticSearchUrl", "http://elasticsearch:9200");
+        configs.put("indexName", name);
+        configs.put("revision", revision);
+        sinkConfig.setConfigs(configs);
+        return sinkConfig;
+    }
+
+    private static String componentName(int index) {
+        return "loadtest-sink-" + index;
+    }
+
+    /**
+     * Options of a run, each can be set with {@code --<name>=<value>}.
+     */
+    public static class Options {
+        int components = 100;
+        int replicas = 3;
+        int threads = 64;
+        long durationSeconds = 60;
+        double registerRate = 1;
+        double updateRate = 5;
+        double statusRate = 100;
+        double listRate = 10;
+        long apiLatencyMs = 2;
+        long grpcLatencyMs = 5;
+        long grpcJitterMs = 5;
+        double grpcFailureRate = 0;
+        final Map<String, Object> workerConfigs = new HashMap<>();
+
+        public static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                String name = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                if (name.startsWith("worker.")) {
+                    options.workerConfigs.put(name.substring("worker.".length()), value);
+                    continue;
+                }
+                switch (name) {
+                    case "components":
+                        options.components = Integer.parseInt(value);
+                        break;
+                    case "replicas":
+                        options.replicas = Integer.parseInt(value);
+                        break;
+                    case "threads":
+                        options.threads = Integer.parseInt(value);
+                        break;
+                    case "duration":
+                        options.durationSeconds = Long.parseLong(value);
+                        break;
+                    case "register-rate":
+                        options.registerRate = Double.parseDouble(value);
+                        break;
+                    case "update-rate":
+                        options.updateRate = Double.parseDouble(value);
+                        break;
+                    case "status-rate":
+                        options.statusRate = Double.parseDouble(value);
+                        break;
+                    case "list-rate":
+                        options.listRate = Double.parseDouble(value);
+                        break;
+                    case "api-latency-ms":
+                        options.apiLatencyMs = Long.parseLong(value);
+                        break;
+                    case "grpc-latency-ms":
+                        options.grpcLatencyMs = Long.parseLong(value);
+                        break;
+                    case "grpc-jitter-ms":
+                        options.grpcJitterMs = Long.parseLong(value);
+                        break;
+                    case "grpc-failure-rate":
+                        options.grpcFailureRate = Double.parseDouble(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + name);
+                }
+            }
+            if (options.components <= 0 || options.replicas <= 0 || options.threads <= 0) {
+                throw new IllegalArgumentException("components, replicas and threads must be positive");
+            }
+            return options;
+        }
+    }
+}
@@ -18,12 +18,42 @@
  */
 package io.functionmesh.compute;
 
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodImagePullSecrets;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodInitContainers;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodVolumeMounts;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodVolumes;
 import io.functionmesh.compute.models.MeshWorkerServiceCustomConfig;
+import io.functionmesh.compute.models.PodPolicyTemplate;
+import io.functionmesh.compute.rest.MeshApiServer;
 import io.functionmesh.compute.rest.api.FunctionsImpl;
 import io.functionmesh.compute.rest.api.SinksImpl;
 import io.functionmesh.compute.rest.api.SourcesImpl;
+import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodImagePullSecrets;
+import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodInitContainers;
+import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodVolumeMounts;
+import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodVolumes;
+import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPodImagePullSecrets;
+import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPodInitContainers;
+import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPodVolumeMounts;
+import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPodVolumes;
+import io.functionmesh.compute.util.CommonUtil;
 import io.functionmesh.compute.util.KubernetesUtils;
+import io.functionmesh.compute.worker.ComponentConfigCache;
+import io.functionmesh.compute.worker.IdempotencyCache;
+import io.functionmesh.compute.worker.InstanceCallGuard;
+import io.functionmesh.compute.worker.KubernetesAsyncClient;
+import io.functionmesh.compute.worker.KubernetesClientMetrics;
+import io.functionmesh.compute.worker.KubernetesRateLimiter;
+import io.functionmesh.compute.worker.KubernetesRetryPolicy;
+import io.functionmesh.compute.worker.MeshCleanupQueue;
 import io.functionmesh.compute.worker.MeshConnectorsManager;
+import io.functionmesh.compute.worker.MeshJobQueue;
+import io.functionmesh.compute.worker.MeshPodCache;
+import io.functionmesh.compute.worker.MeshStatefulSetCache;
+import io.functionmesh.compute.worker.MeshStatusWatcher;
+import io.functionmesh.compute.worker.MeshTopicIndex;
+import io.functionmesh.compute.worker.MeshTriggerManager;
+import io.functionmesh.compute.worker.TenantAdmissionController;
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
@@ -33,17 +63,29 @@ import io.kubernetes.client.util.Config;
 import io.kubernetes.client.util.KubeConfig;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.pulsar.broker.ServiceConfiguration;
+import org.apache.pulsar.broker.authentication.AuthenticationDataSource;
 import org.apache.pulsar.broker.authentication.AuthenticationService;
 import org.apache.pulsar.broker.authorization.AuthorizationService;
 import org.apache.pulsar.broker.cache.ConfigurationCacheService;
 import org.apache.pulsar.broker.resources.PulsarResources;
 import org.apache.pulsar.client.admin.PulsarAdmin;
 import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.common.conf.InternalConfigurationData;
+import org.apache.pulsar.common.util.RestException;
 import org.apache.pulsar.common.util.SimpleTextOutputStream;
 import org.apache.pulsar.functions.runtime.RuntimeUtils;
 import org.apache.pulsar.functions.runtime.kubernetes.KubernetesRuntimeFactoryConfig;
@@ -79,13 +121,38 @@ public class MeshWorkerService implements WorkerService {
     private CustomObjectsApi customObjectsApi;
     private ApiClient apiClient;
     private PulsarAdmin brokerAdmin;
+    private PulsarClient brokerClient;
     @Deprecated
     private KubernetesRuntimeFactoryConfig factoryConfig;
     private MeshWorkerServiceCustomConfig meshWorkerServiceCustomConfig;
+    private PodPolicyTemplate<V1alpha1FunctionSpecPodVolumes, V1alpha1FunctionSpecPodVolumeMounts,
+            V1alpha1FunctionSpecPodImagePullSecrets, V1alpha1FunctionSpecPodInitContainers> functionPodPolicyTemplate;
+    private PodPolicyTemplate<V1alpha1SinkSpecPodVolumes, V1alpha1SinkSpecPodVolumeMounts,
+            V1alpha1SinkSpecPodImagePullSecrets, V1alpha1SinkSpecPodInitContainers> sinkPodPolicyTemplate;
+    private PodPolicyTemplate<V1alpha1SourceSpecPodVolumes, V1alpha1SourceSpecPodVolumeMounts,
+            V1alpha1SourceSpecPodImagePullSecrets, V1alpha1SourceSpecPodInitContainers> sourcePodPolicyTemplate;
     private AuthenticationService authenticationService;
     private AuthorizationService authorizationService;
     private MeshConnectorsManager connectorsManager;
+    private MeshTriggerManager triggerManager;
+    private KubernetesAsyncClient kubernetesAsyncClient;
+    private KubernetesRetryPolicy kubernetesRetryPolicy;
+    private KubernetesClientMetrics kubernetesClientMetrics;
+    private KubernetesRateLimiter kubernetesRateLimiter;
+    private MeshCleanupQueue cleanupQueue;
+    private MeshJobQueue jobQueue;
+    private IdempotencyCache idempotencyCache;
+    private ComponentConfigCache componentConfigCache;
+    private InstanceCallGuard instanceCallGuard;
+    private TenantAdmissionController tenantAdmissionController;
+    private MeshApiServer meshApiServer;
+    private MeshPodCache podCache;
+    private MeshStatefulSetCache statefulSetCache;
+    private MeshStatusWatcher statusWatcher;
+    private MeshTopicIndex topicIndex;
     private ServiceConfiguration brokerConfig;
+    @Getter(AccessLevel.NONE)
+    private volatile Map<String, Map<String, String>> customLabelsByKind;
 
     public MeshWorkerService() {
 
@@ -148,6 +215,9 @@ public class MeshWorkerService implements WorkerService {
 
     public void init(WorkerConfig workerConfig) throws Exception {
         this.workerConfig = workerConfig;
+        // the kubernetes client is tuned by the custom config, so the config is loaded first
+        this.meshWorkerServiceCustomConfig = RuntimeUtils.getRuntimeFunctionConfig(
+                workerConfig.getFunctionsWorkerServiceCustomConfigs(), MeshWorkerServiceCustomConfig.class);
         this.initKubernetesClient();
         this.authenticationEnabled = this.workerConfig.isAuthenticationEnabled();
         this.functions = new FunctionsImpl(() -> MeshWorkerService.this);
@@ -155,8 +225,11 @@ public class MeshWorkerService implements WorkerService {
         this.sinks = new SinksImpl(() -> MeshWorkerService.this);
         this.factoryConfig = RuntimeUtils.getRuntimeFunctionConfig(
                 workerConfig.getFunctionRuntimeFactoryConfigs(), KubernetesRuntimeFactoryConfig.class);
-        this.meshWorkerServiceCustomConfig = RuntimeUtils.getRuntimeFunctionConfig(
-                workerConfig.getFunctionsWorkerServiceCustomConfigs(), MeshWorkerServiceCustomConfig.class);
+        // the custom config does not change after init, so its pod policy parts are converted only once
+        this.functionPodPolicyTemplate = PodPolicyTemplate.forFunction(meshWorkerServiceCustomConfig);
+        this.sinkPodPolicyTemplate = PodPolicyTemplate.forSink(meshWorkerServiceCustomConfig);
+        this.sourcePodPolicyTemplate = PodPolicyTemplate.forSource(meshWorkerServiceCustomConfig);
+        this.customLabelsByKind = buildCustomLabelsByKind();
     }
 
     public void validateExternalServices() throws Exception {
@@ -170,15 +243,8 @@ public class MeshWorkerService implements WorkerService {
 
     private void initKubernetesClient() throws IOException {
         try {
-            if (StringUtils.isNotEmpty(System.getenv(KUBE_CONFIG_ENV))) {
-                String kubeConfigPath = System.getenv(KUBE_CONFIG_ENV);
-                log.info("Initialization kubernetes client from config file: {}", kubeConfigPath);
-                // loading the out-of-cluster config, a kubeconfig from file-system
-                apiClient =
-                        ClientBuilder.kubeconfig(KubeConfig.loadKubeConfig(new FileReader(kubeConfigPath))).build();
-            } else {
-                apiClient = Config.defaultClient();
-            }
+            apiClient = createApiClient();
+            apiClient.setHttpClient(tuneHttpClient(apiClient.getHttpClient()));
             coreV1Api = new CoreV1Api(apiClient);
             appsV1Api = new AppsV1Api(apiClient);
             customObjectsApi = new CustomObjectsApi(apiClient);
@@ -188,6 +254,97 @@ public class MeshWorkerService implements WorkerService {
         }
     }
 
+    /**
+     * Creates a kubernetes client from the KUBE_CONFIG file, or from the default client configuration.
+     */
+    protected ApiClient createApiClient() throws IOException {
+        if (StringUtils.isNotEmpty(System.getenv(KUBE_CONFIG_ENV))) {
+            String kubeConfigPath = System.getenv(KUBE_CONFIG_ENV);
+            log.info("Initialization kubernetes client from config file: {}", kubeConfigPath);
+            // loading the out-of-cluster config, a kubeconfig from file-system
+            return ClientBuilder.kubeconfig(KubeConfig.loadKubeConfig(new FileReader(kubeConfigPath))).build();
+        }
+        return Config.defaultClient();
+    }
+
+    private OkHttpClient tuneHttpClient(OkHttpClient httpClient) {
+        MeshWorkerServiceCustomConfig config = meshWorkerServiceCustomConfig;
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(config.getKubernetesClientMaxRequests());
+        dispatcher.setMaxRequestsPerHost(config.getKubernetesClientMaxRequestsPerHost());
+        OkHttpClient.Builder builder = httpClient.newBuilder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(config.getKubernetesClientMaxIdleConnections(),
+                        config.getKubernetesClientKeepAliveSeconds(), TimeUnit.SECONDS));
+        if (!config.isKubernetesClientHttp2Enabled()) {
+            builder.protocols(Collections.singletonList(Protocol.HTTP_1_1));
+        }
+        if (config.getKubernetesClientConnectTimeoutMs() > 0) {
+            builder.connectTimeout(config.getKubernetesClientConnectTimeoutMs(), TimeUnit.MILLISECONDS);
+        }
+        if (config.getKubernetesClientReadTimeoutMs() > 0) {
+            builder.readTimeout(config.getKubernetesClientReadTimeoutMs(), TimeUnit.MILLISECONDS);
+        }
+        if (config.getKubernetesClientWriteTimeoutMs() > 0) {
+            builder.writeTimeout(config.getKubernetesClientWriteTimeoutMs(), TimeUnit.MILLISECONDS);
+        }
+        if (config.isKubernetesClientRateLimitEnabled()) {
+            // added first so the time spent waiting for a token is not counted as request latency
+            this.kubernetesRateLimiter = new KubernetesRateLimiter(config.getKubernetesClientQps(),
+                    config.getKubernetesClientBurst(), config.getKubernetesClientMaxQueuedRequests(),
+                    config.getKubernetesClientMaxQueueTimeMs());
+            builder.addInterceptor(kubernetesRateLimiter);
+        }
+        if (config.isKubernetesClientMetricsEnabled()) {
+            this.kubernetesClientMetrics = new KubernetesClientMetrics();
+            builder.addInterceptor(kubernetesClientMetrics);
+        }
+        OkHttpClient tunedHttpClient = builder.build();
+        if (kubernetesClientMetrics != null) {
+            kubernetesClientMetrics.bind(tunedHttpClient);
+        }
+        return tunedHttpClient;
+    }
+
+    /**
+     * Returns whether any of the features that are served by informers is enabled.
+     */
+    static boolean isInformerEnabled(MeshWorkerServiceCustomConfig config) {
+        return config.isEnablePodCache() || config.isEnableStatefulSetCache() || config.isEnableStatusWatch()
+                || config.isEnableTopicIndex();
+    }
+
+    private void startResourceCaches() throws IOException {
+        if (!isInformerEnabled(meshWorkerServiceCustomConfig)) {
+            return;
+        }
+        // watches are long-running requests, so the informers get their own client without a read timeout
+        ApiClient informerApiClient = createApiClient();
+        informerApiClient.setHttpClient(informerApiClient.getHttpClient().newBuilder()
+                .readTimeout(0, TimeUnit.SECONDS)
+                .build());
+        long resyncPeriodMs = meshWorkerServiceCustomConfig.getPodCacheResyncPeriodMs();
+        if (meshWorkerServiceCustomConfig.isEnablePodCache()) {
+            this.podCache = new MeshPodCache(informerApiClient, getJobNamespace(), resyncPeriodMs);
+            this.podCache.start();
+        }
+        if (meshWorkerServiceCustomConfig.isEnableStatefulSetCache()) {
+            this.statefulSetCache = new MeshStatefulSetCache(informerApiClient, getJobNamespace(),
+                    meshWorkerServiceCustomConfig.getStatefulSetCacheResyncPeriodMs());
+            this.statefulSetCache.start();
+        }
+        if (meshWorkerServiceCustomConfig.isEnableStatusWatch()) {
+            this.statusWatcher = new MeshStatusWatcher(informerApiClient, getJobNamespace(), resyncPeriodMs,
+                    meshWorkerServiceCustomConfig.getStatusWatchMaxConnections(),
+                    meshWorkerServiceCustomConfig.getStatusWatchBufferSize());
+            this.statusWatcher.start();
+        }
+        if (meshWorkerServiceCustomConfig.isEnableTopicIndex()) {
+            this.topicIndex = new MeshTopicIndex(informerApiClient, getJobNamespace(), resyncPeriodMs);
+            this.topicIndex.start();
+        }
+    }
+
     public void start(AuthenticationService authenticationService,
                       AuthorizationService authorizationService,
                       ErrorNotifier errorNotifier) throws Exception {
@@ -195,12 +352,96 @@ public class MeshWorkerService implements WorkerService {
         this.authorizationService = authorizationService;
         this.brokerAdmin = clientCreator.newPulsarAdmin(workerConfig.getPulsarWebServiceUrl(), workerConfig);
         this.connectorsManager = new MeshConnectorsManager();
+        this.brokerClient = clientCreator.newPulsarClient(workerConfig.getPulsarServiceUrl(), workerConfig);
+        this.triggerManager = new MeshTriggerManager(brokerClient,
+                meshWorkerServiceCustomConfig.getTriggerClientIdleTimeoutSeconds());
+        this.kubernetesAsyncClient = new KubernetesAsyncClient(apiClient,
+                meshWorkerServiceCustomConfig.getKubernetesMaxInFlightRequests(), kubernetesRateLimiter);
+        this.kubernetesRetryPolicy = new KubernetesRetryPolicy(
+                meshWorkerServiceCustomConfig.getKubernetesRetryMaxAttempts(),
+                meshWorkerServiceCustomConfig.getKubernetesRetryInitialBackoffMs(),
+                meshWorkerServiceCustomConfig.getKubernetesRetryMaxBackoffMs(),
+                meshWorkerServiceCustomConfig.getKubernetesRetryMaxElapsedMs());
+        this.cleanupQueue = new MeshCleanupQueue(meshWorkerServiceCustomConfig.getCleanupRetryMaxAttempts(),
+                meshWorkerServiceCustomConfig.getCleanupRetryInitialBackoffMs());
+        if (meshWorkerServiceCustomConfig.isInstanceCallGuardEnabled()) {
+            this.instanceCallGuard = new InstanceCallGuard(
+                    meshWorkerServiceCustomConfig.getInstanceCallFailureThreshold(),
+                    meshWorkerServiceCustomConfig.getInstanceCallOpenMs(),
+                    meshWorkerServiceCustomConfig.getInstanceCallMinDeadlineMs(),
+                    meshWorkerServiceCustomConfig.getInstanceCallMaxDeadlineMs());
+        }
+        if (meshWorkerServiceCustomConfig.isEnableAsyncJobs()) {
+            this.jobQueue = new MeshJobQueue(getCoreV1Api(), getJobNamespace(),
+                    meshWorkerServiceCustomConfig.getAsyncJobThreads(),
+                    meshWorkerServiceCustomConfig.getAsyncJobMaxQueued(),
+                    TimeUnit.SECONDS.toMillis(meshWorkerServiceCustomConfig.getAsyncJobRetentionSeconds()));
+        }
+        if (meshWorkerServiceCustomConfig.getIdempotencyKeyTtlSeconds() > 0) {
+            this.idempotencyCache = new IdempotencyCache(
+                    TimeUnit.SECONDS.toMillis(meshWorkerServiceCustomConfig.getIdempotencyKeyTtlSeconds()),
+                    meshWorkerServiceCustomConfig.getIdempotencyKeyMaxEntries(),
+                    meshWorkerServiceCustomConfig.getIdempotencyKeyWaitMs());
+        }
+        if (meshWorkerServiceCustomConfig.getComponentConfigCacheSize() > 0) {
+            this.componentConfigCache =
+                    new ComponentConfigCache(meshWorkerServiceCustomConfig.getComponentConfigCacheSize());
+        }
+        if (meshWorkerServiceCustomConfig.isTenantAdmissionControlEnabled()) {
+            this.tenantAdmissionController = new TenantAdmissionController(
+                    meshWorkerServiceCustomConfig.getAdmissionMaxConcurrentRequests(),
+                    meshWorkerServiceCustomConfig.getTenantMaxConcurrentRequests(),
+                    meshWorkerServiceCustomConfig.getTenantMaxQueuedRequests(),
+                    meshWorkerServiceCustomConfig.getTenantRequestsPerSecond(),
+                    meshWorkerServiceCustomConfig.getTenantRequestBurst(),
+                    meshWorkerServiceCustomConfig.getAdmissionMaxQueueTimeMs(),
+                    meshWorkerServiceCustomConfig.getTenantWeights());
+        }
         this.validateExternalServices();
+        this.startResourceCaches();
+        if (meshWorkerServiceCustomConfig.getMeshApiPort() > 0) {
+            this.meshApiServer = new MeshApiServer(this, meshWorkerServiceCustomConfig.getMeshApiPort());
+            this.meshApiServer.start();
+        }
         this.isInitialized = true;
         log.info("/** Started mesh worker service **/");
     }
 
     public void stop() {
+        if (null != getMeshApiServer()) {
+            getMeshApiServer().stop();
+        }
+        if (null != getPodCache()) {
+            getPodCache().close();
+        }
+        if (null != getStatefulSetCache()) {
+            getStatefulSetCache().close();
+        }
+        if (null != getStatusWatcher()) {
+            getStatusWatcher().close();
+        }
+        if (null != getTopicIndex()) {
+            getTopicIndex().close();
+        }
+        if (null != getTriggerManager()) {
+            getTriggerManager().close();
+        }
+        if (null != getJobQueue()) {
+            getJobQueue().close();
+        }
+        if (null != getCleanupQueue()) {
+            getCleanupQueue().close();
+        }
+        if (null != getKubernetesAsyncClient()) {
+            getKubernetesAsyncClient().close();
+        }
+        if (null != getBrokerClient()) {
+            try {
+                getBrokerClient().close();
+            } catch (PulsarClientException e) {
+                log.warn("Failed to close pulsar client", e);
+            }
+        }
         if (null != getBrokerAdmin()) {
             getBrokerAdmin().close();
         }
@@ -218,9 +459,63 @@ public class MeshWorkerService implements WorkerService {
 
     public void generateFunctionsStats(SimpleTextOutputStream out) {
         // to do https://github.com/streamnative/function-mesh/issues/56
+        if (kubernetesClientMetrics != null) {
+            kubernetesClientMetrics.generate(out);
+        }
+        if (kubernetesRateLimiter != null) {
+            kubernetesRateLimiter.generate(out);
+        }
+    }
+
+    /**
+     * Returns the configured labels of every component of the given kind, they are merged once since the configs
+     * do not change after init.
+     */
+    public Map<String, String> getCustomLabels(String kind) {
+        Map<String, Map<String, String>> labels = customLabelsByKind;
+        if (labels == null) {
+            labels = buildCustomLabelsByKind();
+            customLabelsByKind = labels;
+        }
+        return labels.get(kind);
+    }
+
+    private Map<String, Map<String, String>> buildCustomLabelsByKind() {
+        Map<String, Map<String, String>> labels = new HashMap<>();
+        for (String kind : new String[]{"Function", "Sink", "Source"}) {
+            labels.put(kind, Collections.unmodifiableMap(
+                    CommonUtil.buildCustomLabels(getFactoryConfig(), getMeshWorkerServiceCustomConfig(), kind)));
+        }
+        return labels;
     }
 
     public String getJobNamespace() {
         return KubernetesUtils.getNamespace(getMeshWorkerServiceCustomConfig(), this.getFactoryConfig());
     }
+
+    /**
+     * Checks whether the role is a super user, either one of the configured super user roles or one the
+     * authorization provider accepts. It does not depend on the component type.
+     */
+    public boolean isSuperUser(String clientRole, AuthenticationDataSource authenticationDataSource) {
+        if (clientRole != null) {
+            try {
+                if ((workerConfig.getSuperUserRoles() != null
+                        && workerConfig.getSuperUserRoles().contains(clientRole))) {
+                    return true;
+                }
+                return authorizationService.isSuperUser(clientRole, authenticationDataSource)
+                        .get(workerConfig.getZooKeeperOperationTimeoutSeconds(), TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                log.warn("Time-out {} sec while checking the role {} is a super user role ",
+                        workerConfig.getZooKeeperOperationTimeoutSeconds(), clientRole);
+                throw new RestException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+            } catch (Exception e) {
+                log.warn("Admin-client with Role - failed to check the role {} is a super user role {} ", clientRole,
+                        e.getMessage(), e);
+                throw new RestException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,45 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * The status of a component as seen in Kubernetes, derived from its StatefulSet and pods without querying the
+ * instances.
+ */
+@Data
+public class ComponentStatusSnapshot {
+    private String name;
+    private boolean exists;
+    private int replicas;
+    private int readyReplicas;
+    private List<InstanceStatus> instances = new ArrayList<>();
+
+    @Data
+    public static class InstanceStatus {
+        private int instanceId;
+        private String podName;
+        private boolean running;
+        private int restarts;
+        private String error;
+    }
+}
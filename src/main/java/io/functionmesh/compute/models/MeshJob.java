@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+/**
+ * A registration or update of a component accepted by the worker and run in the background.
+ */
+@Data
+public class MeshJob {
+    public enum Action {
+        REGISTER, UPDATE
+    }
+
+    public enum State {
+        PENDING, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private String id;
+    private String type;
+    private Action action;
+    private String tenant;
+    private String namespace;
+    private String name;
+    /**
+     * The role that submitted the job, it is recorded with the job but not returned to clients.
+     */
+    @JsonIgnore
+    private String clientRole;
+    private State state;
+    /**
+     * The http status the request would have returned when run synchronously, set when the job is done.
+     */
+    private int code;
+    private String message;
+    private long submitTime;
+    private long startTime;
+    private long finishTime;
+
+    public boolean isDone() {
+        return state == State.SUCCEEDED || state == State.FAILED;
+    }
+
+    public MeshJob copy() {
+        MeshJob copy = new MeshJob();
+        copy.setId(id);
+        copy.setType(type);
+        copy.setAction(action);
+        copy.setTenant(tenant);
+        copy.setNamespace(namespace);
+        copy.setName(name);
+        copy.setClientRole(clientRole);
+        copy.setState(state);
+        copy.setCode(code);
+        copy.setMessage(message);
+        copy.setSubmitTime(submitTime);
+        copy.setStartTime(startTime);
+        copy.setFinishTime(finishTime);
+        return copy;
+    }
+}
@@ -52,6 +52,13 @@ public class MeshWorkerServiceCustomConfig {
     )
     protected boolean uploadEnabled = false;
 
+    @FieldContext(
+            doc = "The maximum size in megabytes of the packages the worker keeps in the packages directory of the "
+                    + "download directory to serve downloads, the least recently used packages are deleted first. "
+                    + "0 keeps all packages. By default it is 1024."
+    )
+    protected long packageCacheMaxSizeMb = 1024;
+
     @FieldContext(
             doc = "Enable the function api endpoint"
     )
@@ -219,6 +226,342 @@ public class MeshWorkerServiceCustomConfig {
     )
     protected boolean enableTrustedMode = false;
 
+    @FieldContext(
+            doc = "The seconds a producer or reader used by trigger requests is kept open without being used. "
+                    + "By default it is 300 seconds."
+    )
+    protected long triggerClientIdleTimeoutSeconds = 300;
+
+    @FieldContext(
+            doc = "The milliseconds a trigger request waits for the function output. By default it is 10000."
+    )
+    protected long triggerTimeoutMs = 10000;
+
+    @FieldContext(
+            doc = "The port of the mesh api server, which serves the endpoints that the function worker rest api "
+                    + "does not provide, such as ranged package downloads. It is disabled when set to 0, "
+                    + "which is the default."
+    )
+    protected int meshApiPort = 0;
+
+    @FieldContext(
+            doc = "Enable the pod cache, by default it is false. With the pod cache enabled, the mesh worker service "
+                    + "watches the pods of the components in the job namespace and serves status and stats "
+                    + "requests from memory instead of listing pods on each request."
+    )
+    protected boolean enablePodCache = false;
+
+    @FieldContext(
+            doc = "Enable the StatefulSet cache, by default it is false. With the StatefulSet cache enabled, the mesh "
+                    + "worker service watches the StatefulSets in the job namespace and resolves the StatefulSet of "
+                    + "a component from memory instead of reading it on each status or stats request."
+    )
+    protected boolean enableStatefulSetCache = false;
+
+    @FieldContext(
+            doc = "The resync period of the pod cache in milliseconds, the informers of the status watch and the "
+                    + "topic index use it as well. By default it is 0, which disables resync."
+    )
+    protected long podCacheResyncPeriodMs = 0;
+
+    @FieldContext(
+            doc = "The resync period of the StatefulSet cache in milliseconds. By default it is 0, which disables "
+                    + "resync."
+    )
+    protected long statefulSetCacheResyncPeriodMs = 0;
+
+    @FieldContext(
+            doc = "The maximum number of asynchronous Kubernetes api requests the worker runs at the same time, "
+                    + "further requests wait until one completes. By default it is 64."
+    )
+    protected int kubernetesMaxInFlightRequests = 64;
+
+    @FieldContext(
+            doc = "The maximum number of idle connections the Kubernetes api client keeps. By default it is 32."
+    )
+    protected int kubernetesClientMaxIdleConnections = 32;
+
+    @FieldContext(
+            doc = "The seconds an idle connection of the Kubernetes api client is kept alive. By default it is 300."
+    )
+    protected long kubernetesClientKeepAliveSeconds = 300;
+
+    @FieldContext(
+            doc = "The maximum number of concurrent asynchronous requests of the Kubernetes api client. "
+                    + "By default it is 64."
+    )
+    protected int kubernetesClientMaxRequests = 64;
+
+    @FieldContext(
+            doc = "The maximum number of concurrent asynchronous requests of the Kubernetes api client to the api "
+                    + "server. By default it is 64, OkHttp itself allows only 5."
+    )
+    protected int kubernetesClientMaxRequestsPerHost = 64;
+
+    @FieldContext(
+            doc = "Whether the Kubernetes api client may use HTTP/2 when the api server supports it, otherwise only "
+                    + "HTTP/1.1 is used. By default it is true."
+    )
+    protected boolean kubernetesClientHttp2Enabled = true;
+
+    @FieldContext(
+            doc = "The connect timeout of the Kubernetes api client in milliseconds. By default it is 0, which keeps "
+                    + "the timeout of the client."
+    )
+    protected long kubernetesClientConnectTimeoutMs = 0;
+
+    @FieldContext(
+            doc = "The read timeout of the Kubernetes api client in milliseconds. By default it is 0, which keeps "
+                    + "the timeout of the client."
+    )
+    protected long kubernetesClientReadTimeoutMs = 0;
+
+    @FieldContext(
+            doc = "The write timeout of the Kubernetes api client in milliseconds. By default it is 0, which keeps "
+                    + "the timeout of the client."
+    )
+    protected long kubernetesClientWriteTimeoutMs = 0;
+
+    @FieldContext(
+            doc = "Whether the count and latency of the Kubernetes api requests are recorded and exposed with the "
+                    + "worker metrics. By default it is true."
+    )
+    protected boolean kubernetesClientMetricsEnabled = true;
+
+    @FieldContext(
+            doc = "Whether the requests to the Kubernetes api server are rate limited by the worker. Reads are sent "
+                    + "before writes and writes before deletes when the requests have to wait. By default it is "
+                    + "false."
+    )
+    protected boolean kubernetesClientRateLimitEnabled = false;
+
+    @FieldContext(
+            doc = "The number of requests per second sent to the Kubernetes api server when the rate limit is "
+                    + "enabled. By default it is 50."
+    )
+    protected double kubernetesClientQps = 50;
+
+    @FieldContext(
+            doc = "The number of requests that can be sent at once to the Kubernetes api server above the rate "
+                    + "limit after an idle period. By default it is 100."
+    )
+    protected int kubernetesClientBurst = 100;
+
+    @FieldContext(
+            doc = "The maximum number of reads, writes or deletes that wait for the rate limit, a request fails "
+                    + "right away when its kind is at the limit. By default it is 256."
+    )
+    protected int kubernetesClientMaxQueuedRequests = 256;
+
+    @FieldContext(
+            doc = "The maximum time in milliseconds a request waits for the rate limit before it fails. By default "
+                    + "it is 10000."
+    )
+    protected long kubernetesClientMaxQueueTimeMs = 10000;
+
+    @FieldContext(
+            doc = "The maximum number of attempts of a Kubernetes api request that is throttled or fails with a "
+                    + "server error, and of an update that conflicts with a concurrent change. 1 disables the "
+                    + "retries. By default it is 5."
+    )
+    protected int kubernetesRetryMaxAttempts = 5;
+
+    @FieldContext(
+            doc = "The backoff in milliseconds before the first retry of a Kubernetes api request, it doubles with "
+                    + "every retry and is randomized. By default it is 200."
+    )
+    protected long kubernetesRetryInitialBackoffMs = 200;
+
+    @FieldContext(
+            doc = "The maximum backoff in milliseconds between the retries of a Kubernetes api request, a longer "
+                    + "Retry-After of the api server is still honoured. By default it is 5000."
+    )
+    protected long kubernetesRetryMaxBackoffMs = 5000;
+
+    @FieldContext(
+            doc = "The maximum time in milliseconds spent on all attempts of a Kubernetes api request, no retry is "
+                    + "started after it. By default it is 15000."
+    )
+    protected long kubernetesRetryMaxElapsedMs = 15000;
+
+    @FieldContext(
+            doc = "The maximum number of background retries of a failed cleanup of a deleted component, such as "
+                    + "deleting its secrets or package. By default it is 10."
+    )
+    protected int cleanupRetryMaxAttempts = 10;
+
+    @FieldContext(
+            doc = "The delay before the first background retry of a failed cleanup in milliseconds, it doubles with "
+                    + "every retry up to one minute. By default it is 1000."
+    )
+    protected long cleanupRetryInitialBackoffMs = 1000;
+
+    @FieldContext(
+            doc = "Whether concurrent status and stats requests for the same component share one computation "
+                    + "instead of each querying Kubernetes and the instances. By default it is true."
+    )
+    protected boolean requestCoalescingEnabled = true;
+
+    @FieldContext(
+            doc = "Enable the status watch endpoint of the mesh api server, by default it is false. With it enabled, "
+                    + "the mesh worker service watches the custom resources, StatefulSets and pods in the job "
+                    + "namespace and streams status changes of a component as server-sent events."
+    )
+    protected boolean enableStatusWatch = false;
+
+    @FieldContext(
+            doc = "The maximum number of concurrent status watch connections. By default it is 64."
+    )
+    protected int statusWatchMaxConnections = 64;
+
+    @FieldContext(
+            doc = "The maximum number of status updates buffered for a status watch connection that does not keep "
+                    + "up, older updates are dropped beyond it. By default it is 16."
+    )
+    protected int statusWatchBufferSize = 16;
+
+    @FieldContext(
+            doc = "The seconds between heartbeats on an idle status watch connection. By default it is 15."
+    )
+    protected long statusWatchHeartbeatSeconds = 15;
+
+    @FieldContext(
+            doc = "Enable the topic index of the mesh api server, by default it is false. With it enabled, the mesh "
+                    + "worker service watches the custom resources in the job namespace and indexes them by their "
+                    + "input, output, log and dead letter topics and input topic patterns, so that the components "
+                    + "using a topic can be queried."
+    )
+    protected boolean enableTopicIndex = false;
+
+    @FieldContext(
+            doc = "Whether the gRPC calls to the instances are guarded per instance: the deadline is derived from the "
+                    + "observed latencies and an instance that keeps failing is reported as unreachable without "
+                    + "being called until a probe succeeds. By default it is true."
+    )
+    protected boolean instanceCallGuardEnabled = true;
+
+    @FieldContext(
+            doc = "The number of consecutive failed gRPC calls after which an instance is considered unreachable. "
+                    + "By default it is 3."
+    )
+    protected int instanceCallFailureThreshold = 3;
+
+    @FieldContext(
+            doc = "The milliseconds an unreachable instance is not called before a probe call is let through. "
+                    + "By default it is 30000."
+    )
+    protected long instanceCallOpenMs = 30000;
+
+    @FieldContext(
+            doc = "The lower bound of the derived deadline of gRPC calls to the instances in milliseconds. "
+                    + "By default it is 500."
+    )
+    protected long instanceCallMinDeadlineMs = 500;
+
+    @FieldContext(
+            doc = "The upper bound of the derived deadline of gRPC calls to the instances in milliseconds, it is also "
+                    + "the deadline until enough latencies are observed. By default it is 5000."
+    )
+    protected long instanceCallMaxDeadlineMs = 5000;
+
+    @FieldContext(
+            doc = "Whether the function, sink and source requests are admitted per tenant, with a rate and a "
+                    + "concurrency quota for every tenant and fair queuing across the tenants. Requests over the "
+                    + "quota fail with 429. By default it is false."
+    )
+    protected boolean tenantAdmissionControlEnabled = false;
+
+    @FieldContext(
+            doc = "The maximum number of requests of all tenants in progress at once, the other requests wait in "
+                    + "the order of the tenant weights. By default it is 64."
+    )
+    protected int admissionMaxConcurrentRequests = 64;
+
+    @FieldContext(
+            doc = "The maximum number of requests of a tenant in progress at once. By default it is 8."
+    )
+    protected int tenantMaxConcurrentRequests = 8;
+
+    @FieldContext(
+            doc = "The maximum number of requests of a tenant that wait to be admitted. By default it is 32."
+    )
+    protected int tenantMaxQueuedRequests = 32;
+
+    @FieldContext(
+            doc = "The number of requests per second a tenant can send, 0 means no limit. By default it is 20."
+    )
+    protected double tenantRequestsPerSecond = 20;
+
+    @FieldContext(
+            doc = "The number of requests a tenant can send at once above its rate after an idle period. By default "
+                    + "it is 40."
+    )
+    protected int tenantRequestBurst = 40;
+
+    @FieldContext(
+            doc = "The maximum time in milliseconds a request waits to be admitted before it fails. By default it is "
+                    + "5000."
+    )
+    protected long admissionMaxQueueTimeMs = 5000;
+
+    @FieldContext(
+            doc = "The weights of the tenants in the fair queuing of the requests, keyed by tenant. A tenant without "
+                    + "a weight has weight 1."
+    )
+    protected Map<String, Integer> tenantWeights;
+
+    @FieldContext(
+            doc = "Whether components can be registered and updated asynchronously through the mesh api, the "
+                    + "request is answered with 202 and a job whose status can be read later. By default it is "
+                    + "false."
+    )
+    protected boolean enableAsyncJobs = false;
+
+    @FieldContext(
+            doc = "The number of asynchronous registrations and updates that run at the same time. By default it is "
+                    + "4."
+    )
+    protected int asyncJobThreads = 4;
+
+    @FieldContext(
+            doc = "The maximum number of asynchronous registrations and updates waiting to run, further requests "
+                    + "fail with 503. By default it is 256."
+    )
+    protected int asyncJobMaxQueued = 256;
+
+    @FieldContext(
+            doc = "How long in seconds the outcome of an asynchronous registration or update is kept after it is "
+                    + "done. By default it is 3600."
+    )
+    protected long asyncJobRetentionSeconds = 3600;
+
+    @FieldContext(
+            doc = "How long in seconds the worker remembers a successful registration, update or job submission "
+                    + "sent with an Idempotency-Key header, a retry with the same key within that time returns the "
+                    + "first outcome without running again, and a key reused for a different request fails with 422. "
+                    + "The registrations and updates of the Pulsar admin api only see the header when authentication "
+                    + "is enabled. 0 disables the idempotency keys. By default it is 600."
+    )
+    protected long idempotencyKeyTtlSeconds = 600;
+
+    @FieldContext(
+            doc = "The maximum number of idempotency keys the worker remembers. By default it is 10000."
+    )
+    protected long idempotencyKeyMaxEntries = 10000;
+
+    @FieldContext(
+            doc = "How long in milliseconds a retry waits for a request with the same idempotency key that is still "
+                    + "running before it fails with 409. By default it is 30000."
+    )
+    protected long idempotencyKeyWaitMs = 30000;
+
+    @FieldContext(
+            doc = "The maximum number of function, sink and source configs converted from their custom resources "
+                    + "that are kept, a config is only converted again after its resource changed. 0 disables the "
+                    + "cache. By default it is 1000."
+    )
+    protected long componentConfigCacheSize = 1000;
+
     public List<V1alpha1SinkSpecPodVolumes> asV1alpha1SinkSpecPodVolumesList() throws JsonProcessingException {
         ObjectMapper objectMapper = ObjectMapperFactory.getThreadLocal();
         TypeReference<List<V1alpha1SinkSpecPodVolumes>> typeRef =
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.models;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.gson.Gson;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodImagePullSecrets;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodInitContainers;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodVolumeMounts;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodVolumes;
+import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodImagePullSecrets;
+import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodInitContainers;
+import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodVolumeMounts;
+import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodVolumes;
+import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPodImagePullSecrets;
+import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPodInitContainers;
+import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPodVolumeMounts;
+import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPodVolumes;
+import io.kubernetes.client.openapi.JSON;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The pod policy lists of one component kind derived from {@link MeshWorkerServiceCustomConfig}, converted to the
+ * CRD models once instead of on every request. Use the copy methods to get lists that can be set on a resource.
+ */
+public class PodPolicyTemplate<V, M, S, I> {
+    private static final Gson GSON = new JSON().getGson();
+
+    private final List<V> volumes;
+    private final List<M> volumeMounts;
+    private final List<S> imagePullSecrets;
+    private final List<I> initContainers;
+
+    PodPolicyTemplate(List<V> volumes, List<M> volumeMounts, List<S> imagePullSecrets, List<I> initContainers) {
+        this.volumes = immutable(volumes);
+        this.volumeMounts = immutable(volumeMounts);
+        this.imagePullSecrets = immutable(imagePullSecrets);
+        this.initContainers = immutable(initContainers);
+    }
+
+    public static PodPolicyTemplate<V1alpha1FunctionSpecPodVolumes, V1alpha1FunctionSpecPodVolumeMounts,
+            V1alpha1FunctionSpecPodImagePullSecrets, V1alpha1FunctionSpecPodInitContainers> forFunction(
+            MeshWorkerServiceCustomConfig config) throws JsonProcessingException {
+        return new PodPolicyTemplate<>(config.asV1alpha1FunctionSpecPodVolumesList(),
+                config.asV1alpha1FunctionSpecPodVolumeMounts(),
+                config.getImagePullSecrets() != null ? config.asV1alpha1FunctionSpecPodImagePullSecrets() : null,
+                config.asV1alpha1FunctionSpecPodInitContainers());
+    }
+
+    public static PodPolicyTemplate<V1alpha1SinkSpecPodVolumes, V1alpha1SinkSpecPodVolumeMounts,
+            V1alpha1SinkSpecPodImagePullSecrets, V1alpha1SinkSpecPodInitContainers> forSink(
+            MeshWorkerServiceCustomConfig config) throws JsonProcessingException {
+        return new PodPolicyTemplate<>(config.asV1alpha1SinkSpecPodVolumesList(),
+                config.asV1alpha1SinkSpecPodVolumeMountsList(),
+                config.getImagePullSecrets() != null ? config.asV1alpha1SinkSpecPodImagePullSecrets() : null,
+                config.asV1alpha1SinkSpecPodInitContainers());
+    }
+
+    public static PodPolicyTemplate<V1alpha1SourceSpecPodVolumes, V1alpha1SourceSpecPodVolumeMounts,
+            V1alpha1SourceSpecPodImagePullSecrets, V1alpha1SourceSpecPodInitContainers> forSource(
+            MeshWorkerServiceCustomConfig config) throws JsonProcessingException {
+        return new PodPolicyTemplate<>(config.asV1alpha1SourceSpecPodVolumesList(),
+                config.asV1alpha1SourceSpecPodVolumeMountsList(),
+                config.getImagePullSecrets() != null ? config.asV1alpha1SourceSpecPodImagePullSecrets() : null,
+                config.asV1alpha1SourceSpecPodInitContainers());
+    }
+
+    public List<V> copyVolumes() {
+        return copy(volumes);
+    }
+
+    public List<M> copyVolumeMounts() {
+        return copy(volumeMounts);
+    }
+
+    public List<S> copyImagePullSecrets() {
+        return copy(imagePullSecrets);
+    }
+
+    public List<I> copyInitContainers() {
+        return copy(initContainers);
+    }
+
+    // the CRD models are mutable, so each element is copied as well
+    private static <T> List<T> copy(List<T> template) {
+        return template.isEmpty() ? null : template.stream()
+                .map(PodPolicyTemplate::copyElement)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T copyElement(T element) {
+        return (T) GSON.fromJson(GSON.toJsonTree(element), element.getClass());
+    }
+
+    private static <T> List<T> immutable(List<T> list) {
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+}
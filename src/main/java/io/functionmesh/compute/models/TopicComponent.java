@@ -0,0 +1,45 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.models;
+
+import lombok.Data;
+
+/**
+ * A component that reads from or writes to a topic, and how it uses the topic.
+ */
+@Data
+public class TopicComponent {
+    private String type;
+    private String tenant;
+    private String namespace;
+    private String name;
+    private Role role;
+    /**
+     * The topic or topic pattern as declared by the component.
+     */
+    private String topic;
+
+    public enum Role {
+        INPUT,
+        INPUT_PATTERN,
+        OUTPUT,
+        LOG,
+        DEAD_LETTER
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.rest;
+
+import io.functionmesh.compute.MeshWorkerService;
+import io.functionmesh.compute.rest.resources.ComponentsResource;
+import java.util.EnumSet;
+import javax.servlet.DispatcherType;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pulsar.broker.web.AuthenticationFilter;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.FilterHolder;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.glassfish.jersey.jackson.JacksonFeature;
+import org.glassfish.jersey.media.multipart.MultiPartFeature;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.servlet.ServletContainer;
+
+/**
+ * Serves the mesh specific rest endpoints on the port configured by meshApiPort.
+ */
+@Slf4j
+public class MeshApiServer {
+    public static final String ATTRIBUTE_WORKER_NAME = "mesh-worker-service";
+
+    private final MeshWorkerService workerService;
+    private final int port;
+    private Server server;
+
+    public MeshApiServer(MeshWorkerService workerService, int port) {
+        this.workerService = workerService;
+        this.port = port;
+    }
+
+    public void start() throws Exception {
+        server = new Server();
+        ServerConnector connector = new ServerConnector(server);
+        connector.setPort(port);
+        server.addConnector(connector);
+
+        ResourceConfig config = new ResourceConfig(ComponentsResource.class);
+        config.register(JacksonFeature.class);
+        config.register(MultiPartFeature.class);
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath("/");
+        context.addServlet(new ServletHolder(new ServletContainer(config)), "/*");
+        context.setAttribute(ATTRIBUTE_WORKER_NAME, workerService);
+        if (workerService.isAuthenticationEnabled()) {
+            context.addFilter(new FilterHolder(new AuthenticationFilter(workerService.getAuthenticationService())),
+                    "/*", EnumSet.allOf(DispatcherType.class));
+        }
+        server.setHandler(context);
+        server.start();
+        log.info("Started mesh api server on port {}", port);
+    }
+
+    public void stop() {
+        if (server != null) {
+            try {
+                server.stop();
+            } catch (Exception e) {
+                log.warn("Failed to stop mesh api server", e);
+            }
+        }
+    }
+}
@@ -26,15 +26,19 @@ import io.functionmesh.compute.functions.models.V1alpha1Function;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionList;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecJava;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPod;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodImagePullSecrets;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodInitContainers;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodVolumeMounts;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodVolumes;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionStatus;
+import io.functionmesh.compute.models.MeshJob;
 import io.functionmesh.compute.models.MeshWorkerServiceCustomConfig;
+import io.functionmesh.compute.models.PodPolicyTemplate;
 import io.functionmesh.compute.util.CommonUtil;
 import io.functionmesh.compute.util.FunctionsUtil;
 import io.functionmesh.compute.util.KubernetesUtils;
 import io.functionmesh.compute.util.PackageManagementServiceUtil;
+import io.functionmesh.compute.worker.TenantAdmissionController;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import io.kubernetes.client.openapi.models.V1ContainerState;
@@ -47,8 +51,10 @@ import io.kubernetes.client.util.generic.GenericKubernetesApi;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
@@ -114,6 +120,11 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
         this.validateGetInfoRequestParams(tenant, namespace, functionName, apiKind);
     }
 
+    @Override
+    void validateComponentEnabled() {
+        validateFunctionEnabled();
+    }
+
     private void validateFunctionEnabled() {
         MeshWorkerServiceCustomConfig customConfig = worker().getMeshWorkerServiceCustomConfig();
         if (customConfig != null && !customConfig.isFunctionEnabled()) {
@@ -131,6 +142,31 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                                  final FunctionConfig functionConfig,
                                  final String clientRole,
                                  AuthenticationDataHttps clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try (IdempotentRequest request = idempotentRequest("register", tenant, namespace, functionName,
+                clientRole, clientAuthenticationDataHttps, idempotencyKey(clientAuthenticationDataHttps),
+                () -> requestHash(functionConfig, functionPkgUrl, fileDetail))) {
+            if (request.isReplayed()) {
+                return;
+            }
+            doRegisterFunction(tenant, namespace, functionName, uploadedInputStream, fileDetail, functionPkgUrl,
+                    functionConfig, clientRole, clientAuthenticationDataHttps, request);
+            request.complete();
+        } finally {
+            permit.close();
+        }
+    }
+
+    private void doRegisterFunction(final String tenant,
+                                    final String namespace,
+                                    final String functionName,
+                                    final InputStream uploadedInputStream,
+                                    final FormDataContentDisposition fileDetail,
+                                    final String functionPkgUrl,
+                                    final FunctionConfig functionConfig,
+                                    final String clientRole,
+                                    AuthenticationDataHttps clientAuthenticationDataHttps,
+                                    final IdempotentRequest idempotentRequest) {
         validateFunctionEnabled();
 
         validateRegisterFunctionRequestParams(tenant, namespace, functionName, functionConfig,
@@ -149,7 +185,8 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                         worker().getBrokerAdmin(), PackageManagementServiceUtil.PACKAGE_TYPE_FUNCTION, tenant,
                         namespace, functionName, uploadedInputStream, fileDetail, tempDirectory);
             } catch (Exception e) {
-                log.error("register {}/{}/{} function failed, error message: {}", tenant, namespace, functionName, e);
+                log.error("register {}/{}/{} function failed, error message: {}", tenant, namespace,
+                        functionName, e);
                 throw new RestException(Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
             }
         }
@@ -171,7 +208,8 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
             this.upsertFunction(tenant, namespace, functionName, functionConfig, v1alpha1Function,
                     clientAuthenticationDataHttps);
 
-            extractResponse(getResourceApi().create(v1alpha1Function));
+            idempotentRequest.record(v1alpha1Function);
+            createResource(v1alpha1Function);
         } catch (RestException restException) {
             log.error(
                     "register {}/{}/{} sink failed, error message: {}",
@@ -197,6 +235,32 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                                final String clientRole,
                                AuthenticationDataHttps clientAuthenticationDataHttps,
                                UpdateOptionsImpl updateOptions) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try (IdempotentRequest request = idempotentRequest("update", tenant, namespace, functionName,
+                clientRole, clientAuthenticationDataHttps, idempotencyKey(clientAuthenticationDataHttps),
+                () -> requestHash(functionConfig, functionPkgUrl, fileDetail))) {
+            if (request.isReplayed()) {
+                return;
+            }
+            doUpdateFunction(tenant, namespace, functionName, uploadedInputStream, fileDetail, functionPkgUrl,
+                    functionConfig, clientRole, clientAuthenticationDataHttps, updateOptions, request);
+            request.complete();
+        } finally {
+            permit.close();
+        }
+    }
+
+    private void doUpdateFunction(final String tenant,
+                                  final String namespace,
+                                  final String functionName,
+                                  final InputStream uploadedInputStream,
+                                  final FormDataContentDisposition fileDetail,
+                                  final String functionPkgUrl,
+                                  final FunctionConfig functionConfig,
+                                  final String clientRole,
+                                  AuthenticationDataHttps clientAuthenticationDataHttps,
+                                  UpdateOptionsImpl updateOptions,
+                                  final IdempotentRequest idempotentRequest) {
         validateFunctionEnabled();
 
         validateUpdateFunctionRequestParams(tenant, namespace, functionName, functionConfig,
@@ -234,32 +298,89 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
 
             String nameSpaceName = worker().getJobNamespace();
             String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, functionName);
-            V1alpha1Function v1alpha1FunctionPre = extractResponse(getResourceApi().get(nameSpaceName, hashName));
-            if (v1alpha1FunctionPre.getMetadata() == null || v1alpha1FunctionPre.getMetadata().getLabels() == null) {
-                log.error("update {}/{}/{} function failed, the function resource cannot be found", tenant, namespace,
-                        functionName);
+            V1alpha1Function v1alpha1FunctionPre = getResource(nameSpaceName, hashName);
+            if (v1alpha1FunctionPre.getMetadata() == null
+                    || v1alpha1FunctionPre.getMetadata().getLabels() == null) {
+                log.error("update {}/{}/{} function failed, the function resource cannot be found", tenant,
+                        namespace, functionName);
                 throw new RestException(Response.Status.NOT_FOUND, "This function resource was not found");
             }
 
             v1alpha1Function.getMetadata().setNamespace(worker().getJobNamespace());
-            v1alpha1Function.getMetadata().setResourceVersion(v1alpha1FunctionPre.getMetadata().getResourceVersion());
+            v1alpha1Function.getMetadata()
+                    .setResourceVersion(v1alpha1FunctionPre.getMetadata().getResourceVersion());
 
             this.upsertFunction(tenant, namespace, functionName, functionConfig, v1alpha1Function,
                     clientAuthenticationDataHttps);
-            extractResponse(getResourceApi().update(v1alpha1Function));
+            idempotentRequest.record(v1alpha1Function);
+            updateResource(v1alpha1Function);
         } catch (Exception e) {
             log.error("update {}/{}/{} function failed", tenant, namespace, functionName, e);
             throw new RestException(Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
         }
     }
 
-    @SuppressWarnings("checkstyle:RegexpSingleline")
+    @Override
+    protected Object convertResource(final String tenant,
+                                     final String namespace,
+                                     final String componentName,
+                                     final V1alpha1Function v1alpha1Function) {
+        return FunctionsUtil.createFunctionConfigFromV1alpha1Function(tenant, namespace, componentName,
+                v1alpha1Function, worker());
+    }
+
+    @Override
+    protected JobRunner jobRunner(final MeshJob.Action action,
+                                  final String tenant,
+                                  final String namespace,
+                                  final String functionName,
+                                  final String config) {
+        FunctionConfig functionConfig = readJobConfig(config, FunctionConfig.class);
+        if (action == MeshJob.Action.UPDATE) {
+            return (uploadedInputStream, fileDetail, packageUrl, clientRole, clientAuthenticationDataHttps,
+                    idempotentRequest) -> {
+                TenantAdmissionController.Permit permit = admit(tenant);
+                try {
+                    doUpdateFunction(tenant, namespace, functionName, uploadedInputStream, fileDetail, packageUrl,
+                            functionConfig, clientRole, clientAuthenticationDataHttps,
+                            new UpdateOptionsImpl(), idempotentRequest);
+                } finally {
+                    permit.close();
+                }
+            };
+        }
+        return (uploadedInputStream, fileDetail, packageUrl, clientRole, clientAuthenticationDataHttps,
+                idempotentRequest) -> {
+            TenantAdmissionController.Permit permit = admit(tenant);
+            try {
+                doRegisterFunction(tenant, namespace, functionName, uploadedInputStream, fileDetail, packageUrl,
+                        functionConfig, clientRole, clientAuthenticationDataHttps, idempotentRequest);
+            } finally {
+                permit.close();
+            }
+        };
+    }
+
     @Override
     public FunctionConfig getFunctionInfo(final String tenant,
                                           final String namespace,
                                           final String componentName,
                                           final String clientRole,
                                           final AuthenticationDataSource clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            return doGetFunctionInfo(tenant, namespace, componentName, clientRole, clientAuthenticationDataHttps);
+        } finally {
+            permit.close();
+        }
+    }
+
+    @SuppressWarnings("checkstyle:RegexpSingleline")
+    private FunctionConfig doGetFunctionInfo(final String tenant,
+                                             final String namespace,
+                                             final String componentName,
+                                             final String clientRole,
+                                             final AuthenticationDataSource clientAuthenticationDataHttps) {
         validateFunctionEnabled();
         validateGetFunctionInfoRequestParams(tenant, namespace, componentName);
 
@@ -270,13 +391,7 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                 ComponentTypeUtils.toString(componentType));
 
         try {
-            String nameSpaceName = worker().getJobNamespace();
-            String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, componentName);
-
-            V1alpha1Function v1alpha1Function = extractResponse(getResourceApi().get(nameSpaceName, hashName));
-
-            return FunctionsUtil.createFunctionConfigFromV1alpha1Function(tenant, namespace, componentName,
-                    v1alpha1Function, worker());
+            return (FunctionConfig) readComponentConfig(tenant, namespace, componentName).getConfig();
         } catch (Exception e) {
             log.error("get {}/{}/{} function failed", tenant, namespace, componentName, e);
             throw new RestException(Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
@@ -291,7 +406,7 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
             String nameSpaceName = worker().getJobNamespace();
             String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, componentName);
 
-            V1alpha1Function v1alpha1Function = extractResponse(getResourceApi().get(nameSpaceName, hashName));
+            V1alpha1Function v1alpha1Function = getResource(nameSpaceName, hashName);
             try {
                 validateResourceObject(v1alpha1Function);
             } catch (IllegalArgumentException e) {
@@ -299,6 +414,10 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                 return functionInstanceStatsList;
             }
             V1alpha1FunctionStatus v1alpha1FunctionStatus = v1alpha1Function.getStatus();
+            // the pods are listed while the StatefulSet is read
+            CompletableFuture<V1PodList> podListFuture =
+                    getComponentPodsAsync(tenant, namespace, componentName, v1alpha1FunctionStatus.getSelector(),
+                            () -> getFunctionPods(tenant, namespace, componentName, v1alpha1FunctionStatus));
             final V1StatefulSet v1StatefulSet = getFunctionStatefulSet(v1alpha1Function);
             try {
                 validateStatefulSet(v1StatefulSet);
@@ -318,7 +437,7 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                     }
                 }
             }
-            V1PodList podList = getFunctionPods(tenant, namespace, componentName, v1alpha1FunctionStatus);
+            V1PodList podList = podListFuture.join();
             if (podList != null) {
                 List<V1Pod> runningPods = podList.getItems().stream().
                         filter(KubernetesUtils::isPodRunning).collect(Collectors.toList());
@@ -330,7 +449,7 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                     Set<CompletableFuture<InstanceCommunication.MetricsData>> completableFutureSet =
                             fetchStatsFromGRPC(runningPods, subdomain, statefulSetName,
                                     nameSpaceName, functionInstanceStatsList, channel, stub);
-                    completableFutureSet.forEach(CompletableFuture::join);
+                    completableFutureSet.forEach(future -> future.handle((result, e) -> result).join());
                 }
             }
         } catch (Exception e) {
@@ -356,6 +475,21 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
         }
     }
 
+    @Override
+    String getComponentPackageLocation(V1alpha1Function obj) {
+        if (obj == null || obj.getSpec() == null) {
+            return null;
+        }
+        if (obj.getSpec().getJava() != null) {
+            return obj.getSpec().getJava().getJarLocation();
+        } else if (obj.getSpec().getPython() != null) {
+            return obj.getSpec().getPython().getPyLocation();
+        } else if (obj.getSpec().getGolang() != null) {
+            return obj.getSpec().getGolang().getGoLocation();
+        }
+        return null;
+    }
+
     @Override
     public FunctionStatus.FunctionInstanceStatus.FunctionInstanceStatusData getFunctionInstanceStatus(
             final String tenant,
@@ -365,8 +499,57 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
             final URI uri,
             final String clientRole,
             final AuthenticationDataSource clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            return doGetFunctionInstanceStatus(tenant, namespace, componentName, instanceId, uri, clientRole,
+                    clientAuthenticationDataHttps);
+        } finally {
+            permit.close();
+        }
+    }
 
-        throw new RestException(Response.Status.BAD_REQUEST, "Unsupported Operation");
+    private FunctionStatus.FunctionInstanceStatus.FunctionInstanceStatusData doGetFunctionInstanceStatus(
+            final String tenant,
+            final String namespace,
+            final String componentName,
+            final String instanceId,
+            final URI uri,
+            final String clientRole,
+            final AuthenticationDataSource clientAuthenticationDataHttps) {
+        validateFunctionEnabled();
+        this.validateGetInfoRequestParams(tenant, namespace, componentName,
+                ComponentTypeUtils.toString(componentType));
+        this.validatePermission(tenant,
+                namespace,
+                clientRole,
+                clientAuthenticationDataHttps,
+                ComponentTypeUtils.toString(componentType));
+
+        V1alpha1Function v1alpha1Function = getComponentResource(tenant, namespace, componentName);
+        V1StatefulSet v1StatefulSet = getComponentStatefulSet(v1alpha1Function, tenant, namespace, componentName);
+        int shardId = parseInstanceId(instanceId, v1StatefulSet);
+        FunctionStatus functionStatus = new FunctionStatus();
+        FunctionStatus.FunctionInstanceStatus functionInstanceStatus = new FunctionStatus.FunctionInstanceStatus();
+        functionInstanceStatus.setInstanceId(shardId);
+        functionInstanceStatus.setStatus(new FunctionStatus.FunctionInstanceStatus.FunctionInstanceStatusData());
+        functionStatus.addInstance(functionInstanceStatus);
+
+        String nameSpaceName = worker().getJobNamespace();
+        String statefulSetName = v1StatefulSet.getMetadata().getName();
+        V1Pod pod = getInstancePod(v1StatefulSet, shardId);
+        if (pod == null) {
+            functionInstanceStatus.getStatus()
+                    .setError("pod " + statefulSetName + "-" + shardId + " does not exist");
+        } else if (KubernetesUtils.isPodRunning(pod)) {
+            fetchFunctionStatusFromGRPC(Collections.singletonList(pod), v1StatefulSet.getSpec().getServiceName(),
+                    statefulSetName, nameSpaceName, functionStatus, v1alpha1Function, new ManagedChannel[1],
+                    new InstanceControlGrpc.InstanceControlFutureStub[1])
+                    .forEach(future -> future.handle((result, e) -> result).join());
+        } else {
+            fillFunctionStatusByPendingPod(Collections.singletonList(pod), statefulSetName, nameSpaceName,
+                    functionStatus, v1alpha1Function);
+        }
+        return functionInstanceStatus.getStatus();
     }
 
     @Override
@@ -376,17 +559,38 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                                             final URI uri,
                                             final String clientRole,
                                             final AuthenticationDataSource clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            return doGetFunctionStatus(tenant, namespace, componentName, uri, clientRole,
+                    clientAuthenticationDataHttps);
+        } finally {
+            permit.close();
+        }
+    }
+
+    private FunctionStatus doGetFunctionStatus(final String tenant,
+                                               final String namespace,
+                                               final String componentName,
+                                               final URI uri,
+                                               final String clientRole,
+                                               final AuthenticationDataSource clientAuthenticationDataHttps) {
         validateFunctionEnabled();
-        FunctionStatus functionStatus = new FunctionStatus();
         this.validatePermission(tenant,
                 namespace,
                 clientRole,
                 clientAuthenticationDataHttps,
                 ComponentTypeUtils.toString(componentType));
+        return coalesce("status", tenant, namespace, componentName,
+                () -> computeFunctionStatus(tenant, namespace, componentName));
+    }
+
+    private FunctionStatus computeFunctionStatus(final String tenant, final String namespace,
+                                                 final String componentName) {
+        FunctionStatus functionStatus = new FunctionStatus();
         try {
             String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, componentName);
             String nameSpaceName = worker().getJobNamespace();
-            V1alpha1Function v1alpha1Function = extractResponse(getResourceApi().get(nameSpaceName, hashName));
+            V1alpha1Function v1alpha1Function = getResource(nameSpaceName, hashName);
             try {
                 validateResourceObject(v1alpha1Function);
             } catch (IllegalArgumentException e) {
@@ -397,6 +601,10 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
             }
             V1alpha1FunctionStatus v1alpha1FunctionStatus = v1alpha1Function.getStatus();
             String functionLabelSelector = v1alpha1FunctionStatus.getSelector();
+            // the pods are listed while the StatefulSet is read
+            CompletableFuture<V1PodList> podListFuture =
+                    getComponentPodsAsync(tenant, namespace, componentName, v1alpha1FunctionStatus.getSelector(),
+                            () -> getFunctionPods(tenant, namespace, componentName, v1alpha1FunctionStatus));
             V1StatefulSet v1StatefulSet = getFunctionStatefulSet(v1alpha1Function);
             String statefulSetName = "";
             String subdomain = "";
@@ -455,7 +663,7 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                         componentName);
                 throw new RestException(Response.Status.NOT_FOUND, "no StatefulSet status exists");
             }
-            V1PodList podList = getFunctionPods(tenant, namespace, componentName, v1alpha1FunctionStatus);
+            V1PodList podList = podListFuture.join();
             if (podList != null) {
                 List<V1Pod> runningPods = podList.getItems().stream().
                         filter(KubernetesUtils::isPodRunning).collect(Collectors.toList());
@@ -469,7 +677,7 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                     Set<CompletableFuture<InstanceCommunication.FunctionStatus>> completableFutureSet =
                             fetchFunctionStatusFromGRPC(runningPods, subdomain, statefulSetName, nameSpaceName,
                                     functionStatus, v1alpha1Function, channel, stub);
-                    completableFutureSet.forEach(CompletableFuture::join);
+                    completableFutureSet.forEach(future -> future.handle((result, e) -> result).join());
                 }
                 if (!pendingPods.isEmpty()) {
                     fillFunctionStatusByPendingPod(pendingPods, statefulSetName, nameSpaceName, functionStatus,
@@ -511,13 +719,16 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                         v1alpha1Function.getSpec().setPod(podPolicy);
                     }
                     MeshWorkerServiceCustomConfig customConfig = worker().getMeshWorkerServiceCustomConfig();
+                    PodPolicyTemplate<V1alpha1FunctionSpecPodVolumes, V1alpha1FunctionSpecPodVolumeMounts,
+                            V1alpha1FunctionSpecPodImagePullSecrets, V1alpha1FunctionSpecPodInitContainers> template =
+                            podPolicyTemplate(customConfig);
                     List<V1alpha1FunctionSpecPodVolumes> volumesList =
-                            customConfig.asV1alpha1FunctionSpecPodVolumesList();
+                            template.copyVolumes();
                     if (volumesList != null && !volumesList.isEmpty()) {
                         podPolicy.setVolumes(volumesList);
                     }
                     List<V1alpha1FunctionSpecPodVolumeMounts> volumeMountsList =
-                            customConfig.asV1alpha1FunctionSpecPodVolumeMounts();
+                            template.copyVolumeMounts();
                     if (volumeMountsList != null && !volumeMountsList.isEmpty()) {
                         v1alpha1Function.getSpec().setVolumeMounts(volumeMountsList);
                     }
@@ -536,27 +747,24 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                             v1alpha1Function.getSpec().setJava(v1alpha1FunctionSpecJava);
                         }
                     }
-                    if (!StringUtils.isEmpty(worker().getWorkerConfig().getBrokerClientAuthenticationPlugin())
-                            && !StringUtils.isEmpty(
-                            worker().getWorkerConfig().getBrokerClientAuthenticationParameters())) {
-                        String authSecretName = KubernetesUtils.upsertSecret(apiKind.toLowerCase(), "auth",
-                                v1alpha1Function.getSpec().getClusterName(), tenant, namespace, functionName, worker());
-                        v1alpha1Function.getSpec().getPulsar().setAuthSecret(authSecretName);
+                    Map<String, String> secretNames = upsertComponentSecrets(
+                            v1alpha1Function.getSpec().getClusterName(), tenant, namespace, functionName);
+                    if (secretNames.containsKey(SECRET_TYPE_AUTH)) {
+                        v1alpha1Function.getSpec().getPulsar().setAuthSecret(secretNames.get(SECRET_TYPE_AUTH));
                     }
-                    if (worker().getWorkerConfig().getTlsEnabled()) {
-                        String tlsSecretName = KubernetesUtils.upsertSecret(apiKind.toLowerCase(), "tls",
-                                v1alpha1Function.getSpec().getClusterName(), tenant, namespace, functionName, worker());
-                        v1alpha1Function.getSpec().getPulsar().setTlsSecret(tlsSecretName);
+                    if (secretNames.containsKey(SECRET_TYPE_TLS)) {
+                        v1alpha1Function.getSpec().getPulsar().setTlsSecret(secretNames.get(SECRET_TYPE_TLS));
                     }
                     if (!StringUtils.isEmpty(customConfig.getDefaultServiceAccountName())
                             && StringUtils.isEmpty(podPolicy.getServiceAccountName())) {
                         podPolicy.setServiceAccountName(customConfig.getDefaultServiceAccountName());
                     }
-                    if (customConfig.getImagePullSecrets() != null && !customConfig.getImagePullSecrets().isEmpty()) {
-                        podPolicy.setImagePullSecrets(customConfig.asV1alpha1FunctionSpecPodImagePullSecrets());
+                    List<V1alpha1FunctionSpecPodImagePullSecrets> imagePullSecrets = template.copyImagePullSecrets();
+                    if (imagePullSecrets != null) {
+                        podPolicy.setImagePullSecrets(imagePullSecrets);
                     }
                     List<V1alpha1FunctionSpecPodInitContainers> initContainersList =
-                            customConfig.asV1alpha1FunctionSpecPodInitContainers();
+                            template.copyInitContainers();
                     if (initContainersList != null && !initContainersList.isEmpty()) {
                         podPolicy.setInitContainers(initContainersList);
                     }
@@ -577,11 +785,16 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
         }
     }
 
+    @Override
     public V1StatefulSet getFunctionStatefulSet(V1alpha1Function v1alpha1Function) {
         try {
             String nameSpaceName = worker().getJobNamespace();
             String jobName =
                     CommonUtil.makeJobName(v1alpha1Function.getMetadata().getName(), CommonUtil.COMPONENT_FUNCTION);
+            V1StatefulSet cachedStatefulSet = getCachedStatefulSet(v1alpha1Function, jobName);
+            if (cachedStatefulSet != null) {
+                return cachedStatefulSet;
+            }
             V1StatefulSet v1StatefulSet =
                     worker().getAppsV1Api().readNamespacedStatefulSet(jobName, nameSpaceName, null, null, null);
             if (validateResourceOwner(v1StatefulSet, v1alpha1Function)) {
@@ -600,12 +813,7 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                                      V1alpha1FunctionStatus v1alpha1FunctionStatus) {
         V1PodList podList = null;
         try {
-            String nameSpaceName = worker().getJobNamespace();
-            String functionLabelSelector = v1alpha1FunctionStatus.getSelector();
-            podList = worker().getCoreV1Api().listNamespacedPod(
-                    nameSpaceName, null, null, null, null,
-                    functionLabelSelector, null, null, null, null,
-                    null);
+            podList = listComponentPods(tenant, namespace, componentName, v1alpha1FunctionStatus.getSelector());
         } catch (Exception e) {
             log.error("get function pods failed, {}/{}/{}", tenant, namespace, componentName, e);
         }
@@ -659,15 +867,16 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                     }
                 }
                 // get status from grpc
-                if (channel[podIndex] == null && stub[podIndex] == null) {
-                    channel[podIndex] = ManagedChannelBuilder.forAddress(address, 9093)
-                            .usePlaintext()
-                            .build();
-                    stub[podIndex] = InstanceControlGrpc.newFutureStub(channel[podIndex]);
-                }
-                CompletableFuture<InstanceCommunication.FunctionStatus> future =
-                        CommonUtil.getFunctionStatusAsync(stub[podIndex]);
-                future.whenComplete((fs, e) -> {
+                CompletableFuture<InstanceCommunication.FunctionStatus> future = callInstance(address, deadlineMs -> {
+                    if (channel[podIndex] == null && stub[podIndex] == null) {
+                        channel[podIndex] = ManagedChannelBuilder.forAddress(address, 9093)
+                                .usePlaintext()
+                                .build();
+                        stub[podIndex] = InstanceControlGrpc.newFutureStub(channel[podIndex]);
+                    }
+                    return CommonUtil.getFunctionStatusAsync(withDeadline(stub[podIndex], deadlineMs));
+                });
+                completableFutureSet.add(future.whenComplete((fs, e) -> {
                     if (channel[podIndex] != null) {
                         log.debug("closing channel {}", podIndex);
                         channel[podIndex].shutdown();
@@ -683,8 +892,7 @@ public class FunctionsImpl extends MeshComponentImpl<V1alpha1Function, V1alpha1F
                         FunctionsUtil.convertFunctionStatusToInstanceStatusData(fs,
                                 functionInstanceStatusData);
                     }
-                });
-                completableFutureSet.add(future);
+                }));
             } else {
                 log.error(
                         "Get function {}-{} status failed from namespace {}, cannot find status for "
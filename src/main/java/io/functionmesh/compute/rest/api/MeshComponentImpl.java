@@ -21,47 +21,103 @@ package io.functionmesh.compute.rest.api;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.functionmesh.compute.util.CommonUtil.COMPONENT_LABEL_CLAIM;
 import static io.functionmesh.compute.util.CommonUtil.getCustomLabelClaimsSelector;
+import static io.functionmesh.compute.util.KubernetesUtils.validateResourceOwner;
+import static io.functionmesh.compute.util.KubernetesUtils.validateStatefulSet;
 import static io.functionmesh.compute.util.PackageManagementServiceUtil.getPackageTypeFromComponentType;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.pulsar.functions.worker.rest.RestUtils.throwUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.collect.Lists;
+import com.google.gson.JsonElement;
 import io.functionmesh.compute.MeshWorkerService;
-import io.functionmesh.compute.functions.models.V1alpha1FunctionList;
+import io.functionmesh.compute.models.ComponentStatusSnapshot;
+import io.functionmesh.compute.models.MeshJob;
+import io.functionmesh.compute.models.MeshWorkerServiceCustomConfig;
+import io.functionmesh.compute.models.PodPolicyTemplate;
+import io.functionmesh.compute.models.VersionedComponentConfig;
 import io.functionmesh.compute.util.CommonUtil;
+import io.functionmesh.compute.util.JsonStreamUtil;
 import io.functionmesh.compute.util.KubernetesUtils;
 import io.functionmesh.compute.util.PackageManagementServiceUtil;
+import io.functionmesh.compute.util.PackageStreamingOutput;
+import io.functionmesh.compute.util.SingleFlight;
+import io.functionmesh.compute.worker.ComponentConfigCache;
+import io.functionmesh.compute.worker.IdempotencyCache;
+import io.functionmesh.compute.worker.InstanceCallGuard;
+import io.functionmesh.compute.worker.KubernetesAsyncClient;
+import io.functionmesh.compute.worker.KubernetesRetryPolicy;
+import io.functionmesh.compute.worker.MeshCleanupQueue;
+import io.functionmesh.compute.worker.MeshJobQueue;
+import io.functionmesh.compute.worker.MeshPodCache;
+import io.functionmesh.compute.worker.MeshStatefulSetCache;
+import io.functionmesh.compute.worker.MeshStatusWatcher;
+import io.functionmesh.compute.worker.TenantAdmissionController;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.Pair;
 import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodList;
+import io.kubernetes.client.openapi.models.V1StatefulSet;
+import io.kubernetes.client.openapi.models.V1Status;
 import io.kubernetes.client.util.generic.GenericKubernetesApi;
 import io.kubernetes.client.util.generic.KubernetesApiResponse;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongFunction;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.StreamingOutput;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.Call;
 import okhttp3.Response;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.pulsar.broker.authentication.AuthenticationDataHttps;
 import org.apache.pulsar.broker.authentication.AuthenticationDataSource;
+import org.apache.pulsar.client.admin.PulsarAdmin;
 import org.apache.pulsar.client.admin.PulsarAdminException;
 import org.apache.pulsar.common.functions.FunctionConfig;
 import org.apache.pulsar.common.functions.FunctionState;
 import org.apache.pulsar.common.functions.Resources;
+import org.apache.pulsar.common.functions.Utils;
 import org.apache.pulsar.common.io.ConnectorDefinition;
 import org.apache.pulsar.common.naming.NamespaceName;
+import org.apache.pulsar.common.policies.data.FunctionInstanceStatsData;
 import org.apache.pulsar.common.policies.data.FunctionInstanceStatsDataImpl;
 import org.apache.pulsar.common.policies.data.FunctionInstanceStatsImpl;
 import org.apache.pulsar.common.policies.data.FunctionStatsImpl;
 import org.apache.pulsar.common.policies.data.TenantInfo;
+import org.apache.pulsar.common.util.FutureUtil;
+import org.apache.pulsar.common.util.ObjectMapperFactory;
 import org.apache.pulsar.common.util.RestException;
 import org.apache.pulsar.functions.proto.Function;
 import org.apache.pulsar.functions.proto.InstanceCommunication.MetricsData;
@@ -70,12 +126,19 @@ import org.apache.pulsar.functions.proto.InstanceControlGrpc.InstanceControlFutu
 import org.apache.pulsar.functions.utils.ComponentTypeUtils;
 import org.apache.pulsar.functions.worker.WorkerService;
 import org.apache.pulsar.functions.worker.service.api.Component;
+import org.apache.pulsar.packages.management.core.common.PackageName;
+import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 
 @Slf4j
 public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.KubernetesObject,
         K extends io.kubernetes.client.common.KubernetesListObject> implements Component<MeshWorkerService> {
 
     static final String API_GROUP = "compute.functionmesh.io";
+
+    static final String PACKAGE_CACHE_DIRECTORY = "packages";
+    static final int NAMESPACE_CLEANUP_BATCH_SIZE = 16;
+    static final String SECRET_TYPE_AUTH = "auth";
+    static final String SECRET_TYPE_TLS = "tls";
     protected final Supplier<MeshWorkerService> meshWorkerServiceSupplier;
     protected final Function.FunctionDetails.ComponentType componentType;
     protected String apiVersion = "v1alpha1";
@@ -83,6 +146,7 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
     protected String apiPlural = "functions";
     @Getter
     protected GenericKubernetesApi<T, K> resourceApi;
+    private final SingleFlight<String, Object> inFlightRequests = new SingleFlight<>();
 
     MeshComponentImpl(Supplier<MeshWorkerService> meshWorkerServiceSupplier,
                       Function.FunctionDetails.ComponentType componentType) {
@@ -108,6 +172,19 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
                                    final String componentName,
                                    final String clientRole,
                                    AuthenticationDataHttps clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            doDeregisterFunction(tenant, namespace, componentName, clientRole, clientAuthenticationDataHttps);
+        } finally {
+            permit.close();
+        }
+    }
+
+    private void doDeregisterFunction(final String tenant,
+                                      final String namespace,
+                                      final String componentName,
+                                      final String clientRole,
+                                      AuthenticationDataHttps clientAuthenticationDataHttps) {
         this.validateGetInfoRequestParams(tenant, namespace, componentName, apiKind);
 
         this.validatePermission(tenant,
@@ -119,80 +196,873 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
             String clusterName = worker().getWorkerConfig().getPulsarFunctionsCluster();
             String nameSpaceName = worker().getJobNamespace();
             String hashName = CommonUtil.createObjectName(clusterName, tenant, namespace, componentName);
-            getResourceApi().delete(nameSpaceName, hashName);
-
-            if (worker().getMeshWorkerServiceCustomConfig().isUploadEnabled()) {
-                PackageManagementServiceUtil.deletePackageFromPackageService(
-                        worker().getBrokerAdmin(), getPackageTypeFromComponentType(componentType),
-                        tenant, namespace, componentName);
-            }
-
-            if (!StringUtils.isEmpty(worker().getWorkerConfig().getBrokerClientAuthenticationPlugin())
-                    && !StringUtils.isEmpty(worker().getWorkerConfig().getBrokerClientAuthenticationParameters())) {
-                Call deleteAuthSecretCall = worker().getCoreV1Api()
-                        .deleteNamespacedSecretCall(
-                                KubernetesUtils.getUniqueSecretName(
-                                        apiKind.toLowerCase(),
-                                        "auth",
-                                        DigestUtils.sha256Hex(
-                                                KubernetesUtils.getSecretName(
-                                                        clusterName, tenant, namespace, componentName))),
-                                worker().getJobNamespace(),
-                                null,
-                                null,
-                                30,
-                                false,
-                                null,
-                                null,
-                                null
-                        );
-                executeCall(deleteAuthSecretCall, null);
-            }
-            if (worker().getWorkerConfig().getTlsEnabled()) {
-                Call deleteTlsSecretCall = worker().getCoreV1Api()
-                        .deleteNamespacedSecretCall(
-                                KubernetesUtils.getUniqueSecretName(
-                                        apiKind.toLowerCase(),
-                                        "tls",
-                                        DigestUtils.sha256Hex(
-                                                KubernetesUtils.getSecretName(
-                                                        clusterName, tenant, namespace, componentName))),
-                                worker().getJobNamespace(),
-                                null,
-                                null,
-                                30,
-                                false,
-                                null,
-                                null,
-                                null
-                        );
-                executeCall(deleteTlsSecretCall, null);
-            }
+            // the secrets and the package are only removed once the component is gone, a failed delete of the
+            // resource leaves the component running with everything it needs
+            waitForAll(Collections.singletonList(deleteComponentResourceAsync(nameSpaceName, hashName)));
         } catch (Exception e) {
             log.error("deregister {}/{}/{} {} failed", tenant, namespace, componentName, apiPlural, e);
             throw new RestException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
         }
+        try {
+            // the secrets and the package are independent, so their deletes are sent at once
+            List<CompletableFuture<Void>> cleanupFutures = new ArrayList<>();
+            runCleanups(componentCleanups(worker().getWorkerConfig().getPulsarFunctionsCluster(), tenant, namespace,
+                    componentName), cleanupFutures);
+            waitForAll(cleanupFutures);
+        } catch (Exception e) {
+            // the component is deregistered, only its cleanup failed
+            log.warn("deregistered {}/{}/{} {} but failed to clean it up", tenant, namespace, componentName,
+                    apiPlural, e);
+        }
     }
 
-    public <R> R executeCall(Call call, Class<R> c) throws Exception {
-        Response response;
-        response = call.execute();
-        if (response.isSuccessful() && response.body() != null) {
-            String data = response.body().string();
-            if (c == null) {
+    /**
+     * Subscribes to the status changes of a component. The caller must close the subscription.
+     */
+    public MeshStatusWatcher.Subscription watchComponentStatus(
+            final String tenant,
+            final String namespace,
+            final String componentName,
+            final String clientRole,
+            final AuthenticationDataSource clientAuthenticationDataHttps) {
+        if (!isWorkerServiceAvailable()) {
+            throwUnavailableException();
+        }
+        MeshStatusWatcher statusWatcher = worker().getStatusWatcher();
+        if (statusWatcher == null) {
+            throw new RestException(javax.ws.rs.core.Response.Status.NOT_FOUND, "Status watch is not enabled");
+        }
+        this.validatePermission(tenant,
+                namespace,
+                clientRole,
+                clientAuthenticationDataHttps,
+                ComponentTypeUtils.toString(componentType));
+        this.validateGetInfoRequestParams(tenant, namespace, componentName, ComponentTypeUtils.toString(componentType));
+        getComponentResource(tenant, namespace, componentName);
+        MeshStatusWatcher.Subscription subscription =
+                statusWatcher.subscribe(apiPlural, tenant, namespace, componentName);
+        if (subscription == null) {
+            throw new RestException(javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE,
+                    "Too many status watch connections");
+        }
+        return subscription;
+    }
+
+    /**
+     * Returns the status of every component of this kind in a Pulsar namespace. It is built from one list of the
+     * custom resources and one list of their pods, the instances are not queried.
+     */
+    public List<ComponentStatusSnapshot> getNamespaceStatus(
+            final String tenant,
+            final String namespace,
+            final String clientRole,
+            final AuthenticationDataSource clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            return doGetNamespaceStatus(tenant, namespace, clientRole, clientAuthenticationDataHttps);
+        } finally {
+            permit.close();
+        }
+    }
+
+    private List<ComponentStatusSnapshot> doGetNamespaceStatus(
+            final String tenant,
+            final String namespace,
+            final String clientRole,
+            final AuthenticationDataSource clientAuthenticationDataHttps) {
+        if (!isWorkerServiceAvailable()) {
+            throwUnavailableException();
+        }
+        if (StringUtils.isEmpty(tenant) || StringUtils.isEmpty(namespace)) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST,
+                    "Tenant and namespace are required");
+        }
+        this.validatePermission(tenant,
+                namespace,
+                clientRole,
+                clientAuthenticationDataHttps,
+                ComponentTypeUtils.toString(componentType));
+        try {
+            String clusterName = worker().getWorkerConfig().getPulsarFunctionsCluster();
+            String labelSelector = getCustomLabelClaimsSelector(clusterName, tenant, namespace);
+            // the pods are listed while the resources are read
+            CompletableFuture<V1PodList> podListFuture = listPodsAsync(labelSelector);
+            List<JsonElement> resources = executeListCall(listComponentsCall(labelSelector));
+            Map<String, List<V1Pod>> podsByComponent = new HashMap<>();
+            V1PodList podList = podListFuture.get();
+            if (podList != null && podList.getItems() != null) {
+                for (V1Pod pod : podList.getItems()) {
+                    Map<String, String> labels = pod.getMetadata() != null ? pod.getMetadata().getLabels() : null;
+                    if (labels != null && labels.containsKey(COMPONENT_LABEL_CLAIM)) {
+                        podsByComponent.computeIfAbsent(labels.get(COMPONENT_LABEL_CLAIM), k -> new ArrayList<>())
+                                .add(pod);
+                    }
+                }
+            }
+            List<ComponentStatusSnapshot> result = new ArrayList<>();
+            for (JsonElement resource : resources) {
+                ComponentStatusSnapshot snapshot = buildNamespaceStatusEntry(resource, podsByComponent);
+                if (snapshot != null) {
+                    result.add(snapshot);
+                }
+            }
+            result.sort(Comparator.comparing(ComponentStatusSnapshot::getName));
+            return result;
+        } catch (RestException e) {
+            throw e;
+        } catch (ExecutionException e) {
+            log.error("get status of {} in {}/{} failed", apiPlural, tenant, namespace, e.getCause());
+            throw new RestException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR,
+                    FutureUtil.unwrapCompletionException(e.getCause()).getMessage());
+        } catch (Exception e) {
+            log.error("get status of {} in {}/{} failed", apiPlural, tenant, namespace, e);
+            throw new RestException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * Joins a custom resource with its pods, the pods of other component kinds with the same name are told apart by
+     * the selector in the status of the resource.
+     */
+    static ComponentStatusSnapshot buildNamespaceStatusEntry(JsonElement resource,
+                                                             Map<String, List<V1Pod>> podsByComponent) {
+        JsonElement labels = jsonPath(resource, "metadata", "labels");
+        if (labels == null || !labels.isJsonObject() || !labels.getAsJsonObject().has(COMPONENT_LABEL_CLAIM)) {
+            return null;
+        }
+        String name = labels.getAsJsonObject().get(COMPONENT_LABEL_CLAIM).getAsString();
+        JsonElement selector = jsonPath(resource, "status", "selector");
+        List<V1Pod> pods = Collections.emptyList();
+        if (selector != null && selector.isJsonPrimitive()) {
+            Map<String, String> podSelector = MeshPodCache.parseSelector(selector.getAsString());
+            pods = podsByComponent.getOrDefault(name, Collections.emptyList()).stream()
+                    .filter(pod -> podSelector == null || MeshPodCache.matches(pod, podSelector))
+                    .collect(Collectors.toList());
+        }
+        ComponentStatusSnapshot snapshot = KubernetesUtils.buildStatusSnapshot(name, null, pods);
+        JsonElement replicas = jsonPath(resource, "spec", "replicas");
+        snapshot.setReplicas(replicas != null && replicas.isJsonPrimitive() ? replicas.getAsInt() : 0);
+        snapshot.setReadyReplicas((int) pods.stream().filter(KubernetesUtils::isPodRunning).count());
+        return snapshot;
+    }
+
+    private static JsonElement jsonPath(JsonElement element, String... path) {
+        JsonElement current = element;
+        for (String name : path) {
+            if (current == null || !current.isJsonObject()) {
                 return null;
             }
-            return worker().getApiClient().getJSON().getGson().fromJson(data, c);
-        } else if (response.code() == 409) {
-            throw new RestException(javax.ws.rs.core.Response.Status.CONFLICT,
+            current = current.getAsJsonObject().get(name);
+        }
+        return current;
+    }
+
+    /**
+     * Deletes all components of this kind in a Pulsar namespace with a single deletecollection request on the
+     * custom resources, then deletes their secrets and packages concurrently. Returns the names of the deleted
+     * components.
+     */
+    public List<String> deregisterNamespace(final String tenant,
+                                            final String namespace,
+                                            final String clientRole,
+                                            final AuthenticationDataSource clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            return doDeregisterNamespace(tenant, namespace, clientRole, clientAuthenticationDataHttps);
+        } finally {
+            permit.close();
+        }
+    }
+
+    private List<String> doDeregisterNamespace(final String tenant,
+                                               final String namespace,
+                                               final String clientRole,
+                                               final AuthenticationDataSource clientAuthenticationDataHttps) {
+        if (!isWorkerServiceAvailable()) {
+            throwUnavailableException();
+        }
+        if (StringUtils.isEmpty(tenant) || StringUtils.isEmpty(namespace)) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST,
+                    "Tenant and namespace are required");
+        }
+        this.validatePermission(tenant,
+                namespace,
+                clientRole,
+                clientAuthenticationDataHttps,
+                ComponentTypeUtils.toString(componentType));
+        try {
+            String clusterName = worker().getWorkerConfig().getPulsarFunctionsCluster();
+            String labelSelector = getCustomLabelClaimsSelector(clusterName, tenant, namespace);
+            // the names are needed for the secrets and packages, which are not labeled
+            List<String> componentNames = deleteComponents(labelSelector);
+
+            // the package deletes go to the broker without a bound of their own, so the components are cleaned up
+            // a batch at a time
+            for (List<String> batch : Lists.partition(componentNames, NAMESPACE_CLEANUP_BATCH_SIZE)) {
+                List<CompletableFuture<Void>> cleanupFutures = new ArrayList<>();
+                for (String componentName : batch) {
+                    runCleanups(componentCleanups(clusterName, tenant, namespace, componentName), cleanupFutures);
+                }
+                waitForAll(cleanupFutures);
+            }
+            log.info("deregistered {} {} of {}/{}", componentNames.size(), apiPlural, tenant, namespace);
+            return componentNames;
+        } catch (RestException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("deregister {} of {}/{} failed", apiPlural, tenant, namespace, e);
+            throw new RestException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the config of the component with the resource version it was read from, so that clients can poll
+     * the config with conditional requests.
+     */
+    public VersionedComponentConfig getComponentConfig(final String tenant,
+                                                       final String namespace,
+                                                       final String componentName,
+                                                       final String clientRole,
+                                                       final AuthenticationDataSource clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            if (!isWorkerServiceAvailable()) {
+                throwUnavailableException();
+            }
+            validateComponentEnabled();
+            this.validateGetInfoRequestParams(tenant, namespace, componentName, apiKind);
+            this.validatePermission(tenant,
+                    namespace,
+                    clientRole,
+                    clientAuthenticationDataHttps,
+                    ComponentTypeUtils.toString(componentType));
+            return readComponentConfig(tenant, namespace, componentName);
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * Reads the custom resource of the component and converts it to the config in the Pulsar format, a version of
+     * the resource that was converted before is not converted again.
+     */
+    protected VersionedComponentConfig readComponentConfig(String tenant, String namespace, String componentName) {
+        T resource = getResource(worker().getJobNamespace(),
+                CommonUtil.generateObjectName(worker(), tenant, namespace, componentName));
+        ComponentConfigCache componentConfigCache = worker().getComponentConfigCache();
+        VersionedComponentConfig versionedConfig = new VersionedComponentConfig();
+        versionedConfig.setConfig(componentConfigCache == null
+                ? convertResource(tenant, namespace, componentName, resource)
+                : componentConfigCache.get(resource,
+                        () -> convertResource(tenant, namespace, componentName, resource)));
+        if (resource.getMetadata() != null) {
+            versionedConfig.setResourceVersion(resource.getMetadata().getResourceVersion());
+        }
+        return versionedConfig;
+    }
+
+    /**
+     * Converts the custom resource of the component to its config in the Pulsar format.
+     */
+    protected abstract Object convertResource(String tenant, String namespace, String componentName, T resource);
+
+    /**
+     * Returns the pod policy template of the component type prepared by the worker, or converts it from the config
+     * when the worker has none.
+     */
+    @SuppressWarnings("unchecked")
+    protected <V, M, S, I> PodPolicyTemplate<V, M, S, I> podPolicyTemplate(MeshWorkerServiceCustomConfig customConfig)
+            throws JsonProcessingException {
+        PodPolicyTemplate<?, ?, ?, ?> template;
+        switch (componentType) {
+            case SINK:
+                template = worker().getSinkPodPolicyTemplate();
+                return (PodPolicyTemplate<V, M, S, I>) (template != null ? template
+                        : PodPolicyTemplate.forSink(customConfig));
+            case SOURCE:
+                template = worker().getSourcePodPolicyTemplate();
+                return (PodPolicyTemplate<V, M, S, I>) (template != null ? template
+                        : PodPolicyTemplate.forSource(customConfig));
+            case FUNCTION:
+            default:
+                template = worker().getFunctionPodPolicyTemplate();
+                return (PodPolicyTemplate<V, M, S, I>) (template != null ? template
+                        : PodPolicyTemplate.forFunction(customConfig));
+        }
+    }
+
+    /**
+     * Accepts a registration or update of a component to run in the background. The request is validated and the
+     * permission checked before the job is accepted, an uploaded package is kept in a temporary file until the job
+     * has run. The job runs after the request completed, so the authentication data must not read from the request
+     * itself, see {@code MeshApiResource#detachedClientAuthData}. A job submitted again with the same idempotency
+     * key and request is accepted only once.
+     */
+    public MeshJob submitJob(final MeshJob.Action action,
+                             final String tenant,
+                             final String namespace,
+                             final String componentName,
+                             final InputStream uploadedInputStream,
+                             final FormDataContentDisposition fileDetail,
+                             final String packageUrl,
+                             final String config,
+                             final String clientRole,
+                             final AuthenticationDataHttps clientAuthenticationDataHttps,
+                             final String idempotencyKey) {
+        MeshJobQueue jobQueue = worker().getJobQueue();
+        if (jobQueue == null) {
+            throw new RestException(javax.ws.rs.core.Response.Status.NOT_FOUND, "Asynchronous jobs are not enabled");
+        }
+        this.validateGetInfoRequestParams(tenant, namespace, componentName, apiKind);
+        this.validatePermission(tenant,
+                namespace,
+                clientRole,
+                clientAuthenticationDataHttps,
+                ComponentTypeUtils.toString(componentType));
+        if (StringUtils.isBlank(config)) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST, apiKind + " config is not provided");
+        }
+        JobRunner runner = jobRunner(action, tenant, namespace, componentName, config);
+        IdempotencyCache idempotencyCache = worker().getIdempotencyCache();
+        String key = idempotencyCache == null ? null : checkIdempotencyKey(idempotencyKey);
+        String requestHash = key == null ? null : IdempotencyCache.requestHash(config, packageUrl,
+                fileDetail != null ? fileDetail.getFileName() : null);
+        IdempotencyCache.Entry entry = key == null ? null : idempotencyCache.begin(
+                String.join("/", "job", action.name(), apiPlural, tenant, namespace, componentName, key),
+                requestHash);
+        if (entry != null && !entry.isOwner()) {
+            // the entries of jobs hold the id of the accepted job
+            MeshJob job = jobQueue.get(Objects.toString(entry.getResult(), null));
+            if (job == null) {
+                throw new RestException(javax.ws.rs.core.Response.Status.NOT_FOUND,
+                        "The job accepted for the idempotency key has expired");
+            }
+            return job;
+        }
+        Path packageFile = null;
+        try {
+            if (uploadedInputStream != null) {
+                packageFile = Files.createTempFile("mesh-job-", ".pkg");
+                Files.copy(uploadedInputStream, packageFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            MeshJob job = new MeshJob();
+            job.setType(apiPlural);
+            job.setAction(action);
+            job.setTenant(tenant);
+            job.setNamespace(namespace);
+            job.setName(componentName);
+            job.setClientRole(clientRole);
+            Path jobPackageFile = packageFile;
+            // the job was deduplicated here, it only records the key on the resource
+            IdempotentRequest jobRequest = key == null ? IdempotentRequest.NONE : IdempotentRequest.recordOnly(key,
+                    requestHash);
+            MeshJob accepted = jobQueue.submit(job, () -> {
+                try (InputStream packageStream = jobPackageFile != null ? Files.newInputStream(jobPackageFile) : null) {
+                    runner.run(packageStream, fileDetail, packageUrl, clientRole, clientAuthenticationDataHttps,
+                            jobRequest);
+                } finally {
+                    if (jobPackageFile != null) {
+                        Files.deleteIfExists(jobPackageFile);
+                    }
+                }
+            });
+            if (entry != null) {
+                entry.succeed(accepted.getId());
+            }
+            return accepted;
+        } catch (IOException e) {
+            if (entry != null) {
+                entry.fail();
+            }
+            deleteQuietly(packageFile);
+            log.error("Failed to accept a job to {} {}/{}/{}", action, tenant, namespace, componentName, e);
+            throw new RestException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        } catch (RuntimeException e) {
+            if (entry != null) {
+                entry.fail();
+            }
+            deleteQuietly(packageFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the registration or update of a component for the config of {@link #submitJob} in json, a config
+     * that cannot be read fails with 400 before the job is accepted.
+     */
+    protected abstract JobRunner jobRunner(MeshJob.Action action, String tenant, String namespace,
+                                           String componentName, String config);
+
+    protected static <C> C readJobConfig(String config, Class<C> configClass) {
+        try {
+            return ObjectMapperFactory.getThreadLocal().readValue(config, configClass);
+        } catch (IOException e) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST, "Invalid config: " + e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * The registration or update run by a job.
+     */
+    protected interface JobRunner {
+        void run(InputStream uploadedInputStream, FormDataContentDisposition fileDetail, String packageUrl,
+                 String clientRole, AuthenticationDataHttps clientAuthenticationDataHttps,
+                 IdempotentRequest idempotentRequest);
+    }
+
+    private Call deleteCollectionCall(String labelSelector) throws ApiException {
+        ApiClient apiClient = worker().getApiClient();
+        String path = String.format("/apis/%s/%s/namespaces/%s/%s", API_GROUP, apiVersion,
+                apiClient.escapeString(worker().getJobNamespace()), apiPlural);
+        List<Pair> queryParams = new ArrayList<>(apiClient.parameterToPair("labelSelector", labelSelector));
+        Map<String, String> headerParams = new HashMap<>();
+        headerParams.put("Accept", "application/json");
+        headerParams.put("Content-Type", "application/json");
+        return apiClient.buildCall(path, "DELETE", queryParams, new ArrayList<>(), null, headerParams,
+                new HashMap<>(), new HashMap<>(), new String[]{"BearerToken"}, null);
+    }
+
+    private Call listComponentsCall(String labelSelector) throws ApiException {
+        return worker().getCustomObjectsApi().listNamespacedCustomObjectCall(
+                API_GROUP,
+                apiVersion,
+                worker().getJobNamespace(), apiPlural,
+                "false",
+                null,
+                null,
+                labelSelector,
+                null,
+                null,
+                null,
+                false,
+                null);
+    }
+
+    List<String> listComponentNames(String labelSelector) throws Exception {
+        // only the labels of the items are needed, so the rest of the resources is not decoded
+        return componentNames(executeListCall(listComponentsCall(labelSelector), "metadata", "labels"));
+    }
+
+    /**
+     * Deletes the components matching the label selector with a single deletecollection call and returns the names
+     * of the deleted ones, which are read from the response so that a component created between a list and the
+     * delete is not missed.
+     */
+    List<String> deleteComponents(String labelSelector) throws Exception {
+        return componentNames(executeListCall(deleteCollectionCall(labelSelector), "metadata", "labels"));
+    }
+
+    private static List<String> componentNames(List<JsonElement> labelsList) {
+        List<String> result = new LinkedList<>();
+        for (JsonElement labels : labelsList) {
+            if (labels != null && labels.isJsonObject()
+                    && labels.getAsJsonObject().has(COMPONENT_LABEL_CLAIM)) {
+                result.add(labels.getAsJsonObject().get(COMPONENT_LABEL_CLAIM).getAsString());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the idempotent deletes of the secrets and the package of a component by description.
+     */
+    private Map<String, Supplier<CompletableFuture<Void>>> componentCleanups(String clusterName, String tenant,
+                                                                           String namespace,
+                                                                           String componentName) {
+        Map<String, Supplier<CompletableFuture<Void>>> cleanups = new LinkedHashMap<>();
+        if (!StringUtils.isEmpty(worker().getWorkerConfig().getBrokerClientAuthenticationPlugin())
+                && !StringUtils.isEmpty(worker().getWorkerConfig().getBrokerClientAuthenticationParameters())) {
+            cleanups.put(String.format("deleting auth secret of %s %s/%s/%s", apiKind, tenant, namespace,
+                    componentName), () -> deleteSecretAsync(SECRET_TYPE_AUTH, clusterName, tenant, namespace,
+                    componentName));
+        }
+        if (worker().getWorkerConfig().getTlsEnabled()) {
+            cleanups.put(String.format("deleting tls secret of %s %s/%s/%s", apiKind, tenant, namespace,
+                    componentName), () -> deleteSecretAsync(SECRET_TYPE_TLS, clusterName, tenant, namespace,
+                    componentName));
+        }
+        if (worker().getMeshWorkerServiceCustomConfig().isUploadEnabled()) {
+            PulsarAdmin admin = worker().getBrokerAdmin();
+            cleanups.put(String.format("deleting package of %s %s/%s/%s", apiKind, tenant, namespace,
+                    componentName), () -> PackageManagementServiceUtil.deletePackageFromPackageServiceAsync(
+                    admin, getPackageTypeFromComponentType(componentType), tenant, namespace, componentName));
+        }
+        return cleanups;
+    }
+
+    /**
+     * Starts the cleanups and adds futures that complete when they are done to the given list. A failed cleanup
+     * does not fail its future, it is retried in the background.
+     */
+    private void runCleanups(Map<String, Supplier<CompletableFuture<Void>>> cleanups,
+                             List<CompletableFuture<Void>> cleanupFutures) {
+        cleanups.forEach((description, cleanup) -> cleanupFutures.add(runCleanup(cleanup)
+                .handle((ignore, e) -> {
+                    if (e != null) {
+                        retryCleanup(description, cleanup, e);
+                    }
+                    return null;
+                })));
+    }
+
+    private static CompletableFuture<Void> runCleanup(Supplier<CompletableFuture<Void>> cleanup) {
+        try {
+            return cleanup.get();
+        } catch (Exception e) {
+            return FutureUtil.failedFuture(e);
+        }
+    }
+
+    private void retryCleanup(String description, Supplier<CompletableFuture<Void>> cleanup, Throwable cause) {
+        MeshCleanupQueue cleanupQueue = worker().getCleanupQueue();
+        if (cleanupQueue == null) {
+            log.warn("Failed {}", description, cause);
+            return;
+        }
+        log.warn("Failed {}, retrying in the background", description, cause);
+        cleanupQueue.submit(description, cleanup);
+    }
+
+    private CompletableFuture<Void> deleteSecretAsync(String type, String clusterName, String tenant,
+                                                      String namespace, String componentName) {
+        try {
+            return executeDeleteAsync(deleteSecretCall(type, clusterName, tenant, namespace, componentName));
+        } catch (ApiException e) {
+            return FutureUtil.failedFuture(e);
+        }
+    }
+
+    /**
+     * Deletes the custom resource of a component, a resource that does not exist counts as deleted.
+     */
+    private CompletableFuture<Void> deleteComponentResourceAsync(String nameSpaceName, String hashName) {
+        if (worker().getKubernetesAsyncClient() == null) {
+            KubernetesApiResponse<T> response = callResourceApi(
+                    () -> getResourceApi().delete(nameSpaceName, hashName), true, retryPolicy().newBackoff());
+            if (response.isSuccess() || response.getHttpStatusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return FutureUtil.failedFuture(responseException(response.getHttpStatusCode(),
+                    response.getStatus() != null ? response.getStatus().getMessage() : null, null));
+        }
+        try {
+            return executeDeleteAsync(worker().getCustomObjectsApi().deleteNamespacedCustomObjectCall(
+                    API_GROUP, apiVersion, nameSpaceName, apiPlural, hashName,
+                    null, null, null, null, null, null));
+        } catch (ApiException e) {
+            return FutureUtil.failedFuture(e);
+        }
+    }
+
+    /**
+     * Executes a delete call like {@link #executeCallAsync}, a resource that does not exist counts as deleted.
+     */
+    protected CompletableFuture<Void> executeDeleteAsync(Call call) {
+        return executeCallAsync(call).handle((ignore, e) -> {
+            Throwable cause = e != null ? FutureUtil.unwrapCompletionException(e) : null;
+            if (cause == null || (cause instanceof RestException
+                    && ((RestException) cause).getResponse().getStatus() == HttpURLConnection.HTTP_NOT_FOUND)) {
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            return FutureUtil.<Void>failedFuture(cause);
+        }).thenCompose(future -> future);
+    }
+
+    private Call deleteSecretCall(String type, String clusterName, String tenant, String namespace,
+                                  String componentName) throws ApiException {
+        return worker().getCoreV1Api()
+                .deleteNamespacedSecretCall(
+                        KubernetesUtils.getUniqueSecretName(
+                                apiKind.toLowerCase(),
+                                type,
+                                DigestUtils.sha256Hex(
+                                        KubernetesUtils.getSecretName(
+                                                clusterName, tenant, namespace, componentName))),
+                        worker().getJobNamespace(),
+                        null,
+                        null,
+                        30,
+                        false,
+                        null,
+                        null,
+                        null
+                );
+    }
+
+    /**
+     * Upserts the auth and tls secrets the worker config requires for the component, concurrently when the worker
+     * has an async client. Returns the secret names by secret type.
+     */
+    protected Map<String, String> upsertComponentSecrets(String cluster, String tenant, String namespace,
+                                                         String name) throws Exception {
+        List<String> types = new ArrayList<>();
+        if (!StringUtils.isEmpty(worker().getWorkerConfig().getBrokerClientAuthenticationPlugin())
+                && !StringUtils.isEmpty(worker().getWorkerConfig().getBrokerClientAuthenticationParameters())) {
+            types.add(SECRET_TYPE_AUTH);
+        }
+        if (worker().getWorkerConfig().getTlsEnabled()) {
+            types.add(SECRET_TYPE_TLS);
+        }
+        Map<String, String> secretNames = new HashMap<>();
+        if (worker().getKubernetesAsyncClient() == null) {
+            for (String type : types) {
+                secretNames.put(type, KubernetesUtils.upsertSecret(apiKind.toLowerCase(), type, cluster, tenant,
+                        namespace, name, worker()));
+            }
+            return secretNames;
+        }
+        Map<String, CompletableFuture<String>> futures = new HashMap<>();
+        for (String type : types) {
+            futures.put(type, KubernetesUtils.upsertSecretAsync(apiKind.toLowerCase(), type, cluster, tenant,
+                    namespace, name, worker()));
+        }
+        waitForAll(futures.values());
+        futures.forEach((type, future) -> secretNames.put(type, future.join()));
+        return secretNames;
+    }
+
+    /**
+     * Executes the call through the async client of the worker, or in the calling thread when there is none.
+     * Failed responses complete the future with the same {@link RestException} as {@link #executeCall}.
+     */
+    protected CompletableFuture<Void> executeCallAsync(Call call) {
+        KubernetesAsyncClient asyncClient = worker().getKubernetesAsyncClient();
+        if (asyncClient == null) {
+            try {
+                executeCall(call, null);
+                return CompletableFuture.completedFuture(null);
+            } catch (Exception e) {
+                return FutureUtil.failedFuture(e);
+            }
+        }
+        return executeCallAsync(asyncClient, call, retryPolicy().newBackoff()).exceptionally(e -> {
+            Throwable cause = FutureUtil.unwrapCompletionException(e);
+            if (cause instanceof ApiException && ((ApiException) cause).getCode() > 0) {
+                ApiException apiException = (ApiException) cause;
+                throw responseException(apiException.getCode(), apiException.getMessage(),
+                        apiException.getResponseBody());
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    private CompletableFuture<Void> executeCallAsync(KubernetesAsyncClient asyncClient, Call call,
+                                                     KubernetesRetryPolicy.Backoff backoff) {
+        return asyncClient.execute(call).handle((result, e) -> {
+            if (e == null) {
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            Throwable cause = FutureUtil.unwrapCompletionException(e);
+            if (cause instanceof ApiException
+                    && KubernetesRetryPolicy.isRetryable(((ApiException) cause).getCode(), isIdempotent(call))) {
+                long delayMs = backoff.nextDelayMs(KubernetesRetryPolicy.parseRetryAfterMs(
+                        retryAfter(((ApiException) cause).getResponseHeaders())));
+                if (delayMs >= 0) {
+                    return asyncClient.schedule(delayMs, () -> executeCallAsync(asyncClient, call.clone(), backoff));
+                }
+            }
+            return FutureUtil.<Void>failedFuture(cause);
+        }).thenCompose(future -> future);
+    }
+
+    /**
+     * Runs the computation for a read-only request of a component, concurrent callers of the same operation on the
+     * same component share one run and its result. Permissions must be validated before, for every caller.
+     */
+    @SuppressWarnings("unchecked")
+    protected <R> R coalesce(String operation, String tenant, String namespace, String componentName,
+                             Supplier<R> computation) {
+        MeshWorkerServiceCustomConfig customConfig = worker().getMeshWorkerServiceCustomConfig();
+        if (customConfig == null || !customConfig.isRequestCoalescingEnabled()) {
+            return computation.get();
+        }
+        // each component type has its own instance, so the type is implicit in the key
+        String key = String.join("/", operation, tenant, namespace, componentName);
+        return (R) inFlightRequests.execute(key, computation::get);
+    }
+
+    /**
+     * Runs a gRPC call to an instance through the call guard of the worker, which provides the deadline in
+     * milliseconds and fails the call immediately while the instance is known to be unreachable.
+     */
+    protected <R> CompletableFuture<R> callInstance(String address, LongFunction<CompletableFuture<R>> call) {
+        InstanceCallGuard instanceCallGuard = worker().getInstanceCallGuard();
+        if (instanceCallGuard == null) {
+            return call.apply(SECONDS.toMillis(KubernetesUtils.GRPC_TIMEOUT_SECS));
+        }
+        return instanceCallGuard.call(address, call);
+    }
+
+    static InstanceControlFutureStub withDeadline(InstanceControlFutureStub stub, long deadlineMs) {
+        return stub != null ? stub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS) : null;
+    }
+
+    /**
+     * Waits for all futures and rethrows the first failure unwrapped.
+     */
+    protected static void waitForAll(Collection<? extends CompletableFuture<?>> futures) throws Exception {
+        try {
+            FutureUtil.waitForAll(new ArrayList<>(futures)).get();
+        } catch (ExecutionException e) {
+            Throwable cause = FutureUtil.unwrapCompletionException(e.getCause());
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    public <R> R executeCall(Call call, Class<R> c) throws Exception {
+        KubernetesRetryPolicy.Backoff backoff = retryPolicy().newBackoff();
+        while (true) {
+            long delayMs;
+            try (Response response = call.execute()) {
+                delayMs = retryDelayMs(call, response, backoff);
+                if (delayMs < 0) {
+                    checkResponse(response);
+                    if (c == null || response.body() == null) {
+                        return null;
+                    }
+                    // decode from the stream, the body is never held in memory as a string
+                    return JsonStreamUtil.decode(worker().getApiClient().getJSON().getGson(),
+                            response.body().charStream(), c);
+                }
+            }
+            Thread.sleep(delayMs);
+            call = call.clone();
+        }
+    }
+
+    /**
+     * Executes a list call and returns only the value at the given path of every item, e.g. {@code metadata,
+     * labels}, the rest of each item is skipped while the response is read.
+     */
+    public List<JsonElement> executeListCall(Call call, String... path) throws Exception {
+        KubernetesRetryPolicy.Backoff backoff = retryPolicy().newBackoff();
+        while (true) {
+            long delayMs;
+            try (Response response = call.execute()) {
+                delayMs = retryDelayMs(call, response, backoff);
+                if (delayMs < 0) {
+                    checkResponse(response);
+                    if (response.body() == null) {
+                        return Collections.emptyList();
+                    }
+                    return JsonStreamUtil.decodeItems(response.body().charStream(), path);
+                }
+            }
+            Thread.sleep(delayMs);
+            call = call.clone();
+        }
+    }
+
+    /**
+     * Returns the retry policy of the Kubernetes api requests, the requests are not retried when the worker has none.
+     */
+    protected KubernetesRetryPolicy retryPolicy() {
+        KubernetesRetryPolicy retryPolicy = worker().getKubernetesRetryPolicy();
+        return retryPolicy != null ? retryPolicy : KubernetesRetryPolicy.NONE;
+    }
+
+    private static long retryDelayMs(Call call, Response response, KubernetesRetryPolicy.Backoff backoff) {
+        if (response.isSuccessful() || !KubernetesRetryPolicy.isRetryable(response.code(), isIdempotent(call))) {
+            return -1;
+        }
+        return backoff.nextDelayMs(
+                KubernetesRetryPolicy.parseRetryAfterMs(response.header(HttpHeaders.RETRY_AFTER)));
+    }
+
+    private static boolean isIdempotent(Call call) {
+        return call.request() == null || !"POST".equals(call.request().method());
+    }
+
+    private static String retryAfter(Map<String, List<String>> headers) {
+        // the header names of the api client are lower case
+        List<String> values = headers != null ? headers.get("retry-after") : null;
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    private void checkResponse(Response response) throws IOException {
+        if (response.isSuccessful()) {
+            return;
+        }
+        String body = response.code() != 409 && response.body() != null ? response.body().string() : "";
+        throw responseException(response.code(), response.message(), body);
+    }
+
+    private static RestException responseException(int code, String message, String body) {
+        if (code == 409) {
+            return new RestException(javax.ws.rs.core.Response.Status.CONFLICT,
                     "This resource already exists, please change the name");
-        } else {
-            String body = response.body() != null ? response.body().string() : "";
-            String err = String.format(
-                    "failed to perform the request: responseCode: %s, responseMessage: %s, responseBody: %s",
-                    response.code(), response.message(), body);
-            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST, err);
         }
+        String err = String.format(
+                "failed to perform the request: responseCode: %s, responseMessage: %s, responseBody: %s",
+                code, message, body != null ? body : "");
+        return new RestException(code == HttpURLConnection.HTTP_NOT_FOUND
+                ? javax.ws.rs.core.Response.Status.NOT_FOUND : javax.ws.rs.core.Response.Status.BAD_REQUEST, err);
+    }
+
+    /**
+     * Reads the custom resource, the read is sent again while it is throttled or fails with a server error.
+     */
+    protected T getResource(String namespace, String name) {
+        return extractResponse(callResourceApi(() -> getResourceApi().get(namespace, name), true,
+                retryPolicy().newBackoff()));
+    }
+
+    /**
+     * Creates the custom resource, the create is only sent again when the api server did not accept it.
+     */
+    protected T createResource(T resource) {
+        return extractResponse(callResourceApi(() -> getResourceApi().create(resource), false,
+                retryPolicy().newBackoff()));
+    }
+
+    /**
+     * Updates the custom resource. An update that conflicts with a concurrent change of the resource is sent again
+     * with the resource version read again, all attempts share the same backoff.
+     */
+    protected T updateResource(T resource) {
+        KubernetesRetryPolicy.Backoff backoff = retryPolicy().newBackoff();
+        while (true) {
+            KubernetesApiResponse<T> response =
+                    callResourceApi(() -> getResourceApi().update(resource), true, backoff);
+            if (response.getHttpStatusCode() != HttpURLConnection.HTTP_CONFLICT || !backoff.await(-1)) {
+                return extractResponse(response);
+            }
+            T current = extractResponse(callResourceApi(() -> getResourceApi().get(
+                    resource.getMetadata().getNamespace(), resource.getMetadata().getName()), true, backoff));
+            resource.getMetadata().setResourceVersion(current.getMetadata().getResourceVersion());
+        }
+    }
+
+    private KubernetesApiResponse<T> callResourceApi(Supplier<KubernetesApiResponse<T>> call, boolean idempotent,
+                                                     KubernetesRetryPolicy.Backoff backoff) {
+        while (true) {
+            KubernetesApiResponse<T> response = call.get();
+            if (response.isSuccess()
+                    || !KubernetesRetryPolicy.isRetryable(response.getHttpStatusCode(), idempotent)
+                    || !backoff.await(retryAfterMs(response.getStatus()))) {
+                return response;
+            }
+        }
+    }
+
+    private static long retryAfterMs(V1Status status) {
+        if (status == null || status.getDetails() == null || status.getDetails().getRetryAfterSeconds() == null) {
+            return -1;
+        }
+        return SECONDS.toMillis(status.getDetails().getRetryAfterSeconds());
     }
 
     public T extractResponse(KubernetesApiResponse<T> response) throws RestException {
@@ -286,6 +1156,20 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
                                               final URI uri,
                                               final String clientRole,
                                               final AuthenticationDataSource clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            return doGetFunctionStats(tenant, namespace, componentName, uri, clientRole, clientAuthenticationDataHttps);
+        } finally {
+            permit.close();
+        }
+    }
+
+    private FunctionStatsImpl doGetFunctionStats(final String tenant,
+                                                 final String namespace,
+                                                 final String componentName,
+                                                 final URI uri,
+                                                 final String clientRole,
+                                                 final AuthenticationDataSource clientAuthenticationDataHttps) {
         if (!isWorkerServiceAvailable()) {
             throwUnavailableException();
         }
@@ -296,8 +1180,14 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
                 clientAuthenticationDataHttps,
                 ComponentTypeUtils.toString(componentType));
         this.validateTenantIsExist(tenant, namespace, componentName, clientRole);
-        this.validateGetInfoRequestParams(tenant, namespace, componentName, ComponentTypeUtils.toString(componentType));
+        this.validateGetInfoRequestParams(tenant, namespace, componentName,
+                ComponentTypeUtils.toString(componentType));
+        return coalesce("stats", tenant, namespace, componentName,
+                () -> computeComponentStats(tenant, namespace, componentName));
+    }
 
+    private FunctionStatsImpl computeComponentStats(final String tenant, final String namespace,
+                                                    final String componentName) {
         FunctionStatsImpl functionStats = new FunctionStatsImpl();
         try {
             List<FunctionInstanceStatsImpl> instanceStatsList =
@@ -324,7 +1214,51 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
                                                                    final String clientRole,
                                                                    final AuthenticationDataSource
                                                                            clientAuthenticationDataHttps) {
-        return new FunctionInstanceStatsDataImpl();
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            return doGetFunctionsInstanceStats(tenant, namespace, componentName, instanceId, uri, clientRole,
+                    clientAuthenticationDataHttps);
+        } finally {
+            permit.close();
+        }
+    }
+
+    private FunctionInstanceStatsDataImpl doGetFunctionsInstanceStats(final String tenant,
+                                                                      final String namespace,
+                                                                      final String componentName,
+                                                                      final String instanceId,
+                                                                      final URI uri,
+                                                                      final String clientRole,
+                                                                      final AuthenticationDataSource
+                                                                           clientAuthenticationDataHttps) {
+        if (!isWorkerServiceAvailable()) {
+            throwUnavailableException();
+        }
+        this.validateGetInfoRequestParams(tenant, namespace, componentName,
+                ComponentTypeUtils.toString(componentType));
+        this.validatePermission(tenant,
+                namespace,
+                clientRole,
+                clientAuthenticationDataHttps,
+                ComponentTypeUtils.toString(componentType));
+
+        T resource = getComponentResource(tenant, namespace, componentName);
+        V1StatefulSet v1StatefulSet = getComponentStatefulSet(resource, tenant, namespace, componentName);
+        int shardId = parseInstanceId(instanceId, v1StatefulSet);
+        FunctionInstanceStatsImpl functionInstanceStats = new FunctionInstanceStatsImpl();
+        functionInstanceStats.setInstanceId(shardId);
+        V1Pod pod = getInstancePod(v1StatefulSet, shardId);
+        if (pod != null && KubernetesUtils.isPodRunning(pod)) {
+            List<FunctionInstanceStatsImpl> statsList = Collections.singletonList(functionInstanceStats);
+            fetchStatsFromGRPC(Collections.singletonList(pod), v1StatefulSet.getSpec().getServiceName(),
+                    v1StatefulSet.getMetadata().getName(), worker().getJobNamespace(), statsList,
+                    new ManagedChannel[1], new InstanceControlFutureStub[1])
+                    .forEach(future -> future.handle((result, e) -> result).join());
+        }
+        // the metrics are set by CommonUtil.convertFunctionMetricsToFunctionInstanceStats, an empty instance otherwise
+        FunctionInstanceStatsData metrics = functionInstanceStats.getMetrics();
+        return metrics instanceof FunctionInstanceStatsDataImpl
+                ? (FunctionInstanceStatsDataImpl) metrics : new FunctionInstanceStatsDataImpl();
     }
 
     @Override
@@ -336,7 +1270,48 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
                                   final String topic,
                                   final String clientRole,
                                   final AuthenticationDataSource clientAuthenticationDataHttps) {
-        return "";
+        if (!isWorkerServiceAvailable() || worker().getTriggerManager() == null) {
+            throwUnavailableException();
+        }
+        if (input == null && uploadedInputStream == null) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST, "Trigger Data is not provided");
+        }
+        FunctionConfig functionConfig =
+                getFunctionInfo(tenant, namespace, functionName, clientRole, clientAuthenticationDataHttps);
+
+        String inputTopicToWrite;
+        Set<String> inputTopics = functionConfig.getInputs() == null
+                ? new HashSet<>() : new HashSet<>(functionConfig.getInputs());
+        if (topic != null) {
+            inputTopicToWrite = topic;
+        } else if (inputTopics.size() == 1) {
+            inputTopicToWrite = inputTopics.iterator().next();
+        } else {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST,
+                    "Function in trigger function has more than 1 input topics");
+        }
+        if (!inputTopics.contains(inputTopicToWrite)) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST,
+                    "Function in trigger function has unidentified topic");
+        }
+
+        CompletableFuture<String> result = null;
+        try {
+            byte[] payload = uploadedInputStream != null
+                    ? IOUtils.toByteArray(uploadedInputStream) : input.getBytes(StandardCharsets.UTF_8);
+            result = worker().getTriggerManager().trigger(inputTopicToWrite, functionConfig.getOutput(), payload);
+            return result.get(worker().getMeshWorkerServiceCustomConfig().getTriggerTimeoutMs(),
+                    TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            throw new RestException(javax.ws.rs.core.Response.Status.REQUEST_TIMEOUT, "Request Timed Out");
+        } catch (Exception e) {
+            log.error("trigger {}/{}/{} function failed", tenant, namespace, functionName, e);
+            throw new RestException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        } finally {
+            if (result != null && !result.isDone()) {
+                result.cancel(false);
+            }
+        }
     }
 
     @Override
@@ -344,27 +1319,19 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
                                       final String namespace,
                                       final String clientRole,
                                       final AuthenticationDataSource clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            return doListFunctions(tenant, namespace);
+        } finally {
+            permit.close();
+        }
+    }
+
+    private List<String> doListFunctions(final String tenant, final String namespace) {
         List<String> result = new LinkedList<>();
         try {
-            String labelSelector;
             String cluster = worker().getWorkerConfig().getPulsarFunctionsCluster();
-            labelSelector = getCustomLabelClaimsSelector(cluster, tenant, namespace);
-            Call call = worker().getCustomObjectsApi().listNamespacedCustomObjectCall(
-                    API_GROUP,
-                    apiVersion,
-                    worker().getJobNamespace(), apiPlural,
-                    "false",
-                    null,
-                    null,
-                    labelSelector,
-                    null,
-                    null,
-                    null,
-                    false,
-                    null);
-
-            V1alpha1FunctionList list = executeCall(call, V1alpha1FunctionList.class);
-            list.getItems().forEach(n -> result.add(n.getMetadata().getLabels().get(COMPONENT_LABEL_CLAIM)));
+            result = listComponentNames(getCustomLabelClaimsSelector(cluster, tenant, namespace));
         } catch (Exception e) {
             log.error("failed to fetch functions list from namespace {}", namespace, e);
         }
@@ -406,8 +1373,29 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
     public StreamingOutput downloadFunction(String path,
                                             String clientRole,
                                             AuthenticationDataHttps clientAuthenticationDataHttps) {
-        // To do
-        return null;
+        if (!isWorkerServiceAvailable()) {
+            throwUnavailableException();
+        }
+        if (StringUtils.isEmpty(path) || !Utils.hasPackageTypePrefix(path)) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST,
+                    "Only package management service urls can be downloaded");
+        }
+        if (!path.startsWith(getPackageTypeFromComponentType(componentType) + "://")) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST,
+                    String.format("%s is not a %s package", path, ComponentTypeUtils.toString(componentType)));
+        }
+        PackageName packageName;
+        try {
+            packageName = PackageName.get(path);
+        } catch (IllegalArgumentException e) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST, e.getMessage());
+        }
+        this.validatePermission(packageName.getTenant(),
+                packageName.getNamespace(),
+                clientRole,
+                clientAuthenticationDataHttps,
+                ComponentTypeUtils.toString(componentType));
+        return streamPackage(packageName.toString());
     }
 
     @Override
@@ -416,8 +1404,54 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
                                             String componentName,
                                             String clientRole,
                                             AuthenticationDataHttps clientAuthenticationDataHttps) {
-        // To do
-        return null;
+        if (!isWorkerServiceAvailable()) {
+            throwUnavailableException();
+        }
+        this.validateGetInfoRequestParams(tenant, namespace, componentName, ComponentTypeUtils.toString(componentType));
+        this.validatePermission(tenant,
+                namespace,
+                clientRole,
+                clientAuthenticationDataHttps,
+                ComponentTypeUtils.toString(componentType));
+
+        String location;
+        try {
+            String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, componentName);
+            location = getComponentPackageLocation(getResource(worker().getJobNamespace(), hashName));
+        } catch (RestException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("download {}/{}/{} {} failed", tenant, namespace, componentName, apiKind, e);
+            throw new RestException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+        if (StringUtils.isEmpty(location)) {
+            throw new RestException(javax.ws.rs.core.Response.Status.NOT_FOUND,
+                    String.format("%s %s has no package to download", ComponentTypeUtils.toString(componentType),
+                            componentName));
+        }
+        if (!Utils.hasPackageTypePrefix(location)) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST,
+                    String.format("%s %s is not stored in the package management service",
+                            ComponentTypeUtils.toString(componentType), componentName));
+        }
+        return streamPackage(location);
+    }
+
+    private PackageStreamingOutput streamPackage(String packageName) {
+        String downloadDirectory = worker().getWorkerConfig().getDownloadDirectory();
+        if (StringUtils.isEmpty(downloadDirectory)) {
+            downloadDirectory = CommonUtil.DEFAULT_FUNCTION_DOWNLOAD_DIRECTORY;
+        }
+        try {
+            return PackageManagementServiceUtil.getPackageFromCache(worker().getBrokerAdmin(), packageName,
+                    Paths.get(downloadDirectory, PACKAGE_CACHE_DIRECTORY).toString(),
+                    worker().getMeshWorkerServiceCustomConfig().getPackageCacheMaxSizeMb() * 1024 * 1024);
+        } catch (RestException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("download package {} failed", packageName, e);
+            throw new RestException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
     }
 
     @Override
@@ -431,25 +1465,7 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
     }
 
     public boolean isSuperUser(String clientRole, AuthenticationDataSource authenticationDataSource) {
-        if (clientRole != null) {
-            try {
-                if ((worker().getWorkerConfig().getSuperUserRoles() != null
-                        && worker().getWorkerConfig().getSuperUserRoles().contains(clientRole))) {
-                    return true;
-                }
-                return worker().getAuthorizationService().isSuperUser(clientRole, authenticationDataSource)
-                        .get(worker().getWorkerConfig().getZooKeeperOperationTimeoutSeconds(), SECONDS);
-            } catch (InterruptedException e) {
-                log.warn("Time-out {} sec while checking the role {} is a super user role ",
-                        worker().getWorkerConfig().getZooKeeperOperationTimeoutSeconds(), clientRole);
-                throw new RestException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
-            } catch (Exception e) {
-                log.warn("Admin-client with Role - failed to check the role {} is a super user role {} ", clientRole,
-                        e.getMessage(), e);
-                throw new RestException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
-            }
-        }
-        return false;
+        return worker().isSuperUser(clientRole, authenticationDataSource);
     }
 
     public boolean isAuthorizedRole(String tenant, String namespace, String clientRole,
@@ -512,6 +1528,172 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
         }
     }
 
+    /**
+     * Admits a request of the tenant, the permit has to be closed in a finally block when the request is done.
+     */
+    TenantAdmissionController.Permit admit(String tenant) {
+        TenantAdmissionController admissionController = worker().getTenantAdmissionController();
+        return admissionController == null ? TenantAdmissionController.Permit.NONE : admissionController.admit(tenant);
+    }
+
+    /**
+     * Starts a registration or update of a component. When the request carries an idempotency key and a request
+     * with the same key already succeeded, the request is replayed instead of run again, and a key that was used
+     * for a different request fails with 422. The permission of the client is checked before the key is looked up,
+     * so a replay is never answered for a client that may not run the request. The request has to be closed when it
+     * is done.
+     */
+    IdempotentRequest idempotentRequest(String operation, String tenant, String namespace, String componentName,
+                                        String clientRole, AuthenticationDataSource clientAuthenticationDataHttps,
+                                        String idempotencyKey, Supplier<String> requestHash) {
+        IdempotencyCache idempotencyCache = worker().getIdempotencyCache();
+        String key = idempotencyCache == null ? null : checkIdempotencyKey(idempotencyKey);
+        if (key == null) {
+            return IdempotentRequest.NONE;
+        }
+        this.validatePermission(tenant,
+                namespace,
+                clientRole,
+                clientAuthenticationDataHttps,
+                ComponentTypeUtils.toString(componentType));
+        String hash = requestHash.get();
+        IdempotencyCache.Entry entry = idempotencyCache.begin(
+                String.join("/", operation, apiPlural, tenant, namespace, componentName, key), hash);
+        if (!entry.isOwner()) {
+            return new IdempotentRequest(entry, true, key, hash);
+        }
+        try {
+            String objectName = CommonUtil.generateObjectName(worker(), tenant, namespace, componentName);
+            KubernetesApiResponse<T> response = callResourceApi(
+                    () -> getResourceApi().get(worker().getJobNamespace(), objectName), true,
+                    retryPolicy().newBackoff());
+            Map<String, String> annotations = response.isSuccess()
+                    ? response.getObject().getMetadata().getAnnotations() : null;
+            if (annotations != null && key.equals(annotations.get(IdempotencyCache.ANNOTATION))) {
+                String recordedHash = annotations.get(IdempotencyCache.HASH_ANNOTATION);
+                if (recordedHash != null && !recordedHash.equals(hash)) {
+                    throw IdempotencyCache.mismatchedRequest();
+                }
+                entry.succeed(Boolean.TRUE);
+                return new IdempotentRequest(entry, true, key, hash);
+            }
+        } catch (RuntimeException e) {
+            entry.fail();
+            throw e;
+        }
+        return new IdempotentRequest(entry, false, key, hash);
+    }
+
+    /**
+     * Returns the idempotency key of a request of the Pulsar admin api, which hands the worker the authentication
+     * data but not the request, so the key is only found when authentication is enabled. Returns null when the
+     * request has none.
+     */
+    static String idempotencyKey(AuthenticationDataSource clientAuthenticationDataHttps) {
+        if (clientAuthenticationDataHttps == null || !clientAuthenticationDataHttps.hasDataFromHttp()) {
+            return null;
+        }
+        return clientAuthenticationDataHttps.getHttpHeader(IdempotencyCache.HEADER);
+    }
+
+    /**
+     * Returns the trimmed idempotency key, or null when it is empty. A key that is too long fails with 400.
+     */
+    static String checkIdempotencyKey(String idempotencyKey) {
+        String key = StringUtils.trimToNull(idempotencyKey);
+        if (key != null && key.length() > IdempotencyCache.MAX_KEY_LENGTH) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST, "The idempotency key is longer than "
+                    + IdempotencyCache.MAX_KEY_LENGTH + " characters");
+        }
+        return key;
+    }
+
+    /**
+     * Returns the hash of what a registration or update does, to tell a retry from a different request that reuses
+     * the idempotency key.
+     */
+    static String requestHash(Object config, String packageUrl, FormDataContentDisposition fileDetail) {
+        try {
+            return IdempotencyCache.requestHash(ObjectMapperFactory.getThreadLocal().writeValueAsString(config),
+                    packageUrl, fileDetail != null ? fileDetail.getFileName() : null);
+        } catch (JsonProcessingException e) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * A registration or update of a component, see {@link #idempotentRequest}.
+     */
+    static final class IdempotentRequest implements AutoCloseable {
+        static final IdempotentRequest NONE = new IdempotentRequest(null, false, null, null);
+
+        private final IdempotencyCache.Entry entry;
+        @Getter
+        private final boolean replayed;
+        private final String key;
+        private final String requestHash;
+        private boolean completed;
+
+        IdempotentRequest(IdempotencyCache.Entry entry, boolean replayed, String key, String requestHash) {
+            this.entry = entry;
+            this.replayed = replayed;
+            this.key = key;
+            this.requestHash = requestHash;
+        }
+
+        /**
+         * Returns a request that was deduplicated already, e.g. when its job was submitted, and only records its key
+         * on the resource.
+         */
+        static IdempotentRequest recordOnly(String key, String requestHash) {
+            return new IdempotentRequest(null, false, key, requestHash);
+        }
+
+        /**
+         * Records the idempotency key and the hash of the request on the resource, so that a retry of the request is
+         * recognized even after the worker restarted.
+         */
+        void record(io.kubernetes.client.common.KubernetesObject resource) {
+            if (key == null || resource.getMetadata() == null) {
+                return;
+            }
+            Map<String, String> annotations = resource.getMetadata().getAnnotations() == null
+                    ? new HashMap<>() : new HashMap<>(resource.getMetadata().getAnnotations());
+            annotations.put(IdempotencyCache.ANNOTATION, key);
+            if (requestHash != null) {
+                annotations.put(IdempotencyCache.HASH_ANNOTATION, requestHash);
+            }
+            resource.getMetadata().setAnnotations(annotations);
+        }
+
+        /**
+         * Marks the request as succeeded, a request closed without it is run again when retried.
+         */
+        void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void close() {
+            if (entry == null || replayed) {
+                return;
+            }
+            if (completed) {
+                entry.succeed(Boolean.TRUE);
+            } else {
+                entry.fail();
+            }
+        }
+    }
+
+    /**
+     * Checks that the client may read a job of this component type, which needs the same permission on the
+     * namespace of the job as submitting it.
+     */
+    public void validateJobPermission(MeshJob job, String clientRole, AuthenticationDataSource authenticationData) {
+        validatePermission(job.getTenant(), job.getNamespace(), clientRole, authenticationData, job.getName());
+    }
+
     void validatePermission(String tenant,
                             String namespace,
                             String clientRole,
@@ -585,11 +1767,172 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
         return workerService.isInitialized();
     }
 
+    /**
+     * Fails with 400 when the api of the component type is disabled in the config of the worker.
+     */
+    abstract void validateComponentEnabled();
+
     abstract List<FunctionInstanceStatsImpl> getComponentInstancesStats(String tenant, String namespace,
                                                                         String componentName);
 
     abstract void validateResourceObject(T obj) throws IllegalArgumentException;
 
+    public abstract V1StatefulSet getFunctionStatefulSet(T obj);
+
+    T getComponentResource(String tenant, String namespace, String componentName) {
+        T resource;
+        try {
+            String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, componentName);
+            resource = getResource(worker().getJobNamespace(), hashName);
+            validateResourceObject(resource);
+        } catch (IllegalArgumentException e) {
+            throw new RestException(javax.ws.rs.core.Response.Status.NOT_FOUND,
+                    String.format("%s %s/%s/%s is not ready: %s", ComponentTypeUtils.toString(componentType),
+                            tenant, namespace, componentName, e.getMessage()));
+        }
+        return resource;
+    }
+
+    V1StatefulSet getComponentStatefulSet(T resource, String tenant, String namespace, String componentName) {
+        V1StatefulSet v1StatefulSet = getFunctionStatefulSet(resource);
+        try {
+            validateStatefulSet(v1StatefulSet);
+        } catch (IllegalArgumentException e) {
+            throw new RestException(javax.ws.rs.core.Response.Status.NOT_FOUND,
+                    String.format("%s %s/%s/%s has no valid StatefulSet: %s",
+                            ComponentTypeUtils.toString(componentType), tenant, namespace, componentName,
+                            e.getMessage()));
+        }
+        return v1StatefulSet;
+    }
+
+    int parseInstanceId(String instanceId, V1StatefulSet v1StatefulSet) {
+        int shardId;
+        try {
+            shardId = Integer.parseInt(instanceId);
+        } catch (NumberFormatException e) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST, "Invalid InstanceId");
+        }
+        Integer replicas = v1StatefulSet.getStatus().getReplicas();
+        if (shardId < 0 || replicas == null || shardId >= replicas) {
+            throw new RestException(javax.ws.rs.core.Response.Status.BAD_REQUEST, "Invalid InstanceId");
+        }
+        return shardId;
+    }
+
+    /**
+     * Returns the StatefulSet of the component from the StatefulSet cache, or null when it is not cached.
+     */
+    V1StatefulSet getCachedStatefulSet(T resource, String statefulSetName) {
+        MeshStatefulSetCache statefulSetCache = worker().getStatefulSetCache();
+        if (statefulSetCache == null || resource.getMetadata() == null) {
+            return null;
+        }
+        V1StatefulSet v1StatefulSet = statefulSetCache.getByOwner(resource.getMetadata().getUid(), statefulSetName);
+        return validateResourceOwner(v1StatefulSet, resource) ? v1StatefulSet : null;
+    }
+
+    /**
+     * Lists the pods of a component, from the pod cache when it is enabled and synced.
+     */
+    V1PodList listComponentPods(String tenant, String namespace, String componentName, String labelSelector)
+            throws ApiException {
+        MeshPodCache podCache = worker().getPodCache();
+        if (podCache != null) {
+            V1PodList podList = podCache.listPods(tenant, namespace, componentName, labelSelector);
+            if (podList != null) {
+                return podList;
+            }
+        }
+        return worker().getCoreV1Api().listNamespacedPod(
+                worker().getJobNamespace(), null, null, null, null,
+                labelSelector, null, null, null, null,
+                null);
+    }
+
+    /**
+     * Lists the pods of a component like {@link #listComponentPods}, but without blocking the calling thread when
+     * the pods are not cached and the worker has an async client.
+     */
+    CompletableFuture<V1PodList> listComponentPodsAsync(String tenant, String namespace, String componentName,
+                                                        String labelSelector) {
+        KubernetesAsyncClient asyncClient = worker().getKubernetesAsyncClient();
+        try {
+            if (asyncClient == null) {
+                return CompletableFuture.completedFuture(
+                        listComponentPods(tenant, namespace, componentName, labelSelector));
+            }
+            MeshPodCache podCache = worker().getPodCache();
+            V1PodList cachedPodList = podCache != null
+                    ? podCache.listPods(tenant, namespace, componentName, labelSelector) : null;
+            if (cachedPodList != null) {
+                return CompletableFuture.completedFuture(cachedPodList);
+            }
+            return listPodsAsync(labelSelector);
+        } catch (ApiException e) {
+            return FutureUtil.failedFuture(e);
+        }
+    }
+
+    /**
+     * Lists the pods of a component for its status, through {@link #listComponentPodsAsync} when the worker has an
+     * async client and with the given listing otherwise. Completes with null when the pods cannot be listed.
+     */
+    CompletableFuture<V1PodList> getComponentPodsAsync(String tenant, String namespace, String componentName,
+                                                       String labelSelector, Supplier<V1PodList> listPods) {
+        if (worker().getKubernetesAsyncClient() == null) {
+            return CompletableFuture.completedFuture(listPods.get());
+        }
+        return listComponentPodsAsync(tenant, namespace, componentName, labelSelector)
+                .exceptionally(e -> {
+                    log.error("get {} pods failed, {}/{}/{}", ComponentTypeUtils.toString(componentType), tenant,
+                            namespace, componentName, e);
+                    return null;
+                });
+    }
+
+    /**
+     * Lists the pods matching the label selector from the api server, through the async client when there is one.
+     */
+    CompletableFuture<V1PodList> listPodsAsync(String labelSelector) {
+        KubernetesAsyncClient asyncClient = worker().getKubernetesAsyncClient();
+        try {
+            if (asyncClient == null) {
+                return CompletableFuture.completedFuture(worker().getCoreV1Api().listNamespacedPod(
+                        worker().getJobNamespace(), null, null, null, null,
+                        labelSelector, null, null, null, null,
+                        null));
+            }
+            return asyncClient.execute(worker().getCoreV1Api().listNamespacedPodCall(
+                    worker().getJobNamespace(), null, null, null, null,
+                    labelSelector, null, null, null, null,
+                    null, null), V1PodList.class);
+        } catch (ApiException e) {
+            return FutureUtil.failedFuture(e);
+        }
+    }
+
+    /**
+     * Reads the pod of one instance by its StatefulSet ordinal name, or returns null when it does not exist.
+     */
+    V1Pod getInstancePod(V1StatefulSet v1StatefulSet, int shardId) {
+        String podName = v1StatefulSet.getMetadata().getName() + "-" + shardId;
+        try {
+            return worker().getCoreV1Api().readNamespacedPod(podName, worker().getJobNamespace(), null, null, null);
+        } catch (ApiException e) {
+            if (e.getCode() == javax.ws.rs.core.Response.Status.NOT_FOUND.getStatusCode()) {
+                return null;
+            }
+            log.error("get pod {} failed, error: {}", podName, e.getResponseBody());
+            throw new RestException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the package url of the component archive, or null when the component uses a builtin archive.
+     */
+    abstract String getComponentPackageLocation(T obj);
+
     public Set<CompletableFuture<MetricsData>> fetchStatsFromGRPC(List<V1Pod> pods,
                                                                   String subdomain,
                                                                   String statefulSetName,
@@ -612,15 +1955,16 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
                             .orElse(null);
             if (functionInstanceStats != null) {
                 // get status from grpc
-                if (channel[podIndex] == null && stub[podIndex] == null) {
-                    channel[podIndex] = ManagedChannelBuilder.forAddress(address, 9093)
-                            .usePlaintext()
-                            .build();
-                    stub[podIndex] = InstanceControlGrpc.newFutureStub(channel[podIndex]);
-                }
-                CompletableFuture<MetricsData> future =
-                        CommonUtil.getFunctionMetricsAsync(stub[podIndex]);
-                future.whenComplete((fs, e) -> {
+                CompletableFuture<MetricsData> future = callInstance(address, deadlineMs -> {
+                    if (channel[podIndex] == null && stub[podIndex] == null) {
+                        channel[podIndex] = ManagedChannelBuilder.forAddress(address, 9093)
+                                .usePlaintext()
+                                .build();
+                        stub[podIndex] = InstanceControlGrpc.newFutureStub(channel[podIndex]);
+                    }
+                    return CommonUtil.getFunctionMetricsAsync(withDeadline(stub[podIndex], deadlineMs));
+                });
+                completableFutureSet.add(future.whenComplete((fs, e) -> {
                     if (channel[podIndex] != null) {
                         log.debug("closing channel {}", podIndex);
                         channel[podIndex].shutdown();
@@ -634,8 +1978,7 @@ public abstract class MeshComponentImpl<T extends io.kubernetes.client.common.Ku
                     } else if (fs != null) {
                         CommonUtil.convertFunctionMetricsToFunctionInstanceStats(fs, functionInstanceStats);
                     }
-                });
-                completableFutureSet.add(future);
+                }));
             } else {
                 log.warn("Get {}-{} stats failed from namespace {}, cannot find status for shardId {}",
                         statefulSetName,
@@ -22,11 +22,14 @@ import static io.functionmesh.compute.util.KubernetesUtils.validateResourceOwner
 import static io.functionmesh.compute.util.KubernetesUtils.validateStatefulSet;
 import com.google.common.annotations.VisibleForTesting;
 import io.functionmesh.compute.MeshWorkerService;
+import io.functionmesh.compute.models.MeshJob;
 import io.functionmesh.compute.models.MeshWorkerServiceCustomConfig;
+import io.functionmesh.compute.models.PodPolicyTemplate;
 import io.functionmesh.compute.sinks.models.V1alpha1Sink;
 import io.functionmesh.compute.sinks.models.V1alpha1SinkList;
 import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecJava;
 import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPod;
+import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodImagePullSecrets;
 import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodInitContainers;
 import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodVolumeMounts;
 import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodVolumes;
@@ -35,6 +38,7 @@ import io.functionmesh.compute.util.CommonUtil;
 import io.functionmesh.compute.util.KubernetesUtils;
 import io.functionmesh.compute.util.PackageManagementServiceUtil;
 import io.functionmesh.compute.util.SinksUtil;
+import io.functionmesh.compute.worker.TenantAdmissionController;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import io.kubernetes.client.openapi.models.V1ContainerState;
@@ -49,6 +53,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
@@ -89,6 +94,11 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
                 meshWorkerServiceSupplier.get().getApiClient());
     }
 
+    @Override
+    void validateComponentEnabled() {
+        validateSinkEnabled();
+    }
+
     private void validateSinkEnabled() {
         MeshWorkerServiceCustomConfig customConfig = worker().getMeshWorkerServiceCustomConfig();
         if (customConfig != null && !customConfig.isSinkEnabled()) {
@@ -135,6 +145,32 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
             final SinkConfig sinkConfig,
             final String clientRole,
             AuthenticationDataHttps clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try (IdempotentRequest request = idempotentRequest("register", tenant, namespace, sinkName,
+                clientRole, clientAuthenticationDataHttps, idempotencyKey(clientAuthenticationDataHttps),
+                () -> requestHash(sinkConfig, sinkPkgUrl, fileDetail))) {
+            if (request.isReplayed()) {
+                return;
+            }
+            doRegisterSink(tenant, namespace, sinkName, uploadedInputStream, fileDetail, sinkPkgUrl, sinkConfig,
+                    clientRole, clientAuthenticationDataHttps, request);
+            request.complete();
+        } finally {
+            permit.close();
+        }
+    }
+
+    private void doRegisterSink(
+            final String tenant,
+            final String namespace,
+            final String sinkName,
+            final InputStream uploadedInputStream,
+            final FormDataContentDisposition fileDetail,
+            final String sinkPkgUrl,
+            final SinkConfig sinkConfig,
+            final String clientRole,
+            AuthenticationDataHttps clientAuthenticationDataHttps,
+            final IdempotentRequest idempotentRequest) {
         validateSinkEnabled();
         validateRegisterSinkRequestParams(tenant, namespace, sinkName, sinkConfig, uploadedInputStream != null);
         this.validatePermission(tenant,
@@ -171,7 +207,8 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
         v1alpha1Sink.getMetadata().setNamespace(worker().getJobNamespace());
         try {
             this.upsertSink(tenant, namespace, sinkName, sinkConfig, v1alpha1Sink, clientAuthenticationDataHttps);
-            extractResponse(getResourceApi().create(v1alpha1Sink));
+            idempotentRequest.record(v1alpha1Sink);
+            createResource(v1alpha1Sink);
         } catch (RestException restException) {
             log.error(
                     "register {}/{}/{} sink failed",
@@ -203,6 +240,33 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
             final String clientRole,
             AuthenticationDataHttps clientAuthenticationDataHttps,
             UpdateOptionsImpl updateOptions) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try (IdempotentRequest request = idempotentRequest("update", tenant, namespace, sinkName,
+                clientRole, clientAuthenticationDataHttps, idempotencyKey(clientAuthenticationDataHttps),
+                () -> requestHash(sinkConfig, sinkPkgUrl, fileDetail))) {
+            if (request.isReplayed()) {
+                return;
+            }
+            doUpdateSink(tenant, namespace, sinkName, uploadedInputStream, fileDetail, sinkPkgUrl, sinkConfig,
+                    clientRole, clientAuthenticationDataHttps, updateOptions, request);
+            request.complete();
+        } finally {
+            permit.close();
+        }
+    }
+
+    private void doUpdateSink(
+            final String tenant,
+            final String namespace,
+            final String sinkName,
+            final InputStream uploadedInputStream,
+            final FormDataContentDisposition fileDetail,
+            final String sinkPkgUrl,
+            final SinkConfig sinkConfig,
+            final String clientRole,
+            AuthenticationDataHttps clientAuthenticationDataHttps,
+            UpdateOptionsImpl updateOptions,
+            final IdempotentRequest idempotentRequest) {
         validateSinkEnabled();
         validateUpdateSinkRequestParams(tenant, namespace, sinkName, sinkConfig, uploadedInputStream != null);
         this.validatePermission(tenant,
@@ -238,7 +302,7 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
 
             String nameSpaceName = worker().getJobNamespace();
             String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, sinkName);
-            V1alpha1Sink v1alpha1Sink1Pre = extractResponse(getResourceApi().get(nameSpaceName, hashName));
+            V1alpha1Sink v1alpha1Sink1Pre = getResource(nameSpaceName, hashName);
             if (v1alpha1Sink1Pre.getMetadata() == null || v1alpha1Sink1Pre.getMetadata().getLabels() == null) {
                 log.error("update {}/{}/{} sink failed, the sink resource cannot be found", tenant, namespace,
                         sinkName);
@@ -248,7 +312,8 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
             v1alpha1Sink.getMetadata().setResourceVersion(v1alpha1Sink1Pre.getMetadata().getResourceVersion());
 
             this.upsertSink(tenant, namespace, sinkName, sinkConfig, v1alpha1Sink, clientAuthenticationDataHttps);
-            extractResponse(getResourceApi().update(v1alpha1Sink));
+            idempotentRequest.record(v1alpha1Sink);
+            updateResource(v1alpha1Sink);
         } catch (Exception e) {
             log.error(
                     "update {}/{}/{} sink failed",
@@ -260,6 +325,47 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
         }
     }
 
+    @Override
+    protected Object convertResource(final String tenant,
+                                     final String namespace,
+                                     final String componentName,
+                                     final V1alpha1Sink v1alpha1Sink) {
+        return SinksUtil.createSinkConfigFromV1alpha1Sink(tenant, namespace, componentName,
+                v1alpha1Sink, worker());
+    }
+
+    @Override
+    protected JobRunner jobRunner(final MeshJob.Action action,
+                                  final String tenant,
+                                  final String namespace,
+                                  final String sinkName,
+                                  final String config) {
+        SinkConfig sinkConfig = readJobConfig(config, SinkConfig.class);
+        if (action == MeshJob.Action.UPDATE) {
+            return (uploadedInputStream, fileDetail, packageUrl, clientRole, clientAuthenticationDataHttps,
+                    idempotentRequest) -> {
+                TenantAdmissionController.Permit permit = admit(tenant);
+                try {
+                    doUpdateSink(tenant, namespace, sinkName, uploadedInputStream, fileDetail, packageUrl,
+                            sinkConfig, clientRole, clientAuthenticationDataHttps,
+                            new UpdateOptionsImpl(), idempotentRequest);
+                } finally {
+                    permit.close();
+                }
+            };
+        }
+        return (uploadedInputStream, fileDetail, packageUrl, clientRole, clientAuthenticationDataHttps,
+                idempotentRequest) -> {
+            TenantAdmissionController.Permit permit = admit(tenant);
+            try {
+                doRegisterSink(tenant, namespace, sinkName, uploadedInputStream, fileDetail, packageUrl,
+                        sinkConfig, clientRole, clientAuthenticationDataHttps, idempotentRequest);
+            } finally {
+                permit.close();
+            }
+        };
+    }
+
     @Override
     public SinkStatus.SinkInstanceStatus.SinkInstanceStatusData getSinkInstanceStatus(
             final String tenant,
@@ -283,17 +389,37 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
             final URI uri,
             final String clientRole,
             final AuthenticationDataSource clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            return doGetSinkStatus(tenant, namespace, componentName, uri, clientRole, clientAuthenticationDataHttps);
+        } finally {
+            permit.close();
+        }
+    }
+
+    private SinkStatus doGetSinkStatus(
+            final String tenant,
+            final String namespace,
+            final String componentName,
+            final URI uri,
+            final String clientRole,
+            final AuthenticationDataSource clientAuthenticationDataHttps) {
         validateSinkEnabled();
-        SinkStatus sinkStatus = new SinkStatus();
         this.validatePermission(tenant,
                 namespace,
                 clientRole,
                 clientAuthenticationDataHttps,
                 ComponentTypeUtils.toString(componentType));
+        return coalesce("status", tenant, namespace, componentName,
+                () -> computeSinkStatus(tenant, namespace, componentName));
+    }
+
+    private SinkStatus computeSinkStatus(final String tenant, final String namespace, final String componentName) {
+        SinkStatus sinkStatus = new SinkStatus();
         try {
             String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, componentName);
             String nameSpaceName = worker().getJobNamespace();
-            V1alpha1Sink v1alpha1Sink = extractResponse(getResourceApi().get(nameSpaceName, hashName));
+            V1alpha1Sink v1alpha1Sink = getResource(nameSpaceName, hashName);
             V1alpha1SinkStatus v1alpha1SinkStatus = v1alpha1Sink.getStatus();
             if (v1alpha1SinkStatus == null) {
                 log.error(
@@ -312,6 +438,9 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
                 throw new RestException(Response.Status.NOT_FOUND, "no Metadata exists");
             }
             String sinkLabelSelector = v1alpha1SinkStatus.getSelector();
+            // the pods are listed while the StatefulSet is read
+            CompletableFuture<V1PodList> podListFuture =
+                    listComponentPodsAsync(tenant, namespace, componentName, sinkLabelSelector);
             String jobName = CommonUtil.makeJobName(v1alpha1Sink.getMetadata().getName(), CommonUtil.COMPONENT_SINK);
             V1StatefulSet v1StatefulSet =
                     worker().getAppsV1Api().readNamespacedStatefulSet(jobName, nameSpaceName, null, null, null);
@@ -371,10 +500,7 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
                         componentName);
                 throw new RestException(Response.Status.NOT_FOUND, "no StatefulSet status exists");
             }
-            V1PodList podList = worker().getCoreV1Api().listNamespacedPod(
-                    nameSpaceName, null, null, null, null,
-                    sinkLabelSelector, null, null, null, null,
-                    null);
+            V1PodList podList = podListFuture.get();
             if (podList != null) {
                 List<V1Pod> runningPods = podList.getItems().stream().
                         filter(KubernetesUtils::isPodRunning).collect(Collectors.toList());
@@ -388,7 +514,7 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
                     Set<CompletableFuture<InstanceCommunication.FunctionStatus>> completableFutureSet =
                             fetchSinkStatusFromGRPC(runningPods, subdomain, statefulSetName, nameSpaceName, sinkStatus,
                                     v1alpha1Sink, channel, stub);
-                    completableFutureSet.forEach(CompletableFuture::join);
+                    completableFutureSet.forEach(future -> future.handle((result, e) -> result).join());
                 }
                 if (!pendingPods.isEmpty()) {
                     fillSinkStatusByPendingPod(pendingPods, statefulSetName, nameSpaceName, sinkStatus, v1alpha1Sink);
@@ -408,14 +534,20 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
     @Override
     public SinkConfig getSinkInfo(
             final String tenant, final String namespace, final String componentName) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            return doGetSinkInfo(tenant, namespace, componentName);
+        } finally {
+            permit.close();
+        }
+    }
+
+    private SinkConfig doGetSinkInfo(
+            final String tenant, final String namespace, final String componentName) {
         validateSinkEnabled();
         this.validateGetInfoRequestParams(tenant, namespace, componentName, apiKind);
         try {
-            String nameSpaceName = worker().getJobNamespace();
-            String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, componentName);
-            V1alpha1Sink v1alpha1Sink = extractResponse(getResourceApi().get(nameSpaceName, hashName));
-            return SinksUtil.createSinkConfigFromV1alpha1Sink(
-                    tenant, namespace, componentName, v1alpha1Sink, worker());
+            return (SinkConfig) readComponentConfig(tenant, namespace, componentName).getConfig();
         } catch (Exception e) {
             log.error(
                     "get {}/{}/{} function info failed",
@@ -443,7 +575,7 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
         try {
             String nameSpaceName = worker().getJobNamespace();
             String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, componentName);
-            V1alpha1Sink v1alpha1Sink = extractResponse(getResourceApi().get(nameSpaceName, hashName));
+            V1alpha1Sink v1alpha1Sink = getResource(nameSpaceName, hashName);
             try {
                 validateResourceObject(v1alpha1Sink);
             } catch (IllegalArgumentException e) {
@@ -451,6 +583,10 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
                 return functionInstanceStatsList;
             }
             V1alpha1SinkStatus v1alpha1SinkStatus = v1alpha1Sink.getStatus();
+            // the pods are listed while the StatefulSet is read
+            CompletableFuture<V1PodList> podListFuture =
+                    getComponentPodsAsync(tenant, namespace, componentName, v1alpha1SinkStatus.getSelector(),
+                            () -> getFunctionPods(tenant, namespace, componentName, v1alpha1SinkStatus));
             final V1StatefulSet v1StatefulSet = getFunctionStatefulSet(v1alpha1Sink);
             try {
                 validateStatefulSet(v1StatefulSet);
@@ -470,7 +606,7 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
                     }
                 }
             }
-            V1PodList podList = getFunctionPods(tenant, namespace, componentName, v1alpha1SinkStatus);
+            V1PodList podList = podListFuture.join();
             if (podList != null) {
                 List<V1Pod> runningPods = podList.getItems().stream().
                         filter(KubernetesUtils::isPodRunning).collect(Collectors.toList());
@@ -482,7 +618,7 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
                     Set<CompletableFuture<InstanceCommunication.MetricsData>> completableFutureSet =
                             fetchStatsFromGRPC(runningPods, subdomain, statefulSetName,
                                     nameSpaceName, functionInstanceStatsList, channel, stub);
-                    completableFutureSet.forEach(CompletableFuture::join);
+                    completableFutureSet.forEach(future -> future.handle((result, e) -> result).join());
                 }
             }
         } catch (Exception e) {
@@ -508,6 +644,14 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
         }
     }
 
+    @Override
+    String getComponentPackageLocation(V1alpha1Sink obj) {
+        if (obj == null || obj.getSpec() == null || obj.getSpec().getJava() == null) {
+            return null;
+        }
+        return obj.getSpec().getJava().getJarLocation();
+    }
+
     @Override
     public List<ConnectorDefinition> getSinkList() {
         validateSinkEnabled();
@@ -542,6 +686,9 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
                         v1alpha1Sink.getSpec().setPod(podPolicy);
                     }
                     MeshWorkerServiceCustomConfig customConfig = worker().getMeshWorkerServiceCustomConfig();
+                    PodPolicyTemplate<V1alpha1SinkSpecPodVolumes, V1alpha1SinkSpecPodVolumeMounts,
+                            V1alpha1SinkSpecPodImagePullSecrets, V1alpha1SinkSpecPodInitContainers> template =
+                            podPolicyTemplate(customConfig);
                     if (customConfig != null && StringUtils.isNotEmpty(customConfig.getExtraDependenciesDir())) {
                         V1alpha1SinkSpecJava v1alpha1SinkSpecJava = null;
                         if (v1alpha1Sink.getSpec() != null && v1alpha1Sink.getSpec().getJava() != null) {
@@ -557,36 +704,33 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
                             v1alpha1Sink.getSpec().setJava(v1alpha1SinkSpecJava);
                         }
                     }
-                    List<V1alpha1SinkSpecPodVolumes> volumesList = customConfig.asV1alpha1SinkSpecPodVolumesList();
+                    List<V1alpha1SinkSpecPodVolumes> volumesList = template.copyVolumes();
                     if (volumesList != null && !volumesList.isEmpty()) {
                         podPolicy.setVolumes(volumesList);
                     }
                     List<V1alpha1SinkSpecPodVolumeMounts> volumeMountsList =
-                            customConfig.asV1alpha1SinkSpecPodVolumeMountsList();
+                            template.copyVolumeMounts();
                     if (volumeMountsList != null && !volumeMountsList.isEmpty()) {
                         v1alpha1Sink.getSpec().setVolumeMounts(volumeMountsList);
                     }
-                    if (!StringUtils.isEmpty(worker().getWorkerConfig().getBrokerClientAuthenticationPlugin())
-                            && !StringUtils.isEmpty(
-                            worker().getWorkerConfig().getBrokerClientAuthenticationParameters())) {
-                        String authSecretName = KubernetesUtils.upsertSecret(apiKind.toLowerCase(), "auth",
-                                v1alpha1Sink.getSpec().getClusterName(), tenant, namespace, sinkName, worker());
-                        v1alpha1Sink.getSpec().getPulsar().setAuthSecret(authSecretName);
+                    Map<String, String> secretNames = upsertComponentSecrets(
+                            v1alpha1Sink.getSpec().getClusterName(), tenant, namespace, sinkName);
+                    if (secretNames.containsKey(SECRET_TYPE_AUTH)) {
+                        v1alpha1Sink.getSpec().getPulsar().setAuthSecret(secretNames.get(SECRET_TYPE_AUTH));
                     }
-                    if (worker().getWorkerConfig().getTlsEnabled()) {
-                        String tlsSecretName = KubernetesUtils.upsertSecret(apiKind.toLowerCase(), "tls",
-                                v1alpha1Sink.getSpec().getClusterName(), tenant, namespace, sinkName, worker());
-                        v1alpha1Sink.getSpec().getPulsar().setTlsSecret(tlsSecretName);
+                    if (secretNames.containsKey(SECRET_TYPE_TLS)) {
+                        v1alpha1Sink.getSpec().getPulsar().setTlsSecret(secretNames.get(SECRET_TYPE_TLS));
                     }
                     if (!StringUtils.isEmpty(customConfig.getDefaultServiceAccountName())
                             && StringUtils.isEmpty(podPolicy.getServiceAccountName())) {
                         podPolicy.setServiceAccountName(customConfig.getDefaultServiceAccountName());
                     }
-                    if (customConfig.getImagePullSecrets() != null && !customConfig.getImagePullSecrets().isEmpty()) {
-                        podPolicy.setImagePullSecrets(customConfig.asV1alpha1SinkSpecPodImagePullSecrets());
+                    List<V1alpha1SinkSpecPodImagePullSecrets> imagePullSecrets = template.copyImagePullSecrets();
+                    if (imagePullSecrets != null) {
+                        podPolicy.setImagePullSecrets(imagePullSecrets);
                     }
                     List<V1alpha1SinkSpecPodInitContainers> initContainersList =
-                            customConfig.asV1alpha1SinkSpecPodInitContainers();
+                            template.copyInitContainers();
                     if (initContainersList != null && !initContainersList.isEmpty()) {
                         podPolicy.setInitContainers(initContainersList);
                     }
@@ -607,10 +751,15 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
         }
     }
 
+    @Override
     public V1StatefulSet getFunctionStatefulSet(V1alpha1Sink v1alpha1Sink) {
         try {
             String nameSpaceName = worker().getJobNamespace();
             String jobName = CommonUtil.makeJobName(v1alpha1Sink.getMetadata().getName(), CommonUtil.COMPONENT_SINK);
+            V1StatefulSet cachedStatefulSet = getCachedStatefulSet(v1alpha1Sink, jobName);
+            if (cachedStatefulSet != null) {
+                return cachedStatefulSet;
+            }
             V1StatefulSet v1StatefulSet =
                     worker().getAppsV1Api().readNamespacedStatefulSet(jobName, nameSpaceName, null, null, null);
             if (validateResourceOwner(v1StatefulSet, v1alpha1Sink)) {
@@ -629,12 +778,7 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
                                      V1alpha1SinkStatus v1alpha1SinkStatus) {
         V1PodList podList = null;
         try {
-            String nameSpaceName = worker().getJobNamespace();
-            String functionLabelSelector = v1alpha1SinkStatus.getSelector();
-            podList = worker().getCoreV1Api().listNamespacedPod(
-                    nameSpaceName, null, null, null, null,
-                    functionLabelSelector, null, null, null, null,
-                    null);
+            podList = listComponentPods(tenant, namespace, componentName, v1alpha1SinkStatus.getSelector());
         } catch (Exception e) {
             log.error("get sink pods failed, {}/{}/{}", tenant, namespace, componentName, e);
         }
@@ -688,15 +832,16 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
                     }
                 }
                 // get status from grpc
-                if (channel[podIndex] == null && stub[podIndex] == null) {
-                    channel[podIndex] = ManagedChannelBuilder.forAddress(address, 9093)
-                            .usePlaintext()
-                            .build();
-                    stub[podIndex] = InstanceControlGrpc.newFutureStub(channel[podIndex]);
-                }
-                CompletableFuture<InstanceCommunication.FunctionStatus> future =
-                        CommonUtil.getFunctionStatusAsync(stub[podIndex]);
-                future.whenComplete((fs, e) -> {
+                CompletableFuture<InstanceCommunication.FunctionStatus> future = callInstance(address, deadlineMs -> {
+                    if (channel[podIndex] == null && stub[podIndex] == null) {
+                        channel[podIndex] = ManagedChannelBuilder.forAddress(address, 9093)
+                                .usePlaintext()
+                                .build();
+                        stub[podIndex] = InstanceControlGrpc.newFutureStub(channel[podIndex]);
+                    }
+                    return CommonUtil.getFunctionStatusAsync(withDeadline(stub[podIndex], deadlineMs));
+                });
+                completableFutureSet.add(future.whenComplete((fs, e) -> {
                     if (channel[podIndex] != null) {
                         log.debug("closing channel {}", podIndex);
                         channel[podIndex].shutdown();
@@ -711,8 +856,7 @@ public class SinksImpl extends MeshComponentImpl<V1alpha1Sink, V1alpha1SinkList>
                     } else if (fs != null) {
                         SinksUtil.convertFunctionStatusToInstanceStatusData(fs, sinkInstanceStatusData);
                     }
-                });
-                completableFutureSet.add(future);
+                }));
             } else {
                 log.error(
                         "Get sink {}-{} status failed from namespace {}, cannot find status for shardId {}",
@@ -22,11 +22,14 @@ import static io.functionmesh.compute.util.KubernetesUtils.validateResourceOwner
 import static io.functionmesh.compute.util.KubernetesUtils.validateStatefulSet;
 import com.google.common.annotations.VisibleForTesting;
 import io.functionmesh.compute.MeshWorkerService;
+import io.functionmesh.compute.models.MeshJob;
 import io.functionmesh.compute.models.MeshWorkerServiceCustomConfig;
+import io.functionmesh.compute.models.PodPolicyTemplate;
 import io.functionmesh.compute.sources.models.V1alpha1Source;
 import io.functionmesh.compute.sources.models.V1alpha1SourceList;
 import io.functionmesh.compute.sources.models.V1alpha1SourceSpecJava;
 import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPod;
+import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPodImagePullSecrets;
 import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPodInitContainers;
 import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPodVolumeMounts;
 import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPodVolumes;
@@ -35,6 +38,7 @@ import io.functionmesh.compute.util.CommonUtil;
 import io.functionmesh.compute.util.KubernetesUtils;
 import io.functionmesh.compute.util.PackageManagementServiceUtil;
 import io.functionmesh.compute.util.SourcesUtil;
+import io.functionmesh.compute.worker.TenantAdmissionController;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import io.kubernetes.client.openapi.models.V1ContainerState;
@@ -49,6 +53,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
@@ -89,6 +94,11 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                 meshWorkerServiceSupplier.get().getApiClient());
     }
 
+    @Override
+    void validateComponentEnabled() {
+        validateSourceEnabled();
+    }
+
     private void validateSourceEnabled() {
         MeshWorkerServiceCustomConfig customConfig = worker().getMeshWorkerServiceCustomConfig();
         if (customConfig != null && !customConfig.isSourceEnabled()) {
@@ -145,8 +155,34 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                                final SourceConfig sourceConfig,
                                final String clientRole,
                                AuthenticationDataHttps clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try (IdempotentRequest request = idempotentRequest("register", tenant, namespace, sourceName,
+                clientRole, clientAuthenticationDataHttps, idempotencyKey(clientAuthenticationDataHttps),
+                () -> requestHash(sourceConfig, sourcePkgUrl, fileDetail))) {
+            if (request.isReplayed()) {
+                return;
+            }
+            doRegisterSource(tenant, namespace, sourceName, uploadedInputStream, fileDetail, sourcePkgUrl, sourceConfig,
+                    clientRole, clientAuthenticationDataHttps, request);
+            request.complete();
+        } finally {
+            permit.close();
+        }
+    }
+
+    private void doRegisterSource(final String tenant,
+                                  final String namespace,
+                                  final String sourceName,
+                                  final InputStream uploadedInputStream,
+                                  final FormDataContentDisposition fileDetail,
+                                  final String sourcePkgUrl,
+                                  final SourceConfig sourceConfig,
+                                  final String clientRole,
+                                  AuthenticationDataHttps clientAuthenticationDataHttps,
+                                  final IdempotentRequest idempotentRequest) {
         validateSourceEnabled();
-        validateRegisterSourceRequestParams(tenant, namespace, sourceName, sourceConfig, uploadedInputStream != null);
+        validateRegisterSourceRequestParams(tenant, namespace, sourceName, sourceConfig,
+                uploadedInputStream != null);
         this.validatePermission(tenant,
                 namespace,
                 clientRole,
@@ -182,7 +218,8 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
         try {
             this.upsertSource(tenant, namespace, sourceName, sourceConfig, v1alpha1Source,
                     clientAuthenticationDataHttps);
-            extractResponse(getResourceApi().create(v1alpha1Source));
+            idempotentRequest.record(v1alpha1Source);
+            createResource(v1alpha1Source);
         } catch (RestException restException) {
             log.error(
                     "register {}/{}/{} source failed",
@@ -207,6 +244,32 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                              final String clientRole,
                              AuthenticationDataHttps clientAuthenticationDataHttps,
                              UpdateOptionsImpl updateOptions) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try (IdempotentRequest request = idempotentRequest("update", tenant, namespace, sourceName,
+                clientRole, clientAuthenticationDataHttps, idempotencyKey(clientAuthenticationDataHttps),
+                () -> requestHash(sourceConfig, sourcePkgUrl, fileDetail))) {
+            if (request.isReplayed()) {
+                return;
+            }
+            doUpdateSource(tenant, namespace, sourceName, uploadedInputStream, fileDetail, sourcePkgUrl, sourceConfig,
+                    clientRole, clientAuthenticationDataHttps, updateOptions, request);
+            request.complete();
+        } finally {
+            permit.close();
+        }
+    }
+
+    private void doUpdateSource(final String tenant,
+                                final String namespace,
+                                final String sourceName,
+                                final InputStream uploadedInputStream,
+                                final FormDataContentDisposition fileDetail,
+                                final String sourcePkgUrl,
+                                final SourceConfig sourceConfig,
+                                final String clientRole,
+                                AuthenticationDataHttps clientAuthenticationDataHttps,
+                                UpdateOptionsImpl updateOptions,
+                                final IdempotentRequest idempotentRequest) {
         validateSourceEnabled();
         validateUpdateSourceRequestParams(tenant, namespace, sourceName, sourceConfig, uploadedInputStream != null);
         this.validatePermission(tenant,
@@ -243,7 +306,7 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
 
             String nameSpaceName = worker().getJobNamespace();
             String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, sourceName);
-            V1alpha1Source v1alpha1SourcePre = extractResponse(getResourceApi().get(nameSpaceName, hashName));
+            V1alpha1Source v1alpha1SourcePre = getResource(nameSpaceName, hashName);
             if (v1alpha1SourcePre.getMetadata() == null || v1alpha1SourcePre.getMetadata().getLabels() == null) {
                 log.error("update {}/{}/{} source failed, the source resource cannot be found", tenant, namespace,
                         sourceName);
@@ -254,31 +317,91 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
             v1alpha1Source.getMetadata().setResourceVersion(v1alpha1SourcePre.getMetadata().getResourceVersion());
             this.upsertSource(tenant, namespace, sourceName, sourceConfig, v1alpha1Source,
                     clientAuthenticationDataHttps);
-            extractResponse(getResourceApi().update(v1alpha1Source));
+            idempotentRequest.record(v1alpha1Source);
+            updateResource(v1alpha1Source);
         } catch (Exception e) {
             log.error("update {}/{}/{} source failed", tenant, namespace, sourceConfig, e);
             throw new RestException(Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
         }
     }
 
+    @Override
+    protected Object convertResource(final String tenant,
+                                     final String namespace,
+                                     final String componentName,
+                                     final V1alpha1Source v1alpha1Source) {
+        return SourcesUtil.createSourceConfigFromV1alpha1Source(tenant, namespace, componentName,
+                v1alpha1Source, worker());
+    }
+
+    @Override
+    protected JobRunner jobRunner(final MeshJob.Action action,
+                                  final String tenant,
+                                  final String namespace,
+                                  final String sourceName,
+                                  final String config) {
+        SourceConfig sourceConfig = readJobConfig(config, SourceConfig.class);
+        if (action == MeshJob.Action.UPDATE) {
+            return (uploadedInputStream, fileDetail, packageUrl, clientRole, clientAuthenticationDataHttps,
+                    idempotentRequest) -> {
+                TenantAdmissionController.Permit permit = admit(tenant);
+                try {
+                    doUpdateSource(tenant, namespace, sourceName, uploadedInputStream, fileDetail, packageUrl,
+                            sourceConfig, clientRole, clientAuthenticationDataHttps,
+                            new UpdateOptionsImpl(), idempotentRequest);
+                } finally {
+                    permit.close();
+                }
+            };
+        }
+        return (uploadedInputStream, fileDetail, packageUrl, clientRole, clientAuthenticationDataHttps,
+                idempotentRequest) -> {
+            TenantAdmissionController.Permit permit = admit(tenant);
+            try {
+                doRegisterSource(tenant, namespace, sourceName, uploadedInputStream, fileDetail, packageUrl,
+                        sourceConfig, clientRole, clientAuthenticationDataHttps, idempotentRequest);
+            } finally {
+                permit.close();
+            }
+        };
+    }
+
     public SourceStatus getSourceStatus(final String tenant,
                                         final String namespace,
                                         final String componentName,
                                         final URI uri,
                                         final String clientRole,
                                         final AuthenticationDataSource clientAuthenticationDataHttps) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            return doGetSourceStatus(tenant, namespace, componentName, uri, clientRole, clientAuthenticationDataHttps);
+        } finally {
+            permit.close();
+        }
+    }
+
+    private SourceStatus doGetSourceStatus(final String tenant,
+                                           final String namespace,
+                                           final String componentName,
+                                           final URI uri,
+                                           final String clientRole,
+                                           final AuthenticationDataSource clientAuthenticationDataHttps) {
         validateSourceEnabled();
-        SourceStatus sourceStatus = new SourceStatus();
         this.validatePermission(tenant,
                 namespace,
                 clientRole,
                 clientAuthenticationDataHttps,
                 ComponentTypeUtils.toString(componentType));
+        return coalesce("status", tenant, namespace, componentName,
+                () -> computeSourceStatus(tenant, namespace, componentName));
+    }
 
+    private SourceStatus computeSourceStatus(final String tenant, final String namespace, final String componentName) {
+        SourceStatus sourceStatus = new SourceStatus();
         try {
             String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, componentName);
             String nameSpaceName = worker().getJobNamespace();
-            V1alpha1Source v1alpha1Source = extractResponse(getResourceApi().get(nameSpaceName, hashName));
+            V1alpha1Source v1alpha1Source = getResource(nameSpaceName, hashName);
             V1alpha1SourceStatus v1alpha1SourceStatus = v1alpha1Source.getStatus();
             if (v1alpha1SourceStatus == null) {
                 log.error(
@@ -297,6 +420,9 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                 throw new RestException(Response.Status.NOT_FOUND, "no Metadata exists");
             }
             String sourceLabelSelector = v1alpha1SourceStatus.getSelector();
+            // the pods are listed while the StatefulSet is read
+            CompletableFuture<V1PodList> podListFuture =
+                    listComponentPodsAsync(tenant, namespace, componentName, sourceLabelSelector);
             String jobName =
                     CommonUtil.makeJobName(v1alpha1Source.getMetadata().getName(), CommonUtil.COMPONENT_SOURCE);
             V1StatefulSet v1StatefulSet =
@@ -357,10 +483,7 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                         componentName);
                 throw new RestException(Response.Status.NOT_FOUND, "no StatefulSet status exists");
             }
-            V1PodList podList = worker().getCoreV1Api().listNamespacedPod(
-                    nameSpaceName, null, null, null, null,
-                    sourceLabelSelector, null, null, null, null,
-                    null);
+            V1PodList podList = podListFuture.get();
             if (podList != null) {
                 List<V1Pod> runningPods = podList.getItems().stream().
                         filter(KubernetesUtils::isPodRunning).collect(Collectors.toList());
@@ -375,7 +498,7 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                     Set<CompletableFuture<InstanceCommunication.FunctionStatus>> completableFutureSet =
                             fetchSourceStatusFromGRPC(runningPods, subdomain, statefulSetName, nameSpaceName,
                                     sourceStatus, v1alpha1Source, channel, stub);
-                    completableFutureSet.forEach(CompletableFuture::join);
+                    completableFutureSet.forEach(future -> future.handle((result, e) -> result).join());
                 }
                 if (!pendingPods.isEmpty()) {
                     fillSourceStatusByPendingPod(pendingPods, statefulSetName, nameSpaceName, sourceStatus,
@@ -404,16 +527,22 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
     public SourceConfig getSourceInfo(final String tenant,
                                       final String namespace,
                                       final String componentName) {
+        TenantAdmissionController.Permit permit = admit(tenant);
+        try {
+            return doGetSourceInfo(tenant, namespace, componentName);
+        } finally {
+            permit.close();
+        }
+    }
+
+    private SourceConfig doGetSourceInfo(final String tenant,
+                                         final String namespace,
+                                         final String componentName) {
         validateSourceEnabled();
         this.validateGetInfoRequestParams(tenant, namespace, componentName, apiKind);
 
         try {
-            String nameSpaceName = worker().getJobNamespace();
-            String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, componentName);
-            V1alpha1Source v1alpha1Source = extractResponse(getResourceApi().get(nameSpaceName, hashName));
-
-            return SourcesUtil.createSourceConfigFromV1alpha1Source(tenant, namespace, componentName, v1alpha1Source,
-                    worker());
+            return (SourceConfig) readComponentConfig(tenant, namespace, componentName).getConfig();
         } catch (Exception e) {
             log.error("Get source info {}/{}/{} {} failed", tenant, namespace, componentName, apiPlural, e);
             throw new RestException(Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
@@ -453,12 +582,15 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                         v1alpha1Source.getSpec().setPod(podPolicy);
                     }
                     MeshWorkerServiceCustomConfig customConfig = worker().getMeshWorkerServiceCustomConfig();
-                    List<V1alpha1SourceSpecPodVolumes> volumesList = customConfig.asV1alpha1SourceSpecPodVolumesList();
+                    PodPolicyTemplate<V1alpha1SourceSpecPodVolumes, V1alpha1SourceSpecPodVolumeMounts,
+                            V1alpha1SourceSpecPodImagePullSecrets, V1alpha1SourceSpecPodInitContainers> template =
+                            podPolicyTemplate(customConfig);
+                    List<V1alpha1SourceSpecPodVolumes> volumesList = template.copyVolumes();
                     if (volumesList != null && !volumesList.isEmpty()) {
                         podPolicy.setVolumes(volumesList);
                     }
                     List<V1alpha1SourceSpecPodVolumeMounts> volumeMountsList =
-                            customConfig.asV1alpha1SourceSpecPodVolumeMountsList();
+                            template.copyVolumeMounts();
                     if (volumeMountsList != null && !volumeMountsList.isEmpty()) {
                         v1alpha1Source.getSpec().setVolumeMounts(volumeMountsList);
                     }
@@ -477,27 +609,24 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                             v1alpha1Source.getSpec().setJava(v1alpha1SourceSpecJava);
                         }
                     }
-                    if (!StringUtils.isEmpty(worker().getWorkerConfig().getBrokerClientAuthenticationPlugin())
-                            && !StringUtils.isEmpty(
-                            worker().getWorkerConfig().getBrokerClientAuthenticationParameters())) {
-                        String authSecretName = KubernetesUtils.upsertSecret(apiKind.toLowerCase(), "auth",
-                                v1alpha1Source.getSpec().getClusterName(), tenant, namespace, sourceName, worker());
-                        v1alpha1Source.getSpec().getPulsar().setAuthSecret(authSecretName);
+                    Map<String, String> secretNames = upsertComponentSecrets(
+                            v1alpha1Source.getSpec().getClusterName(), tenant, namespace, sourceName);
+                    if (secretNames.containsKey(SECRET_TYPE_AUTH)) {
+                        v1alpha1Source.getSpec().getPulsar().setAuthSecret(secretNames.get(SECRET_TYPE_AUTH));
                     }
-                    if (worker().getWorkerConfig().getTlsEnabled()) {
-                        String tlsSecretName = KubernetesUtils.upsertSecret(apiKind.toLowerCase(), "tls",
-                                v1alpha1Source.getSpec().getClusterName(), tenant, namespace, sourceName, worker());
-                        v1alpha1Source.getSpec().getPulsar().setTlsSecret(tlsSecretName);
+                    if (secretNames.containsKey(SECRET_TYPE_TLS)) {
+                        v1alpha1Source.getSpec().getPulsar().setTlsSecret(secretNames.get(SECRET_TYPE_TLS));
                     }
                     if (!StringUtils.isEmpty(customConfig.getDefaultServiceAccountName())
                             && StringUtils.isEmpty(podPolicy.getServiceAccountName())) {
                         podPolicy.setServiceAccountName(customConfig.getDefaultServiceAccountName());
                     }
-                    if (customConfig.getImagePullSecrets() != null && !customConfig.getImagePullSecrets().isEmpty()) {
-                        podPolicy.setImagePullSecrets(customConfig.asV1alpha1SourceSpecPodImagePullSecrets());
+                    List<V1alpha1SourceSpecPodImagePullSecrets> imagePullSecrets = template.copyImagePullSecrets();
+                    if (imagePullSecrets != null) {
+                        podPolicy.setImagePullSecrets(imagePullSecrets);
                     }
                     List<V1alpha1SourceSpecPodInitContainers> initContainersList =
-                            customConfig.asV1alpha1SourceSpecPodInitContainers();
+                            template.copyInitContainers();
                     if (initContainersList != null && !initContainersList.isEmpty()) {
                         podPolicy.setInitContainers(initContainersList);
                     }
@@ -525,7 +654,7 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
         try {
             String nameSpaceName = worker().getJobNamespace();
             String hashName = CommonUtil.generateObjectName(worker(), tenant, namespace, componentName);
-            V1alpha1Source v1alpha1Source = extractResponse(getResourceApi().get(nameSpaceName, hashName));
+            V1alpha1Source v1alpha1Source = getResource(nameSpaceName, hashName);
             try {
                 validateResourceObject(v1alpha1Source);
             } catch (IllegalArgumentException e) {
@@ -533,6 +662,10 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                 return functionInstanceStatsList;
             }
             V1alpha1SourceStatus v1alpha1SourceStatus = v1alpha1Source.getStatus();
+            // the pods are listed while the StatefulSet is read
+            CompletableFuture<V1PodList> podListFuture =
+                    getComponentPodsAsync(tenant, namespace, componentName, v1alpha1SourceStatus.getSelector(),
+                            () -> getFunctionPods(tenant, namespace, componentName, v1alpha1SourceStatus));
             final V1StatefulSet v1StatefulSet = getFunctionStatefulSet(v1alpha1Source);
             try {
                 validateStatefulSet(v1StatefulSet);
@@ -552,7 +685,7 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                     }
                 }
             }
-            V1PodList podList = getFunctionPods(tenant, namespace, componentName, v1alpha1SourceStatus);
+            V1PodList podList = podListFuture.join();
             if (podList != null) {
                 List<V1Pod> runningPods = podList.getItems().stream().
                         filter(KubernetesUtils::isPodRunning).collect(Collectors.toList());
@@ -564,7 +697,7 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                     Set<CompletableFuture<InstanceCommunication.MetricsData>> completableFutureSet =
                             fetchStatsFromGRPC(runningPods, subdomain, statefulSetName,
                                     nameSpaceName, functionInstanceStatsList, channel, stub);
-                    completableFutureSet.forEach(CompletableFuture::join);
+                    completableFutureSet.forEach(future -> future.handle((result, e) -> result).join());
                 }
             }
         } catch (Exception e) {
@@ -590,11 +723,24 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
         }
     }
 
+    @Override
+    String getComponentPackageLocation(V1alpha1Source obj) {
+        if (obj == null || obj.getSpec() == null || obj.getSpec().getJava() == null) {
+            return null;
+        }
+        return obj.getSpec().getJava().getJarLocation();
+    }
+
+    @Override
     public V1StatefulSet getFunctionStatefulSet(V1alpha1Source v1alpha1Source) {
         try {
             String nameSpaceName = worker().getJobNamespace();
             String jobName =
                     CommonUtil.makeJobName(v1alpha1Source.getMetadata().getName(), CommonUtil.COMPONENT_SOURCE);
+            V1StatefulSet cachedStatefulSet = getCachedStatefulSet(v1alpha1Source, jobName);
+            if (cachedStatefulSet != null) {
+                return cachedStatefulSet;
+            }
             V1StatefulSet v1StatefulSet =
                     worker().getAppsV1Api().readNamespacedStatefulSet(jobName, nameSpaceName, null, null, null);
             if (validateResourceOwner(v1StatefulSet, v1alpha1Source)) {
@@ -613,12 +759,7 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                                      V1alpha1SourceStatus v1alpha1SourceStatus) {
         V1PodList podList = null;
         try {
-            String nameSpaceName = worker().getJobNamespace();
-            String functionLabelSelector = v1alpha1SourceStatus.getSelector();
-            podList = worker().getCoreV1Api().listNamespacedPod(
-                    nameSpaceName, null, null, null, null,
-                    functionLabelSelector, null, null, null, null,
-                    null);
+            podList = listComponentPods(tenant, namespace, componentName, v1alpha1SourceStatus.getSelector());
         } catch (Exception e) {
             log.error("get source pods failed, {}/{}/{}", tenant, namespace, componentName, e);
         }
@@ -671,15 +812,16 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                     }
                 }
                 // get status from grpc
-                if (channel[podIndex] == null && stub[podIndex] == null) {
-                    channel[podIndex] = ManagedChannelBuilder.forAddress(address, 9093)
-                            .usePlaintext()
-                            .build();
-                    stub[podIndex] = InstanceControlGrpc.newFutureStub(channel[podIndex]);
-                }
-                CompletableFuture<InstanceCommunication.FunctionStatus> future =
-                        CommonUtil.getFunctionStatusAsync(stub[podIndex]);
-                future.whenComplete((fs, e) -> {
+                CompletableFuture<InstanceCommunication.FunctionStatus> future = callInstance(address, deadlineMs -> {
+                    if (channel[podIndex] == null && stub[podIndex] == null) {
+                        channel[podIndex] = ManagedChannelBuilder.forAddress(address, 9093)
+                                .usePlaintext()
+                                .build();
+                        stub[podIndex] = InstanceControlGrpc.newFutureStub(channel[podIndex]);
+                    }
+                    return CommonUtil.getFunctionStatusAsync(withDeadline(stub[podIndex], deadlineMs));
+                });
+                completableFutureSet.add(future.whenComplete((fs, e) -> {
                     if (channel[podIndex] != null) {
                         log.debug("closing channel {}", podIndex);
                         channel[podIndex].shutdown();
@@ -694,8 +836,7 @@ public class SourcesImpl extends MeshComponentImpl<V1alpha1Source, V1alpha1Sourc
                     } else if (fs != null) {
                         SourcesUtil.convertFunctionStatusToInstanceStatusData(fs, sourceInstanceStatusData);
                     }
-                });
-                completableFutureSet.add(future);
+                }));
             } else {
                 log.error(
                         "Get source {}-{} status failed from namespace {}, cannot find status for shardId"
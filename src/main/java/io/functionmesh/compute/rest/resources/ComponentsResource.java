@@ -0,0 +1,318 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.rest.resources;
+
+import io.functionmesh.compute.models.ComponentStatusSnapshot;
+import io.functionmesh.compute.models.MeshJob;
+import io.functionmesh.compute.models.MeshWorkerServiceCustomConfig;
+import io.functionmesh.compute.models.TopicComponent;
+import io.functionmesh.compute.models.VersionedComponentConfig;
+import io.functionmesh.compute.util.PackageManagementServiceUtil;
+import io.functionmesh.compute.util.PackageStreamingOutput;
+import io.functionmesh.compute.util.StatusEventStreamingOutput;
+import io.functionmesh.compute.worker.IdempotencyCache;
+import io.functionmesh.compute.worker.MeshJobQueue;
+import io.functionmesh.compute.worker.MeshStatusWatcher;
+import io.functionmesh.compute.worker.MeshTopicIndex;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.pulsar.common.util.RestException;
+import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
+import org.glassfish.jersey.media.multipart.FormDataParam;
+
+/**
+ * Mesh endpoints of functions, sinks and sources.
+ */
+@Path("/admin/v3/mesh")
+public class ComponentsResource extends MeshApiResource {
+    static final String ACCEPT_RANGES = "Accept-Ranges";
+    static final String CONTENT_RANGE = "Content-Range";
+    static final String JOBS_PATH = "/admin/v3/mesh/jobs/";
+    private static final String RANGE_UNIT = "bytes";
+
+    @GET
+    @Path("/{type: functions|sinks|sources}/{tenant}/{namespace}/{name}/download")
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    public Response downloadComponent(final @PathParam("type") String type,
+                                      final @PathParam("tenant") String tenant,
+                                      final @PathParam("namespace") String namespace,
+                                      final @PathParam("name") String name,
+                                      final @HeaderParam("Range") String range) {
+        return rangedResponse(component(type).downloadFunction(tenant, namespace, name, clientAppId(),
+                clientAuthData()), range);
+    }
+
+    @GET
+    @Path("/{type: functions|sinks|sources}/{tenant}/{namespace}/{name}/status/watch")
+    @Produces(StatusEventStreamingOutput.MEDIA_TYPE)
+    public Response watchComponentStatus(final @PathParam("type") String type,
+                                         final @PathParam("tenant") String tenant,
+                                         final @PathParam("namespace") String namespace,
+                                         final @PathParam("name") String name) {
+        MeshStatusWatcher.Subscription subscription = meshComponent(type).watchComponentStatus(tenant, namespace,
+                name, clientAppId(), clientAuthData());
+        MeshWorkerServiceCustomConfig customConfig = worker().getMeshWorkerServiceCustomConfig();
+        long heartbeatMs = TimeUnit.SECONDS.toMillis(customConfig.getStatusWatchHeartbeatSeconds());
+        return Response.ok(new StatusEventStreamingOutput(subscription, heartbeatMs))
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .build();
+    }
+
+    @GET
+    @Path("/{type: functions|sinks|sources}/{tenant}/{namespace}/{name}/config")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getComponentConfig(final @PathParam("type") String type,
+                                       final @PathParam("tenant") String tenant,
+                                       final @PathParam("namespace") String namespace,
+                                       final @PathParam("name") String name,
+                                       final @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        return conditionalResponse(meshComponent(type).getComponentConfig(tenant, namespace, name, clientAppId(),
+                clientAuthData()), ifNoneMatch);
+    }
+
+    @GET
+    @Path("/{type: functions|sinks|sources}/{tenant}/{namespace}/status")
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<ComponentStatusSnapshot> getNamespaceStatus(final @PathParam("type") String type,
+                                                            final @PathParam("tenant") String tenant,
+                                                            final @PathParam("namespace") String namespace) {
+        return meshComponent(type).getNamespaceStatus(tenant, namespace, clientAppId(), clientAuthData());
+    }
+
+    @DELETE
+    @Path("/{type: functions|sinks|sources}/{tenant}/{namespace}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<String> deregisterNamespace(final @PathParam("type") String type,
+                                            final @PathParam("tenant") String tenant,
+                                            final @PathParam("namespace") String namespace) {
+        return meshComponent(type).deregisterNamespace(tenant, namespace, clientAppId(), clientAuthData());
+    }
+
+    @POST
+    @Path("/{type: functions|sinks|sources}/{tenant}/{namespace}/{name}/jobs")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response submitJob(final @PathParam("type") String type,
+                              final @PathParam("tenant") String tenant,
+                              final @PathParam("namespace") String namespace,
+                              final @PathParam("name") String name,
+                              final @QueryParam("action") @DefaultValue("register") String action,
+                              final @FormDataParam("data") InputStream uploadedInputStream,
+                              final @FormDataParam("data") FormDataContentDisposition fileDetail,
+                              final @FormDataParam("url") String packageUrl,
+                              final @FormDataParam("config") String config,
+                              final @HeaderParam(IdempotencyCache.HEADER) String idempotencyKey) {
+        MeshJob.Action jobAction;
+        try {
+            jobAction = MeshJob.Action.valueOf(action.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RestException(Response.Status.BAD_REQUEST, "Unknown action " + action);
+        }
+        MeshJob job = meshComponent(type).submitJob(jobAction, tenant, namespace, name, uploadedInputStream,
+                fileDetail, packageUrl, config, clientAppId(), detachedClientAuthData(), idempotencyKey);
+        return Response.accepted(job)
+                .location(URI.create(JOBS_PATH + job.getId()))
+                .build();
+    }
+
+    @GET
+    @Path("/jobs/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public MeshJob getJob(final @PathParam("id") String id) {
+        MeshJobQueue jobQueue = worker().getJobQueue();
+        if (jobQueue == null) {
+            throw new RestException(Response.Status.NOT_FOUND, "Asynchronous jobs are not enabled");
+        }
+        MeshJob job = jobQueue.get(id);
+        if (job == null) {
+            throw new RestException(Response.Status.NOT_FOUND, "Job " + id + " does not exist");
+        }
+        meshComponent(job.getType()).validateJobPermission(job, clientAppId(), clientAuthData());
+        return job;
+    }
+
+    @GET
+    @Path("/topics/components")
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<TopicComponent> getTopicComponents(final @QueryParam("topic") String topic) {
+        MeshTopicIndex topicIndex = worker().getTopicIndex();
+        if (topicIndex == null) {
+            throw new RestException(Response.Status.NOT_FOUND, "The topic index is not enabled");
+        }
+        if (StringUtils.isBlank(topic)) {
+            throw new RestException(Response.Status.BAD_REQUEST, "Topic is not provided");
+        }
+        // the components of all tenants are returned
+        if (worker().getWorkerConfig().isAuthorizationEnabled()
+                && !worker().isSuperUser(clientAppId(), clientAuthData())) {
+            throw new RestException(Response.Status.UNAUTHORIZED, "client is not authorize to perform operation");
+        }
+        if (!topicIndex.isSynced()) {
+            throw new RestException(Response.Status.SERVICE_UNAVAILABLE, "The topic index is not synced yet");
+        }
+        return topicIndex.find(topic.trim());
+    }
+
+    @GET
+    @Path("/packages/download")
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    public Response downloadPackage(final @QueryParam("path") String path,
+                                    final @HeaderParam("Range") String range) {
+        return rangedResponse(component(packageComponentType(path)).downloadFunction(path, clientAppId(),
+                clientAuthData()), range);
+    }
+
+    /**
+     * Returns the type of the components a package belongs to, e.g. sinks for {@code sink://public/default/sink@1}.
+     */
+    static String packageComponentType(String path) {
+        switch (StringUtils.substringBefore(StringUtils.defaultString(path), "://")) {
+            case PackageManagementServiceUtil.PACKAGE_TYPE_SINK:
+                return "sinks";
+            case PackageManagementServiceUtil.PACKAGE_TYPE_SOURCE:
+                return "sources";
+            default:
+                // the functions reject the paths that are not package urls
+                return "functions";
+        }
+    }
+
+    static Response rangedResponse(StreamingOutput output, String range) {
+        if (!(output instanceof PackageStreamingOutput)) {
+            return Response.ok(output).build();
+        }
+        PackageStreamingOutput packageOutput = (PackageStreamingOutput) output;
+        long total = packageOutput.getTotalLength();
+        Response.ResponseBuilder builder;
+        long[] bounds = parseRange(range, total);
+        if (bounds == null) {
+            builder = Response.ok(packageOutput).header(HttpHeaders.CONTENT_LENGTH, total);
+        } else if (bounds.length == 0) {
+            packageOutput.discard();
+            return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(CONTENT_RANGE, RANGE_UNIT + " */" + total)
+                    .build();
+        } else {
+            builder = Response.status(Response.Status.PARTIAL_CONTENT)
+                    .entity(packageOutput.range(bounds[0], bounds[1]))
+                    .header(CONTENT_RANGE, String.format("%s %d-%d/%d", RANGE_UNIT, bounds[0], bounds[1], total))
+                    .header(HttpHeaders.CONTENT_LENGTH, bounds[1] - bounds[0] + 1);
+        }
+        if (StringUtils.isNotEmpty(packageOutput.getFileName())) {
+            builder.header("Content-Disposition", "attachment; filename=\""
+                    + packageOutput.getFileName().replace("\"", "") + "\"");
+        }
+        return builder.header(ACCEPT_RANGES, RANGE_UNIT).build();
+    }
+
+    /**
+     * Answers with the config and the resource version it was read from as its entity tag, or with 304 when the
+     * client already has that version.
+     */
+    static Response conditionalResponse(VersionedComponentConfig versionedConfig, String ifNoneMatch) {
+        if (versionedConfig.getResourceVersion() == null) {
+            return Response.ok(versionedConfig.getConfig()).build();
+        }
+        String etag = "\"" + versionedConfig.getResourceVersion() + "\"";
+        if (matchesEntityTag(ifNoneMatch, etag)) {
+            return Response.notModified().header(HttpHeaders.ETAG, etag).build();
+        }
+        return Response.ok(versionedConfig.getConfig()).header(HttpHeaders.ETAG, etag).build();
+    }
+
+    /**
+     * Returns whether an If-None-Match header matches the entity tag, weak tags match their strong counterpart.
+     */
+    static boolean matchesEntityTag(String ifNoneMatch, String etag) {
+        if (StringUtils.isBlank(ifNoneMatch)) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a single byte range against the content length. Returns null when the whole content should be
+     * served, an empty array when the range cannot be satisfied, and the inclusive first and last positions
+     * otherwise. Multiple ranges are not supported and are answered with the whole content.
+     */
+    static long[] parseRange(String range, long total) {
+        if (StringUtils.isBlank(range) || !range.trim().startsWith(RANGE_UNIT + "=")) {
+            return null;
+        }
+        String spec = range.trim().substring(RANGE_UNIT.length() + 1).trim();
+        if (spec.contains(",")) {
+            return null;
+        }
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // suffix range, the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || total == 0) {
+                    return new long[0];
+                }
+                start = Math.max(0, total - suffix);
+                end = total - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? total - 1 : Math.min(Long.parseLong(last), total - 1);
+            }
+            if (start < 0 || start >= total || end < start) {
+                return new long[0];
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
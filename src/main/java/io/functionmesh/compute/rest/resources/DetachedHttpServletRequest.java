@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.rest.resources;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * A copy of the headers, authentication type, peer address and attributes of a request, which stays valid after the
+ * container recycled the request. Work that runs after the response was sent builds its authentication data from it.
+ */
+class DetachedHttpServletRequest extends HttpServletRequestWrapper {
+    private final Map<String, List<String>> headers = new HashMap<>();
+    private final List<String> headerNames = new ArrayList<>();
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final String authType;
+    private final String remoteAddr;
+    private final int remotePort;
+
+    DetachedHttpServletRequest(HttpServletRequest request) {
+        super(request);
+        for (String name : Collections.list(request.getHeaderNames())) {
+            headerNames.add(name);
+            headers.put(name.toLowerCase(Locale.ROOT), Collections.list(request.getHeaders(name)));
+        }
+        for (String name : Collections.list(request.getAttributeNames())) {
+            attributes.put(name, request.getAttribute(name));
+        }
+        this.authType = request.getAuthType();
+        this.remoteAddr = request.getRemoteAddr();
+        this.remotePort = request.getRemotePort();
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name.toLowerCase(Locale.ROOT));
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return Collections.enumeration(headers.getOrDefault(name.toLowerCase(Locale.ROOT), Collections.emptyList()));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headerNames);
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public String getAuthType() {
+        return authType;
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return remoteAddr;
+    }
+
+    @Override
+    public int getRemotePort() {
+        return remotePort;
+    }
+}
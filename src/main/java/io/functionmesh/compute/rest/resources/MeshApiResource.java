@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.rest.resources;
+
+import io.functionmesh.compute.MeshWorkerService;
+import io.functionmesh.compute.rest.MeshApiServer;
+import io.functionmesh.compute.rest.api.MeshComponentImpl;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Response;
+import org.apache.pulsar.broker.authentication.AuthenticationDataHttps;
+import org.apache.pulsar.broker.web.AuthenticationFilter;
+import org.apache.pulsar.common.util.RestException;
+import org.apache.pulsar.functions.worker.service.api.Component;
+
+/**
+ * Base class of the mesh api resources, resolves the worker service and the authenticated client.
+ */
+public abstract class MeshApiResource {
+    @Context
+    protected ServletContext servletContext;
+    @Context
+    protected HttpServletRequest httpRequest;
+
+    protected MeshWorkerService worker() {
+        return (MeshWorkerService) servletContext.getAttribute(MeshApiServer.ATTRIBUTE_WORKER_NAME);
+    }
+
+    protected String clientAppId() {
+        return httpRequest != null
+                ? (String) httpRequest.getAttribute(AuthenticationFilter.AuthenticatedRoleAttributeName)
+                : null;
+    }
+
+    protected AuthenticationDataHttps clientAuthData() {
+        if (httpRequest == null) {
+            return null;
+        }
+        return (AuthenticationDataHttps) httpRequest.getAttribute(AuthenticationFilter.AuthenticatedDataAttributeName);
+    }
+
+    /**
+     * Returns the authentication data of the request built from a copy of the request, for work that runs on
+     * another thread after the response was sent and the container recycled the request.
+     */
+    protected AuthenticationDataHttps detachedClientAuthData() {
+        if (clientAuthData() == null) {
+            return null;
+        }
+        return new AuthenticationDataHttps(new DetachedHttpServletRequest(httpRequest));
+    }
+
+    protected MeshComponentImpl<?, ?> meshComponent(String type) {
+        return (MeshComponentImpl<?, ?>) component(type);
+    }
+
+    protected Component<MeshWorkerService> component(String type) {
+        switch (type) {
+            case "functions":
+                return worker().getFunctions();
+            case "sinks":
+                return worker().getSinks();
+            case "sources":
+                return worker().getSources();
+            default:
+                throw new RestException(Response.Status.NOT_FOUND, "Unknown component type " + type);
+        }
+    }
+}
@@ -44,7 +44,6 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.util.Strings;
@@ -61,6 +60,7 @@ import org.apache.pulsar.common.util.RestException;
 import org.apache.pulsar.functions.proto.Function;
 import org.apache.pulsar.functions.proto.InstanceCommunication;
 import org.apache.pulsar.functions.proto.InstanceControlGrpc;
+import org.apache.pulsar.functions.runtime.kubernetes.KubernetesRuntimeFactoryConfig;
 import org.apache.pulsar.functions.utils.FunctionCommon;
 import org.apache.pulsar.functions.utils.io.ConnectorUtils;
 import org.apache.pulsar.packages.management.core.common.PackageMetadata;
@@ -81,6 +81,8 @@ public class CommonUtil {
     public static final String COMPONENT_LABEL_CLAIM = "pulsar-component";
     public static final String ANNOTATION_MANAGED = "compute.functionmesh.io/managed";
     private static final String CLUSTER_NAME_ENV = "clusterName";
+    private static final int OBJECT_NAME_CACHE_SIZE = 10000;
+    private static final ObjectNameCache OBJECT_NAMES = new ObjectNameCache(OBJECT_NAME_CACHE_SIZE);
 
     public static String getClusterNameEnv() {
         return System.getenv(CLUSTER_NAME_ENV);
@@ -101,7 +103,7 @@ public class CommonUtil {
     }
 
     private static String toValidResourceName(String ori) {
-        return ori.toLowerCase().replaceAll("[^a-z0-9-\\.]", "-");
+        return ObjectNameCache.INVALID_NAME_CHARS.matcher(ori.toLowerCase()).replaceAll("-");
     }
 
     public static V1OwnerReference getOwnerReferenceFromCustomConfigs(MeshWorkerServiceCustomConfig customConfigs) {
@@ -144,12 +146,7 @@ public class CommonUtil {
     }
 
     public static String createObjectName(String cluster, String tenant, String namespace, String functionName) {
-        final String convertedJobName = toValidPodName(functionName);
-        // use of functionName may cause naming collisions,
-        // add a short hash here to avoid it
-        final String hashName = String.format("%s-%s-%s-%s", cluster, tenant, namespace, functionName);
-        final String shortHash = DigestUtils.sha1Hex(hashName).toLowerCase().substring(0, 8);
-        return convertedJobName + "-" + shortHash;
+        return OBJECT_NAMES.get(cluster, tenant, namespace, functionName);
     }
 
     public static String generateObjectName(MeshWorkerService meshWorkerService,
@@ -160,10 +157,6 @@ public class CommonUtil {
         return createObjectName(pulsarCluster, tenant, namespace, componentName);
     }
 
-    private static String toValidPodName(String ori) {
-        return ori.toLowerCase().replaceAll("[^a-z0-9-\\.]", "-");
-    }
-
     public static FunctionConfig.ProcessingGuarantees convertProcessingGuarantee(String processingGuarantees) {
         switch (processingGuarantees) {
             case "atleast_once":
@@ -215,7 +208,7 @@ public class CommonUtil {
     }
 
     public static String makeJobName(String name, String suffix) {
-        return String.format("%s-%s", name, suffix);
+        return name + "-" + suffix;
     }
 
     public static int getShardIdFromPodName(String podName) {
@@ -236,8 +229,7 @@ public class CommonUtil {
             return retval;
         }
         ListenableFuture<InstanceCommunication.FunctionStatus> response =
-                stub.withDeadlineAfter(GRPC_TIMEOUT_SECS, TimeUnit.SECONDS)
-                        .getFunctionStatus(Empty.newBuilder().build());
+                withDefaultDeadline(stub).getFunctionStatus(Empty.newBuilder().build());
         Futures.addCallback(response, new FutureCallback<InstanceCommunication.FunctionStatus>() {
             @Override
             public void onFailure(Throwable throwable) {
@@ -261,7 +253,7 @@ public class CommonUtil {
             return retval;
         }
         ListenableFuture<InstanceCommunication.MetricsData> response =
-                stub.withDeadlineAfter(GRPC_TIMEOUT_SECS, TimeUnit.SECONDS).getMetrics(Empty.newBuilder().build());
+                withDefaultDeadline(stub).getMetrics(Empty.newBuilder().build());
         Futures.addCallback(response, new FutureCallback<InstanceCommunication.MetricsData>() {
             @Override
             public void onFailure(Throwable throwable) {
@@ -277,6 +269,15 @@ public class CommonUtil {
         return retval;
     }
 
+    /**
+     * Returns the stub with the default deadline, unless the caller already set a deadline on it.
+     */
+    static InstanceControlGrpc.InstanceControlFutureStub withDefaultDeadline(
+            InstanceControlGrpc.InstanceControlFutureStub stub) {
+        return stub.getCallOptions().getDeadline() != null
+                ? stub : stub.withDeadlineAfter(GRPC_TIMEOUT_SECS, TimeUnit.SECONDS);
+    }
+
     public static String getFilenameFromPackageMetadata(String functionPkgUrl, PulsarAdmin admin) {
         try {
             PackageMetadata packageMetadata = admin.packages().getMetadata(functionPkgUrl);
@@ -334,45 +335,60 @@ public class CommonUtil {
 
     public static Map<String, String> getCustomLabelClaims(String clusterName, String tenant, String namespace,
                                                            String compName, MeshWorkerService worker, String kind) {
-        Map<String, String> customLabelClaims = Maps.newHashMap();
+        Map<String, String> customLabels = null;
+        if (worker != null) {
+            customLabels = worker.getCustomLabels(kind);
+            if (customLabels == null) {
+                customLabels = buildCustomLabels(worker.getFactoryConfig(), worker.getMeshWorkerServiceCustomConfig(),
+                        kind);
+            }
+        }
+        Map<String, String> customLabelClaims =
+                Maps.newHashMapWithExpectedSize(4 + (customLabels == null ? 0 : customLabels.size()));
         customLabelClaims.put(CLUSTER_LABEL_CLAIM, clusterName);
         customLabelClaims.put(TENANT_LABEL_CLAIM, tenant);
         customLabelClaims.put(NAMESPACE_LABEL_CLAIM, namespace);
         customLabelClaims.put(COMPONENT_LABEL_CLAIM, compName);
-        if (worker != null) {
-            if (worker.getFactoryConfig() != null && worker.getFactoryConfig().getCustomLabels() != null
-                    && !worker.getFactoryConfig().getCustomLabels().isEmpty()) {
-                customLabelClaims.putAll(worker.getFactoryConfig().getCustomLabels());
+        if (customLabels != null) {
+            customLabelClaims.putAll(customLabels);
+        }
+        return customLabelClaims;
+    }
+
+    /**
+     * Merges the labels configured for every component of a kind, later sources override earlier ones: the runtime
+     * factory labels, the common labels and then the labels of the kind.
+     */
+    public static Map<String, String> buildCustomLabels(KubernetesRuntimeFactoryConfig factoryConfig,
+                                                        MeshWorkerServiceCustomConfig customConfig,
+                                                        String kind) {
+        Map<String, String> customLabels = Maps.newHashMap();
+        if (factoryConfig != null && !isMapEmpty(factoryConfig.getCustomLabels())) {
+            customLabels.putAll(factoryConfig.getCustomLabels());
+        }
+        if (customConfig != null) {
+            if (!isMapEmpty(customConfig.getLabels())) {
+                customLabels.putAll(customConfig.getLabels());
             }
-            if (worker.getMeshWorkerServiceCustomConfig() != null) {
-                if (worker.getMeshWorkerServiceCustomConfig().getLabels() != null
-                        && !worker.getMeshWorkerServiceCustomConfig().getLabels().isEmpty()) {
-                    customLabelClaims.putAll(worker.getMeshWorkerServiceCustomConfig().getLabels());
-                }
-                if (kind.equals("Function") && worker.getMeshWorkerServiceCustomConfig().getFunctionLabels() != null
-                        && !worker.getMeshWorkerServiceCustomConfig().getFunctionLabels().isEmpty()) {
-                    customLabelClaims.putAll(worker.getMeshWorkerServiceCustomConfig().getFunctionLabels());
-                }
-                if (kind.equals("Sink") && worker.getMeshWorkerServiceCustomConfig().getSinkLabels() != null
-                        && !worker.getMeshWorkerServiceCustomConfig().getSinkLabels().isEmpty()) {
-                    customLabelClaims.putAll(worker.getMeshWorkerServiceCustomConfig().getSinkLabels());
-                }
-                if (kind.equals("Source") && worker.getMeshWorkerServiceCustomConfig().getSourceLabels() != null
-                        && !worker.getMeshWorkerServiceCustomConfig().getSourceLabels().isEmpty()) {
-                    customLabelClaims.putAll(worker.getMeshWorkerServiceCustomConfig().getSourceLabels());
-                }
+            Map<String, String> kindLabels = null;
+            if ("Function".equals(kind)) {
+                kindLabels = customConfig.getFunctionLabels();
+            } else if ("Sink".equals(kind)) {
+                kindLabels = customConfig.getSinkLabels();
+            } else if ("Source".equals(kind)) {
+                kindLabels = customConfig.getSourceLabels();
+            }
+            if (!isMapEmpty(kindLabels)) {
+                customLabels.putAll(kindLabels);
             }
         }
-
-        return customLabelClaims;
+        return customLabels;
     }
 
     public static String getCustomLabelClaimsSelector(String clusterName, String tenant, String namespace) {
-        return String.format(
-                "%s=%s,%s=%s,%s=%s",
-                CLUSTER_LABEL_CLAIM, clusterName,
-                TENANT_LABEL_CLAIM, tenant,
-                NAMESPACE_LABEL_CLAIM, namespace);
+        return CLUSTER_LABEL_CLAIM + "=" + clusterName + ","
+                + TENANT_LABEL_CLAIM + "=" + tenant + ","
+                + NAMESPACE_LABEL_CLAIM + "=" + namespace;
     }
 
     public static String getRunnerImageFromConfig(String runtime, MeshWorkerService worker) {
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decodes api server responses straight from the response stream instead of reading the whole body into a
+ * string first.
+ */
+public class JsonStreamUtil {
+    public static final String ITEMS_FIELD = "items";
+
+    private static final TypeAdapter<JsonElement> JSON_ELEMENT_ADAPTER = new Gson().getAdapter(JsonElement.class);
+
+    public static <R> R decode(Gson gson, Reader reader, Type type) throws IOException {
+        try (JsonReader jsonReader = new JsonReader(reader)) {
+            return gson.fromJson(jsonReader, type);
+        }
+    }
+
+    /**
+     * Reads the {@code items} of a list response and keeps only the value found at the given path of every item,
+     * e.g. {@code metadata, labels}. All other fields are skipped without being materialized. Items that do not
+     * have the path are returned as null.
+     */
+    public static List<JsonElement> decodeItems(Reader reader, String... path) throws IOException {
+        List<JsonElement> result = new ArrayList<>();
+        try (JsonReader jsonReader = new JsonReader(reader)) {
+            if (jsonReader.peek() != JsonToken.BEGIN_OBJECT) {
+                jsonReader.skipValue();
+                return result;
+            }
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                if (!ITEMS_FIELD.equals(jsonReader.nextName()) || jsonReader.peek() != JsonToken.BEGIN_ARRAY) {
+                    jsonReader.skipValue();
+                    continue;
+                }
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    result.add(readPath(jsonReader, Arrays.asList(path)));
+                }
+                jsonReader.endArray();
+            }
+            jsonReader.endObject();
+        }
+        return result;
+    }
+
+    private static JsonElement readPath(JsonReader jsonReader, List<String> path) throws IOException {
+        if (path.isEmpty()) {
+            return JSON_ELEMENT_ADAPTER.read(jsonReader);
+        }
+        if (jsonReader.peek() != JsonToken.BEGIN_OBJECT) {
+            jsonReader.skipValue();
+            return null;
+        }
+        JsonElement value = null;
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (value == null && path.get(0).equals(name)) {
+                value = readPath(jsonReader, path.subList(1, path.size()));
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+        return value;
+    }
+}
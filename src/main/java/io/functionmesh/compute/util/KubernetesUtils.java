@@ -21,13 +21,15 @@ package io.functionmesh.compute.util;
 import static java.net.HttpURLConnection.HTTP_CONFLICT;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.collect.Maps;
 import io.functionmesh.compute.MeshWorkerService;
+import io.functionmesh.compute.models.ComponentStatusSnapshot;
 import io.functionmesh.compute.models.MeshWorkerServiceCustomConfig;
 import io.functionmesh.compute.models.Oauth2Parameters;
+import io.functionmesh.compute.worker.KubernetesAsyncClient;
 import io.kubernetes.client.common.KubernetesObject;
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1ContainerState;
 import io.kubernetes.client.openapi.models.V1ContainerStatus;
 import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1OwnerReference;
@@ -37,14 +39,18 @@ import io.kubernetes.client.openapi.models.V1Secret;
 import io.kubernetes.client.openapi.models.V1StatefulSet;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.pulsar.common.util.FutureUtil;
 import org.apache.pulsar.functions.runtime.kubernetes.KubernetesRuntimeFactoryConfig;
 import org.apache.pulsar.functions.utils.Actions;
 import org.apache.pulsar.functions.worker.WorkerConfig;
@@ -156,16 +162,7 @@ public class KubernetesUtils {
         String combinationName = getSecretName(cluster, tenant, namespace, name);
         String hashcode = DigestUtils.sha256Hex(combinationName);
         String secretName = getUniqueSecretName(component, type, hashcode);
-        Map<String, byte[]> data = Maps.newHashMap();
-        if ("auth".equals(type)) {
-            data = buildAuthConfigMap(workerService.getWorkerConfig());
-        } else if ("tls".equals(type)) {
-            data = buildTlsConfigMap(workerService.getWorkerConfig());
-        } else {
-            throw new RuntimeException(String.format("Failed to create secret type for %s %s/%s/%s",
-                    type, tenant, namespace, name));
-        }
-        Map<String, byte[]> finalData = data;
+        Map<String, byte[]> finalData = buildSecretData(type, tenant, namespace, name, workerService);
         Actions.Action createAuthSecret = Actions.Action.builder()
                 .actionName(String.format("Creating secret for %s %s-%s/%s/%s",
                         type, cluster, tenant, namespace, name))
@@ -224,6 +221,84 @@ public class KubernetesUtils {
         return secretName;
     }
 
+    /**
+     * Asynchronous variant of {@link #upsertSecret}. The secret is created, or replaced when it exists, through
+     * the async client of the worker, so that the auth and tls secrets of a component are upserted concurrently.
+     */
+    public static CompletableFuture<String> upsertSecretAsync(
+            String component,
+            String type,
+            String cluster,
+            String tenant,
+            String namespace,
+            String name,
+            MeshWorkerService workerService) {
+        String secretName = getUniqueSecretName(component, type,
+                DigestUtils.sha256Hex(getSecretName(cluster, tenant, namespace, name)));
+        V1Secret v1Secret;
+        try {
+            v1Secret = new V1Secret()
+                    .metadata(new V1ObjectMeta().name(secretName))
+                    .data(buildSecretData(type, tenant, namespace, name, workerService));
+        } catch (Exception e) {
+            return FutureUtil.failedFuture(e);
+        }
+        return upsertSecretAsync(v1Secret, workerService, NUM_RETRIES).thenApply(ignore -> secretName);
+    }
+
+    private static CompletableFuture<Void> upsertSecretAsync(V1Secret v1Secret, MeshWorkerService workerService,
+                                                             int remainingAttempts) {
+        KubernetesAsyncClient asyncClient = workerService.getKubernetesAsyncClient();
+        CompletableFuture<Void> upsert = upsertSecretOnceAsync(v1Secret, asyncClient, workerService.getCoreV1Api(),
+                workerService.getJobNamespace());
+        return upsert.handle((ignore, e) -> {
+            if (e == null || remainingAttempts <= 1) {
+                return upsert;
+            }
+            log.warn("Failed to upsert secret {}, retrying", v1Secret.getMetadata().getName(), e);
+            return asyncClient.schedule(SLEEP_BETWEEN_RETRIES_MS,
+                    () -> upsertSecretAsync(v1Secret, workerService, remainingAttempts - 1));
+        }).thenCompose(future -> future);
+    }
+
+    private static CompletableFuture<Void> upsertSecretOnceAsync(V1Secret v1Secret, KubernetesAsyncClient asyncClient,
+                                                                 CoreV1Api coreV1Api, String jobNamespace) {
+        try {
+            return asyncClient.execute(coreV1Api.createNamespacedSecretCall(
+                    jobNamespace, v1Secret, null, null, null, null))
+                    .handle((ignore, e) -> {
+                        Throwable cause = e != null ? FutureUtil.unwrapCompletionException(e) : null;
+                        if (cause instanceof ApiException && ((ApiException) cause).getCode() == HTTP_CONFLICT) {
+                            // already exists
+                            try {
+                                return asyncClient.execute(coreV1Api.replaceNamespacedSecretCall(
+                                        v1Secret.getMetadata().getName(), jobNamespace, v1Secret,
+                                        null, null, null, null));
+                            } catch (ApiException e1) {
+                                return FutureUtil.<Void>failedFuture(e1);
+                            }
+                        }
+                        return cause != null ? FutureUtil.<Void>failedFuture(cause)
+                                : CompletableFuture.<Void>completedFuture(null);
+                    })
+                    .thenCompose(future -> future);
+        } catch (ApiException e) {
+            return FutureUtil.failedFuture(e);
+        }
+    }
+
+    private static Map<String, byte[]> buildSecretData(String type, String tenant, String namespace, String name,
+                                                       MeshWorkerService workerService) {
+        if ("auth".equals(type)) {
+            return buildAuthConfigMap(workerService.getWorkerConfig());
+        } else if ("tls".equals(type)) {
+            return buildTlsConfigMap(workerService.getWorkerConfig());
+        } else {
+            throw new RuntimeException(String.format("Failed to create secret type for %s %s/%s/%s",
+                    type, tenant, namespace, name));
+        }
+    }
+
     public static String getServiceUrl(String podName, String subdomain, String jobNamespace) {
         return String.format("%s.%s.%s.svc.cluster.local", podName, subdomain, jobNamespace);
     }
@@ -307,6 +382,60 @@ public class KubernetesUtils {
         return null;
     }
 
+    /**
+     * Builds the status of a component from its StatefulSet and pods, the StatefulSet is null until it is created.
+     */
+    public static ComponentStatusSnapshot buildStatusSnapshot(String name, V1StatefulSet statefulSet,
+                                                              Collection<V1Pod> pods) {
+        ComponentStatusSnapshot snapshot = new ComponentStatusSnapshot();
+        snapshot.setName(name);
+        snapshot.setExists(true);
+        if (statefulSet != null && statefulSet.getStatus() != null) {
+            Integer replicas = statefulSet.getStatus().getReplicas();
+            Integer readyReplicas = statefulSet.getStatus().getReadyReplicas();
+            snapshot.setReplicas(replicas != null ? replicas : 0);
+            snapshot.setReadyReplicas(readyReplicas != null ? readyReplicas : 0);
+        }
+        pods.stream()
+                .map(KubernetesUtils::buildInstanceStatus)
+                .sorted(Comparator.comparingInt(ComponentStatusSnapshot.InstanceStatus::getInstanceId))
+                .forEach(snapshot.getInstances()::add);
+        return snapshot;
+    }
+
+    static ComponentStatusSnapshot.InstanceStatus buildInstanceStatus(V1Pod pod) {
+        ComponentStatusSnapshot.InstanceStatus instanceStatus = new ComponentStatusSnapshot.InstanceStatus();
+        String podName = getPodName(pod);
+        instanceStatus.setPodName(podName);
+        instanceStatus.setInstanceId(CommonUtil.getShardIdFromPodName(podName));
+        instanceStatus.setRunning(isPodRunning(pod));
+        V1ContainerStatus containerStatus = extractDefaultContainerStatus(pod);
+        if (containerStatus == null && pod.getStatus() != null && pod.getStatus().getContainerStatuses() != null
+                && !pod.getStatus().getContainerStatuses().isEmpty()) {
+            containerStatus = pod.getStatus().getContainerStatuses().get(0);
+        }
+        if (containerStatus != null) {
+            Integer restartCount = containerStatus.getRestartCount();
+            instanceStatus.setRestarts(restartCount != null ? restartCount : 0);
+            // only the current state, earlier failures are reflected by the restarts
+            V1ContainerState state = containerStatus.getState();
+            if (state != null && state.getWaiting() != null) {
+                instanceStatus.setError(describe(state.getWaiting().getReason(), state.getWaiting().getMessage()));
+            } else if (state != null && state.getTerminated() != null) {
+                instanceStatus.setError(describe(state.getTerminated().getReason(),
+                        state.getTerminated().getMessage()));
+            }
+        }
+        return instanceStatus;
+    }
+
+    private static String describe(String reason, String message) {
+        if (StringUtils.isEmpty(message)) {
+            return reason;
+        }
+        return StringUtils.isEmpty(reason) ? message : reason + ": " + message;
+    }
+
     public static String getDefaultContainerName(V1Pod pod) {
         if (pod == null || pod.getMetadata() == null || pod.getMetadata().getAnnotations() == null ||
                 pod.getMetadata().getAnnotations().isEmpty()) {
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Memoizes the kubernetes object names of components. A name is derived from the cluster, tenant, namespace and
+ * component name with a sanitizing regex and a sha1 hash, which every request would otherwise repeat. The cache is
+ * bounded, the least recently used names are computed again when they are evicted.
+ */
+public class ObjectNameCache {
+    static final Pattern INVALID_NAME_CHARS = Pattern.compile("[^a-z0-9-\\.]");
+
+    private final Cache<Key, String> names;
+
+    public ObjectNameCache(long maximumSize) {
+        this.names = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public String get(String cluster, String tenant, String namespace, String name) {
+        Key key = new Key(cluster, tenant, namespace, name);
+        String objectName = names.getIfPresent(key);
+        if (objectName == null) {
+            objectName = computeObjectName(cluster, tenant, namespace, name);
+            names.put(key, objectName);
+        }
+        return objectName;
+    }
+
+    public long size() {
+        return names.size();
+    }
+
+    /**
+     * Computes the object name without the cache. A short hash of the full name is appended since the sanitized
+     * component name alone may collide.
+     */
+    public static String computeObjectName(String cluster, String tenant, String namespace, String name) {
+        String convertedJobName = INVALID_NAME_CHARS.matcher(name.toLowerCase()).replaceAll("-");
+        String hashName = cluster + "-" + tenant + "-" + namespace + "-" + name;
+        return convertedJobName + "-" + DigestUtils.sha1Hex(hashName).substring(0, 8);
+    }
+
+    private static final class Key {
+        private final String cluster;
+        private final String tenant;
+        private final String namespace;
+        private final String name;
+        private final int hash;
+
+        Key(String cluster, String tenant, String namespace, String name) {
+            this.cluster = cluster;
+            this.tenant = tenant;
+            this.namespace = namespace;
+            this.name = name;
+            int h = Objects.hashCode(cluster);
+            h = 31 * h + Objects.hashCode(tenant);
+            h = 31 * h + Objects.hashCode(namespace);
+            this.hash = 31 * h + Objects.hashCode(name);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash
+                    && Objects.equals(name, other.name)
+                    && Objects.equals(namespace, other.namespace)
+                    && Objects.equals(tenant, other.tenant)
+                    && Objects.equals(cluster, other.cluster);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -25,18 +25,31 @@ import static io.functionmesh.compute.models.PackageMetadataProperties.PROPERTY_
 import static io.functionmesh.compute.models.PackageMetadataProperties.PROPERTY_MANAGED_BY_MESH_WORKER_SERVICE;
 import static io.functionmesh.compute.models.PackageMetadataProperties.PROPERTY_NAMESPACE;
 import static io.functionmesh.compute.models.PackageMetadataProperties.PROPERTY_TENANT;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.pulsar.client.admin.PulsarAdmin;
 import org.apache.pulsar.client.admin.PulsarAdminException;
+import org.apache.pulsar.common.util.FutureUtil;
+import org.apache.pulsar.common.util.RestException;
 import org.apache.pulsar.functions.proto.Function;
 import org.apache.pulsar.packages.management.core.common.PackageMetadata;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
@@ -120,6 +133,144 @@ public class PackageManagementServiceUtil {
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #deletePackageFromPackageService}. A package that does not exist counts as
+     * deleted, other failures fail the returned future so that the caller can retry.
+     */
+    public static CompletableFuture<Void> deletePackageFromPackageServiceAsync(PulsarAdmin admin,
+                                                                               final String type,
+                                                                               final String tenant,
+                                                                               final String namespace,
+                                                                               final String functionName) {
+        String packageName = generatePackageURL(type, tenant, namespace, functionName);
+        return admin.packages().getMetadataAsync(packageName)
+                .thenCompose(packageMetadata -> {
+                    if (packageMetadata != null && packageMetadata.getProperties() != null
+                            && StringUtils.isNotEmpty(packageMetadata.getProperties().get(PROPERTY_FILE_NAME))
+                            && MESH_WORKER_SERVICE_PACKAGE_CONTACT.equals(packageMetadata.getContact())) {
+                        return admin.packages().deleteAsync(packageName);
+                    }
+                    return CompletableFuture.completedFuture(null);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = FutureUtil.unwrapCompletionException(e);
+                    if (cause instanceof PulsarAdminException.NotFoundException) {
+                        log.warn("Not found package '{}' metadata", packageName);
+                        return null;
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    /**
+     * Returns the package file from the local package cache, downloading it from the package service on a miss.
+     * Cached files are keyed by the package name and its checksum, so a package overwritten by an update is
+     * never served from a stale copy. Packages without a checksum are downloaded into a temporary file.
+     *
+     * <p>Caching a package deletes the older copies of the same package, and then the least recently served
+     * packages until the cache is within the maximum size, a maximum size of 0 keeps all packages.
+     */
+    public static PackageStreamingOutput getPackageFromCache(PulsarAdmin admin,
+                                                             final String packageName,
+                                                             final String cacheDirectory,
+                                                             final long maxCacheSizeBytes) throws Exception {
+        PackageMetadata packageMetadata;
+        try {
+            packageMetadata = admin.packages().getMetadata(packageName);
+        } catch (PulsarAdminException.NotFoundException ex) {
+            throw new RestException(Response.Status.NOT_FOUND, "Package " + packageName + " does not exist");
+        }
+        Map<String, String> properties = packageMetadata != null && packageMetadata.getProperties() != null
+                ? packageMetadata.getProperties() : new HashMap<>();
+        String fileName = StringUtils.isNotEmpty(properties.get(PROPERTY_FILE_NAME))
+                ? properties.get(PROPERTY_FILE_NAME) : Paths.get(packageName).getFileName().toString();
+
+        Path cacheDirectoryPath = Paths.get(cacheDirectory);
+        if (Files.notExists(cacheDirectoryPath)) {
+            Files.createDirectories(cacheDirectoryPath);
+        }
+        String checksum = properties.get(PROPERTY_CHECKSUM);
+        Path cachedPath = null;
+        String cachePrefix = DigestUtils.sha1Hex(packageName) + "-";
+        if (StringUtils.isNotEmpty(checksum)) {
+            cachedPath = cacheDirectoryPath.resolve(cachePrefix + checksum);
+            if (Files.exists(cachedPath) && (StringUtils.isEmpty(properties.get(PROPERTY_FILE_SIZE))
+                    || Long.toString(Files.size(cachedPath)).equals(properties.get(PROPERTY_FILE_SIZE)))) {
+                // the modification time orders the packages for the eviction
+                Files.setLastModifiedTime(cachedPath, FileTime.fromMillis(System.currentTimeMillis()));
+                return new PackageStreamingOutput(cachedPath.toFile(), fileName, false);
+            }
+        }
+
+        Path downloadPath = Files.createTempFile(cacheDirectoryPath,
+                RandomStringUtils.random(5, true, true).toLowerCase(), ".tmp");
+        try {
+            admin.packages().download(packageName, downloadPath.toString());
+            if (cachedPath == null) {
+                return new PackageStreamingOutput(downloadPath.toFile(), fileName, true);
+            }
+            Files.move(downloadPath, cachedPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("cached package {} at {}", packageName, cachedPath);
+            evictPackages(cacheDirectoryPath, cachePrefix, cachedPath, maxCacheSizeBytes);
+            return new PackageStreamingOutput(cachedPath.toFile(), fileName, false);
+        } catch (Exception ex) {
+            Files.deleteIfExists(downloadPath);
+            throw ex;
+        }
+    }
+
+    /**
+     * Deletes the other copies of a package from the cache, then the least recently used packages until the cache is
+     * within the maximum size. The package that was just cached is kept, and a package that is being served stays
+     * readable until its download completes.
+     */
+    static void evictPackages(Path cacheDirectory, String packagePrefix, Path keep, long maxCacheSizeBytes) {
+        List<Path> packages;
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            // downloads in progress are temporary files
+            packages = files.filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("Failed to list the package cache {}", cacheDirectory, e);
+            return;
+        }
+        long size = 0;
+        Map<Path, FileTime> lastUsed = new HashMap<>();
+        for (Path file : packages) {
+            try {
+                if (!file.equals(keep) && file.getFileName().toString().startsWith(packagePrefix)) {
+                    Files.deleteIfExists(file);
+                    log.info("deleted outdated package {} from the cache", file);
+                    continue;
+                }
+                size += Files.size(file);
+                lastUsed.put(file, Files.getLastModifiedTime(file));
+            } catch (IOException e) {
+                log.warn("Failed to check the cached package {}", file, e);
+            }
+        }
+        if (maxCacheSizeBytes <= 0 || size <= maxCacheSizeBytes) {
+            return;
+        }
+        List<Path> leastRecentlyUsed = lastUsed.keySet().stream()
+                .filter(file -> !file.equals(keep))
+                .sorted(Comparator.comparing(lastUsed::get))
+                .collect(Collectors.toList());
+        for (Path file : leastRecentlyUsed) {
+            if (size <= maxCacheSizeBytes) {
+                break;
+            }
+            try {
+                long fileSize = Files.size(file);
+                Files.deleteIfExists(file);
+                size -= fileSize;
+                log.info("evicted package {} from the cache", file);
+            } catch (IOException e) {
+                log.warn("Failed to evict the cached package {}", file, e);
+            }
+        }
+    }
+
     public static String getPackageTypeFromComponentType(Function.FunctionDetails.ComponentType componentType) {
         switch (componentType) {
             case FUNCTION:
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import javax.ws.rs.core.StreamingOutput;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams a package file, or a byte range of it, with {@link FileChannel#transferTo} so the artifact is never
+ * loaded into the heap.
+ */
+@Slf4j
+public class PackageStreamingOutput implements StreamingOutput {
+    @Getter
+    private final File file;
+    @Getter
+    private final String fileName;
+    private final boolean temporary;
+    @Getter
+    private final long offset;
+    @Getter
+    private final long length;
+
+    public PackageStreamingOutput(File file, String fileName, boolean temporary) {
+        this(file, fileName, temporary, 0, file.length());
+    }
+
+    private PackageStreamingOutput(File file, String fileName, boolean temporary, long offset, long length) {
+        this.file = file;
+        this.fileName = fileName;
+        this.temporary = temporary;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public long getTotalLength() {
+        return file.length();
+    }
+
+    /**
+     * Returns an output restricted to the bytes between first and last, both inclusive.
+     */
+    public PackageStreamingOutput range(long first, long last) {
+        return new PackageStreamingOutput(file, fileName, temporary, first, last - first + 1);
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        try (FileChannel source = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(output);
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = source.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+            output.flush();
+        } finally {
+            discard();
+        }
+    }
+
+    /**
+     * Removes the backing file if it was downloaded only for this response.
+     */
+    public void discard() {
+        if (temporary) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                log.warn("Failed to delete temporary package file {}", file, e);
+            }
+        }
+    }
+}
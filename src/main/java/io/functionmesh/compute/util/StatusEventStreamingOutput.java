@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.util;
+
+import io.functionmesh.compute.models.ComponentStatusSnapshot;
+import io.functionmesh.compute.worker.MeshStatusWatcher;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.StreamingOutput;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pulsar.common.util.ObjectMapperFactory;
+
+/**
+ * Streams the status updates of a subscription as server-sent events until the component is deleted, the client
+ * disconnects or the watcher is closed. Idle connections get a comment as heartbeat, which also detects clients
+ * that went away.
+ */
+@Slf4j
+public class StatusEventStreamingOutput implements StreamingOutput {
+    public static final String MEDIA_TYPE = "text/event-stream";
+    static final String STATUS_EVENT = "status";
+
+    private final MeshStatusWatcher.Subscription subscription;
+    private final long heartbeatMs;
+
+    public StatusEventStreamingOutput(MeshStatusWatcher.Subscription subscription, long heartbeatMs) {
+        this.subscription = subscription;
+        this.heartbeatMs = heartbeatMs;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        long eventId = 0;
+        try {
+            while (!subscription.isClosed()) {
+                ComponentStatusSnapshot snapshot = subscription.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+                if (snapshot == null) {
+                    output.write(":\n\n".getBytes(StandardCharsets.UTF_8));
+                } else {
+                    output.write(event(++eventId, snapshot).getBytes(StandardCharsets.UTF_8));
+                }
+                output.flush();
+                if (snapshot != null && !snapshot.isExists()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            subscription.close();
+            log.debug("Closed status watch {}", subscription.getKey());
+        }
+    }
+
+    static String event(long eventId, ComponentStatusSnapshot snapshot) throws IOException {
+        return "id: " + eventId + "\n"
+                + "event: " + STATUS_EVENT + "\n"
+                + "data: " + ObjectMapperFactory.getThreadLocal().writeValueAsString(snapshot) + "\n\n";
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pulsar.common.util.ObjectMapperFactory;
+
+/**
+ * Remembers the configs in the Pulsar format converted from the custom resources, keyed by the uid and the
+ * resource version of the resource, so that a resource is only converted again after it changed. The configs are
+ * kept serialized and every caller gets its own copy, which it may modify.
+ */
+@Slf4j
+public class ComponentConfigCache {
+    private final Cache<String, SerializedConfig> configs;
+
+    public ComponentConfigCache(long maximumSize) {
+        this.configs = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * Returns the config of the resource, converting it when this version of the resource was not converted yet.
+     * A resource without uid or resource version is always converted.
+     */
+    @SuppressWarnings("unchecked")
+    public <C> C get(KubernetesObject resource, Supplier<C> convert) {
+        V1ObjectMeta metadata = resource.getMetadata();
+        if (metadata == null || metadata.getUid() == null || metadata.getResourceVersion() == null) {
+            return convert.get();
+        }
+        String key = metadata.getUid() + "/" + metadata.getResourceVersion();
+        SerializedConfig serialized = configs.getIfPresent(key);
+        if (serialized != null) {
+            try {
+                return (C) ObjectMapperFactory.getThreadLocal().readValue(serialized.json, serialized.type);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        C config = convert.get();
+        if (config != null) {
+            try {
+                configs.put(key, new SerializedConfig(config.getClass(),
+                        ObjectMapperFactory.getThreadLocal().writeValueAsBytes(config)));
+            } catch (JsonProcessingException e) {
+                log.warn("Failed to cache the config of {}", key, e);
+            }
+        }
+        return config;
+    }
+
+    public long size() {
+        return configs.size();
+    }
+
+    private static class SerializedConfig {
+        private final Class<?> type;
+        private final byte[] json;
+
+        SerializedConfig(Class<?> type, byte[] json) {
+            this.type = type;
+            this.json = json;
+        }
+    }
+}
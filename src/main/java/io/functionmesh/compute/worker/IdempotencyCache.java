@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.ws.rs.core.Response;
+import org.apache.pulsar.common.util.RestException;
+
+/**
+ * Remembers the outcome of the requests sent with an idempotency key for a while, so that a client retrying a
+ * request that timed out gets the outcome of the first attempt instead of running it again. A retry that arrives
+ * while the first attempt is still running waits for it. Only successes are remembered, a request whose earlier
+ * attempt failed runs again.
+ *
+ * <p>A hash of the request is kept with the key, a request that reuses a key for a different request fails with
+ * 422 instead of getting the outcome of the other request.
+ */
+public class IdempotencyCache {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String ANNOTATION = "compute.functionmesh.io/idempotency-key";
+    public static final String HASH_ANNOTATION = "compute.functionmesh.io/idempotency-request-hash";
+    public static final int MAX_KEY_LENGTH = 128;
+    public static final int UNPROCESSABLE_ENTITY = 422;
+
+    private final Cache<String, Attempt> attempts;
+    private final long waitMs;
+
+    /**
+     * @param waitMs how long a retry waits for an attempt with the same key that is still running
+     */
+    public IdempotencyCache(long ttlMs, long maximumSize, long waitMs) {
+        this.attempts = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .maximumSize(maximumSize)
+                .build();
+        this.waitMs = waitMs;
+    }
+
+    /**
+     * Begins a request with the key and the hash of the request. The returned entry either owns the key, and the
+     * caller must run the request and then call {@link Entry#succeed} or {@link Entry#fail}, or holds the result of
+     * an earlier success.
+     */
+    public Entry begin(String key, String requestHash) {
+        while (true) {
+            Attempt attempt = new Attempt(requestHash);
+            Attempt earlier = attempts.asMap().putIfAbsent(key, attempt);
+            if (earlier == null) {
+                return new Entry(key, attempt, true, null);
+            }
+            if (!Objects.equals(earlier.requestHash, requestHash)) {
+                throw mismatchedRequest();
+            }
+            try {
+                return new Entry(key, earlier, false, earlier.outcome.get(waitMs, TimeUnit.MILLISECONDS));
+            } catch (ExecutionException e) {
+                // the earlier attempt failed, run the request again
+                attempts.asMap().remove(key, earlier);
+            } catch (TimeoutException e) {
+                throw new RestException(Response.Status.CONFLICT,
+                        "A request with the same idempotency key is still in progress");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RestException(Response.Status.SERVICE_UNAVAILABLE, "Interrupted");
+            }
+        }
+    }
+
+    public long size() {
+        return attempts.size();
+    }
+
+    /**
+     * Returns the hash of the parts of a request that decide what it does, missing parts count as empty.
+     */
+    public static String requestHash(String... parts) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (String part : parts) {
+            hasher.putString(part != null ? part : "", StandardCharsets.UTF_8).putByte((byte) 0);
+        }
+        return hasher.hash().toString();
+    }
+
+    public static RestException mismatchedRequest() {
+        return new RestException(UNPROCESSABLE_ENTITY,
+                "The idempotency key was already used for a different request");
+    }
+
+    /**
+     * A request with an idempotency key.
+     */
+    public class Entry {
+        private final String key;
+        private final Attempt attempt;
+        private final boolean owner;
+        private final Object result;
+
+        Entry(String key, Attempt attempt, boolean owner, Object result) {
+            this.key = key;
+            this.attempt = attempt;
+            this.owner = owner;
+            this.result = result;
+        }
+
+        public boolean isOwner() {
+            return owner;
+        }
+
+        public Object getResult() {
+            return result;
+        }
+
+        public void succeed(Object result) {
+            if (owner) {
+                attempt.outcome.complete(result);
+            }
+        }
+
+        public void fail() {
+            if (owner && !attempt.outcome.isDone()) {
+                attempts.asMap().remove(key, attempt);
+                attempt.outcome.completeExceptionally(new IllegalStateException("The request failed"));
+            }
+        }
+    }
+
+    private static class Attempt {
+        private final String requestHash;
+        private final CompletableFuture<Object> outcome = new CompletableFuture<>();
+
+        Attempt(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+}
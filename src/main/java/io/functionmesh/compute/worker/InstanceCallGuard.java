@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pulsar.common.util.FutureUtil;
+
+/**
+ * Guards the gRPC calls to the instances per address. The deadline of a call is derived from the latencies observed
+ * for the address, and after consecutive failures the address is considered unreachable: calls fail immediately
+ * until a single probe call is let through after the open period and succeeds.
+ */
+@Slf4j
+public class InstanceCallGuard {
+    static final int LATENCY_SAMPLES = 32;
+    static final int MIN_LATENCY_SAMPLES = 8;
+    static final double LATENCY_PERCENTILE = 0.99;
+    static final int DEADLINE_LATENCY_MULTIPLIER = 2;
+    private static final long PRUNE_INTERVAL_CALLS = 1024;
+
+    private final int failureThreshold;
+    private final long openMs;
+    private final long minDeadlineMs;
+    private final long maxDeadlineMs;
+    private final ConcurrentMap<String, AddressState> states = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+
+    public InstanceCallGuard(int failureThreshold, long openMs, long minDeadlineMs, long maxDeadlineMs) {
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+        this.minDeadlineMs = minDeadlineMs;
+        this.maxDeadlineMs = Math.max(minDeadlineMs, maxDeadlineMs);
+    }
+
+    /**
+     * Runs the call with the deadline in milliseconds for the address, or fails with {@link UnreachableException}
+     * without running it while the address is considered unreachable.
+     */
+    public <R> CompletableFuture<R> call(String address, LongFunction<CompletableFuture<R>> call) {
+        if (calls.incrementAndGet() % PRUNE_INTERVAL_CALLS == 0) {
+            pruneIdle();
+        }
+        AddressState state = states.computeIfAbsent(address, k -> new AddressState());
+        long now = System.currentTimeMillis();
+        if (!state.tryAcquire(now)) {
+            return FutureUtil.failedFuture(new UnreachableException(address));
+        }
+        long startNanos = System.nanoTime();
+        CompletableFuture<R> future;
+        try {
+            future = call.apply(state.deadlineMs());
+        } catch (RuntimeException e) {
+            state.onFailure(System.currentTimeMillis());
+            return FutureUtil.failedFuture(e);
+        }
+        return future.whenComplete((result, e) -> {
+            if (e == null) {
+                state.onSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            } else if (state.onFailure(System.currentTimeMillis())) {
+                log.warn("Instance {} is unreachable after {} failed calls", address, failureThreshold);
+            }
+        });
+    }
+
+    /**
+     * Returns whether calls to the address currently fail immediately.
+     */
+    public boolean isOpen(String address) {
+        AddressState state = states.get(address);
+        return state != null && state.isOpen(System.currentTimeMillis());
+    }
+
+    public long getDeadlineMs(String address) {
+        AddressState state = states.get(address);
+        return state != null ? state.deadlineMs() : maxDeadlineMs;
+    }
+
+    private void pruneIdle() {
+        // pods are replaced with new addresses, forget the ones that were not called for a while
+        long idleBefore = System.currentTimeMillis() - Math.max(TimeUnit.MINUTES.toMillis(10), openMs * 2);
+        states.entrySet().removeIf(entry -> entry.getValue().lastUsedMs < idleBefore);
+    }
+
+    /**
+     * Thrown for calls to an address that is considered unreachable.
+     */
+    public static class UnreachableException extends RuntimeException {
+        public UnreachableException(String address) {
+            super("Instance " + address + " is unreachable");
+        }
+    }
+
+    private class AddressState {
+        private final long[] latencies = new long[LATENCY_SAMPLES];
+        private int latencyCount;
+        private int nextLatency;
+        private int consecutiveFailures;
+        private long openedAtMs = -1;
+        private boolean probing;
+        private volatile long deadlineMs = maxDeadlineMs;
+        private volatile long lastUsedMs = System.currentTimeMillis();
+
+        synchronized boolean tryAcquire(long now) {
+            lastUsedMs = now;
+            if (openedAtMs < 0) {
+                return true;
+            }
+            if (probing || now - openedAtMs < openMs) {
+                return false;
+            }
+            // half open, a single probe decides whether the address is reachable again
+            probing = true;
+            return true;
+        }
+
+        synchronized boolean isOpen(long now) {
+            return openedAtMs >= 0 && (probing || now - openedAtMs < openMs);
+        }
+
+        long deadlineMs() {
+            return deadlineMs;
+        }
+
+        synchronized void onSuccess(long latencyMs) {
+            consecutiveFailures = 0;
+            openedAtMs = -1;
+            probing = false;
+            latencies[nextLatency] = latencyMs;
+            nextLatency = (nextLatency + 1) % LATENCY_SAMPLES;
+            latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+            if (latencyCount >= MIN_LATENCY_SAMPLES) {
+                long[] sorted = Arrays.copyOf(latencies, latencyCount);
+                Arrays.sort(sorted);
+                long percentile = sorted[(int) Math.ceil(LATENCY_PERCENTILE * latencyCount) - 1];
+                deadlineMs = Math.max(minDeadlineMs, Math.min(maxDeadlineMs,
+                        percentile * DEADLINE_LATENCY_MULTIPLIER));
+            }
+        }
+
+        /**
+         * Returns true when this failure opened the circuit.
+         */
+        synchronized boolean onFailure(long now) {
+            consecutiveFailures++;
+            if (probing) {
+                probing = false;
+                openedAtMs = now;
+                return false;
+            }
+            if (openedAtMs < 0 && consecutiveFailures >= failureThreshold) {
+                openedAtMs = now;
+                // the next calls after the open period get the full deadline again
+                deadlineMs = maxDeadlineMs;
+                latencyCount = 0;
+                nextLatency = 0;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import com.google.gson.Gson;
+import io.functionmesh.compute.util.JsonStreamUtil;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+
+/**
+ * Executes Kubernetes api calls without blocking the calling thread. The calls are enqueued on the OkHttp
+ * dispatcher of the api client and at most {@code maxInFlightRequests} of them run at the same time, the others
+ * wait in submission order. Failed responses complete the future with an {@link ApiException}.
+ *
+ * <p>With a rate limiter, waiting calls are taken reads first and deletes last, and a call gets its permit only
+ * together with a token of its lane, so neither the permits nor the dispatcher threads are held while waiting for
+ * a token.
+ */
+@Slf4j
+public class KubernetesAsyncClient implements AutoCloseable {
+    private final Gson gson;
+    private final OkHttpClient httpClient;
+    private final KubernetesRateLimiter rateLimiter;
+    private final Semaphore permits;
+    private final Deque<PendingCall>[] pending;
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean closed = false;
+    private boolean drainScheduled = false;
+
+    public KubernetesAsyncClient(ApiClient apiClient, int maxInFlightRequests) {
+        this(apiClient, maxInFlightRequests, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public KubernetesAsyncClient(ApiClient apiClient, int maxInFlightRequests, KubernetesRateLimiter rateLimiter) {
+        this.gson = apiClient.getJSON().getGson();
+        this.httpClient = apiClient.getHttpClient();
+        this.rateLimiter = rateLimiter;
+        this.permits = new Semaphore(Math.max(1, maxInFlightRequests));
+        this.pending = new Deque[KubernetesRateLimiter.Lane.values().length];
+        for (int i = 0; i < pending.length; i++) {
+            pending[i] = new ArrayDeque<>();
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mesh-kubernetes-async-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Executes the call and ignores the response body.
+     */
+    public CompletableFuture<Void> execute(Call call) {
+        return execute(call, null);
+    }
+
+    /**
+     * Executes the call and decodes the response body as the given type.
+     */
+    public <R> CompletableFuture<R> execute(Call call, Type returnType) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new IllegalStateException("Kubernetes async client is closed"));
+            return future;
+        }
+        // without a rate limiter every call goes to the same lane, in submission order
+        KubernetesRateLimiter.Lane lane = rateLimiter != null
+                ? KubernetesRateLimiter.Lane.of(call.request().method())
+                : KubernetesRateLimiter.Lane.READ;
+        long queuedSinceNanos = rateLimiter != null ? rateLimiter.nanoTime() : 0;
+        synchronized (this) {
+            pending[lane.ordinal()].addLast(new PendingCall(lane, queuedSinceNanos,
+                    () -> enqueue(call, returnType, future), future::completeExceptionally));
+        }
+        drain();
+        return future;
+    }
+
+    /**
+     * Runs the supplier after the given delay, e.g. to retry a call.
+     */
+    public <R> CompletableFuture<R> schedule(long delayMs, Supplier<CompletableFuture<R>> supplier) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        try {
+            scheduler.schedule(() -> supplier.get().whenComplete((result, e) -> {
+                if (e != null) {
+                    future.completeExceptionally(e);
+                } else {
+                    future.complete(result);
+                }
+            }), delayMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        List<PendingCall> calls = new ArrayList<>();
+        synchronized (this) {
+            for (Deque<PendingCall> lane : pending) {
+                calls.addAll(lane);
+                lane.clear();
+            }
+        }
+        calls.forEach(call -> call.fail(new IllegalStateException("Kubernetes async client is closed")));
+    }
+
+    private void drain() {
+        List<Runnable> ready = new ArrayList<>();
+        synchronized (this) {
+            PendingCall next;
+            while ((next = nextPending()) != null && permits.tryAcquire()) {
+                if (rateLimiter != null) {
+                    long waitNanos;
+                    try {
+                        waitNanos = rateLimiter.tryAcquire(next.lane, next.queuedSinceNanos);
+                    } catch (KubernetesRateLimiter.RateLimitedException e) {
+                        permits.release();
+                        pending[next.lane.ordinal()].pollFirst();
+                        PendingCall rejected = next;
+                        ready.add(() -> rejected.fail(new ApiException(e)));
+                        continue;
+                    }
+                    if (waitNanos > 0) {
+                        permits.release();
+                        scheduleDrain(waitNanos);
+                        break;
+                    }
+                }
+                pending[next.lane.ordinal()].pollFirst();
+                ready.add(next.task);
+            }
+        }
+        // the calls are enqueued and failed outside the lock, completing a future may submit more calls
+        ready.forEach(Runnable::run);
+    }
+
+    private PendingCall nextPending() {
+        for (Deque<PendingCall> lane : pending) {
+            if (!lane.isEmpty()) {
+                return lane.peekFirst();
+            }
+        }
+        return null;
+    }
+
+    private void scheduleDrain(long delayNanos) {
+        if (drainScheduled || closed) {
+            return;
+        }
+        drainScheduled = true;
+        try {
+            scheduler.schedule(() -> {
+                synchronized (this) {
+                    drainScheduled = false;
+                }
+                drain();
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            drainScheduled = false;
+        }
+    }
+
+    private void release() {
+        permits.release();
+        drain();
+    }
+
+    private <R> void enqueue(Call call, Type returnType, CompletableFuture<R> future) {
+        if (closed) {
+            // the call holds a permit already
+            release();
+            future.completeExceptionally(new IllegalStateException("Kubernetes async client is closed"));
+            return;
+        }
+        Call admittedCall = rateLimiter != null
+                ? httpClient.newCall(KubernetesRateLimiter.admitted(call.request()))
+                : call;
+        admittedCall.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                release();
+                future.completeExceptionally(new ApiException(e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                R result = null;
+                Throwable failure = null;
+                try (Response r = response) {
+                    if (!r.isSuccessful()) {
+                        String body = r.body() != null ? r.body().string() : null;
+                        failure = new ApiException(r.message(), r.code(), r.headers().toMultimap(), body);
+                    } else if (returnType != null && r.body() != null) {
+                        result = JsonStreamUtil.decode(gson, r.body().charStream(), returnType);
+                    }
+                } catch (Throwable t) {
+                    failure = t;
+                }
+                // free the slot before completing, dependent stages may submit more calls
+                release();
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                } else {
+                    future.complete(result);
+                }
+            }
+        });
+    }
+
+    private static class PendingCall {
+        private final KubernetesRateLimiter.Lane lane;
+        private final long queuedSinceNanos;
+        private final Runnable task;
+        private final Consumer<Throwable> failure;
+
+        PendingCall(KubernetesRateLimiter.Lane lane, long queuedSinceNanos, Runnable task,
+                    Consumer<Throwable> failure) {
+            this.lane = lane;
+            this.queuedSinceNanos = queuedSinceNanos;
+            this.task = task;
+            this.failure = failure;
+        }
+
+        void fail(Throwable e) {
+            failure.accept(e);
+        }
+    }
+}
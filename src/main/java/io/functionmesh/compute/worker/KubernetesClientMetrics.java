@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.apache.pulsar.common.util.SimpleTextOutputStream;
+
+/**
+ * Records the count and latency of the requests the worker sends to the Kubernetes api server, by method,
+ * resource and response code, and exposes them with the state of the OkHttp dispatcher and connection pool in
+ * the Prometheus text format.
+ */
+public class KubernetesClientMetrics implements Interceptor {
+    static final String METRICS_PREFIX = "function_mesh_kubernetes_client_";
+    static final String ERROR_CODE = "error";
+
+    private final Map<String, RequestStats> requestStats = new ConcurrentHashMap<>();
+    private volatile OkHttpClient httpClient;
+
+    public void bind(OkHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        long startNanos = System.nanoTime();
+        String code = ERROR_CODE;
+        try {
+            Response response = chain.proceed(request);
+            code = String.valueOf(response.code());
+            return response;
+        } finally {
+            String key = request.method() + "," + resource(request.url().encodedPathSegments()) + "," + code;
+            requestStats.computeIfAbsent(key, ignore -> new RequestStats())
+                    .record(System.nanoTime() - startNanos);
+        }
+    }
+
+    public void generate(SimpleTextOutputStream out) {
+        out.write("# TYPE ").write(METRICS_PREFIX).write("requests_total counter\n");
+        requestStats.forEach((key, stats) -> writeRequestMetric(out, "requests_total", key, stats.count.sum()));
+        out.write("# TYPE ").write(METRICS_PREFIX).write("request_latency_ms_sum counter\n");
+        requestStats.forEach((key, stats) -> writeRequestMetric(out, "request_latency_ms_sum", key,
+                TimeUnit.NANOSECONDS.toMillis(stats.latencyNanos.sum())));
+        OkHttpClient client = httpClient;
+        if (client == null) {
+            return;
+        }
+        Dispatcher dispatcher = client.dispatcher();
+        ConnectionPool connectionPool = client.connectionPool();
+        writeGauge(out, "dispatcher_running_calls", dispatcher.runningCallsCount());
+        writeGauge(out, "dispatcher_queued_calls", dispatcher.queuedCallsCount());
+        writeGauge(out, "connection_pool_connections", connectionPool.connectionCount());
+        writeGauge(out, "connection_pool_idle_connections", connectionPool.idleConnectionCount());
+    }
+
+    /**
+     * Returns the resource type of an api path, e.g. {@code pods} for
+     * {@code /api/v1/namespaces/default/pods/name}, so that the metrics do not contain object names.
+     */
+    static String resource(List<String> segments) {
+        int namespacesIndex = segments.indexOf("namespaces");
+        if (namespacesIndex >= 0 && segments.size() > namespacesIndex + 2) {
+            return segments.get(namespacesIndex + 2);
+        }
+        if (namespacesIndex >= 0) {
+            return "namespaces";
+        }
+        // cluster scoped lists, /api/v1/<resource> or /apis/<group>/<version>/<resource>
+        int resourceIndex = !segments.isEmpty() && "api".equals(segments.get(0)) ? 2 : 3;
+        return segments.size() > resourceIndex ? segments.get(resourceIndex) : "other";
+    }
+
+    private static void writeRequestMetric(SimpleTextOutputStream out, String name, String key, long value) {
+        String[] labels = key.split(",", 3);
+        out.write(METRICS_PREFIX).write(name)
+                .write("{method=\"").write(labels[0])
+                .write("\",resource=\"").write(labels[1])
+                .write("\",code=\"").write(labels[2])
+                .write("\"} ").write(value).write('\n');
+    }
+
+    private static void writeGauge(SimpleTextOutputStream out, String name, long value) {
+        out.write("# TYPE ").write(METRICS_PREFIX).write(name).write(" gauge\n");
+        out.write(METRICS_PREFIX).write(name).write(' ').write(value).write('\n');
+    }
+
+    private static class RequestStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+
+        void record(long nanos) {
+            count.increment();
+            latencyNanos.add(nanos);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.apache.pulsar.common.util.SimpleTextOutputStream;
+
+/**
+ * Limits the rate of the requests the worker sends to the Kubernetes api server with a token bucket. The limiter is
+ * an interceptor of the api client, so it covers every call made through the typed apis, the generic api and the
+ * custom objects api.
+ *
+ * <p>Requests wait for a token in one of three lanes by method: reads, writes and deletes. A free token goes to the
+ * oldest request of the lane with the highest priority, reads first and deletes last, so that a burst of
+ * registrations does not starve status reads. A request fails fast with {@link RateLimitedException} when its lane
+ * is full or when it waited longer than the maximum queue time.
+ *
+ * <p>Calls of the {@link KubernetesAsyncClient} take their token with {@link #tryAcquire} before they are handed to
+ * the OkHttp dispatcher and are marked with {@link #admitted}, so that they never wait on a dispatcher thread.
+ */
+public class KubernetesRateLimiter implements Interceptor {
+    static final String METRICS_PREFIX = KubernetesClientMetrics.METRICS_PREFIX + "rate_limiter_";
+
+    /**
+     * The lanes in the order of their priority.
+     */
+    public enum Lane {
+        READ, WRITE, DELETE;
+
+        static Lane of(String method) {
+            switch (method) {
+                case "GET":
+                case "HEAD":
+                case "OPTIONS":
+                    return READ;
+                case "DELETE":
+                    return DELETE;
+                default:
+                    return WRITE;
+            }
+        }
+    }
+
+    private final double permitsPerNano;
+    private final double burst;
+    private final int maxQueuedPerLane;
+    private final long maxQueueTimeNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final LongSupplier clock;
+    private final LaneState[] lanes = new LaneState[Lane.values().length];
+    private double tokens;
+    private long lastRefillNanos;
+
+    public KubernetesRateLimiter(double permitsPerSecond, int burst, int maxQueuedPerLane, long maxQueueTimeMs) {
+        this(permitsPerSecond, burst, maxQueuedPerLane, maxQueueTimeMs, System::nanoTime);
+    }
+
+    KubernetesRateLimiter(double permitsPerSecond, int burst, int maxQueuedPerLane, long maxQueueTimeMs,
+                          LongSupplier clock) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.maxQueuedPerLane = Math.max(0, maxQueuedPerLane);
+        this.maxQueueTimeNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxQueueTimeMs));
+        this.clock = clock;
+        this.tokens = this.burst;
+        this.lastRefillNanos = clock.getAsLong();
+        for (Lane lane : Lane.values()) {
+            lanes[lane.ordinal()] = new LaneState();
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.tag(Admitted.class) == null) {
+            acquire(Lane.of(request.method()));
+        }
+        return chain.proceed(request);
+    }
+
+    /**
+     * Returns the request marked as holding a token already, the interceptor lets it pass without taking another.
+     */
+    public static Request admitted(Request request) {
+        return request.newBuilder().tag(Admitted.class, Admitted.INSTANCE).build();
+    }
+
+    /**
+     * Takes a token of the lane without waiting for a request queued since the given time. Returns 0 when the token
+     * was taken, or the nanoseconds to wait before trying again. Requests waiting in {@link #acquire} go first.
+     */
+    public long tryAcquire(Lane lane, long queuedSinceNanos) throws RateLimitedException {
+        LaneState state = lanes[lane.ordinal()];
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            refill(now);
+            if (tokens >= 1 && state.waiters.isEmpty() && !hasWaitersBefore(lane)) {
+                tokens -= 1;
+                state.admit(now - queuedSinceNanos);
+                return 0;
+            }
+            if (now - queuedSinceNanos >= maxQueueTimeNanos) {
+                state.rejected.increment();
+                throw new RateLimitedException(String.format(Locale.ROOT,
+                        "Timed out after %d ms waiting to send a %s request to the Kubernetes api server",
+                        TimeUnit.NANOSECONDS.toMillis(now - queuedSinceNanos), lane.name().toLowerCase()));
+            }
+            // with a token left the requests waiting in acquire take it first
+            long untilToken = tokens >= 1
+                    ? TimeUnit.MILLISECONDS.toNanos(1)
+                    : (long) Math.ceil((1 - tokens) / permitsPerNano);
+            return Math.max(1, Math.min(untilToken, queuedSinceNanos + maxQueueTimeNanos - now));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long nanoTime() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * Waits for a token of the lane and returns the nanoseconds spent waiting.
+     */
+    public long acquire(Lane lane) throws IOException {
+        LaneState state = lanes[lane.ordinal()];
+        long startNanos = clock.getAsLong();
+        Object ticket = new Object();
+        lock.lock();
+        try {
+            refill(startNanos);
+            if (tokens >= 1 && state.waiters.isEmpty() && !hasWaitersBefore(lane)) {
+                tokens -= 1;
+                state.admit(0);
+                return 0;
+            }
+            if (state.waiters.size() >= maxQueuedPerLane) {
+                state.rejected.increment();
+                throw new RateLimitedException(String.format(Locale.ROOT,
+                        "Too many queued %s requests to the Kubernetes api server", lane.name().toLowerCase()));
+            }
+            state.waiters.addLast(ticket);
+            long deadline = startNanos + maxQueueTimeNanos;
+            try {
+                while (true) {
+                    long now = clock.getAsLong();
+                    refill(now);
+                    if (tokens >= 1 && state.waiters.peekFirst() == ticket && !hasWaitersBefore(lane)) {
+                        tokens -= 1;
+                        state.waiters.pollFirst();
+                        long waited = now - startNanos;
+                        state.admit(waited);
+                        // the next waiter may be able to take a token as well
+                        changed.signalAll();
+                        return waited;
+                    }
+                    long remaining = deadline - now;
+                    if (remaining <= 0) {
+                        state.waiters.remove(ticket);
+                        state.rejected.increment();
+                        changed.signalAll();
+                        throw new RateLimitedException(String.format(Locale.ROOT,
+                                "Timed out after %d ms waiting to send a %s request to the Kubernetes api server",
+                                TimeUnit.NANOSECONDS.toMillis(now - startNanos), lane.name().toLowerCase()));
+                    }
+                    long untilToken = tokens >= 1 ? remaining : (long) Math.ceil((1 - tokens) / permitsPerNano);
+                    changed.awaitNanos(Math.max(1, Math.min(remaining, untilToken)));
+                }
+            } catch (InterruptedException e) {
+                state.waiters.remove(ticket);
+                changed.signalAll();
+                Thread.currentThread().interrupt();
+                throw new RateLimitedException("Interrupted while waiting to send a request to the Kubernetes api "
+                        + "server");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued(Lane lane) {
+        lock.lock();
+        try {
+            return lanes[lane.ordinal()].waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejected(Lane lane) {
+        return lanes[lane.ordinal()].rejected.sum();
+    }
+
+    public void generate(SimpleTextOutputStream out) {
+        writeHeader(out, "requests_total", "counter");
+        for (Lane lane : Lane.values()) {
+            writeLaneMetric(out, "requests_total", lane, lanes[lane.ordinal()].admitted.sum());
+        }
+        writeHeader(out, "queue_time_ms_sum", "counter");
+        for (Lane lane : Lane.values()) {
+            writeLaneMetric(out, "queue_time_ms_sum", lane,
+                    TimeUnit.NANOSECONDS.toMillis(lanes[lane.ordinal()].queueTimeNanos.sum()));
+        }
+        writeHeader(out, "rejected_total", "counter");
+        for (Lane lane : Lane.values()) {
+            writeLaneMetric(out, "rejected_total", lane, getRejected(lane));
+        }
+        writeHeader(out, "queued_requests", "gauge");
+        for (Lane lane : Lane.values()) {
+            writeLaneMetric(out, "queued_requests", lane, getQueued(lane));
+        }
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+
+    private boolean hasWaitersBefore(Lane lane) {
+        for (int i = 0; i < lane.ordinal(); i++) {
+            if (!lanes[i].waiters.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeHeader(SimpleTextOutputStream out, String name, String type) {
+        out.write("# TYPE ").write(METRICS_PREFIX).write(name).write(' ').write(type).write('\n');
+    }
+
+    private static void writeLaneMetric(SimpleTextOutputStream out, String name, Lane lane, long value) {
+        out.write(METRICS_PREFIX).write(name)
+                .write("{lane=\"").write(lane.name().toLowerCase()).write("\"} ")
+                .write(value).write('\n');
+    }
+
+    /**
+     * Thrown when a request is not sent because its lane is full or it waited too long for a token.
+     */
+    public static class RateLimitedException extends IOException {
+        public RateLimitedException(String message) {
+            super(message);
+        }
+    }
+
+    private enum Admitted {
+        INSTANCE
+    }
+
+    private static class LaneState {
+        private final Deque<Object> waiters = new ArrayDeque<>();
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder queueTimeNanos = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        void admit(long waitedNanos) {
+            admitted.increment();
+            queueTimeNanos.add(waitedNanos);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Decides whether and when a failed Kubernetes api request is sent again. Throttled requests (429) and server errors
+ * are retried after an exponential backoff with full jitter, or after the delay the api server asked for with
+ * Retry-After when it is longer. A request is not retried once the attempts or the total time are used up.
+ */
+public class KubernetesRetryPolicy {
+    public static final KubernetesRetryPolicy NONE = new KubernetesRetryPolicy(1, 0, 0, 0);
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long maxElapsedMs;
+
+    public KubernetesRetryPolicy(int maxAttempts, long initialBackoffMs, long maxBackoffMs, long maxElapsedMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(1, initialBackoffMs);
+        this.maxBackoffMs = Math.max(this.initialBackoffMs, maxBackoffMs);
+        this.maxElapsedMs = Math.max(0, maxElapsedMs);
+    }
+
+    /**
+     * Returns whether a request that failed with the code may be sent again. Only throttling and unavailability
+     * guarantee that a request which is not idempotent, such as a create, was not applied.
+     */
+    public static boolean isRetryable(int code, boolean idempotent) {
+        switch (code) {
+            case 429:
+            case 503:
+                return true;
+            case 500:
+            case 502:
+            case 504:
+                return idempotent;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Parses a Retry-After header in seconds or as an http date, returns -1 when there is none.
+     */
+    public static long parseRetryAfterMs(String retryAfter) {
+        if (StringUtils.isBlank(retryAfter)) {
+            return -1;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            // not a number of seconds, try a date
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Starts the backoff of one request, which spans all its attempts.
+     */
+    public Backoff newBackoff() {
+        return new Backoff(System.nanoTime());
+    }
+
+    /**
+     * The attempts of one request.
+     */
+    public class Backoff {
+        private final long startNanos;
+        private int attempts = 1;
+
+        Backoff(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * Returns the delay in milliseconds before the next attempt, at least the given Retry-After delay, or -1 when
+         * no attempt is left.
+         */
+        public long nextDelayMs(long retryAfterMs) {
+            if (attempts >= maxAttempts) {
+                return -1;
+            }
+            long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 30));
+            long delayMs = Math.max(retryAfterMs, ThreadLocalRandom.current().nextLong(ceiling + 1));
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            if (elapsedMs + delayMs > maxElapsedMs) {
+                return -1;
+            }
+            attempts++;
+            return delayMs;
+        }
+
+        /**
+         * Waits for the next attempt, returns false without waiting when no attempt is left or when interrupted.
+         */
+        public boolean await(long retryAfterMs) {
+            long delayMs = nextDelayMs(retryAfterMs);
+            if (delayMs < 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(delayMs);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
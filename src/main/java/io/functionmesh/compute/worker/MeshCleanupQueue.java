@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Retries failed cleanups of deleted components, such as secrets and packages, in the background with an
+ * exponential backoff, so that a deletion does not fail or wait because of a resource that can be removed later.
+ * The cleanups must be idempotent.
+ */
+@Slf4j
+public class MeshCleanupQueue implements AutoCloseable {
+    static final long MAX_BACKOFF_MS = 60000;
+
+    private final ScheduledExecutorService executor;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+
+    public MeshCleanupQueue(int maxAttempts, long initialBackoffMs) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mesh-cleanup-queue");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules a cleanup whose first attempt failed.
+     */
+    public void submit(String description, Supplier<CompletableFuture<Void>> cleanup) {
+        schedule(description, cleanup, 1);
+    }
+
+    public int getPendingTasks() {
+        return pendingTasks.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        if (pendingTasks.get() > 0) {
+            log.warn("Dropped {} pending cleanups", pendingTasks.get());
+        }
+    }
+
+    private void schedule(String description, Supplier<CompletableFuture<Void>> cleanup, int attempt) {
+        if (attempt > maxAttempts) {
+            log.error("Giving up {} after {} attempts", description, maxAttempts);
+            return;
+        }
+        long backoffMs = Math.min(MAX_BACKOFF_MS, initialBackoffMs << Math.min(attempt - 1, 16));
+        pendingTasks.incrementAndGet();
+        try {
+            executor.schedule(() -> {
+                CompletableFuture<Void> future;
+                try {
+                    future = cleanup.get();
+                } catch (Throwable t) {
+                    future = new CompletableFuture<>();
+                    future.completeExceptionally(t);
+                }
+                future.whenComplete((ignore, e) -> {
+                    pendingTasks.decrementAndGet();
+                    if (e == null) {
+                        log.info("Completed {} after {} retries", description, attempt);
+                    } else {
+                        log.warn("Retry {} of {} failed", attempt, description, e);
+                        schedule(description, cleanup, attempt + 1);
+                    }
+                });
+            }, backoffMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            pendingTasks.decrementAndGet();
+            log.warn("Failed to schedule {}", description, e);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import com.google.gson.Gson;
+import io.functionmesh.compute.models.MeshJob;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.openapi.models.V1ConfigMapList;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import java.net.HttpURLConnection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import javax.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pulsar.common.util.RestException;
+
+/**
+ * Runs the registrations and updates of components accepted with 202 on a bounded pool of threads. Every job is
+ * recorded in a ConfigMap of the job namespace when it is accepted and when it is done, so its outcome can be read
+ * from any worker until it expires after the retention period.
+ */
+@Slf4j
+public class MeshJobQueue implements AutoCloseable {
+    static final String JOB_LABEL = "compute.functionmesh.io/mesh-job";
+    static final String JOB_NAME_PREFIX = "mesh-job-";
+    static final String JOB_DATA_KEY = "job";
+    private static final Pattern JOB_ID = Pattern.compile("[0-9a-f-]{36}");
+    private static final Gson GSON = new Gson();
+
+    private final CoreV1Api coreV1Api;
+    private final String namespace;
+    private final long retentionMs;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService sweeper;
+    private final ConcurrentMap<String, MeshJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Work of a job, a {@link RestException} it throws is recorded with its status.
+     */
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    /**
+     * @param coreV1Api the api to record the jobs with, or null to keep them only in memory
+     */
+    public MeshJobQueue(CoreV1Api coreV1Api, String namespace, int threads, int maxQueuedJobs, long retentionMs) {
+        this.coreV1Api = coreV1Api;
+        this.namespace = namespace;
+        this.retentionMs = retentionMs;
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxQueuedJobs)), runnable -> {
+            Thread thread = new Thread(runnable, "mesh-job-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mesh-job-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepIntervalMs = Math.max(1000, Math.min(retentionMs, TimeUnit.MINUTES.toMillis(1)));
+        this.sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records the job and queues its work, fails with 503 when the queue is full.
+     */
+    public MeshJob submit(MeshJob job, Work work) {
+        job.setId(UUID.randomUUID().toString());
+        job.setState(MeshJob.State.PENDING);
+        job.setSubmitTime(System.currentTimeMillis());
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw queueFull();
+        }
+        record(job, true);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            delete(job.getId());
+            throw queueFull();
+        }
+        return job.copy();
+    }
+
+    /**
+     * Returns the job, or null when it is unknown or expired.
+     */
+    public MeshJob get(String id) {
+        MeshJob job = jobs.get(id);
+        if (job != null) {
+            synchronized (job) {
+                return job.copy();
+            }
+        }
+        if (coreV1Api == null || id == null || !JOB_ID.matcher(id).matches()) {
+            return null;
+        }
+        try {
+            return fromConfigMap(coreV1Api.readNamespacedConfigMap(JOB_NAME_PREFIX + id, namespace, null, null,
+                    null));
+        } catch (ApiException e) {
+            if (e.getCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                return null;
+            }
+            throw new RestException(Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    public int getQueuedJobs() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+        executor.shutdownNow();
+        if (!executor.getQueue().isEmpty()) {
+            log.warn("Dropped {} queued jobs", executor.getQueue().size());
+        }
+    }
+
+    private void run(MeshJob job, Work work) {
+        synchronized (job) {
+            job.setState(MeshJob.State.RUNNING);
+            job.setStartTime(System.currentTimeMillis());
+        }
+        int code = Response.Status.OK.getStatusCode();
+        String message = null;
+        try {
+            work.run();
+        } catch (RestException e) {
+            code = e.getResponse().getStatus();
+            message = e.getMessage();
+        } catch (Exception e) {
+            log.error("Job {} to {} {} {}/{}/{} failed", job.getId(), job.getAction(), job.getType(),
+                    job.getTenant(), job.getNamespace(), job.getName(), e);
+            code = Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
+            message = e.getMessage();
+        }
+        synchronized (job) {
+            job.setState(code < 300 ? MeshJob.State.SUCCEEDED : MeshJob.State.FAILED);
+            job.setCode(code);
+            job.setMessage(message);
+            job.setFinishTime(System.currentTimeMillis());
+        }
+        try {
+            record(job, false);
+        } catch (RestException e) {
+            log.warn("Failed to record the outcome of job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void record(MeshJob job, boolean create) {
+        if (coreV1Api == null) {
+            return;
+        }
+        V1ConfigMap configMap;
+        synchronized (job) {
+            configMap = new V1ConfigMap()
+                    .metadata(new V1ObjectMeta()
+                            .name(JOB_NAME_PREFIX + job.getId())
+                            .namespace(namespace)
+                            .labels(Collections.singletonMap(JOB_LABEL, "true")))
+                    .data(Collections.singletonMap(JOB_DATA_KEY, GSON.toJson(job)));
+        }
+        try {
+            if (create) {
+                coreV1Api.createNamespacedConfigMap(namespace, configMap, null, null, null);
+            } else {
+                coreV1Api.replaceNamespacedConfigMap(configMap.getMetadata().getName(), namespace, configMap, null,
+                        null, null);
+            }
+        } catch (ApiException e) {
+            throw new RestException(Response.Status.INTERNAL_SERVER_ERROR,
+                    "Failed to record job " + job.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private void delete(String id) {
+        if (coreV1Api == null) {
+            return;
+        }
+        try {
+            coreV1Api.deleteNamespacedConfigMap(JOB_NAME_PREFIX + id, namespace, null, null, null, null, null,
+                    null);
+        } catch (ApiException e) {
+            if (e.getCode() != HttpURLConnection.HTTP_NOT_FOUND) {
+                log.warn("Failed to delete the record of job {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Forgets the jobs that are done for longer than the retention period, including those recorded by other
+     * workers.
+     */
+    void sweep() {
+        long expiredBefore = System.currentTimeMillis() - retentionMs;
+        jobs.values().removeIf(job -> {
+            synchronized (job) {
+                return job.isDone() && job.getFinishTime() < expiredBefore;
+            }
+        });
+        if (coreV1Api == null) {
+            return;
+        }
+        try {
+            V1ConfigMapList configMaps = coreV1Api.listNamespacedConfigMap(namespace, null, null, null, null,
+                    JOB_LABEL, null, null, null, null, null);
+            for (V1ConfigMap configMap : configMaps.getItems()) {
+                MeshJob job = fromConfigMap(configMap);
+                if (job != null && job.isDone() && job.getFinishTime() < expiredBefore) {
+                    delete(job.getId());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to sweep expired jobs: {}", e.getMessage());
+        }
+    }
+
+    private static MeshJob fromConfigMap(V1ConfigMap configMap) {
+        if (configMap == null || configMap.getData() == null || !configMap.getData().containsKey(JOB_DATA_KEY)) {
+            return null;
+        }
+        return GSON.fromJson(configMap.getData().get(JOB_DATA_KEY), MeshJob.class);
+    }
+
+    private static RestException queueFull() {
+        return new RestException(Response.Status.SERVICE_UNAVAILABLE, "Too many queued jobs, retry later");
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static io.functionmesh.compute.util.CommonUtil.CLUSTER_LABEL_CLAIM;
+import static io.functionmesh.compute.util.CommonUtil.COMPONENT_LABEL_CLAIM;
+import static io.functionmesh.compute.util.CommonUtil.NAMESPACE_LABEL_CLAIM;
+import static io.functionmesh.compute.util.CommonUtil.TENANT_LABEL_CLAIM;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Keeps the pods of the mesh components in the job namespace in memory, indexed by the tenant, namespace and
+ * component labels, so that status and stats requests do not have to list pods from the api server.
+ */
+@Slf4j
+public class MeshPodCache implements AutoCloseable {
+    static final String COMPONENT_INDEX = "component";
+
+    private final SharedInformerFactory informerFactory;
+    private final SharedIndexInformer<V1Pod> informer;
+
+    public MeshPodCache(ApiClient apiClient, String jobNamespace, long resyncPeriodMillis) {
+        CoreV1Api coreV1Api = new CoreV1Api(apiClient);
+        this.informerFactory = new SharedInformerFactory(apiClient);
+        // only pods created for mesh components carry the cluster label
+        this.informer = informerFactory.sharedIndexInformerFor(
+                params -> coreV1Api.listNamespacedPodCall(jobNamespace, null, null, null, null,
+                        CLUSTER_LABEL_CLAIM, null, params.resourceVersion, null, params.timeoutSeconds,
+                        params.watch, null),
+                V1Pod.class, V1PodList.class, resyncPeriodMillis);
+        this.informer.addIndexers(Collections.singletonMap(COMPONENT_INDEX, MeshPodCache::indexKeys));
+    }
+
+    public void start() {
+        informerFactory.startAllRegisteredInformers();
+    }
+
+    public boolean isSynced() {
+        return informer.hasSynced();
+    }
+
+    /**
+     * Returns the pods of the component that match the given equality based label selector. Returns null when the
+     * cache has not synced yet or the selector cannot be evaluated in memory, callers should then list the pods
+     * from the api server.
+     */
+    public V1PodList listPods(String tenant, String namespace, String componentName, String labelSelector) {
+        if (!isSynced()) {
+            return null;
+        }
+        Map<String, String> selector = parseSelector(labelSelector);
+        if (selector == null) {
+            return null;
+        }
+        List<V1Pod> pods = informer.getIndexer().byIndex(COMPONENT_INDEX, indexKey(tenant, namespace, componentName))
+                .stream()
+                .filter(pod -> matches(pod, selector))
+                .collect(Collectors.toList());
+        return new V1PodList().items(pods);
+    }
+
+    @Override
+    public void close() {
+        informerFactory.stopAllRegisteredInformers();
+    }
+
+    static String indexKey(String tenant, String namespace, String componentName) {
+        return tenant + "/" + namespace + "/" + componentName;
+    }
+
+    private static List<String> indexKeys(V1Pod pod) {
+        Map<String, String> labels = pod.getMetadata() != null ? pod.getMetadata().getLabels() : null;
+        if (labels == null || !labels.containsKey(TENANT_LABEL_CLAIM) || !labels.containsKey(NAMESPACE_LABEL_CLAIM)
+                || !labels.containsKey(COMPONENT_LABEL_CLAIM)) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(indexKey(labels.get(TENANT_LABEL_CLAIM), labels.get(NAMESPACE_LABEL_CLAIM),
+                labels.get(COMPONENT_LABEL_CLAIM)));
+    }
+
+    /**
+     * Parses an equality based label selector, returns null when it is empty or uses other operators.
+     */
+    public static Map<String, String> parseSelector(String labelSelector) {
+        if (StringUtils.isBlank(labelSelector)) {
+            return null;
+        }
+        Map<String, String> selector = new HashMap<>();
+        for (String requirement : labelSelector.split(",")) {
+            String[] pair = requirement.split("==?", 2);
+            if (pair.length != 2 || pair[0].trim().isEmpty() || pair[0].endsWith("!")
+                    || pair[1].startsWith("=")) {
+                return null;
+            }
+            selector.put(pair[0].trim(), pair[1].trim());
+        }
+        return selector;
+    }
+
+    public static boolean matches(V1Pod pod, Map<String, String> selector) {
+        Map<String, String> labels = pod.getMetadata() != null ? pod.getMetadata().getLabels() : null;
+        return labels != null && labels.entrySet().containsAll(selector.entrySet());
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.models.V1OwnerReference;
+import io.kubernetes.client.openapi.models.V1StatefulSet;
+import io.kubernetes.client.openapi.models.V1StatefulSetList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the StatefulSets of the job namespace in memory, indexed by the UID of their controller, so that the
+ * StatefulSet of a component can be resolved without reading it from the api server.
+ */
+@Slf4j
+public class MeshStatefulSetCache implements AutoCloseable {
+    static final String OWNER_INDEX = "owner";
+
+    private final SharedInformerFactory informerFactory;
+    private final SharedIndexInformer<V1StatefulSet> informer;
+
+    public MeshStatefulSetCache(ApiClient apiClient, String jobNamespace, long resyncPeriodMillis) {
+        AppsV1Api appsV1Api = new AppsV1Api(apiClient);
+        this.informerFactory = new SharedInformerFactory(apiClient);
+        this.informer = informerFactory.sharedIndexInformerFor(
+                params -> appsV1Api.listNamespacedStatefulSetCall(jobNamespace, null, null, null, null, null,
+                        null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
+                V1StatefulSet.class, V1StatefulSetList.class, resyncPeriodMillis);
+        this.informer.addIndexers(Collections.singletonMap(OWNER_INDEX, MeshStatefulSetCache::ownerUids));
+    }
+
+    public void start() {
+        informerFactory.startAllRegisteredInformers();
+    }
+
+    public boolean isSynced() {
+        return informer.hasSynced();
+    }
+
+    /**
+     * Returns the StatefulSet with the given name controlled by the owner UID, or null when it is not cached.
+     */
+    public V1StatefulSet getByOwner(String ownerUid, String name) {
+        if (ownerUid == null || !isSynced()) {
+            return null;
+        }
+        return informer.getIndexer().byIndex(OWNER_INDEX, ownerUid).stream()
+                .filter(statefulSet -> name.equals(statefulSet.getMetadata().getName()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Override
+    public void close() {
+        informerFactory.stopAllRegisteredInformers();
+    }
+
+    static List<String> ownerUids(V1StatefulSet statefulSet) {
+        if (statefulSet.getMetadata() == null || statefulSet.getMetadata().getOwnerReferences() == null) {
+            return Collections.emptyList();
+        }
+        return statefulSet.getMetadata().getOwnerReferences().stream()
+                .filter(ownerReference -> ownerReference.getController() != null && ownerReference.getController())
+                .map(V1OwnerReference::getUid)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,362 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static io.functionmesh.compute.util.CommonUtil.CLUSTER_LABEL_CLAIM;
+import static io.functionmesh.compute.util.CommonUtil.COMPONENT_LABEL_CLAIM;
+import static io.functionmesh.compute.util.CommonUtil.NAMESPACE_LABEL_CLAIM;
+import static io.functionmesh.compute.util.CommonUtil.TENANT_LABEL_CLAIM;
+import io.functionmesh.compute.functions.models.V1alpha1Function;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionList;
+import io.functionmesh.compute.models.ComponentStatusSnapshot;
+import io.functionmesh.compute.sinks.models.V1alpha1Sink;
+import io.functionmesh.compute.sinks.models.V1alpha1SinkList;
+import io.functionmesh.compute.sources.models.V1alpha1Source;
+import io.functionmesh.compute.sources.models.V1alpha1SourceList;
+import io.functionmesh.compute.util.KubernetesUtils;
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.apis.CustomObjectsApi;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1OwnerReference;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodList;
+import io.kubernetes.client.openapi.models.V1StatefulSet;
+import io.kubernetes.client.openapi.models.V1StatefulSetList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Watches the custom resources, StatefulSets and pods of the job namespace and pushes the status of a component to
+ * its subscribers whenever it changes. Every update carries the complete status, so a subscriber that falls behind
+ * only loses intermediate updates: once its buffer is full the oldest buffered update is dropped.
+ */
+@Slf4j
+public class MeshStatusWatcher implements AutoCloseable {
+    static final String COMPONENT_INDEX = "component";
+    static final String OWNER_INDEX = "owner";
+    static final String UID_INDEX = "uid";
+    private static final String API_GROUP = "compute.functionmesh.io";
+    private static final String API_VERSION = "v1alpha1";
+    private static final long SYNC_CHECK_INTERVAL_MS = 100;
+
+    private final SharedInformerFactory informerFactory;
+    private final Map<String, SharedIndexInformer<? extends KubernetesObject>> resourceInformers = new HashMap<>();
+    private final SharedIndexInformer<V1StatefulSet> statefulSetInformer;
+    private final SharedIndexInformer<V1Pod> podInformer;
+    private final ConcurrentMap<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Set<String> changedKeys = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService notifier = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "mesh-status-watcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+    private final int maxSubscriptions;
+    private final int bufferSize;
+
+    public MeshStatusWatcher(ApiClient apiClient, String jobNamespace, long resyncPeriodMillis,
+                             int maxSubscriptions, int bufferSize) {
+        this.maxSubscriptions = maxSubscriptions;
+        this.bufferSize = bufferSize;
+        this.informerFactory = new SharedInformerFactory(apiClient);
+        CustomObjectsApi customObjectsApi = new CustomObjectsApi(apiClient);
+        addResourceInformer(customObjectsApi, jobNamespace, "functions", V1alpha1Function.class,
+                V1alpha1FunctionList.class, resyncPeriodMillis);
+        addResourceInformer(customObjectsApi, jobNamespace, "sinks", V1alpha1Sink.class,
+                V1alpha1SinkList.class, resyncPeriodMillis);
+        addResourceInformer(customObjectsApi, jobNamespace, "sources", V1alpha1Source.class,
+                V1alpha1SourceList.class, resyncPeriodMillis);
+
+        AppsV1Api appsV1Api = new AppsV1Api(apiClient);
+        this.statefulSetInformer = informerFactory.sharedIndexInformerFor(
+                params -> appsV1Api.listNamespacedStatefulSetCall(jobNamespace, null, null, null, null, null,
+                        null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
+                V1StatefulSet.class, V1StatefulSetList.class, resyncPeriodMillis);
+        Map<String, Function<V1StatefulSet, List<String>>> statefulSetIndexers = new HashMap<>();
+        statefulSetIndexers.put(OWNER_INDEX, MeshStatusWatcher::controllerUids);
+        statefulSetIndexers.put(UID_INDEX, MeshStatusWatcher::uids);
+        this.statefulSetInformer.addIndexers(statefulSetIndexers);
+        this.statefulSetInformer.addEventHandler(handler(this::keysOfStatefulSet));
+
+        CoreV1Api coreV1Api = new CoreV1Api(apiClient);
+        // only pods created for mesh components carry the cluster label
+        this.podInformer = informerFactory.sharedIndexInformerFor(
+                params -> coreV1Api.listNamespacedPodCall(jobNamespace, null, null, null, null,
+                        CLUSTER_LABEL_CLAIM, null, params.resourceVersion, null, params.timeoutSeconds,
+                        params.watch, null),
+                V1Pod.class, V1PodList.class, resyncPeriodMillis);
+        this.podInformer.addIndexers(Collections.singletonMap(OWNER_INDEX, MeshStatusWatcher::controllerUids));
+        this.podInformer.addEventHandler(handler(this::keysOfPod));
+    }
+
+    public void start() {
+        informerFactory.startAllRegisteredInformers();
+    }
+
+    public boolean isSynced() {
+        return statefulSetInformer.hasSynced() && podInformer.hasSynced()
+                && resourceInformers.values().stream().allMatch(SharedIndexInformer::hasSynced);
+    }
+
+    /**
+     * Subscribes to the status of a component, the current status is delivered first, as soon as the informers
+     * have synced. Returns null when the maximum number of subscriptions is reached.
+     */
+    public Subscription subscribe(String plural, String tenant, String namespace, String componentName) {
+        if (!resourceInformers.containsKey(plural)) {
+            throw new IllegalArgumentException("Unknown component type " + plural);
+        }
+        if (subscriptionCount.incrementAndGet() > maxSubscriptions) {
+            subscriptionCount.decrementAndGet();
+            return null;
+        }
+        String key = key(plural, tenant, namespace, componentName);
+        Subscription subscription = new Subscription(key);
+        subscriptions.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+        notifier.execute(() -> publishInitialSnapshot(subscription));
+        return subscription;
+    }
+
+    public int getSubscriptionCount() {
+        return subscriptionCount.get();
+    }
+
+    @Override
+    public void close() {
+        informerFactory.stopAllRegisteredInformers();
+        notifier.shutdownNow();
+        subscriptions.values().forEach(keySubscriptions -> keySubscriptions.forEach(Subscription::close));
+    }
+
+    private void publishInitialSnapshot(Subscription subscription) {
+        if (subscription.isClosed()) {
+            return;
+        }
+        if (isSynced()) {
+            subscription.publish(snapshot(subscription.getKey()));
+        } else if (!notifier.isShutdown()) {
+            // the initial list has not completed yet, a snapshot now would miss resources
+            notifier.schedule(() -> publishInitialSnapshot(subscription), SYNC_CHECK_INTERVAL_MS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private <T extends KubernetesObject, L extends KubernetesListObject> void addResourceInformer(
+            CustomObjectsApi customObjectsApi, String jobNamespace, String plural, Class<T> apiTypeClass,
+            Class<L> apiListTypeClass, long resyncPeriodMillis) {
+        SharedIndexInformer<T> informer = informerFactory.sharedIndexInformerFor(
+                params -> customObjectsApi.listNamespacedCustomObjectCall(API_GROUP, API_VERSION, jobNamespace,
+                        plural, null, null, null, CLUSTER_LABEL_CLAIM, null, params.resourceVersion,
+                        params.timeoutSeconds, params.watch, null),
+                apiTypeClass, apiListTypeClass, resyncPeriodMillis);
+        Map<String, Function<T, List<String>>> indexers = new HashMap<>();
+        indexers.put(COMPONENT_INDEX, resource -> componentKeys(resource.getMetadata()));
+        indexers.put(UID_INDEX, MeshStatusWatcher::uids);
+        informer.addIndexers(indexers);
+        informer.addEventHandler(handler(resource -> componentKeys(resource.getMetadata()).stream()
+                .map(componentKey -> plural + "/" + componentKey)
+                .collect(Collectors.toSet())));
+        resourceInformers.put(plural, informer);
+    }
+
+    private <T> ResourceEventHandler<T> handler(Function<T, Set<String>> keys) {
+        return new ResourceEventHandler<T>() {
+            @Override
+            public void onAdd(T obj) {
+                changed(keys.apply(obj));
+            }
+
+            @Override
+            public void onUpdate(T oldObj, T newObj) {
+                changed(keys.apply(newObj));
+            }
+
+            @Override
+            public void onDelete(T obj, boolean deletedFinalStateUnknown) {
+                changed(keys.apply(obj));
+            }
+        };
+    }
+
+    private void changed(Set<String> keys) {
+        boolean schedule = false;
+        for (String key : keys) {
+            // components without subscribers are not tracked at all
+            if (subscriptions.containsKey(key) && changedKeys.add(key)) {
+                schedule = true;
+            }
+        }
+        if (schedule && !notifier.isShutdown()) {
+            // a burst of events is folded into one snapshot per component
+            notifier.execute(this::publishChanges);
+        }
+    }
+
+    private void publishChanges() {
+        for (String key : changedKeys) {
+            changedKeys.remove(key);
+            Set<Subscription> keySubscriptions = subscriptions.get(key);
+            if (keySubscriptions == null || keySubscriptions.isEmpty()) {
+                continue;
+            }
+            ComponentStatusSnapshot snapshot = snapshot(key);
+            keySubscriptions.forEach(subscription -> subscription.publish(snapshot));
+        }
+    }
+
+    private ComponentStatusSnapshot snapshot(String key) {
+        String[] parts = key.split("/", 2);
+        String componentKey = parts[1];
+        String name = componentKey.substring(componentKey.lastIndexOf('/') + 1);
+        KubernetesObject resource = resourceInformers.get(parts[0]).getIndexer()
+                .byIndex(COMPONENT_INDEX, componentKey).stream().findFirst().orElse(null);
+        if (resource == null) {
+            ComponentStatusSnapshot snapshot = new ComponentStatusSnapshot();
+            snapshot.setName(name);
+            return snapshot;
+        }
+        V1StatefulSet statefulSet = statefulSetInformer.getIndexer()
+                .byIndex(OWNER_INDEX, resource.getMetadata().getUid()).stream().findFirst().orElse(null);
+        List<V1Pod> pods = statefulSet != null
+                ? podInformer.getIndexer().byIndex(OWNER_INDEX, statefulSet.getMetadata().getUid())
+                : Collections.emptyList();
+        return KubernetesUtils.buildStatusSnapshot(name, statefulSet, pods);
+    }
+
+    private Set<String> keysOfStatefulSet(V1StatefulSet statefulSet) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String ownerUid : controllerUids(statefulSet)) {
+            resourceInformers.forEach((plural, informer) -> informer.getIndexer().byIndex(UID_INDEX, ownerUid)
+                    .forEach(resource -> componentKeys(resource.getMetadata())
+                            .forEach(componentKey -> keys.add(plural + "/" + componentKey))));
+        }
+        return keys;
+    }
+
+    private Set<String> keysOfPod(V1Pod pod) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String ownerUid : controllerUids(pod)) {
+            statefulSetInformer.getIndexer().byIndex(UID_INDEX, ownerUid)
+                    .forEach(statefulSet -> keys.addAll(keysOfStatefulSet(statefulSet)));
+        }
+        return keys;
+    }
+
+    static String key(String plural, String tenant, String namespace, String componentName) {
+        return plural + "/" + tenant + "/" + namespace + "/" + componentName;
+    }
+
+    static List<String> componentKeys(V1ObjectMeta metadata) {
+        Map<String, String> labels = metadata != null ? metadata.getLabels() : null;
+        if (labels == null || !labels.containsKey(TENANT_LABEL_CLAIM) || !labels.containsKey(NAMESPACE_LABEL_CLAIM)
+                || !labels.containsKey(COMPONENT_LABEL_CLAIM)) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(labels.get(TENANT_LABEL_CLAIM) + "/" + labels.get(NAMESPACE_LABEL_CLAIM)
+                + "/" + labels.get(COMPONENT_LABEL_CLAIM));
+    }
+
+    static List<String> controllerUids(KubernetesObject object) {
+        if (object.getMetadata() == null || object.getMetadata().getOwnerReferences() == null) {
+            return Collections.emptyList();
+        }
+        return object.getMetadata().getOwnerReferences().stream()
+                .filter(ownerReference -> ownerReference.getController() != null && ownerReference.getController())
+                .map(V1OwnerReference::getUid)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> uids(KubernetesObject object) {
+        return object.getMetadata() != null && object.getMetadata().getUid() != null
+                ? Collections.singletonList(object.getMetadata().getUid()) : Collections.emptyList();
+    }
+
+    /**
+     * The buffered status updates of one subscriber.
+     */
+    public class Subscription implements AutoCloseable {
+        @Getter
+        private final String key;
+        private final BlockingDeque<ComponentStatusSnapshot> buffer = new LinkedBlockingDeque<>();
+        private ComponentStatusSnapshot lastPublished;
+        @Getter
+        private volatile boolean closed;
+        @Getter
+        private long droppedUpdates;
+
+        Subscription(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Waits up to the timeout for the next status update, returns null when there is none.
+         */
+        public ComponentStatusSnapshot poll(long timeout, TimeUnit unit) throws InterruptedException {
+            return closed ? buffer.poll() : buffer.poll(timeout, unit);
+        }
+
+        synchronized void publish(ComponentStatusSnapshot snapshot) {
+            if (closed || snapshot.equals(lastPublished)) {
+                return;
+            }
+            lastPublished = snapshot;
+            if (buffer.size() >= bufferSize) {
+                buffer.pollFirst();
+                droppedUpdates++;
+            }
+            buffer.offerLast(snapshot);
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            Set<Subscription> keySubscriptions = subscriptions.get(key);
+            if (keySubscriptions != null && keySubscriptions.remove(this)) {
+                subscriptionCount.decrementAndGet();
+                subscriptions.computeIfPresent(key, (k, remaining) -> remaining.isEmpty() ? null : remaining);
+            }
+        }
+    }
+}
@@ -0,0 +1,364 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static io.functionmesh.compute.util.CommonUtil.CLUSTER_LABEL_CLAIM;
+import static io.functionmesh.compute.util.CommonUtil.COMPONENT_LABEL_CLAIM;
+import static io.functionmesh.compute.util.CommonUtil.NAMESPACE_LABEL_CLAIM;
+import static io.functionmesh.compute.util.CommonUtil.TENANT_LABEL_CLAIM;
+import io.functionmesh.compute.functions.models.V1alpha1Function;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionList;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpec;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecInput;
+import io.functionmesh.compute.models.TopicComponent;
+import io.functionmesh.compute.sinks.models.V1alpha1Sink;
+import io.functionmesh.compute.sinks.models.V1alpha1SinkList;
+import io.functionmesh.compute.sinks.models.V1alpha1SinkSpec;
+import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecInput;
+import io.functionmesh.compute.sources.models.V1alpha1Source;
+import io.functionmesh.compute.sources.models.V1alpha1SourceList;
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.apis.CustomObjectsApi;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.pulsar.common.naming.TopicName;
+
+/**
+ * Watches the custom resources of the job namespace and indexes them by the topics they read from and write to, so
+ * that the components using a topic are found without listing and parsing every resource. Topics are indexed by
+ * their fully qualified name, input topic patterns are matched against the queried topic.
+ */
+@Slf4j
+public class MeshTopicIndex implements AutoCloseable {
+    static final String TOPIC_INDEX = "topic";
+    static final String PATTERN_INDEX = "pattern";
+    private static final String API_GROUP = "compute.functionmesh.io";
+    private static final String API_VERSION = "v1alpha1";
+
+    private final SharedInformerFactory informerFactory;
+    private final Map<String, IndexedResource<? extends KubernetesObject>> resources = new LinkedHashMap<>();
+    // the input patterns of all components, with the number of components using each of them
+    private final ConcurrentMap<String, CompiledPattern> patterns = new ConcurrentHashMap<>();
+
+    public MeshTopicIndex(ApiClient apiClient, String jobNamespace, long resyncPeriodMillis) {
+        this.informerFactory = new SharedInformerFactory(apiClient);
+        CustomObjectsApi customObjectsApi = new CustomObjectsApi(apiClient);
+        addResourceInformer(customObjectsApi, jobNamespace, "functions", V1alpha1Function.class,
+                V1alpha1FunctionList.class, MeshTopicIndex::functionTopics, resyncPeriodMillis);
+        addResourceInformer(customObjectsApi, jobNamespace, "sinks", V1alpha1Sink.class,
+                V1alpha1SinkList.class, MeshTopicIndex::sinkTopics, resyncPeriodMillis);
+        addResourceInformer(customObjectsApi, jobNamespace, "sources", V1alpha1Source.class,
+                V1alpha1SourceList.class, MeshTopicIndex::sourceTopics, resyncPeriodMillis);
+    }
+
+    public void start() {
+        informerFactory.startAllRegisteredInformers();
+    }
+
+    public boolean isSynced() {
+        return resources.values().stream().allMatch(resource -> resource.informer.hasSynced());
+    }
+
+    /**
+     * Returns the components that read from or write to the topic, a partition of a partitioned topic is used by
+     * the components of the partitioned topic.
+     */
+    public List<TopicComponent> find(String topic) {
+        Set<String> topicNames = topicNames(topic);
+        List<String> matchingPatterns = patterns.entrySet().stream()
+                .filter(entry -> topicNames.stream().anyMatch(entry.getValue()::matches))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        List<TopicComponent> components = new ArrayList<>();
+        resources.forEach((plural, resource) -> resource.find(plural, topicNames, matchingPatterns, components));
+        return components;
+    }
+
+    @Override
+    public void close() {
+        informerFactory.stopAllRegisteredInformers();
+    }
+
+    private <T extends KubernetesObject, L extends KubernetesListObject> void addResourceInformer(
+            CustomObjectsApi customObjectsApi, String jobNamespace, String plural, Class<T> apiTypeClass,
+            Class<L> apiListTypeClass, Function<T, List<TopicUse>> topicUses, long resyncPeriodMillis) {
+        SharedIndexInformer<T> informer = informerFactory.sharedIndexInformerFor(
+                params -> customObjectsApi.listNamespacedCustomObjectCall(API_GROUP, API_VERSION, jobNamespace,
+                        plural, null, null, null, CLUSTER_LABEL_CLAIM, null, params.resourceVersion,
+                        params.timeoutSeconds, params.watch, null),
+                apiTypeClass, apiListTypeClass, resyncPeriodMillis);
+        Map<String, Function<T, List<String>>> indexers = new HashMap<>();
+        indexers.put(TOPIC_INDEX, resource -> indexKeys(topicUses.apply(resource), false));
+        indexers.put(PATTERN_INDEX, resource -> indexKeys(topicUses.apply(resource), true));
+        informer.addIndexers(indexers);
+        informer.addEventHandler(new ResourceEventHandler<T>() {
+            @Override
+            public void onAdd(T obj) {
+                indexKeys(topicUses.apply(obj), true).forEach(MeshTopicIndex.this::addPattern);
+            }
+
+            @Override
+            public void onUpdate(T oldObj, T newObj) {
+                indexKeys(topicUses.apply(newObj), true).forEach(MeshTopicIndex.this::addPattern);
+                indexKeys(topicUses.apply(oldObj), true).forEach(MeshTopicIndex.this::removePattern);
+            }
+
+            @Override
+            public void onDelete(T obj, boolean deletedFinalStateUnknown) {
+                indexKeys(topicUses.apply(obj), true).forEach(MeshTopicIndex.this::removePattern);
+            }
+        });
+        resources.put(plural, new IndexedResource<>(informer, topicUses));
+    }
+
+    private void addPattern(String pattern) {
+        patterns.compute(pattern, (key, compiled) -> compiled == null ? new CompiledPattern(pattern)
+                : compiled.retain());
+    }
+
+    private void removePattern(String pattern) {
+        patterns.computeIfPresent(pattern, (key, compiled) -> compiled.release());
+    }
+
+    private static List<String> indexKeys(List<TopicUse> topicUses, boolean patternKeys) {
+        return topicUses.stream()
+                .filter(topicUse -> (topicUse.role == TopicComponent.Role.INPUT_PATTERN) == patternKeys)
+                .map(topicUse -> topicUse.key)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the fully qualified name of the topic, and the name of its partitioned topic when it is a partition.
+     */
+    static Set<String> topicNames(String topic) {
+        Set<String> topicNames = new LinkedHashSet<>();
+        try {
+            TopicName topicName = TopicName.get(topic);
+            topicNames.add(topicName.toString());
+            if (topicName.isPartitioned()) {
+                topicNames.add(topicName.getPartitionedTopicName());
+            }
+        } catch (IllegalArgumentException e) {
+            topicNames.add(topic);
+        }
+        return topicNames;
+    }
+
+    static String normalize(String topic) {
+        try {
+            return TopicName.get(topic).toString();
+        } catch (IllegalArgumentException e) {
+            return topic;
+        }
+    }
+
+    static List<TopicUse> functionTopics(V1alpha1Function function) {
+        V1alpha1FunctionSpec spec = function.getSpec();
+        if (spec == null) {
+            return Collections.emptyList();
+        }
+        List<TopicUse> topicUses = new ArrayList<>();
+        V1alpha1FunctionSpecInput input = spec.getInput();
+        if (input != null) {
+            addInputs(topicUses, input.getTopics(), input.getTopicPattern(), input.getCustomSerdeSources(),
+                    input.getSourceSpecs());
+        }
+        if (spec.getOutput() != null) {
+            addTopic(topicUses, TopicComponent.Role.OUTPUT, spec.getOutput().getTopic());
+        }
+        addTopic(topicUses, TopicComponent.Role.LOG, spec.getLogTopic());
+        addTopic(topicUses, TopicComponent.Role.DEAD_LETTER, spec.getDeadLetterTopic());
+        return topicUses;
+    }
+
+    static List<TopicUse> sinkTopics(V1alpha1Sink sink) {
+        V1alpha1SinkSpec spec = sink.getSpec();
+        if (spec == null) {
+            return Collections.emptyList();
+        }
+        List<TopicUse> topicUses = new ArrayList<>();
+        V1alpha1SinkSpecInput input = spec.getInput();
+        if (input != null) {
+            addInputs(topicUses, input.getTopics(), input.getTopicPattern(), input.getCustomSerdeSources(),
+                    input.getSourceSpecs());
+        }
+        addTopic(topicUses, TopicComponent.Role.DEAD_LETTER, spec.getDeadLetterTopic());
+        return topicUses;
+    }
+
+    static List<TopicUse> sourceTopics(V1alpha1Source source) {
+        if (source.getSpec() == null || source.getSpec().getOutput() == null) {
+            return Collections.emptyList();
+        }
+        List<TopicUse> topicUses = new ArrayList<>();
+        addTopic(topicUses, TopicComponent.Role.OUTPUT, source.getSpec().getOutput().getTopic());
+        return topicUses;
+    }
+
+    private static void addInputs(List<TopicUse> topicUses, List<String> topics, String topicPattern,
+                                  Map<String, ?> customSerdeSources, Map<String, ?> sourceSpecs) {
+        // the inputs are spread over the topic list and the keys of the per topic settings
+        if (topics != null) {
+            topics.forEach(topic -> addTopic(topicUses, TopicComponent.Role.INPUT, topic));
+        }
+        if (customSerdeSources != null) {
+            customSerdeSources.keySet().forEach(topic -> addTopic(topicUses, TopicComponent.Role.INPUT, topic));
+        }
+        if (sourceSpecs != null) {
+            sourceSpecs.keySet().forEach(topic -> addTopic(topicUses, TopicComponent.Role.INPUT, topic));
+        }
+        if (StringUtils.isNotEmpty(topicPattern)) {
+            topicUses.add(new TopicUse(TopicComponent.Role.INPUT_PATTERN, topicPattern, topicPattern));
+        }
+    }
+
+    private static void addTopic(List<TopicUse> topicUses, TopicComponent.Role role, String topic) {
+        if (StringUtils.isNotEmpty(topic)) {
+            TopicUse topicUse = new TopicUse(role, topic, normalize(topic));
+            if (!topicUses.contains(topicUse)) {
+                topicUses.add(topicUse);
+            }
+        }
+    }
+
+    /**
+     * A topic or topic pattern used by a component. The key is the fully qualified name of a topic, or the pattern
+     * itself.
+     */
+    static final class TopicUse {
+        final TopicComponent.Role role;
+        final String topic;
+        final String key;
+
+        TopicUse(TopicComponent.Role role, String topic, String key) {
+            this.role = role;
+            this.topic = topic;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TopicUse)) {
+                return false;
+            }
+            TopicUse other = (TopicUse) o;
+            return role == other.role && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * role.hashCode() + key.hashCode();
+        }
+    }
+
+    private static final class CompiledPattern {
+        private final Pattern pattern;
+        private final int references;
+
+        CompiledPattern(String pattern) {
+            this(compile(pattern), 1);
+        }
+
+        private CompiledPattern(Pattern pattern, int references) {
+            this.pattern = pattern;
+            this.references = references;
+        }
+
+        CompiledPattern retain() {
+            return new CompiledPattern(pattern, references + 1);
+        }
+
+        CompiledPattern release() {
+            return references > 1 ? new CompiledPattern(pattern, references - 1) : null;
+        }
+
+        boolean matches(String topic) {
+            return pattern != null && pattern.matcher(topic).matches();
+        }
+
+        private static Pattern compile(String pattern) {
+            try {
+                return Pattern.compile(pattern);
+            } catch (PatternSyntaxException e) {
+                log.warn("Ignoring the invalid topic pattern {}", pattern);
+                return null;
+            }
+        }
+    }
+
+    private static final class IndexedResource<T extends KubernetesObject> {
+        private final SharedIndexInformer<T> informer;
+        private final Function<T, List<TopicUse>> topicUses;
+
+        IndexedResource(SharedIndexInformer<T> informer, Function<T, List<TopicUse>> topicUses) {
+            this.informer = informer;
+            this.topicUses = topicUses;
+        }
+
+        void find(String plural, Set<String> topicNames, List<String> matchingPatterns,
+                  List<TopicComponent> components) {
+            Set<T> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+            topicNames.forEach(topicName -> candidates.addAll(informer.getIndexer().byIndex(TOPIC_INDEX, topicName)));
+            matchingPatterns.forEach(pattern -> candidates.addAll(informer.getIndexer().byIndex(PATTERN_INDEX,
+                    pattern)));
+            for (T candidate : candidates) {
+                Map<String, String> labels = candidate.getMetadata() != null
+                        ? candidate.getMetadata().getLabels() : null;
+                if (labels == null) {
+                    continue;
+                }
+                for (TopicUse topicUse : topicUses.apply(candidate)) {
+                    boolean matches = topicUse.role == TopicComponent.Role.INPUT_PATTERN
+                            ? matchingPatterns.contains(topicUse.key) : topicNames.contains(topicUse.key);
+                    if (matches) {
+                        TopicComponent component = new TopicComponent();
+                        component.setType(plural);
+                        component.setTenant(labels.get(TENANT_LABEL_CLAIM));
+                        component.setNamespace(labels.get(NAMESPACE_LABEL_CLAIM));
+                        component.setName(labels.get(COMPONENT_LABEL_CLAIM));
+                        component.setRole(topicUse.role);
+                        component.setTopic(topicUse.topic);
+                        components.add(component);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalListener;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.Reader;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.common.naming.TopicName;
+
+/**
+ * Keeps the producers and readers used by trigger requests alive between calls, so that a trigger round trip
+ * only costs a publish and a read on already established connections. Idle entries are closed after the
+ * configured timeout.
+ */
+@Slf4j
+public class MeshTriggerManager implements AutoCloseable {
+    private static final String INPUT_MSG_ID_PROPERTY = "__pfn_input_msg_id__";
+    private static final String INPUT_TOPIC_PROPERTY = "__pfn_input_topic__";
+    // unmatched outputs kept per topic, covers replies that arrive before the send callback registers
+    private static final int MAX_RECENT_OUTPUTS = 64;
+
+    private final PulsarClient client;
+    private final LoadingCache<String, CompletableFuture<Producer<byte[]>>> producers;
+    private final LoadingCache<String, CompletableFuture<OutputTopicListener>> listeners;
+    private final ScheduledExecutorService cleanupExecutor;
+
+    public MeshTriggerManager(PulsarClient client, long idleTimeoutSeconds) {
+        this.client = client;
+        this.producers = CacheBuilder.newBuilder()
+                .expireAfterAccess(idleTimeoutSeconds, TimeUnit.SECONDS)
+                .removalListener((RemovalListener<String, CompletableFuture<Producer<byte[]>>>) notification ->
+                        notification.getValue().thenAccept(producer -> {
+                            log.info("closing idle trigger producer on topic {}", notification.getKey());
+                            producer.closeAsync();
+                        }))
+                .build(new CacheLoader<String, CompletableFuture<Producer<byte[]>>>() {
+                    @Override
+                    public CompletableFuture<Producer<byte[]>> load(String topic) {
+                        return client.newProducer(Schema.AUTO_PRODUCE_BYTES())
+                                .topic(topic)
+                                .createAsync();
+                    }
+                });
+        this.listeners = CacheBuilder.newBuilder()
+                .expireAfterAccess(idleTimeoutSeconds, TimeUnit.SECONDS)
+                .removalListener((RemovalListener<String, CompletableFuture<OutputTopicListener>>) notification ->
+                        notification.getValue().thenAccept(listener -> {
+                            log.info("closing idle trigger reader on topic {}", notification.getKey());
+                            listener.close();
+                        }))
+                .build(new CacheLoader<String, CompletableFuture<OutputTopicListener>>() {
+                    @Override
+                    public CompletableFuture<OutputTopicListener> load(String topic) {
+                        return client.newReader()
+                                .topic(topic)
+                                .startMessageId(MessageId.latest)
+                                .createAsync()
+                                .thenApply(reader -> {
+                                    OutputTopicListener listener = new OutputTopicListener(topic, reader);
+                                    listener.start();
+                                    return listener;
+                                });
+                    }
+                });
+        this.cleanupExecutor = Executors.newSingleThreadScheduledExecutor(
+                new DefaultThreadFactory("mesh-trigger-cleanup"));
+        // guava caches only expire entries on access, clean up periodically so idle topics release connections
+        this.cleanupExecutor.scheduleWithFixedDelay(() -> {
+            producers.cleanUp();
+            listeners.cleanUp();
+        }, idleTimeoutSeconds, idleTimeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Publishes the payload to the input topic and completes with the function output correlated to it.
+     * The future completes with null when no output topic is given.
+     */
+    public CompletableFuture<String> trigger(String inputTopic, String outputTopic, byte[] payload) {
+        String fullInputTopic = TopicName.get(inputTopic).toString();
+        CompletableFuture<OutputTopicListener> listenerFuture = outputTopic == null
+                ? CompletableFuture.completedFuture(null)
+                : getOrCreate(listeners, outputTopic);
+        // the reader must be positioned before the message is published, otherwise the output may be missed
+        return listenerFuture.thenCompose(listener -> getOrCreate(producers, fullInputTopic)
+                .thenCompose(producer -> producer.newMessage().value(payload).sendAsync())
+                .thenCompose(messageId -> listener == null
+                        ? CompletableFuture.completedFuture(null)
+                        : listener.await(fullInputTopic, messageId)));
+    }
+
+    private <V> CompletableFuture<V> getOrCreate(LoadingCache<String, CompletableFuture<V>> cache, String topic) {
+        CompletableFuture<V> future = cache.getUnchecked(topic);
+        if (future.isCompletedExceptionally()) {
+            cache.asMap().remove(topic, future);
+            future = cache.getUnchecked(topic);
+        }
+        CompletableFuture<V> current = future;
+        current.whenComplete((v, e) -> {
+            if (e != null) {
+                log.warn("failed to create trigger client on topic {}", topic, e);
+                cache.asMap().remove(topic, current);
+            }
+        });
+        return current;
+    }
+
+    @Override
+    public void close() {
+        cleanupExecutor.shutdownNow();
+        producers.invalidateAll();
+        listeners.invalidateAll();
+    }
+
+    private final class OutputTopicListener {
+        private final String topic;
+        private final Reader<byte[]> reader;
+        private final List<PendingTrigger> pending = new LinkedList<>();
+        private final Deque<Message<byte[]>> recentOutputs = new ArrayDeque<>();
+        private volatile boolean closed = false;
+
+        OutputTopicListener(String topic, Reader<byte[]> reader) {
+            this.topic = topic;
+            this.reader = reader;
+        }
+
+        void start() {
+            readNext();
+        }
+
+        private void readNext() {
+            if (closed) {
+                return;
+            }
+            reader.readNextAsync().whenComplete((message, e) -> {
+                if (e != null) {
+                    if (!closed) {
+                        log.warn("trigger reader on topic {} failed, it will be recreated on next use", topic, e);
+                        listeners.invalidate(topic);
+                    }
+                    return;
+                }
+                dispatch(message);
+                readNext();
+            });
+        }
+
+        private void dispatch(Message<byte[]> message) {
+            PendingTrigger matched = null;
+            synchronized (this) {
+                Iterator<PendingTrigger> iterator = pending.iterator();
+                while (iterator.hasNext()) {
+                    PendingTrigger trigger = iterator.next();
+                    if (trigger.result.isDone()) {
+                        iterator.remove();
+                    } else if (trigger.matches(message)) {
+                        iterator.remove();
+                        matched = trigger;
+                        break;
+                    }
+                }
+                if (matched == null) {
+                    recentOutputs.addLast(message);
+                    if (recentOutputs.size() > MAX_RECENT_OUTPUTS) {
+                        recentOutputs.removeFirst();
+                    }
+                }
+            }
+            if (matched != null) {
+                matched.result.complete(new String(message.getData()));
+            }
+        }
+
+        CompletableFuture<String> await(String inputTopic, MessageId messageId) {
+            PendingTrigger trigger = new PendingTrigger(inputTopic, messageId);
+            synchronized (this) {
+                for (Message<byte[]> message : recentOutputs) {
+                    if (trigger.matches(message)) {
+                        recentOutputs.remove(message);
+                        trigger.result.complete(new String(message.getData()));
+                        return trigger.result;
+                    }
+                }
+                pending.add(trigger);
+            }
+            return trigger.result;
+        }
+
+        void close() {
+            closed = true;
+            synchronized (this) {
+                pending.forEach(trigger -> trigger.result.cancel(false));
+                pending.clear();
+                recentOutputs.clear();
+            }
+            reader.closeAsync();
+        }
+    }
+
+    private static final class PendingTrigger {
+        private final String inputTopic;
+        private final MessageId messageId;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        PendingTrigger(String inputTopic, MessageId messageId) {
+            this.inputTopic = inputTopic;
+            this.messageId = messageId;
+        }
+
+        boolean matches(Message<byte[]> message) {
+            if (!message.hasProperty(INPUT_MSG_ID_PROPERTY) || !message.hasProperty(INPUT_TOPIC_PROPERTY)) {
+                return false;
+            }
+            try {
+                MessageId outputFor = MessageId.fromByteArray(
+                        Base64.getDecoder().decode(message.getProperty(INPUT_MSG_ID_PROPERTY)));
+                return messageId.equals(outputFor) && inputTopic.equals(message.getProperty(INPUT_TOPIC_PROPERTY));
+            } catch (Exception e) {
+                log.debug("skip output message with invalid input message id {}", message.getMessageId());
+                return false;
+            }
+        }
+    }
+}
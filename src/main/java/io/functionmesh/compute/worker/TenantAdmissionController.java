@@ -0,0 +1,274 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import org.apache.pulsar.common.util.RestException;
+
+/**
+ * Admits the REST requests of the tenants so that one tenant cannot use up the worker. Every tenant has a request
+ * rate and a number of requests in progress it may not exceed, and the requests that wait for one of the worker-wide
+ * slots are admitted in weighted fair order: a tenant with weight 2 gets twice the slots of a tenant with weight 1
+ * while both are waiting, however many requests each of them sends.
+ *
+ * <p>A request that is over the rate of its tenant, finds too many requests of its tenant waiting, or waits longer
+ * than the maximum queue time fails with {@link TooManyRequestsException}.
+ */
+public class TenantAdmissionController {
+    static final int TOO_MANY_REQUESTS = 429;
+
+    private final int maxConcurrentRequests;
+    private final int tenantMaxConcurrentRequests;
+    private final int tenantMaxQueuedRequests;
+    private final double tenantPermitsPerNano;
+    private final double tenantBurst;
+    private final long maxQueueTimeNanos;
+    private final Map<String, Integer> weights;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, TenantState> tenants = new HashMap<>();
+    private int inFlight;
+    private double virtualTime;
+
+    public TenantAdmissionController(int maxConcurrentRequests, int tenantMaxConcurrentRequests,
+                                     int tenantMaxQueuedRequests, double tenantRequestsPerSecond,
+                                     int tenantRequestBurst, long maxQueueTimeMs, Map<String, Integer> weights) {
+        this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+        this.tenantMaxConcurrentRequests = Math.max(1, tenantMaxConcurrentRequests);
+        this.tenantMaxQueuedRequests = Math.max(0, tenantMaxQueuedRequests);
+        this.tenantPermitsPerNano = Math.max(0, tenantRequestsPerSecond) / TimeUnit.SECONDS.toNanos(1);
+        this.tenantBurst = Math.max(1, tenantRequestBurst);
+        this.maxQueueTimeNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxQueueTimeMs));
+        this.weights = weights == null ? Collections.emptyMap() : weights;
+    }
+
+    /**
+     * Waits until the request of the tenant may run. The returned permit must be closed when the request is done.
+     */
+    public Permit admit(String tenant) throws TooManyRequestsException {
+        long startNanos = System.nanoTime();
+        lock.lock();
+        try {
+            TenantState state = tenants.computeIfAbsent(tenant, this::newTenantState);
+            if (tenantPermitsPerNano > 0) {
+                state.refill(startNanos);
+                if (state.tokens < 1) {
+                    long retryAfterNanos = (long) Math.ceil((1 - state.tokens) / tenantPermitsPerNano);
+                    throw new TooManyRequestsException("Too many requests of tenant " + tenant,
+                            TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos) + 1);
+                }
+                state.tokens -= 1;
+            }
+            double start = Math.max(virtualTime, state.lastFinish);
+            if (inFlight < maxConcurrentRequests && state.inFlight < tenantMaxConcurrentRequests
+                    && state.waiters.isEmpty() && next() == null) {
+                state.lastFinish = start + 1.0 / state.weight;
+                virtualTime = start;
+                return grant(state);
+            }
+            if (state.waiters.size() >= tenantMaxQueuedRequests) {
+                throw new TooManyRequestsException("Too many queued requests of tenant " + tenant, 1);
+            }
+            Waiter waiter = new Waiter(start, start + 1.0 / state.weight);
+            state.lastFinish = waiter.finish;
+            state.waiters.addLast(waiter);
+            long deadline = startNanos + maxQueueTimeNanos;
+            try {
+                while (true) {
+                    if (inFlight < maxConcurrentRequests && next() == waiter) {
+                        state.waiters.pollFirst();
+                        virtualTime = Math.max(virtualTime, waiter.start);
+                        Permit permit = grant(state);
+                        changed.signalAll();
+                        return permit;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        state.waiters.remove(waiter);
+                        changed.signalAll();
+                        throw new TooManyRequestsException("Timed out waiting to admit a request of tenant "
+                                + tenant, 1);
+                    }
+                    changed.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                state.waiters.remove(waiter);
+                changed.signalAll();
+                Thread.currentThread().interrupt();
+                throw new TooManyRequestsException("Interrupted while waiting to admit a request of tenant "
+                        + tenant, 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight(String tenant) {
+        lock.lock();
+        try {
+            TenantState state = tenants.get(tenant);
+            return state == null ? 0 : state.inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued(String tenant) {
+        lock.lock();
+        try {
+            TenantState state = tenants.get(tenant);
+            return state == null ? 0 : state.waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TenantState newTenantState(String tenant) {
+        Integer weight = weights.get(tenant);
+        return new TenantState(weight == null || weight < 1 ? 1 : weight, tenantBurst, System.nanoTime());
+    }
+
+    /**
+     * Returns the waiter with the earliest finish tag among the tenants below their concurrency limit.
+     */
+    private Waiter next() {
+        Waiter next = null;
+        for (TenantState state : tenants.values()) {
+            Waiter head = state.waiters.peekFirst();
+            if (head != null && state.inFlight < tenantMaxConcurrentRequests
+                    && (next == null || head.finish < next.finish)) {
+                next = head;
+            }
+        }
+        return next;
+    }
+
+    private Permit grant(TenantState state) {
+        inFlight++;
+        state.inFlight++;
+        return new Permit() {
+            private boolean closed;
+
+            @Override
+            public void close() {
+                lock.lock();
+                try {
+                    if (closed) {
+                        return;
+                    }
+                    closed = true;
+                    inFlight--;
+                    state.inFlight--;
+                    pruneIdle();
+                    changed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        };
+    }
+
+    private void pruneIdle() {
+        long now = System.nanoTime();
+        Iterator<TenantState> it = tenants.values().iterator();
+        while (it.hasNext()) {
+            TenantState state = it.next();
+            if (state.inFlight == 0 && state.waiters.isEmpty() && state.lastFinish <= virtualTime) {
+                state.refill(now);
+                if (tenantPermitsPerNano <= 0 || state.tokens >= tenantBurst) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * The admission of a request, closing it lets the next request in.
+     */
+    public interface Permit extends AutoCloseable {
+        Permit NONE = () -> {
+        };
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Fails a request with 429 and the seconds after which the client may retry in the Retry-After header.
+     */
+    public static class TooManyRequestsException extends RestException {
+        private final long retryAfterSeconds;
+
+        public TooManyRequestsException(String message, long retryAfterSeconds) {
+            super(TOO_MANY_REQUESTS, message);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        @Override
+        public Response getResponse() {
+            return Response.fromResponse(super.getResponse())
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                    .build();
+        }
+    }
+
+    private class TenantState {
+        private final int weight;
+        private final Deque<Waiter> waiters = new ArrayDeque<>();
+        private int inFlight;
+        private double lastFinish;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TenantState(int weight, double tokens, long now) {
+            this.weight = weight;
+            this.tokens = tokens;
+            this.lastRefillNanos = now;
+        }
+
+        void refill(long now) {
+            tokens = Math.min(tenantBurst, tokens + (now - lastRefillNanos) * tenantPermitsPerNano);
+            lastRefillNanos = now;
+        }
+    }
+
+    private static class Waiter {
+        private final double start;
+        private final double finish;
+
+        Waiter(double start, double finish) {
+            this.start = start;
+            this.finish = finish;
+        }
+    }
+}
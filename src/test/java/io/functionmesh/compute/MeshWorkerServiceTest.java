@@ -0,0 +1,37 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import io.functionmesh.compute.models.MeshWorkerServiceCustomConfig;
+import org.junit.Test;
+
+public class MeshWorkerServiceTest {
+    @Test
+    public void testInformerEnabled() {
+        MeshWorkerServiceCustomConfig config = new MeshWorkerServiceCustomConfig();
+        assertFalse(MeshWorkerService.isInformerEnabled(config));
+        assertTrue(MeshWorkerService.isInformerEnabled(config.setEnableTopicIndex(true)));
+        assertTrue(MeshWorkerService.isInformerEnabled(new MeshWorkerServiceCustomConfig().setEnablePodCache(true)));
+        assertTrue(MeshWorkerService.isInformerEnabled(
+                new MeshWorkerServiceCustomConfig().setEnableStatefulSetCache(true)));
+        assertTrue(MeshWorkerService.isInformerEnabled(new MeshWorkerServiceCustomConfig().setEnableStatusWatch(true)));
+    }
+}
@@ -23,12 +23,16 @@ import static io.functionmesh.compute.util.FunctionsUtil.MEMORY_KEY;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import io.functionmesh.compute.MeshWorkerService;
 import io.functionmesh.compute.functions.models.V1alpha1Function;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionList;
@@ -40,11 +44,14 @@ import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPod;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodEnv;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodResources;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionStatus;
+import io.functionmesh.compute.models.ComponentStatusSnapshot;
 import io.functionmesh.compute.models.CustomRuntimeOptions;
 import io.functionmesh.compute.models.MeshWorkerServiceCustomConfig;
 import io.functionmesh.compute.util.CommonUtil;
 import io.functionmesh.compute.util.FunctionsUtil;
 import io.functionmesh.compute.util.PackageManagementServiceUtil;
+import io.functionmesh.compute.worker.KubernetesRetryPolicy;
+import io.functionmesh.compute.worker.MeshTriggerManager;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.V1ContainerStatus;
 import io.kubernetes.client.openapi.models.V1ObjectMeta;
@@ -57,6 +64,7 @@ import io.kubernetes.client.openapi.models.V1StatefulSetStatus;
 import io.kubernetes.client.util.generic.GenericKubernetesApi;
 import io.kubernetes.client.util.generic.KubernetesApiResponse;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -64,6 +72,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import javax.ws.rs.core.Response;
 import org.apache.distributedlog.api.namespace.Namespace;
 import org.apache.pulsar.client.admin.Namespaces;
 import org.apache.pulsar.client.admin.PulsarAdmin;
@@ -72,6 +81,7 @@ import org.apache.pulsar.client.api.SubscriptionInitialPosition;
 import org.apache.pulsar.common.functions.ConsumerConfig;
 import org.apache.pulsar.common.functions.FunctionConfig;
 import org.apache.pulsar.common.functions.Resources;
+import org.apache.pulsar.common.policies.data.FunctionInstanceStatsDataImpl;
 import org.apache.pulsar.common.policies.data.FunctionStatsImpl;
 import org.apache.pulsar.common.policies.data.FunctionStatus;
 import org.apache.pulsar.common.policies.data.TenantInfo;
@@ -175,6 +185,7 @@ public class FunctionImplV2Test {
         when(mockedKubernetesApi.get(anyString(), anyString())).thenReturn(mockedKubernetesApiResponse);
         when(mockedKubernetesApi.create(any())).thenReturn(mockedKubernetesApiResponse);
         when(mockedKubernetesApi.update(any())).thenReturn(mockedKubernetesApiResponse);
+        when(mockedKubernetesApi.delete(anyString(), anyString())).thenReturn(mockedKubernetesApiResponse);
         when(mockedKubernetesApiResponse.isSuccess()).thenReturn(true);
 
         mockStaticMethod();
@@ -240,6 +251,8 @@ public class FunctionImplV2Test {
                 .toReturn("test.jar");
         PowerMockito.stub(PowerMockito.method(PackageManagementServiceUtil.class, "deletePackageFromPackageService"))
                 .toReturn(null);
+        PowerMockito.stub(PowerMockito.method(PackageManagementServiceUtil.class,
+                "deletePackageFromPackageServiceAsync")).toReturn(CompletableFuture.completedFuture(null));
         PowerMockito.stub(PowerMockito.method(CommonUtil.class, "downloadPackageFile")).toReturn(null);
         PowerMockito.stub(PowerMockito.method(CommonUtil.class, "getFilenameFromPackageMetadata"))
                 .toReturn("test.jar");
@@ -265,6 +278,53 @@ public class FunctionImplV2Test {
         assertEquals(functionStats.instances.size(), 1);
     }
 
+    @Test
+    public void getFunctionsInstanceStatsTest() throws Exception {
+        V1alpha1Function functionResource = mock(V1alpha1Function.class);
+        when(functionResource.getStatus()).thenReturn(mock(V1alpha1FunctionStatus.class));
+        when(functionResource.getMetadata()).thenReturn(mock(V1ObjectMeta.class));
+        when(functionResource.getSpec()).thenReturn(mock(V1alpha1FunctionSpec.class));
+        when(mockedKubernetesApiResponse.getObject()).thenReturn(functionResource);
+        V1Pod pod = createPod();
+        when(coreV1Api.readNamespacedPod(function + "-0", kubernetesNamespace, null, null, null)).thenReturn(pod);
+        doReturn(Collections.singleton(CompletableFuture.completedFuture(
+                InstanceCommunication.MetricsData.newBuilder().build()))).when(resource)
+                .fetchStatsFromGRPC(any(), any(), any(), any(), any(), any(), any());
+
+        FunctionInstanceStatsDataImpl instanceStats =
+                this.resource.getFunctionsInstanceStats(tenant, namespace, function, "0", null, null, null);
+        Assert.assertNotNull(instanceStats);
+        verify(resource).fetchStatsFromGRPC(eq(Collections.singletonList(pod)), any(), any(), any(), any(), any(),
+                any());
+        verify(resource, never()).getFunctionPods(any(), any(), any(), any());
+
+        try {
+            this.resource.getFunctionsInstanceStats(tenant, namespace, function, "1", null, null, null);
+            Assert.fail("instance id out of the replicas range should be rejected");
+        } catch (RestException e) {
+            assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), e.getResponse().getStatus());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void updateResourceConflictTest() {
+        when(meshWorkerService.getKubernetesRetryPolicy()).thenReturn(new KubernetesRetryPolicy(3, 1, 1, 10000));
+        KubernetesApiResponse<V1alpha1Function> conflict = mock(KubernetesApiResponse.class);
+        when(conflict.getHttpStatusCode()).thenReturn(409);
+        when(mockedKubernetesApi.update(any())).thenReturn(conflict, mockedKubernetesApiResponse);
+        V1alpha1Function current = new V1alpha1Function();
+        current.setMetadata(new V1ObjectMeta().namespace(kubernetesNamespace).name(function).resourceVersion("2"));
+        when(mockedKubernetesApiResponse.getObject()).thenReturn(current);
+
+        V1alpha1Function update = new V1alpha1Function();
+        update.setMetadata(new V1ObjectMeta().namespace(kubernetesNamespace).name(function).resourceVersion("1"));
+        assertEquals(current, this.resource.updateResource(update));
+        assertEquals("2", update.getMetadata().getResourceVersion());
+        verify(mockedKubernetesApi, times(2)).update(update);
+        verify(mockedKubernetesApi).get(kubernetesNamespace, function);
+    }
+
     @Test
     public void registerFunctionTest() {
         FunctionConfig functionConfig = mockFunctionConfig();
@@ -314,6 +374,58 @@ public class FunctionImplV2Test {
         }
     }
 
+    @Test
+    public void deregisterFunctionKeepsSecretsWhenDeleteFailsTest() throws Exception {
+        when(mockedKubernetesApiResponse.isSuccess()).thenReturn(false);
+        when(mockedKubernetesApiResponse.getHttpStatusCode()).thenReturn(403);
+        when(meshWorkerService.getWorkerConfig().getBrokerClientAuthenticationPlugin()).thenReturn("auth-enable");
+        when(meshWorkerService.getWorkerConfig().getBrokerClientAuthenticationParameters()).thenReturn(
+                "auth-param-test");
+
+        try {
+            this.resource.deregisterFunction(tenant, namespace, function, null, null);
+            Assert.fail("Expected the failed delete of the resource to fail the deregister");
+        } catch (RestException e) {
+            assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), e.getResponse().getStatus());
+        }
+        // the secrets of a component that is still running are kept
+        verify(resource, never()).executeCallAsync(any());
+    }
+
+    @Test
+    public void deregisterNamespaceTest() throws Exception {
+        List<String> functions = Arrays.asList("function-a", "function-b");
+        doReturn(functions).when(resource).deleteComponents(any());
+
+        assertEquals(functions, this.resource.deregisterNamespace(tenant, namespace, null, null));
+        // all resources are deleted with a single deletecollection call, which also names them
+        verify(resource).deleteComponents(any());
+        verify(resource, never()).listComponentNames(any());
+    }
+
+    @Test
+    public void buildNamespaceStatusEntryTest() {
+        JsonElement resource = new Gson().fromJson("{\"metadata\":{\"labels\":{\"pulsar-component\":\""
+                + function + "\"}},\"spec\":{\"replicas\":2},\"status\":{\"selector\":\"component=function\"}}",
+                JsonElement.class);
+        V1Pod functionPod = createPod();
+        when(functionPod.getMetadata()).thenReturn(new V1ObjectMeta().name(function + "-0")
+                .labels(Collections.singletonMap("component", "function")));
+        V1Pod sinkPod = createPod();
+        when(sinkPod.getMetadata()).thenReturn(new V1ObjectMeta().name(function + "-0")
+                .labels(Collections.singletonMap("component", "sink")));
+
+        ComponentStatusSnapshot snapshot = MeshComponentImpl.buildNamespaceStatusEntry(resource,
+                Collections.singletonMap(function, Arrays.asList(functionPod, sinkPod)));
+        assertEquals(function, snapshot.getName());
+        assertEquals(2, snapshot.getReplicas());
+        // the pod of the sink with the same name is not counted
+        assertEquals(1, snapshot.getReadyReplicas());
+        assertEquals(1, snapshot.getInstances().size());
+        Assert.assertNull(MeshComponentImpl.buildNamespaceStatusEntry(new Gson().fromJson("{}", JsonElement.class),
+                Collections.emptyMap()));
+    }
+
     @Test
     public void updateFunctionTest() {
         FunctionConfig functionConfig = mockFunctionConfig();
@@ -386,6 +498,27 @@ public class FunctionImplV2Test {
         assertEquals(1, functionStatus.instances.size());
     }
 
+    @Test
+    public void triggerFunctionTest() {
+        MeshTriggerManager triggerManager = mock(MeshTriggerManager.class);
+        when(meshWorkerService.getTriggerManager()).thenReturn(triggerManager);
+        when(meshWorkerService.getMeshWorkerServiceCustomConfig().getTriggerTimeoutMs()).thenReturn(1000L);
+        FunctionConfig functionConfig = mockFunctionConfig();
+        doReturn(functionConfig).when(resource).getFunctionInfo(any(), any(), any(), any(), any());
+        when(triggerManager.trigger(inputTopic, outputTopic, "hello".getBytes()))
+                .thenReturn(CompletableFuture.completedFuture("hello!"));
+
+        String result = this.resource.triggerFunction(tenant, namespace, function, "hello", null, null, null, null);
+        assertEquals("hello!", result);
+
+        try {
+            this.resource.triggerFunction(tenant, namespace, function, "hello", null, "unknown-topic", null, null);
+            Assert.fail("trigger with an unidentified topic should fail");
+        } catch (RestException e) {
+            assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), e.getResponse().getStatus());
+        }
+    }
+
     private FunctionConfig mockFunctionConfig() {
         FunctionConfig functionConfig = mock(FunctionConfig.class);
 
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.rest.resources;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import io.functionmesh.compute.models.VersionedComponentConfig;
+import io.functionmesh.compute.util.PackageStreamingOutput;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import org.junit.Test;
+
+public class ComponentsResourceTest {
+    @Test
+    public void testParseRange() {
+        assertNull(ComponentsResource.parseRange(null, 10));
+        assertNull(ComponentsResource.parseRange("items=0-1", 10));
+        assertNull(ComponentsResource.parseRange("bytes=0-1,3-4", 10));
+        assertArrayEquals(new long[]{2, 5}, ComponentsResource.parseRange("bytes=2-5", 10));
+        assertArrayEquals(new long[]{2, 9}, ComponentsResource.parseRange("bytes=2-", 10));
+        assertArrayEquals(new long[]{7, 9}, ComponentsResource.parseRange("bytes=-3", 10));
+        assertArrayEquals(new long[]{0, 9}, ComponentsResource.parseRange("bytes=0-100", 10));
+        assertArrayEquals(new long[0], ComponentsResource.parseRange("bytes=10-", 10));
+        assertArrayEquals(new long[0], ComponentsResource.parseRange("bytes=5-2", 10));
+    }
+
+    @Test
+    public void testRangedResponse() throws Exception {
+        File file = File.createTempFile("package", ".jar");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "0123456789".getBytes(StandardCharsets.UTF_8));
+
+        Response response = ComponentsResource.rangedResponse(
+                new PackageStreamingOutput(file, "package.jar", false), "bytes=3-6");
+        assertEquals(Response.Status.PARTIAL_CONTENT.getStatusCode(), response.getStatus());
+        assertEquals("bytes 3-6/10", response.getHeaderString(ComponentsResource.CONTENT_RANGE));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((PackageStreamingOutput) response.getEntity()).write(output);
+        assertEquals("3456", new String(output.toByteArray(), StandardCharsets.UTF_8));
+
+        response = ComponentsResource.rangedResponse(new PackageStreamingOutput(file, "package.jar", false), null);
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals("bytes", response.getHeaderString(ComponentsResource.ACCEPT_RANGES));
+
+        response = ComponentsResource.rangedResponse(new PackageStreamingOutput(file, "package.jar", true),
+                "bytes=20-");
+        assertEquals(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE.getStatusCode(), response.getStatus());
+        assertEquals("bytes */10", response.getHeaderString(ComponentsResource.CONTENT_RANGE));
+        // a temporary package is removed once the response no longer needs it
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testConditionalResponse() {
+        assertTrue(ComponentsResource.matchesEntityTag("\"1\", W/\"42\"", "\"42\""));
+        assertTrue(ComponentsResource.matchesEntityTag("*", "\"42\""));
+        assertFalse(ComponentsResource.matchesEntityTag("\"41\"", "\"42\""));
+        assertFalse(ComponentsResource.matchesEntityTag(null, "\"42\""));
+
+        VersionedComponentConfig versionedConfig = new VersionedComponentConfig();
+        versionedConfig.setConfig("config");
+        versionedConfig.setResourceVersion("42");
+        Response response = ComponentsResource.conditionalResponse(versionedConfig, null);
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals("\"42\"", response.getHeaderString(HttpHeaders.ETAG));
+        assertEquals("config", response.getEntity());
+
+        response = ComponentsResource.conditionalResponse(versionedConfig, "\"42\"");
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+        assertEquals("\"42\"", response.getHeaderString(HttpHeaders.ETAG));
+        assertNull(response.getEntity());
+    }
+
+    @Test
+    public void testPackageComponentType() {
+        assertEquals("functions", ComponentsResource.packageComponentType("function://public/default/f@1"));
+        assertEquals("sinks", ComponentsResource.packageComponentType("sink://public/default/s@1"));
+        assertEquals("sources", ComponentsResource.packageComponentType("source://public/default/s@1"));
+        assertEquals("functions", ComponentsResource.packageComponentType("http://example.com/f.jar"));
+        assertEquals("functions", ComponentsResource.packageComponentType(null));
+    }
+}
@@ -21,6 +21,11 @@ package io.functionmesh.compute.util;
 import static io.functionmesh.compute.util.CommonUtil.DEFAULT_FUNCTION_DOWNLOAD_DIRECTORY;
 import static io.functionmesh.compute.util.CommonUtil.DEFAULT_FUNCTION_EXECUTABLE;
 import static org.junit.Assert.assertEquals;
+import io.functionmesh.compute.models.MeshWorkerServiceCustomConfig;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.pulsar.functions.runtime.kubernetes.KubernetesRuntimeFactoryConfig;
 import org.junit.Test;
 
 public class CommonUtilTest {
@@ -56,4 +61,31 @@ public class CommonUtilTest {
         path = CommonUtil.buildDownloadPath(downloadDirectory, archivePath);
         assertEquals(DEFAULT_FUNCTION_DOWNLOAD_DIRECTORY + "a.jar", path);
     }
+
+    @Test
+    public void testBuildCustomLabels() {
+        KubernetesRuntimeFactoryConfig factoryConfig = new KubernetesRuntimeFactoryConfig();
+        Map<String, String> factoryLabels = new HashMap<>();
+        factoryLabels.put("team", "factory");
+        factoryLabels.put("region", "us");
+        factoryConfig.setCustomLabels(factoryLabels);
+        MeshWorkerServiceCustomConfig customConfig = new MeshWorkerServiceCustomConfig();
+        customConfig.setLabels(Collections.singletonMap("team", "mesh"));
+        customConfig.setSinkLabels(Collections.singletonMap("team", "sink"));
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("team", "sink");
+        expected.put("region", "us");
+        assertEquals(expected, CommonUtil.buildCustomLabels(factoryConfig, customConfig, "Sink"));
+        expected.put("team", "mesh");
+        assertEquals(expected, CommonUtil.buildCustomLabels(factoryConfig, customConfig, "Function"));
+        assertEquals(Collections.emptyMap(), CommonUtil.buildCustomLabels(null, null, "Source"));
+
+        Map<String, String> claims = CommonUtil.getCustomLabelClaims("test-pulsar", "public", "default",
+                "es-sink", null, "Sink");
+        assertEquals(4, claims.size());
+        assertEquals("es-sink", claims.get(CommonUtil.COMPONENT_LABEL_CLAIM));
+        assertEquals("pulsar-cluster=test-pulsar,pulsar-tenant=public,pulsar-namespace=default",
+                CommonUtil.getCustomLabelClaimsSelector("test-pulsar", "public", "default"));
+    }
 }
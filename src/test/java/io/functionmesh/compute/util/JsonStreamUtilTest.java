@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import com.google.gson.JsonElement;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionList;
+import io.kubernetes.client.openapi.JSON;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.Test;
+
+public class JsonStreamUtilTest {
+    private static final String LIST_BODY = "{\"apiVersion\":\"compute.functionmesh.io/v1alpha1\","
+            + "\"items\":[{\"metadata\":{\"name\":\"a\",\"labels\":{\"compute.functionmesh.io/name\":\"fn-a\"}},"
+            + "\"spec\":{\"replicas\":1,\"input\":{\"topics\":[\"t1\",\"t2\"]}}},"
+            + "{\"metadata\":{\"name\":\"b\"},\"spec\":{}},"
+            + "{\"spec\":{\"maxReplicas\":2},\"metadata\":{\"labels\":{\"compute.functionmesh.io/name\":\"fn-c\"}}}],"
+            + "\"kind\":\"FunctionList\",\"metadata\":{\"continue\":\"\"}}";
+
+    @Test
+    public void testDecode() throws Exception {
+        V1alpha1FunctionList list = JsonStreamUtil.decode(new JSON().getGson(), new StringReader(LIST_BODY),
+                V1alpha1FunctionList.class);
+        assertEquals(3, list.getItems().size());
+        assertEquals("a", list.getItems().get(0).getMetadata().getName());
+    }
+
+    @Test
+    public void testDecodeItems() throws Exception {
+        List<JsonElement> labels = JsonStreamUtil.decodeItems(new StringReader(LIST_BODY), "metadata", "labels");
+        assertEquals(3, labels.size());
+        assertEquals("fn-a", labels.get(0).getAsJsonObject().get("compute.functionmesh.io/name").getAsString());
+        assertNull(labels.get(1));
+        assertEquals("fn-c", labels.get(2).getAsJsonObject().get("compute.functionmesh.io/name").getAsString());
+
+        List<JsonElement> topics = JsonStreamUtil.decodeItems(new StringReader(LIST_BODY), "spec", "input");
+        assertEquals(2, topics.get(0).getAsJsonObject().getAsJsonArray("topics").size());
+
+        assertTrue(JsonStreamUtil.decodeItems(new StringReader("{\"items\":[]}"), "metadata").isEmpty());
+        assertTrue(JsonStreamUtil.decodeItems(new StringReader("[]"), "metadata").isEmpty());
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Test;
+
+public class ObjectNameCacheTest {
+    @Test
+    public void testObjectNameMatchesHashedName() {
+        String expected = "word_count.v2".toLowerCase().replaceAll("[^a-z0-9-\\.]", "-") + "-"
+                + DigestUtils.sha1Hex(String.format("%s-%s-%s-%s", "test-pulsar", "public", "default",
+                "Word_Count.v2")).substring(0, 8);
+        assertEquals(expected, ObjectNameCache.computeObjectName("test-pulsar", "public", "default", "Word_Count.v2"));
+        assertEquals(expected, new ObjectNameCache(10).get("test-pulsar", "public", "default", "Word_Count.v2"));
+        assertEquals(expected, CommonUtil.createObjectName("test-pulsar", "public", "default", "Word_Count.v2"));
+    }
+
+    @Test
+    public void testNamesAreMemoizedPerKey() {
+        ObjectNameCache cache = new ObjectNameCache(10);
+        String name = cache.get("test-pulsar", "public", "default", "word-count");
+        assertSame(name, cache.get("test-pulsar", "public", "default", "word-count"));
+        assertNotEquals(name, cache.get("test-pulsar", "public", "other", "word-count"));
+        assertNotEquals(name, cache.get(null, "public", "default", "word-count"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        ObjectNameCache cache = new ObjectNameCache(4);
+        for (int i = 0; i < 100; i++) {
+            cache.get("test-pulsar", "public", "default", "function-" + i);
+        }
+        assertEquals(4, cache.size());
+        assertEquals(ObjectNameCache.computeObjectName("test-pulsar", "public", "default", "function-0"),
+                cache.get("test-pulsar", "public", "default", "function-0"));
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class SingleFlightTest {
+    @Test
+    public void testConcurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            computations.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return result;
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            computations.incrementAndGet();
+            return new Object();
+        }));
+        // the follower is blocked on the in-flight computation until it is released
+        Thread.sleep(100);
+        release.countDown();
+        assertSame(result, leader.get(10, TimeUnit.SECONDS));
+        assertSame(result, follower.get(10, TimeUnit.SECONDS));
+        assertEquals(1, computations.get());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    public void testNothingIsCachedAfterCompletion() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        assertEquals(1, (int) singleFlight.execute("key", computations::incrementAndGet));
+        assertEquals(2, (int) singleFlight.execute("key", computations::incrementAndGet));
+        assertEquals(3, (int) singleFlight.execute("other", computations::incrementAndGet));
+    }
+
+    @Test
+    public void testFailureIsRethrownAndNotKept() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        try {
+            singleFlight.execute("key", () -> {
+                throw new IllegalArgumentException("failed");
+            });
+            fail("the failure of the computation should be thrown");
+        } catch (IllegalArgumentException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertEquals(0, singleFlight.getInFlightCount());
+        assertEquals(1, (int) singleFlight.execute("key", () -> 1));
+    }
+}
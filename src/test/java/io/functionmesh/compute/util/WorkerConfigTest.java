@@ -20,11 +20,13 @@ package io.functionmesh.compute.util;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodImagePullSecrets;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodInitContainers;
 import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecPodVolumes;
 import io.functionmesh.compute.models.MeshWorkerServiceCustomConfig;
+import io.functionmesh.compute.models.PodPolicyTemplate;
 import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodInitContainers;
 import io.functionmesh.compute.sinks.models.V1alpha1SinkSpecPodVolumes;
 import io.functionmesh.compute.sources.models.V1alpha1SourceSpecPodInitContainers;
@@ -144,4 +146,31 @@ public class WorkerConfigTest {
         assertEquals(2, resources.getCpu(), 0.1);
         assertEquals(17179869184L, resources.getRam().longValue());
     }
+
+    @Test
+    public void testPodPolicyTemplate() throws Exception {
+        WorkerConfig workerConfig = WorkerConfig.load(getClass().getClassLoader().getResource("test_worker_config.yaml")
+                .toURI().getPath());
+        MeshWorkerServiceCustomConfig customConfig = RuntimeUtils.getRuntimeFunctionConfig(
+                workerConfig.getFunctionsWorkerServiceCustomConfigs(), MeshWorkerServiceCustomConfig.class);
+
+        PodPolicyTemplate<V1alpha1FunctionSpecPodVolumes, ?, V1alpha1FunctionSpecPodImagePullSecrets,
+                V1alpha1FunctionSpecPodInitContainers> template = PodPolicyTemplate.forFunction(customConfig);
+        List<V1alpha1FunctionSpecPodVolumes> volumes = template.copyVolumes();
+        assertEquals(customConfig.asV1alpha1FunctionSpecPodVolumesList(), volumes);
+        assertEquals(customConfig.asV1alpha1FunctionSpecPodImagePullSecrets(), template.copyImagePullSecrets());
+        assertEquals(customConfig.asV1alpha1FunctionSpecPodInitContainers(), template.copyInitContainers());
+
+        // every request gets its own list
+        volumes.clear();
+        assertNotSame(volumes, template.copyVolumes());
+        assertEquals(1, template.copyVolumes().size());
+        // and its own elements
+        assertNotSame(template.copyVolumes().get(0), template.copyVolumes().get(0));
+        assertEquals(template.copyVolumes().get(0), template.copyVolumes().get(0));
+
+        assertEquals(1, PodPolicyTemplate.forSink(customConfig).copyVolumes().size());
+        assertEquals(1, PodPolicyTemplate.forSource(customConfig).copyInitContainers().size());
+        assertNull(PodPolicyTemplate.forSource(new MeshWorkerServiceCustomConfig()).copyImagePullSecrets());
+    }
 }
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.pulsar.common.functions.FunctionConfig;
+import org.junit.Test;
+
+public class ComponentConfigCacheTest {
+    @Test
+    public void testConvertOncePerResourceVersion() {
+        ComponentConfigCache cache = new ComponentConfigCache(10);
+        AtomicInteger conversions = new AtomicInteger();
+        V1ConfigMap resource = new V1ConfigMap();
+        resource.setMetadata(new V1ObjectMeta());
+        resource.getMetadata().setUid("uid");
+        resource.getMetadata().setResourceVersion("1");
+
+        Object config = cache.get(resource, () -> "config-" + conversions.incrementAndGet());
+        assertEquals(config, cache.get(resource, () -> "config-" + conversions.incrementAndGet()));
+        assertEquals(1, conversions.get());
+
+        resource.getMetadata().setResourceVersion("2");
+        assertEquals("config-2", cache.get(resource, () -> "config-" + conversions.incrementAndGet()));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEveryCallerGetsItsOwnCopy() {
+        ComponentConfigCache cache = new ComponentConfigCache(10);
+        V1ConfigMap resource = new V1ConfigMap();
+        resource.setMetadata(new V1ObjectMeta());
+        resource.getMetadata().setUid("uid");
+        resource.getMetadata().setResourceVersion("1");
+        Supplier<FunctionConfig> convert = () -> FunctionConfig.builder().name("function").parallelism(1).build();
+
+        FunctionConfig config = cache.get(resource, convert);
+        config.setParallelism(2);
+        FunctionConfig cached = cache.get(resource, convert);
+        assertNotSame(config, cached);
+        assertEquals(Integer.valueOf(1), cached.getParallelism());
+        assertEquals("function", cached.getName());
+    }
+
+    @Test
+    public void testResourceWithoutVersionIsAlwaysConverted() {
+        ComponentConfigCache cache = new ComponentConfigCache(10);
+        AtomicInteger conversions = new AtomicInteger();
+        V1ConfigMap resource = new V1ConfigMap();
+        cache.get(resource, conversions::incrementAndGet);
+        cache.get(resource, conversions::incrementAndGet);
+        assertEquals(2, conversions.get());
+        assertEquals(0, cache.size());
+    }
+}
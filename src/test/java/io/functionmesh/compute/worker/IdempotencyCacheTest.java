@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.pulsar.common.util.RestException;
+import org.junit.Test;
+
+public class IdempotencyCacheTest {
+    @Test
+    public void testReplaySuccess() {
+        IdempotencyCache cache = new IdempotencyCache(60000, 100, 100);
+        IdempotencyCache.Entry first = cache.begin("key", "hash");
+        assertTrue(first.isOwner());
+        first.succeed("job-1");
+
+        IdempotencyCache.Entry retry = cache.begin("key", "hash");
+        assertFalse(retry.isOwner());
+        assertEquals("job-1", retry.getResult());
+        assertTrue(cache.begin("other", "hash").isOwner());
+    }
+
+    @Test
+    public void testRunAgainAfterFailure() {
+        IdempotencyCache cache = new IdempotencyCache(60000, 100, 100);
+        cache.begin("key", "hash").fail();
+        assertTrue(cache.begin("key", "hash").isOwner());
+    }
+
+    @Test
+    public void testRetryWaitsForRunningRequest() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(60000, 100, 5000);
+        IdempotencyCache.Entry first = cache.begin("key", "hash");
+        CompletableFuture<IdempotencyCache.Entry> retry = CompletableFuture.supplyAsync(() -> cache.begin("key", "hash"));
+        Thread.sleep(100);
+        assertFalse(retry.isDone());
+        first.succeed(Boolean.TRUE);
+        assertEquals(Boolean.TRUE, retry.get(5, TimeUnit.SECONDS).getResult());
+    }
+
+    @Test
+    public void testKeyReusedForDifferentRequest() {
+        IdempotencyCache cache = new IdempotencyCache(60000, 100, 100);
+        cache.begin("key", IdempotencyCache.requestHash("config-1", null)).succeed(Boolean.TRUE);
+        assertFalse(cache.begin("key", IdempotencyCache.requestHash("config-1", null)).isOwner());
+        try {
+            cache.begin("key", IdempotencyCache.requestHash("config-2", null));
+            fail("the key was used for another request");
+        } catch (RestException e) {
+            assertEquals(IdempotencyCache.UNPROCESSABLE_ENTITY, e.getResponse().getStatus());
+        }
+    }
+
+    @Test
+    public void testRetryOfRunningRequestTimesOut() {
+        IdempotencyCache cache = new IdempotencyCache(60000, 100, 10);
+        cache.begin("key", "hash");
+        try {
+            cache.begin("key", "hash");
+            fail("the retry should time out");
+        } catch (RestException e) {
+            assertEquals(409, e.getResponse().getStatus());
+        }
+    }
+}
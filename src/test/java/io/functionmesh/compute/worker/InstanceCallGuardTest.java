@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.pulsar.common.util.FutureUtil;
+import org.junit.Test;
+
+public class InstanceCallGuardTest {
+    private static final String ADDRESS = "function-0.function.default.svc.cluster.local";
+
+    @Test
+    public void testOpenAfterConsecutiveFailuresAndProbe() throws Exception {
+        InstanceCallGuard instanceCallGuard = new InstanceCallGuard(2, 50, 100, 5000);
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            instanceCallGuard.call(ADDRESS, deadlineMs -> {
+                calls.incrementAndGet();
+                return FutureUtil.failedFuture(new RuntimeException("UNAVAILABLE"));
+            });
+        }
+        assertTrue(instanceCallGuard.isOpen(ADDRESS));
+
+        CompletableFuture<String> skipped = instanceCallGuard.call(ADDRESS, deadlineMs -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("status");
+        });
+        try {
+            skipped.get();
+            fail("calls to an unreachable instance should fail immediately");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof InstanceCallGuard.UnreachableException);
+        }
+        assertEquals(2, calls.get());
+
+        Thread.sleep(100);
+        // the probe after the open period closes the circuit again
+        assertEquals("status", instanceCallGuard.call(ADDRESS, deadlineMs -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("status");
+        }).get());
+        assertFalse(instanceCallGuard.isOpen(ADDRESS));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testDeadlineFollowsLatency() throws Exception {
+        InstanceCallGuard instanceCallGuard = new InstanceCallGuard(3, 1000, 100, 5000);
+        assertEquals(5000, instanceCallGuard.getDeadlineMs(ADDRESS));
+        for (int i = 0; i < InstanceCallGuard.MIN_LATENCY_SAMPLES; i++) {
+            instanceCallGuard.call(ADDRESS, deadlineMs -> CompletableFuture.completedFuture("status")).get();
+        }
+        // fast calls get the minimum deadline instead of the full one
+        assertEquals(100, instanceCallGuard.getDeadlineMs(ADDRESS));
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.models.V1PodList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Test;
+
+public class KubernetesAsyncClientTest {
+    // the scheduler of the client may enqueue calls as well
+    private final List<Callback> callbacks = new CopyOnWriteArrayList<>();
+
+    private KubernetesAsyncClient newClient(int maxInFlightRequests) {
+        ApiClient apiClient = mock(ApiClient.class);
+        when(apiClient.getJSON()).thenReturn(new JSON());
+        return new KubernetesAsyncClient(apiClient, maxInFlightRequests);
+    }
+
+    private Call newCall() {
+        Call call = mock(Call.class);
+        doAnswer(invocation -> {
+            callbacks.add((Callback) invocation.getArguments()[0]);
+            return null;
+        }).when(call).enqueue(any(Callback.class));
+        return call;
+    }
+
+    private Call newCall(String method) {
+        Call call = newCall();
+        when(call.request()).thenReturn(new Request.Builder()
+                .url("http://localhost/api/v1/namespaces/default/pods")
+                .method(method, "GET".equals(method) ? null : RequestBody.create(MediaType.parse("application/json"),
+                        "{}"))
+                .build());
+        return call;
+    }
+
+    private static Response response(int code, String body) {
+        return new Response.Builder()
+                .request(new Request.Builder().url("http://localhost/api/v1/namespaces/default/pods").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("test")
+                .body(ResponseBody.create(MediaType.parse("application/json"), body))
+                .build();
+    }
+
+    @Test
+    public void testBoundedInFlightRequests() throws Exception {
+        KubernetesAsyncClient client = newClient(1);
+        Call first = newCall();
+        Call second = newCall();
+        CompletableFuture<V1PodList> firstFuture = client.execute(first, V1PodList.class);
+        CompletableFuture<Void> secondFuture = client.execute(second);
+        // the second call waits for the first one
+        assertEquals(1, callbacks.size());
+
+        callbacks.get(0).onResponse(first, response(200, "{\"items\":[{\"metadata\":{\"name\":\"pod-0\"}}]}"));
+        assertEquals("pod-0", firstFuture.get().getItems().get(0).getMetadata().getName());
+        assertEquals(2, callbacks.size());
+        assertFalse(secondFuture.isDone());
+
+        callbacks.get(1).onResponse(second, response(200, "{}"));
+        assertTrue(secondFuture.isDone());
+        assertEquals(1, client.getAvailablePermits());
+        client.close();
+    }
+
+    @Test
+    public void testFailedResponse() throws Exception {
+        KubernetesAsyncClient client = newClient(2);
+        Call call = newCall();
+        CompletableFuture<Void> future = client.execute(call);
+        callbacks.get(0).onResponse(call, response(409, "{\"reason\":\"AlreadyExists\"}"));
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ApiException);
+            assertEquals(409, ((ApiException) e.getCause()).getCode());
+        }
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(2, client.getAvailablePermits());
+        client.close();
+    }
+
+    @Test
+    public void testClose() {
+        KubernetesAsyncClient client = newClient(1);
+        client.execute(newCall());
+        CompletableFuture<Void> pending = client.execute(newCall());
+        client.close();
+        assertTrue(pending.isCompletedExceptionally());
+        assertTrue(client.execute(newCall()).isCompletedExceptionally());
+    }
+
+    @Test
+    public void testRateLimitedCallsTakeTheirPermitWithAToken() {
+        AtomicLong clock = new AtomicLong();
+        KubernetesRateLimiter limiter = new KubernetesRateLimiter(10, 1, 10, 10000, clock::get);
+        ApiClient apiClient = mock(ApiClient.class);
+        OkHttpClient httpClient = mock(OkHttpClient.class);
+        when(apiClient.getJSON()).thenReturn(new JSON());
+        when(apiClient.getHttpClient()).thenReturn(httpClient);
+        List<String> sent = new CopyOnWriteArrayList<>();
+        when(httpClient.newCall(any(Request.class))).thenAnswer(invocation -> {
+            sent.add(((Request) invocation.getArguments()[0]).method());
+            return newCall();
+        });
+        KubernetesAsyncClient client = new KubernetesAsyncClient(apiClient, 2, limiter);
+        Call first = newCall("POST");
+        client.execute(first);
+        client.execute(newCall("POST"));
+        client.execute(newCall("GET"));
+        // the first call took the only token, the others wait for one without holding a permit
+        assertEquals(1, callbacks.size());
+        assertEquals(1, client.getAvailablePermits());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        callbacks.get(0).onResponse(first, response(200, "{}"));
+        assertEquals(2, sent.size());
+        assertEquals("GET", sent.get(1));
+        client.close();
+    }
+}
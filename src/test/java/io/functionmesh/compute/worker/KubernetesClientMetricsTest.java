@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.apache.pulsar.common.util.SimpleTextOutputStream;
+import org.junit.Test;
+
+public class KubernetesClientMetricsTest {
+    @Test
+    public void testResource() {
+        assertEquals("pods", KubernetesClientMetrics.resource(
+                Arrays.asList("api", "v1", "namespaces", "default", "pods", "function-0")));
+        assertEquals("functions", KubernetesClientMetrics.resource(Arrays.asList(
+                "apis", "compute.functionmesh.io", "v1alpha1", "namespaces", "default", "functions")));
+        assertEquals("namespaces", KubernetesClientMetrics.resource(
+                Arrays.asList("api", "v1", "namespaces", "default")));
+        assertEquals("nodes", KubernetesClientMetrics.resource(Arrays.asList("api", "v1", "nodes")));
+        assertEquals("statefulsets", KubernetesClientMetrics.resource(
+                Arrays.asList("apis", "apps", "v1", "statefulsets")));
+    }
+
+    @Test
+    public void testGenerate() throws Exception {
+        KubernetesClientMetrics metrics = new KubernetesClientMetrics();
+        Request request = new Request.Builder()
+                .url("https://kubernetes.default/api/v1/namespaces/default/pods/function-0")
+                .build();
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(request)).thenReturn(new Response.Builder()
+                .request(request).protocol(Protocol.HTTP_1_1).code(200).message("OK").build());
+        metrics.intercept(chain);
+        metrics.intercept(chain);
+
+        ByteBuf buf = Unpooled.buffer();
+        metrics.generate(new SimpleTextOutputStream(buf));
+        String output = buf.toString(StandardCharsets.UTF_8);
+        assertTrue(output, output.contains(KubernetesClientMetrics.METRICS_PREFIX
+                + "requests_total{method=\"GET\",resource=\"pods\",code=\"200\"} 2"));
+        assertTrue(output, output.contains(KubernetesClientMetrics.METRICS_PREFIX + "request_latency_ms_sum{"));
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.pulsar.common.util.SimpleTextOutputStream;
+import org.junit.Test;
+
+public class KubernetesRateLimiterTest {
+    @Test
+    public void testLaneOf() {
+        assertEquals(KubernetesRateLimiter.Lane.READ, KubernetesRateLimiter.Lane.of("GET"));
+        assertEquals(KubernetesRateLimiter.Lane.WRITE, KubernetesRateLimiter.Lane.of("POST"));
+        assertEquals(KubernetesRateLimiter.Lane.WRITE, KubernetesRateLimiter.Lane.of("PATCH"));
+        assertEquals(KubernetesRateLimiter.Lane.DELETE, KubernetesRateLimiter.Lane.of("DELETE"));
+    }
+
+    @Test
+    public void testBurstIsNotQueued() throws Exception {
+        KubernetesRateLimiter limiter = new KubernetesRateLimiter(1, 3, 0, 0);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.acquire(KubernetesRateLimiter.Lane.WRITE));
+        }
+        try {
+            limiter.acquire(KubernetesRateLimiter.Lane.WRITE);
+            fail("the lane is full");
+        } catch (KubernetesRateLimiter.RateLimitedException e) {
+            assertEquals(1, limiter.getRejected(KubernetesRateLimiter.Lane.WRITE));
+        }
+    }
+
+    @Test
+    public void testQueueTimeout() throws Exception {
+        KubernetesRateLimiter limiter = new KubernetesRateLimiter(0.1, 1, 10, 50);
+        limiter.acquire(KubernetesRateLimiter.Lane.READ);
+        long start = System.nanoTime();
+        try {
+            limiter.acquire(KubernetesRateLimiter.Lane.READ);
+            fail("no token within the queue time");
+        } catch (KubernetesRateLimiter.RateLimitedException e) {
+            assertTrue(System.nanoTime() - start >= 50_000_000L);
+        }
+        assertEquals(0, limiter.getQueued(KubernetesRateLimiter.Lane.READ));
+    }
+
+    @Test
+    public void testReadsBeforeWrites() throws Exception {
+        // the clock only moves when the test moves it, so no token shows up before all lanes are queued
+        AtomicLong clock = new AtomicLong();
+        KubernetesRateLimiter limiter = new KubernetesRateLimiter(20, 1, 10, 10000, clock::get);
+        limiter.acquire(KubernetesRateLimiter.Lane.DELETE);
+        List<KubernetesRateLimiter.Lane> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        KubernetesRateLimiter.Lane[] lanes = {KubernetesRateLimiter.Lane.DELETE, KubernetesRateLimiter.Lane.WRITE,
+                KubernetesRateLimiter.Lane.READ};
+        for (KubernetesRateLimiter.Lane lane : lanes) {
+            new Thread(() -> {
+                try {
+                    limiter.acquire(lane);
+                    order.add(lane);
+                } catch (Exception e) {
+                    // leave the lane out of the order
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+            while (limiter.getQueued(lane) == 0) {
+                Thread.sleep(1);
+            }
+        }
+        // one token at a time, each goes to the queued lane with the highest priority
+        while (!done.await(10, TimeUnit.MILLISECONDS)) {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        assertEquals(3, order.size());
+        assertEquals(KubernetesRateLimiter.Lane.READ, order.get(0));
+        assertEquals(KubernetesRateLimiter.Lane.WRITE, order.get(1));
+        assertEquals(KubernetesRateLimiter.Lane.DELETE, order.get(2));
+    }
+
+    @Test
+    public void testTryAcquire() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        KubernetesRateLimiter limiter = new KubernetesRateLimiter(10, 1, 10, 150, clock::get);
+        assertEquals(0, limiter.tryAcquire(KubernetesRateLimiter.Lane.WRITE, 0));
+        // the next token is 100 ms away
+        assertTrue(limiter.tryAcquire(KubernetesRateLimiter.Lane.WRITE, 0) > TimeUnit.MILLISECONDS.toNanos(90));
+        clock.set(TimeUnit.MILLISECONDS.toNanos(120));
+        assertEquals(0, limiter.tryAcquire(KubernetesRateLimiter.Lane.WRITE, 0));
+        clock.set(TimeUnit.MILLISECONDS.toNanos(150));
+        try {
+            limiter.tryAcquire(KubernetesRateLimiter.Lane.WRITE, 0);
+            fail("no token within the queue time");
+        } catch (KubernetesRateLimiter.RateLimitedException e) {
+            assertEquals(1, limiter.getRejected(KubernetesRateLimiter.Lane.WRITE));
+        }
+    }
+
+    @Test
+    public void testGenerate() throws Exception {
+        KubernetesRateLimiter limiter = new KubernetesRateLimiter(1, 1, 0, 0);
+        limiter.acquire(KubernetesRateLimiter.Lane.READ);
+        try {
+            limiter.acquire(KubernetesRateLimiter.Lane.DELETE);
+            fail("the lane is full");
+        } catch (KubernetesRateLimiter.RateLimitedException e) {
+            // expected
+        }
+        ByteBuf buf = Unpooled.buffer();
+        limiter.generate(new SimpleTextOutputStream(buf));
+        String metrics = buf.toString(StandardCharsets.UTF_8);
+        assertTrue(metrics.contains(
+                "function_mesh_kubernetes_client_rate_limiter_requests_total{lane=\"read\"} 1\n"));
+        assertTrue(metrics.contains(
+                "function_mesh_kubernetes_client_rate_limiter_rejected_total{lane=\"delete\"} 1\n"));
+        assertTrue(metrics.contains(
+                "function_mesh_kubernetes_client_rate_limiter_queued_requests{lane=\"write\"} 0\n"));
+    }
+}
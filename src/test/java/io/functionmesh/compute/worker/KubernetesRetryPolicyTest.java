@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import org.junit.Test;
+
+public class KubernetesRetryPolicyTest {
+    @Test
+    public void testIsRetryable() {
+        assertTrue(KubernetesRetryPolicy.isRetryable(429, false));
+        assertTrue(KubernetesRetryPolicy.isRetryable(503, false));
+        assertTrue(KubernetesRetryPolicy.isRetryable(500, true));
+        assertFalse(KubernetesRetryPolicy.isRetryable(500, false));
+        assertFalse(KubernetesRetryPolicy.isRetryable(400, true));
+        assertFalse(KubernetesRetryPolicy.isRetryable(409, true));
+    }
+
+    @Test
+    public void testParseRetryAfter() {
+        assertEquals(-1, KubernetesRetryPolicy.parseRetryAfterMs(null));
+        assertEquals(-1, KubernetesRetryPolicy.parseRetryAfterMs("soon"));
+        assertEquals(3000, KubernetesRetryPolicy.parseRetryAfterMs("3"));
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(60));
+        long retryAfterMs = KubernetesRetryPolicy.parseRetryAfterMs(date);
+        assertTrue(String.valueOf(retryAfterMs), retryAfterMs > 50000 && retryAfterMs <= 60000);
+    }
+
+    @Test
+    public void testMaxAttempts() {
+        KubernetesRetryPolicy.Backoff backoff = new KubernetesRetryPolicy(3, 10, 100, 10000).newBackoff();
+        assertTrue(backoff.nextDelayMs(-1) <= 10);
+        assertTrue(backoff.nextDelayMs(-1) <= 20);
+        assertEquals(-1, backoff.nextDelayMs(-1));
+        assertEquals(3, backoff.getAttempts());
+        assertEquals(-1, KubernetesRetryPolicy.NONE.newBackoff().nextDelayMs(-1));
+    }
+
+    @Test
+    public void testRetryAfterAndMaxElapsed() {
+        KubernetesRetryPolicy.Backoff backoff = new KubernetesRetryPolicy(5, 10, 100, 1000).newBackoff();
+        assertEquals(500, backoff.nextDelayMs(500));
+        // the delay the api server asked for does not fit in the total time
+        assertEquals(-1, backoff.nextDelayMs(2000));
+    }
+}
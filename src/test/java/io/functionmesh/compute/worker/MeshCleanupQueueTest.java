@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.pulsar.common.util.FutureUtil;
+import org.junit.Test;
+
+public class MeshCleanupQueueTest {
+    @Test
+    public void testRetryUntilSuccess() throws Exception {
+        MeshCleanupQueue cleanupQueue = new MeshCleanupQueue(5, 1);
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        cleanupQueue.submit("test cleanup", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                return FutureUtil.failedFuture(new RuntimeException("failed"));
+            }
+            done.countDown();
+            return CompletableFuture.completedFuture(null);
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get());
+        cleanupQueue.close();
+    }
+
+    @Test
+    public void testGiveUpAfterMaxAttempts() throws Exception {
+        MeshCleanupQueue cleanupQueue = new MeshCleanupQueue(2, 1);
+        AtomicInteger attempts = new AtomicInteger();
+        cleanupQueue.submit("test cleanup", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("failed");
+        });
+        long deadline = System.currentTimeMillis() + 10000;
+        while (cleanupQueue.getPendingTasks() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // the last retry can still be completing, give it a moment
+        Thread.sleep(100);
+        assertEquals(2, attempts.get());
+        assertEquals(0, cleanupQueue.getPendingTasks());
+        cleanupQueue.close();
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import io.functionmesh.compute.models.MeshJob;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.Response;
+import org.apache.pulsar.common.util.RestException;
+import org.junit.Test;
+
+public class MeshJobQueueTest {
+    private static MeshJob newJob() {
+        MeshJob job = new MeshJob();
+        job.setType("sinks");
+        job.setAction(MeshJob.Action.REGISTER);
+        job.setTenant("public");
+        job.setNamespace("default");
+        job.setName("sink");
+        return job;
+    }
+
+    private static MeshJob awaitDone(MeshJobQueue jobQueue, String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        MeshJob job = jobQueue.get(id);
+        while (!job.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = jobQueue.get(id);
+        }
+        return job;
+    }
+
+    @Test
+    public void testOutcome() throws Exception {
+        MeshJobQueue jobQueue = new MeshJobQueue(null, "default", 1, 10, 60000);
+        MeshJob accepted = jobQueue.submit(newJob(), () -> {
+        });
+        assertEquals(MeshJob.State.PENDING, accepted.getState());
+        MeshJob succeeded = awaitDone(jobQueue, accepted.getId());
+        assertEquals(MeshJob.State.SUCCEEDED, succeeded.getState());
+        assertEquals(200, succeeded.getCode());
+
+        MeshJob failed = awaitDone(jobQueue, jobQueue.submit(newJob(), () -> {
+            throw new RestException(Response.Status.CONFLICT, "This resource already exists");
+        }).getId());
+        assertEquals(MeshJob.State.FAILED, failed.getState());
+        assertEquals(409, failed.getCode());
+        assertEquals("This resource already exists", failed.getMessage());
+        assertNull(jobQueue.get("unknown"));
+        jobQueue.close();
+    }
+
+    @Test
+    public void testQueueFull() throws Exception {
+        MeshJobQueue jobQueue = new MeshJobQueue(null, "default", 1, 1, 60000);
+        CountDownLatch release = new CountDownLatch(1);
+        MeshJobQueue.Work blocked = () -> release.await(10, TimeUnit.SECONDS);
+        jobQueue.submit(newJob(), blocked);
+        long deadline = System.currentTimeMillis() + 10000;
+        // wait for the first job to leave the queue
+        while (jobQueue.getQueuedJobs() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        jobQueue.submit(newJob(), blocked);
+        try {
+            jobQueue.submit(newJob(), blocked);
+            fail("the queue is full");
+        } catch (RestException e) {
+            assertEquals(503, e.getResponse().getStatus());
+        }
+        release.countDown();
+        jobQueue.close();
+    }
+
+    @Test
+    public void testSweep() throws Exception {
+        MeshJobQueue jobQueue = new MeshJobQueue(null, "default", 1, 10, 0);
+        String id = jobQueue.submit(newJob(), () -> {
+        }).getId();
+        awaitDone(jobQueue, id);
+        Thread.sleep(1);
+        jobQueue.sweep();
+        assertNull(jobQueue.get(id));
+        jobQueue.close();
+    }
+
+    @Test
+    public void testRecord() throws Exception {
+        CoreV1Api coreV1Api = mock(CoreV1Api.class);
+        MeshJobQueue jobQueue = new MeshJobQueue(coreV1Api, "default", 1, 10, 60000);
+        MeshJob job = jobQueue.submit(newJob(), () -> {
+        });
+        verify(coreV1Api).createNamespacedConfigMap(eq("default"), any(V1ConfigMap.class), isNull(String.class),
+                isNull(String.class), isNull(String.class));
+        verify(coreV1Api, timeout(10000)).replaceNamespacedConfigMap(eq(MeshJobQueue.JOB_NAME_PREFIX + job.getId()),
+                eq("default"), any(V1ConfigMap.class), isNull(String.class), isNull(String.class),
+                isNull(String.class));
+        assertTrue(awaitDone(jobQueue, job.getId()).isDone());
+        jobQueue.close();
+    }
+}
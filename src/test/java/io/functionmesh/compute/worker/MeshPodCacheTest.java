@@ -0,0 +1,44 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import com.google.common.collect.ImmutableMap;
+import io.kubernetes.client.openapi.ApiClient;
+import org.junit.Test;
+
+public class MeshPodCacheTest {
+    @Test
+    public void testParseSelector() {
+        assertEquals(ImmutableMap.of("app", "function-mesh", "component", "function"),
+                MeshPodCache.parseSelector("app=function-mesh,component==function"));
+        assertNull(MeshPodCache.parseSelector(""));
+        assertNull(MeshPodCache.parseSelector("app!=function-mesh"));
+        assertNull(MeshPodCache.parseSelector("app in (function-mesh)"));
+        assertNull(MeshPodCache.parseSelector("!app"));
+    }
+
+    @Test
+    public void testListPodsBeforeSync() {
+        MeshPodCache podCache = new MeshPodCache(new ApiClient(), "default", 0);
+        // callers fall back to the api server until the informer has synced
+        assertNull(podCache.listPods("public", "default", "test", "app=function-mesh"));
+    }
+}
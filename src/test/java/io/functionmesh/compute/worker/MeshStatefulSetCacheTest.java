@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1OwnerReference;
+import io.kubernetes.client.openapi.models.V1StatefulSet;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class MeshStatefulSetCacheTest {
+    @Test
+    public void testOwnerUids() {
+        V1StatefulSet statefulSet = new V1StatefulSet().metadata(new V1ObjectMeta().ownerReferences(Arrays.asList(
+                new V1OwnerReference().uid("controller-uid").controller(true),
+                new V1OwnerReference().uid("other-uid").controller(false))));
+        assertEquals(Collections.singletonList("controller-uid"), MeshStatefulSetCache.ownerUids(statefulSet));
+        assertTrue(MeshStatefulSetCache.ownerUids(new V1StatefulSet().metadata(new V1ObjectMeta())).isEmpty());
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import io.functionmesh.compute.models.ComponentStatusSnapshot;
+import io.functionmesh.compute.util.StatusEventStreamingOutput;
+import io.kubernetes.client.openapi.ApiClient;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class MeshStatusWatcherTest {
+    private static ComponentStatusSnapshot snapshot(int readyReplicas, boolean exists) {
+        ComponentStatusSnapshot snapshot = new ComponentStatusSnapshot();
+        snapshot.setName("test-function");
+        snapshot.setExists(exists);
+        snapshot.setReplicas(2);
+        snapshot.setReadyReplicas(readyReplicas);
+        return snapshot;
+    }
+
+    @Test
+    public void testSubscriptionDropsOldestAndSkipsUnchanged() throws Exception {
+        MeshStatusWatcher statusWatcher = new MeshStatusWatcher(new ApiClient(), "default", 0, 10, 2);
+        MeshStatusWatcher.Subscription subscription =
+                statusWatcher.subscribe("functions", "public", "default", "test-function");
+        assertEquals(1, statusWatcher.getSubscriptionCount());
+
+        subscription.publish(snapshot(0, true));
+        subscription.publish(snapshot(0, true));
+        subscription.publish(snapshot(1, true));
+        subscription.publish(snapshot(2, true));
+        assertEquals(1, subscription.getDroppedUpdates());
+        assertEquals(1, subscription.poll(1, TimeUnit.SECONDS).getReadyReplicas());
+        assertEquals(2, subscription.poll(1, TimeUnit.SECONDS).getReadyReplicas());
+        assertNull(subscription.poll(10, TimeUnit.MILLISECONDS));
+
+        subscription.close();
+        assertEquals(0, statusWatcher.getSubscriptionCount());
+        statusWatcher.close();
+    }
+
+    @Test
+    public void testMaxSubscriptions() {
+        MeshStatusWatcher statusWatcher = new MeshStatusWatcher(new ApiClient(), "default", 0, 1, 2);
+        MeshStatusWatcher.Subscription subscription =
+                statusWatcher.subscribe("functions", "public", "default", "test-function");
+        assertNull(statusWatcher.subscribe("sinks", "public", "default", "test-sink"));
+        subscription.close();
+        MeshStatusWatcher.Subscription next = statusWatcher.subscribe("sinks", "public", "default", "test-sink");
+        assertFalse(next.isClosed());
+        statusWatcher.close();
+        assertTrue(next.isClosed());
+    }
+
+    @Test
+    public void testStreamEndsWhenComponentIsDeleted() throws Exception {
+        MeshStatusWatcher statusWatcher = new MeshStatusWatcher(new ApiClient(), "default", 0, 10, 4);
+        MeshStatusWatcher.Subscription subscription =
+                statusWatcher.subscribe("functions", "public", "default", "test-function");
+        subscription.publish(snapshot(2, true));
+        subscription.publish(snapshot(0, false));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new StatusEventStreamingOutput(subscription, 1000).write(output);
+        String events = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(events.startsWith("id: 1\nevent: status\ndata: {"));
+        assertTrue(events.contains("id: 2\nevent: status\n"));
+        assertTrue(events.contains("\"exists\":false"));
+        assertTrue(subscription.isClosed());
+        assertEquals(0, statusWatcher.getSubscriptionCount());
+        statusWatcher.close();
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import io.functionmesh.compute.functions.models.V1alpha1Function;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpec;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecInput;
+import io.functionmesh.compute.functions.models.V1alpha1FunctionSpecOutput;
+import io.functionmesh.compute.models.TopicComponent;
+import io.kubernetes.client.openapi.ApiClient;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class MeshTopicIndexTest {
+    @Test
+    public void testFunctionTopics() {
+        V1alpha1FunctionSpecInput input = new V1alpha1FunctionSpecInput();
+        input.setTopics(Arrays.asList("in", "persistent://public/default/in"));
+        input.setTopicPattern("persistent://public/default/in-.*");
+        V1alpha1FunctionSpecOutput output = new V1alpha1FunctionSpecOutput();
+        output.setTopic("out");
+        V1alpha1FunctionSpec spec = new V1alpha1FunctionSpec();
+        spec.setInput(input);
+        spec.setOutput(output);
+        spec.setLogTopic("persistent://public/default/log");
+        spec.setDeadLetterTopic("dlq");
+        V1alpha1Function function = new V1alpha1Function();
+        function.setSpec(spec);
+
+        List<MeshTopicIndex.TopicUse> topicUses = MeshTopicIndex.functionTopics(function);
+        // the short and the fully qualified name of the same input are one use
+        assertEquals(5, topicUses.size());
+        assertEquals(TopicComponent.Role.INPUT, topicUses.get(0).role);
+        assertEquals("persistent://public/default/in", topicUses.get(0).key);
+        assertEquals(TopicComponent.Role.INPUT_PATTERN, topicUses.get(1).role);
+        assertEquals("persistent://public/default/in-.*", topicUses.get(1).key);
+        assertEquals(TopicComponent.Role.OUTPUT, topicUses.get(2).role);
+        assertEquals("out", topicUses.get(2).topic);
+        assertEquals("persistent://public/default/out", topicUses.get(2).key);
+        assertEquals(TopicComponent.Role.LOG, topicUses.get(3).role);
+        assertEquals(TopicComponent.Role.DEAD_LETTER, topicUses.get(4).role);
+
+        assertEquals(Collections.emptyList(), MeshTopicIndex.functionTopics(new V1alpha1Function()));
+    }
+
+    @Test
+    public void testTopicNames() {
+        Set<String> topicNames = MeshTopicIndex.topicNames("public/default/in-partition-2");
+        assertEquals(2, topicNames.size());
+        assertTrue(topicNames.contains("persistent://public/default/in-partition-2"));
+        assertTrue(topicNames.contains("persistent://public/default/in"));
+        assertEquals(Collections.singleton("persistent://public/default/in"), MeshTopicIndex.topicNames("in"));
+    }
+
+    @Test
+    public void testFindBeforeSync() {
+        MeshTopicIndex topicIndex = new MeshTopicIndex(new ApiClient(), "default", 0);
+        assertEquals(Collections.emptyList(), topicIndex.find("in"));
+        topicIndex.close();
+    }
+}
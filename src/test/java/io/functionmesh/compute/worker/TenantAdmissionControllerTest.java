@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.functionmesh.compute.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+public class TenantAdmissionControllerTest {
+    @Test
+    public void testRateLimit() {
+        TenantAdmissionController controller =
+                new TenantAdmissionController(10, 10, 10, 0.5, 2, 1000, Collections.emptyMap());
+        controller.admit("a").close();
+        controller.admit("a").close();
+        try {
+            controller.admit("a");
+            fail("tenant a is over its rate");
+        } catch (TenantAdmissionController.TooManyRequestsException e) {
+            assertEquals(429, e.getResponse().getStatus());
+            assertTrue(e.getRetryAfterSeconds() >= 1);
+        }
+        // other tenants are not limited by tenant a
+        controller.admit("b").close();
+    }
+
+    @Test
+    public void testTenantConcurrency() {
+        TenantAdmissionController controller =
+                new TenantAdmissionController(10, 1, 0, 0, 1, 1000, Collections.emptyMap());
+        TenantAdmissionController.Permit permit = controller.admit("a");
+        try {
+            controller.admit("a");
+            fail("tenant a is at its concurrency limit");
+        } catch (TenantAdmissionController.TooManyRequestsException e) {
+            assertEquals(1, e.getRetryAfterSeconds());
+        }
+        controller.admit("b").close();
+        permit.close();
+        permit.close();
+        assertEquals(0, controller.getInFlight("a"));
+        controller.admit("a").close();
+    }
+
+    @Test
+    public void testQueueTimeout() {
+        TenantAdmissionController controller =
+                new TenantAdmissionController(1, 1, 10, 0, 1, 50, Collections.emptyMap());
+        TenantAdmissionController.Permit permit = controller.admit("a");
+        try {
+            controller.admit("b");
+            fail("no slot within the queue time");
+        } catch (TenantAdmissionController.TooManyRequestsException e) {
+            assertEquals(0, controller.getQueued("b"));
+        }
+        permit.close();
+    }
+
+    @Test
+    public void testFairQueuing() throws Exception {
+        TenantAdmissionController controller =
+                new TenantAdmissionController(1, 10, 10, 0, 1, 10000, Collections.emptyMap());
+        TenantAdmissionController.Permit permit = controller.admit("c");
+        List<String> order = new CopyOnWriteArrayList<>();
+        String[] tenants = {"a", "a", "a", "b"};
+        CountDownLatch done = new CountDownLatch(tenants.length);
+        for (String tenant : tenants) {
+            int queued = controller.getQueued(tenant);
+            new Thread(() -> {
+                try {
+                    TenantAdmissionController.Permit permit = controller.admit(tenant);
+                    try {
+                        order.add(tenant);
+                    } finally {
+                        permit.close();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+            while (controller.getQueued(tenant) == queued) {
+                Thread.sleep(1);
+            }
+        }
+        permit.close();
+        done.await();
+        assertEquals(4, order.size());
+        // b queued after all requests of a but is admitted before the second one
+        assertTrue(order.toString(), order.indexOf("b") < 2);
+    }
+}